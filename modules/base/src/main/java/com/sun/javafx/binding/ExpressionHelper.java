@@ -193,7 +193,11 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
         private ChangeListener<? super T>[] changeListeners;
         private int invalidationSize;
         private int changeSize;
-        private boolean locked;
+        // The arrays that fireValueChangedEvent is iterating over. They are
+        // copied before the first modification, later modifications of the
+        // copies during the same notification are done in place.
+        private InvalidationListener[] firingInvalidationListeners;
+        private ChangeListener<? super T>[] firingChangeListeners;
         private T currentValue;
 
         private Generic(ObservableValue<T> observable, InvalidationListener listener0, InvalidationListener listener1) {
@@ -225,7 +229,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                 invalidationSize = 1;
             } else {
                 final int oldCapacity = invalidationListeners.length;
-                if (locked) {
+                if (invalidationListeners == firingInvalidationListeners) {
                     final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
                 } else if (invalidationSize == oldCapacity) {
@@ -256,7 +260,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = invalidationSize - index - 1;
                             final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
+                            if (invalidationListeners == firingInvalidationListeners) {
                                 invalidationListeners = new InvalidationListener[invalidationListeners.length];
                                 System.arraycopy(oldListeners, 0, invalidationListeners, 0, index);
                             }
@@ -264,7 +268,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
                             }
                             invalidationSize--;
-                            if (!locked) {
+                            if (invalidationListeners != firingInvalidationListeners) {
                                 invalidationListeners[invalidationSize] = null; // Let gc do its work
                             }
                         }
@@ -282,7 +286,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                 changeSize = 1;
             } else {
                 final int oldCapacity = changeListeners.length;
-                if (locked) {
+                if (changeListeners == firingChangeListeners) {
                     final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     changeListeners = Arrays.copyOf(changeListeners, newCapacity);
                 } else if (changeSize == oldCapacity) {
@@ -316,7 +320,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = changeSize - index - 1;
                             final ChangeListener<? super T>[] oldListeners = changeListeners;
-                            if (locked) {
+                            if (changeListeners == firingChangeListeners) {
                                 changeListeners = new ChangeListener[changeListeners.length];
                                 System.arraycopy(oldListeners, 0, changeListeners, 0, index);
                             }
@@ -324,7 +328,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
                             }
                             changeSize--;
-                            if (!locked) {
+                            if (changeListeners != firingChangeListeners) {
                                 changeListeners[changeSize] = null; // Let gc do its work
                             }
                         }
@@ -342,8 +346,11 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
             final ChangeListener<? super T>[] curChangeList = changeListeners;
             final int curChangeSize = changeSize;
 
+            final InvalidationListener[] prevFiringInvalidationListeners = firingInvalidationListeners;
+            final ChangeListener<? super T>[] prevFiringChangeListeners = firingChangeListeners;
             try {
-                locked = true;
+                firingInvalidationListeners = curInvalidationList;
+                firingChangeListeners = curChangeList;
                 for (int i = 0; i < curInvalidationSize; i++) {
                     try {
                         curInvalidationList[i].invalidated(observable);
@@ -366,7 +373,8 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                     }
                 }
             } finally {
-                locked = false;
+                firingInvalidationListeners = prevFiringInvalidationListeners;
+                firingChangeListeners = prevFiringChangeListeners;
             }
         }
     }
@@ -174,7 +174,11 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
         private ListChangeListener<? super E>[] changeListeners;
         private int invalidationSize;
         private int changeSize;
-        private boolean locked;
+        // The arrays that fireValueChangedEvent is iterating over. They are
+        // copied before the first modification, later modifications of the
+        // copies during the same notification are done in place.
+        private InvalidationListener[] firingInvalidationListeners;
+        private ListChangeListener<? super E>[] firingChangeListeners;
 
         private Generic(InvalidationListener listener0, InvalidationListener listener1) {
             this.invalidationListeners = new InvalidationListener[] {listener0, listener1};
@@ -200,7 +204,7 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                 invalidationSize = 1;
             } else {
                 final int oldCapacity = invalidationListeners.length;
-                if (locked) {
+                if (invalidationListeners == firingInvalidationListeners) {
                     final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
                 } else if (invalidationSize == oldCapacity) {
@@ -231,7 +235,7 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = invalidationSize - index - 1;
                             final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
+                            if (invalidationListeners == firingInvalidationListeners) {
                                 invalidationListeners = new InvalidationListener[invalidationListeners.length];
                                 System.arraycopy(oldListeners, 0, invalidationListeners, 0, index);
                             }
@@ -239,7 +243,7 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
                             }
                             invalidationSize--;
-                            if (!locked) {
+                            if (invalidationListeners != firingInvalidationListeners) {
                                 invalidationListeners[invalidationSize] = null; // Let gc do its work
                             }
                         }
@@ -257,7 +261,7 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                 changeSize = 1;
             } else {
                 final int oldCapacity = changeListeners.length;
-                if (locked) {
+                if (changeListeners == firingChangeListeners) {
                     final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     changeListeners = Arrays.copyOf(changeListeners, newCapacity);
                 } else if (changeSize == oldCapacity) {
@@ -288,7 +292,7 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = changeSize - index - 1;
                             final ListChangeListener<? super E>[] oldListeners = changeListeners;
-                            if (locked) {
+                            if (changeListeners == firingChangeListeners) {
                                 changeListeners = new ListChangeListener[changeListeners.length];
                                 System.arraycopy(oldListeners, 0, changeListeners, 0, index);
                             }
@@ -296,7 +300,7 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
                             }
                             changeSize--;
-                            if (!locked) {
+                            if (changeListeners != firingChangeListeners) {
                                 changeListeners[changeSize] = null; // Let gc do its work
                             }
                         }
@@ -314,8 +318,11 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
             final ListChangeListener<? super E>[] curChangeList = changeListeners;
             final int curChangeSize = changeSize;
 
+            final InvalidationListener[] prevFiringInvalidationListeners = firingInvalidationListeners;
+            final ListChangeListener<? super E>[] prevFiringChangeListeners = firingChangeListeners;
             try {
-                locked = true;
+                firingInvalidationListeners = curInvalidationList;
+                firingChangeListeners = curChangeList;
                 for (int i = 0; i < curInvalidationSize; i++) {
                     try {
                         curInvalidationList[i].invalidated(change.getList());
@@ -332,7 +339,8 @@ public abstract class ListListenerHelper<E> extends ExpressionHelperBase {
                     }
                 }
             } finally {
-                locked = false;
+                firingInvalidationListeners = prevFiringInvalidationListeners;
+                firingChangeListeners = prevFiringChangeListeners;
             }
         }
     }
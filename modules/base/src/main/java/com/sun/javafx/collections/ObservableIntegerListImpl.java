@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import javafx.collections.ModifiableObservableListBase;
+import javafx.collections.ObservableIntegerList;
+
+/**
+ * ObservableIntegerList default implementation.
+ */
+public final class ObservableIntegerListImpl extends ModifiableObservableListBase<Integer>
+        implements ObservableIntegerList, RandomAccess {
+
+    private static final int[] INITIAL = new int[0];
+
+    private int[] array = INITIAL;
+    private int size = 0;
+
+    /**
+     * Creates empty observable int list
+     */
+    public ObservableIntegerListImpl() {
+    }
+
+    /**
+     * Creates observable int list with copy of given initial values
+     * @param elements initial values to copy to observable int list
+     */
+    public ObservableIntegerListImpl(int... elements) {
+        array = elements.clone();
+        size = elements.length;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getInt(int index) {
+        rangeCheck(index);
+        return array[index];
+    }
+
+    @Override
+    public int setInt(int index, int value) {
+        rangeCheck(index);
+        final int old = array[index];
+        if (changed(old, value)) {
+            array[index] = value;
+            if (hasListeners()) {
+                beginChange();
+                nextSet(index, old);
+                endChange();
+            }
+        }
+        return old;
+    }
+
+    @Override
+    protected void doAdd(int index, Integer element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        final int value = element;
+        insertSpace(index, 1);
+        array[index] = value;
+    }
+
+    @Override
+    protected Integer doSet(int index, Integer element) {
+        rangeCheck(index);
+        final int old = array[index];
+        array[index] = element;
+        return old;
+    }
+
+    @Override
+    protected Integer doRemove(int index) {
+        rangeCheck(index);
+        final int old = array[index];
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        --size;
+        return old;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+        return addAll(size, c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Integer> c) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        final int[] values = new int[c.size()];
+        int i = 0;
+        for (Integer d : c) {
+            values[i++] = d;
+        }
+        addAll(index, values, 0, values.length);
+        return values.length != 0;
+    }
+
+    @Override
+    public void addAll(int[] elements) {
+        addAll(size, elements, 0, elements.length);
+    }
+
+    @Override
+    public void addAll(int[] src, int srcIndex, int length) {
+        addAll(size, src, srcIndex, length);
+    }
+
+    @Override
+    public void addAll(int index, int[] src, int srcIndex, int length) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        rangeCheck(src.length, srcIndex, length);
+        if (length == 0) {
+            return;
+        }
+        insertSpace(index, length);
+        System.arraycopy(src, srcIndex, array, index, length);
+        ++modCount;
+        if (hasListeners()) {
+            beginChange();
+            nextAdd(index, index + length);
+            endChange();
+        }
+    }
+
+    @Override
+    public boolean setAll(Collection<? extends Integer> col) {
+        final int[] values = new int[col.size()];
+        int i = 0;
+        for (Integer d : col) {
+            values[i++] = d;
+        }
+        setAll(values, 0, values.length);
+        return true;
+    }
+
+    @Override
+    public void setAll(int[] elements) {
+        setAll(elements, 0, elements.length);
+    }
+
+    @Override
+    public void setAll(int[] src, int srcIndex, int length) {
+        rangeCheck(src.length, srcIndex, length);
+        final List<Integer> removed = removedView(0, size);
+        if (array.length < length) {
+            array = new int[length];
+        }
+        System.arraycopy(src, srcIndex, array, 0, length);
+        final int oldSize = size;
+        size = length;
+        ++modCount;
+        if (hasListeners() && (oldSize != 0 || length != 0)) {
+            beginChange();
+            if (oldSize != 0) {
+                nextRemove(0, removed);
+            }
+            if (length != 0) {
+                nextAdd(0, length);
+            }
+            endChange();
+        }
+    }
+
+    @Override
+    public void set(int destIndex, int[] src, int srcIndex, int length) {
+        rangeCheck(size, destIndex, length);
+        rangeCheck(src.length, srcIndex, length);
+        if (length == 0) {
+            return;
+        }
+        final List<Integer> removed = removedView(destIndex, destIndex + length);
+        System.arraycopy(src, srcIndex, array, destIndex, length);
+        if (hasListeners()) {
+            beginChange();
+            nextReplace(destIndex, destIndex + length, removed);
+            endChange();
+        }
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        final List<Integer> removed = removedView(fromIndex, toIndex);
+        System.arraycopy(array, toIndex, array, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        ++modCount;
+        if (hasListeners()) {
+            beginChange();
+            nextRemove(fromIndex, removed);
+            endChange();
+        }
+    }
+
+    @Override
+    public void copyTo(int srcIndex, int[] dest, int destIndex, int length) {
+        rangeCheck(size, srcIndex, length);
+        System.arraycopy(array, srcIndex, dest, destIndex, length);
+    }
+
+    @Override
+    public int[] toArray(int[] dest) {
+        if ((dest == null) || (size > dest.length)) {
+            dest = new int[size];
+        }
+        System.arraycopy(array, 0, dest, 0, size);
+        return dest;
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (array.length < capacity) {
+            array = Arrays.copyOf(array, capacity);
+        }
+    }
+
+    @Override
+    public void trimToSize() {
+        if (array.length != size) {
+            array = Arrays.copyOf(array, size);
+        }
+    }
+
+    private void insertSpace(int index, int length) {
+        final int newSize = size + length;
+        if (array.length < newSize) {
+            final int newCapacity = Math.max(newSize, array.length + (array.length >> 1) + 1);
+            array = Arrays.copyOf(array, newCapacity);
+        }
+        System.arraycopy(array, index, array, index + length, size - index);
+        size = newSize;
+    }
+
+    /**
+     * Returns a list of the values in the given range, copied only if there
+     * are listeners to report them to. The values are boxed on access.
+     */
+    private List<Integer> removedView(int from, int to) {
+        if (!hasListeners() || from == to) {
+            return Collections.emptyList();
+        }
+        return new IntegerArrayView(Arrays.copyOfRange(array, from, to));
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static void rangeCheck(int arrayLength, int from, int length) {
+        if (from < 0 || length < 0 || from + length > arrayLength) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + length + ", Size: " + arrayLength);
+        }
+    }
+
+    private static boolean changed(int a, int b) {
+        return a != b;
+    }
+
+    private static final class IntegerArrayView extends AbstractList<Integer> implements RandomAccess {
+        private final int[] values;
+
+        IntegerArrayView(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
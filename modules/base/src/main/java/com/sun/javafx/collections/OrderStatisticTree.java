@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.collections;
+
+import java.util.Comparator;
+
+/**
+ * A randomized balanced binary tree (treap) that keeps its values in a list
+ * order and indexes them by position. Lookups by position, insertion and
+ * removal of a node and computing the position of a node all take
+ * O(log n) expected time. Nodes keep a link to their parent, so a node can be
+ * held on to and its position queried after any number of changes to the tree.
+ * <p>
+ * Nodes can also be marked, in which case the tree additionally indexes the
+ * subsequence of marked nodes with the same time bounds.
+ */
+public final class OrderStatisticTree<T> {
+
+    /**
+     * A node of the tree. Nodes are created by the tree and stay valid until
+     * they are removed.
+     */
+    public static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private Node<T> left;
+        private Node<T> right;
+        private Node<T> parent;
+        private int size = 1;
+        private boolean marked;
+        private int markedSize;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isMarked() {
+            return marked;
+        }
+    }
+
+    private Node<T> root;
+    private int seed = 0x2545F491;
+
+    // results of split(), kept in fields to avoid allocating a pair
+    private Node<T> splitLeft;
+    private Node<T> splitRight;
+
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    /**
+     * Returns the number of marked nodes.
+     */
+    public int markedSize() {
+        return markedSize(root);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Returns the node at the given position.
+     */
+    public Node<T> get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        Node<T> n = root;
+        while (true) {
+            final int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                n = n.right;
+            } else {
+                return n;
+            }
+        }
+    }
+
+    /**
+     * Returns the marked node at the given position among the marked nodes.
+     */
+    public Node<T> getMarked(int index) {
+        if (index < 0 || index >= markedSize()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        Node<T> n = root;
+        while (true) {
+            final int leftSize = markedSize(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (n.marked && index == leftSize) {
+                return n;
+            } else {
+                index -= leftSize + (n.marked ? 1 : 0);
+                n = n.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of marked nodes that precede the node, which must be
+     * part of this tree. For a marked node this is its position among the
+     * marked nodes.
+     */
+    public int markedIndexOf(Node<T> node) {
+        int index = markedSize(node.left);
+        for (Node<T> n = node; n.parent != null; n = n.parent) {
+            if (n == n.parent.right) {
+                index += markedSize(n.parent.left) + (n.parent.marked ? 1 : 0);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Marks or unmarks the node, which must be part of this tree.
+     */
+    public void setMarked(Node<T> node, boolean marked) {
+        if (node.marked != marked) {
+            node.marked = marked;
+            final int delta = marked ? 1 : -1;
+            for (Node<T> n = node; n != null; n = n.parent) {
+                n.markedSize += delta;
+            }
+        }
+    }
+
+    /**
+     * Returns the current position of the node, which must be part of this tree.
+     */
+    public int indexOf(Node<T> node) {
+        int index = size(node.left);
+        for (Node<T> n = node; n.parent != null; n = n.parent) {
+            if (n == n.parent.right) {
+                index += size(n.parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Inserts the value at the given position and returns its node.
+     */
+    public Node<T> insert(int index, T value) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        final Node<T> node = new Node<>(value, nextPriority());
+        split(root, index);
+        final Node<T> right = splitRight;
+        root = merge(merge(splitLeft, node), right);
+        root.parent = null;
+        return node;
+    }
+
+    /**
+     * Inserts the value after all the values that do not compare greater than
+     * it and returns its node. The tree must be ordered by the comparator.
+     */
+    public Node<T> insert(T value, Comparator<? super T> comparator) {
+        return insert(upperBound(value, comparator), value);
+    }
+
+    /**
+     * Returns the position of the first value that compares greater than the
+     * given value. The tree must be ordered by the comparator.
+     */
+    public int upperBound(T value, Comparator<? super T> comparator) {
+        int index = 0;
+        Node<T> n = root;
+        while (n != null) {
+            if (comparator.compare(value, n.value) < 0) {
+                n = n.left;
+            } else {
+                index += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Removes the node, which must be part of this tree.
+     */
+    public void remove(Node<T> node) {
+        final Node<T> replacement = merge(node.left, node.right);
+        final Node<T> p = node.parent;
+        if (replacement != null) {
+            replacement.parent = p;
+        }
+        if (p == null) {
+            root = replacement;
+        } else {
+            if (p.left == node) {
+                p.left = replacement;
+            } else {
+                p.right = replacement;
+            }
+            for (Node<T> n = p; n != null; n = n.parent) {
+                n.size--;
+                if (node.marked) {
+                    n.markedSize--;
+                }
+            }
+        }
+        node.left = node.right = node.parent = null;
+        node.size = 1;
+        node.markedSize = node.marked ? 1 : 0;
+    }
+
+    /**
+     * Returns the node following the given one, or null for the last node.
+     */
+    public Node<T> next(Node<T> node) {
+        if (node.right != null) {
+            Node<T> n = node.right;
+            while (n.left != null) {
+                n = n.left;
+            }
+            return n;
+        }
+        Node<T> n = node;
+        while (n.parent != null && n == n.parent.right) {
+            n = n.parent;
+        }
+        return n.parent;
+    }
+
+    /**
+     * Returns the first node, or null if the tree is empty.
+     */
+    public Node<T> first() {
+        Node<T> n = root;
+        if (n != null) {
+            while (n.left != null) {
+                n = n.left;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Replaces the content of this tree with the given values in O(n) time.
+     * The created nodes are stored back in the {@code nodes} array, which
+     * must have room for {@code count} elements unless it is null.
+     */
+    public void setAll(T[] values, Node<T>[] nodes, int count) {
+        setAll(values, null, nodes, count);
+    }
+
+    /**
+     * Replaces the content of this tree with the given values in O(n) time,
+     * marking the nodes of the values whose {@code marked} flag is set. The
+     * flags may be null if no node is to be marked.
+     */
+    @SuppressWarnings("unchecked")
+    public void setAll(T[] values, boolean[] marked, Node<T>[] nodes, int count) {
+        // builds the Cartesian tree of the random priorities on a stack
+        // holding the right spine of the tree
+        final Node<T>[] spine = new Node[Math.max(count, 1)];
+        int top = 0;
+        for (int i = 0; i < count; ++i) {
+            final Node<T> node = new Node<>(values[i], nextPriority());
+            node.marked = marked != null && marked[i];
+            Node<T> last = null;
+            while (top > 0 && spine[top - 1].priority < node.priority) {
+                last = spine[--top];
+            }
+            node.left = last;
+            if (top > 0) {
+                spine[top - 1].right = node;
+            }
+            spine[top++] = node;
+            if (nodes != null) {
+                nodes[i] = node;
+            }
+        }
+        root = top > 0 ? spine[0] : null;
+        if (root != null) {
+            updateAll(root);
+            root.parent = null;
+        }
+    }
+
+    private void updateAll(Node<T> n) {
+        if (n.left != null) {
+            updateAll(n.left);
+        }
+        if (n.right != null) {
+            updateAll(n.right);
+        }
+        update(n);
+    }
+
+    private void split(Node<T> n, int index) {
+        if (n == null) {
+            splitLeft = splitRight = null;
+            return;
+        }
+        final int leftSize = size(n.left);
+        if (index <= leftSize) {
+            split(n.left, index);
+            n.left = splitRight;
+            update(n);
+            splitRight = n;
+        } else {
+            split(n.right, index - leftSize - 1);
+            n.right = splitLeft;
+            update(n);
+            splitLeft = n;
+        }
+        n.parent = null;
+    }
+
+    private Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            update(b);
+            return b;
+        }
+    }
+
+    private static <T> void update(Node<T> n) {
+        n.size = 1;
+        n.markedSize = n.marked ? 1 : 0;
+        if (n.left != null) {
+            n.size += n.left.size;
+            n.markedSize += n.left.markedSize;
+            n.left.parent = n;
+        }
+        if (n.right != null) {
+            n.size += n.right.size;
+            n.markedSize += n.right.markedSize;
+            n.right.parent = n;
+        }
+    }
+
+    private static int size(Node<?> n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int markedSize(Node<?> n) {
+        return n == null ? 0 : n.markedSize;
+    }
+
+    private int nextPriority() {
+        // xorshift32
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        return seed = x;
+    }
+}
@@ -0,0 +1,591 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.beans.binding;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.beans.Observable;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.beans.value.ObservableNumberValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import com.sun.javafx.collections.ImmutableObservableList;
+import com.sun.javafx.collections.annotations.ReturnsUnmodifiableCollection;
+
+/**
+ * An arithmetic expression that is turned into a single {@link DoubleBinding}.
+ * <p>
+ * Every operation of the fluent binding API and of {@link Bindings} creates a
+ * binding of its own, so a formula with ten operators results in ten bindings,
+ * each with its own listeners, and an invalidation has to pass through all of
+ * them. A {@code FusedExpression} only describes the formula. Calling
+ * {@link #toBinding()} compiles it into one binding that listens to every
+ * distinct observable the formula uses once and evaluates the whole formula
+ * directly when its value is requested:
+ * <pre>
+ * DoubleBinding total = FusedExpression.of(price)
+ *         .multiply(quantity)
+ *         .subtract(FusedExpression.when(discounted, FusedExpression.of(discount), FusedExpression.constant(0)))
+ *         .max(FusedExpression.constant(0))
+ *         .toBinding();
+ * </pre>
+ * <p>
+ * The formula is evaluated with {@code double} arithmetic, the values of the
+ * observables are read with {@link ObservableNumberValue#doubleValue()}. In
+ * particular a division is never an integer division, unlike
+ * {@link Bindings#divide(javafx.beans.value.ObservableIntegerValue, javafx.beans.value.ObservableIntegerValue)}.
+ * <p>
+ * A {@code FusedExpression} is immutable and can be shared between formulas
+ * and compiled any number of times.
+ *
+ * @since JavaFX 8u152
+ */
+public final class FusedExpression {
+
+    // node kinds, which are also the operation codes of the compiled program
+    private static final int CONSTANT = 0;
+    private static final int VALUE = 1;
+    private static final int ADD = 2;
+    private static final int SUBTRACT = 3;
+    private static final int MULTIPLY = 4;
+    private static final int DIVIDE = 5;
+    private static final int NEGATE = 6;
+    private static final int MIN = 7;
+    private static final int MAX = 8;
+    private static final int WHEN = 9;
+    // only used in compiled programs
+    private static final int JUMP = 10;
+
+    private final int kind;
+    private final double constant;
+    private final Observable observable;
+    private final FusedExpression left;
+    private final FusedExpression right;
+
+    private FusedExpression(int kind, double constant, Observable observable,
+            FusedExpression left, FusedExpression right) {
+        this.kind = kind;
+        this.constant = constant;
+        this.observable = observable;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Creates an expression for the value of an {@link ObservableNumberValue}.
+     *
+     * @param value
+     *            the {@code ObservableNumberValue}
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code value} is {@code null}
+     */
+    public static FusedExpression of(ObservableNumberValue value) {
+        if (value == null) {
+            throw new NullPointerException("Operand cannot be null.");
+        }
+        return new FusedExpression(VALUE, 0.0, value, null, null);
+    }
+
+    /**
+     * Creates an expression for a constant value.
+     *
+     * @param value
+     *            the constant value
+     * @return the new {@code FusedExpression}
+     */
+    public static FusedExpression constant(double value) {
+        return new FusedExpression(CONSTANT, value, null, null, null);
+    }
+
+    /**
+     * Creates a ternary expression, that has the value of {@code then} if
+     * {@code condition} is {@code true} and the value of {@code otherwise}
+     * if it is {@code false}. Only the expression that is selected is
+     * evaluated.
+     *
+     * @param condition
+     *            the condition
+     * @param then
+     *            the expression used if the condition is {@code true}
+     * @param otherwise
+     *            the expression used if the condition is {@code false}
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if one of the arguments is {@code null}
+     */
+    public static FusedExpression when(ObservableBooleanValue condition,
+            FusedExpression then, FusedExpression otherwise) {
+        if ((condition == null) || (then == null) || (otherwise == null)) {
+            throw new NullPointerException("Operands cannot be null.");
+        }
+        return new FusedExpression(WHEN, 0.0, condition, then, otherwise);
+    }
+
+    private FusedExpression binary(int kind, FusedExpression other) {
+        if (other == null) {
+            throw new NullPointerException("Operand cannot be null.");
+        }
+        return new FusedExpression(kind, 0.0, null, this, other);
+    }
+
+    /**
+     * Creates an expression for the sum of this expression and another one.
+     *
+     * @param other
+     *            the second summand
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression add(FusedExpression other) {
+        return binary(ADD, other);
+    }
+
+    /**
+     * Creates an expression for the sum of this expression and the value of
+     * an {@link ObservableNumberValue}.
+     *
+     * @param other
+     *            the second summand
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression add(ObservableNumberValue other) {
+        return binary(ADD, of(other));
+    }
+
+    /**
+     * Creates an expression for the sum of this expression and a constant
+     * value.
+     *
+     * @param other
+     *            the second summand
+     * @return the new {@code FusedExpression}
+     */
+    public FusedExpression add(double other) {
+        return binary(ADD, constant(other));
+    }
+
+    /**
+     * Creates an expression for the difference of this expression and
+     * another one.
+     *
+     * @param other
+     *            the subtrahend
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression subtract(FusedExpression other) {
+        return binary(SUBTRACT, other);
+    }
+
+    /**
+     * Creates an expression for the difference of this expression and the
+     * value of an {@link ObservableNumberValue}.
+     *
+     * @param other
+     *            the subtrahend
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression subtract(ObservableNumberValue other) {
+        return binary(SUBTRACT, of(other));
+    }
+
+    /**
+     * Creates an expression for the difference of this expression and a
+     * constant value.
+     *
+     * @param other
+     *            the subtrahend
+     * @return the new {@code FusedExpression}
+     */
+    public FusedExpression subtract(double other) {
+        return binary(SUBTRACT, constant(other));
+    }
+
+    /**
+     * Creates an expression for the product of this expression and another
+     * one.
+     *
+     * @param other
+     *            the second factor
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression multiply(FusedExpression other) {
+        return binary(MULTIPLY, other);
+    }
+
+    /**
+     * Creates an expression for the product of this expression and the
+     * value of an {@link ObservableNumberValue}.
+     *
+     * @param other
+     *            the second factor
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression multiply(ObservableNumberValue other) {
+        return binary(MULTIPLY, of(other));
+    }
+
+    /**
+     * Creates an expression for the product of this expression and a
+     * constant value.
+     *
+     * @param other
+     *            the second factor
+     * @return the new {@code FusedExpression}
+     */
+    public FusedExpression multiply(double other) {
+        return binary(MULTIPLY, constant(other));
+    }
+
+    /**
+     * Creates an expression for the division of this expression by another
+     * one.
+     *
+     * @param other
+     *            the divisor
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression divide(FusedExpression other) {
+        return binary(DIVIDE, other);
+    }
+
+    /**
+     * Creates an expression for the division of this expression by the
+     * value of an {@link ObservableNumberValue}.
+     *
+     * @param other
+     *            the divisor
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression divide(ObservableNumberValue other) {
+        return binary(DIVIDE, of(other));
+    }
+
+    /**
+     * Creates an expression for the division of this expression by a
+     * constant value.
+     *
+     * @param other
+     *            the divisor
+     * @return the new {@code FusedExpression}
+     */
+    public FusedExpression divide(double other) {
+        return binary(DIVIDE, constant(other));
+    }
+
+    /**
+     * Creates an expression for the negation of this expression.
+     *
+     * @return the new {@code FusedExpression}
+     */
+    public FusedExpression negate() {
+        return new FusedExpression(NEGATE, 0.0, null, this, null);
+    }
+
+    /**
+     * Creates an expression for the minimum of this expression and another
+     * one.
+     *
+     * @param other
+     *            the other expression
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression min(FusedExpression other) {
+        return binary(MIN, other);
+    }
+
+    /**
+     * Creates an expression for the maximum of this expression and another
+     * one.
+     *
+     * @param other
+     *            the other expression
+     * @return the new {@code FusedExpression}
+     * @throws NullPointerException
+     *             if {@code other} is {@code null}
+     */
+    public FusedExpression max(FusedExpression other) {
+        return binary(MAX, other);
+    }
+
+    /**
+     * Compiles this expression into a new {@link DoubleBinding}. The binding
+     * depends on every distinct observable used in the expression, no matter
+     * how often it is used, and it is the only binding created.
+     *
+     * @return the new {@code DoubleBinding}
+     */
+    public DoubleBinding toBinding() {
+        final Compiler compiler = new Compiler();
+        compiler.compile(this);
+        return new CompiledBinding(compiler);
+    }
+
+    /**
+     * Translates the expression tree into a program for a small stack
+     * machine. Operands are pushed in evaluation order, operators replace
+     * the top of the stack by their result. A ternary expression is
+     * compiled to a conditional jump over the {@code then} branch, which
+     * ends with a jump over the {@code otherwise} branch.
+     */
+    private static final class Compiler {
+        private int[] code = new int[16];
+        private int length;
+        private final List<Double> constants = new ArrayList<Double>();
+        private final List<Observable> dependencies = new ArrayList<Observable>();
+        private final Map<Observable, Integer> slots = new IdentityHashMap<Observable, Integer>();
+        private int depth;
+        private int maxDepth;
+
+        private void emit(int value) {
+            if (length == code.length) {
+                final int[] newCode = new int[length * 2];
+                System.arraycopy(code, 0, newCode, 0, length);
+                code = newCode;
+            }
+            code[length++] = value;
+        }
+
+        private int slot(Observable observable) {
+            Integer slot = slots.get(observable);
+            if (slot == null) {
+                slot = dependencies.size();
+                dependencies.add(observable);
+                slots.put(observable, slot);
+            }
+            return slot;
+        }
+
+        private void push() {
+            if (++depth > maxDepth) {
+                maxDepth = depth;
+            }
+        }
+
+        /*
+         * A node of the expression tree that is being compiled. step counts
+         * the operands that have been compiled so far.
+         */
+        private static final class Frame {
+            final FusedExpression expression;
+            int step;
+            int otherwiseTarget;
+            int endTarget;
+            int depthBefore;
+
+            Frame(FusedExpression expression) {
+                this.expression = expression;
+            }
+        }
+
+        // Formulas can be nested arbitrarily deep, so the tree is walked
+        // with a stack of its own rather than by recursion
+        void compile(FusedExpression root) {
+            final List<Frame> frames = new ArrayList<Frame>();
+            frames.add(new Frame(root));
+            while (!frames.isEmpty()) {
+                final Frame frame = frames.get(frames.size() - 1);
+                final FusedExpression e = frame.expression;
+                FusedExpression operand = null;
+                switch (e.kind) {
+                    case CONSTANT:
+                        emit(CONSTANT);
+                        emit(constants.size());
+                        constants.add(e.constant);
+                        push();
+                        break;
+                    case VALUE:
+                        emit(VALUE);
+                        emit(slot(e.observable));
+                        push();
+                        break;
+                    case NEGATE:
+                        if (frame.step++ == 0) {
+                            operand = e.left;
+                        } else {
+                            emit(NEGATE);
+                        }
+                        break;
+                    case WHEN:
+                        switch (frame.step++) {
+                            case 0:
+                                emit(WHEN);
+                                emit(slot(e.observable));
+                                frame.otherwiseTarget = length;
+                                emit(0);
+                                frame.depthBefore = depth;
+                                operand = e.left;
+                                break;
+                            case 1:
+                                emit(JUMP);
+                                frame.endTarget = length;
+                                emit(0);
+                                code[frame.otherwiseTarget] = length;
+                                // only one of the branches is evaluated
+                                depth = frame.depthBefore;
+                                operand = e.right;
+                                break;
+                            default:
+                                code[frame.endTarget] = length;
+                                break;
+                        }
+                        break;
+                    default:
+                        switch (frame.step++) {
+                            case 0:
+                                operand = e.left;
+                                break;
+                            case 1:
+                                operand = e.right;
+                                break;
+                            default:
+                                emit(e.kind);
+                                depth--;
+                                break;
+                        }
+                        break;
+                }
+                if (operand != null) {
+                    frames.add(new Frame(operand));
+                } else {
+                    frames.remove(frames.size() - 1);
+                }
+            }
+        }
+    }
+
+    private static final class CompiledBinding extends DoubleBinding {
+        private final int[] code;
+        private final double[] constants;
+        private final Observable[] dependencies;
+        private final double[] stack;
+
+        CompiledBinding(Compiler compiler) {
+            code = new int[compiler.length];
+            System.arraycopy(compiler.code, 0, code, 0, compiler.length);
+            constants = new double[compiler.constants.size()];
+            for (int i = 0; i < constants.length; i++) {
+                constants[i] = compiler.constants.get(i);
+            }
+            dependencies = compiler.dependencies.toArray(new Observable[compiler.dependencies.size()]);
+            stack = new double[compiler.maxDepth];
+            bind(dependencies);
+        }
+
+        @Override
+        protected double computeValue() {
+            final int[] code = this.code;
+            final double[] stack = this.stack;
+            int sp = 0;
+            int pc = 0;
+            while (pc < code.length) {
+                switch (code[pc++]) {
+                    case CONSTANT:
+                        stack[sp++] = constants[code[pc++]];
+                        break;
+                    case VALUE:
+                        stack[sp++] = ((ObservableNumberValue) dependencies[code[pc++]]).doubleValue();
+                        break;
+                    case ADD:
+                        sp--;
+                        stack[sp - 1] += stack[sp];
+                        break;
+                    case SUBTRACT:
+                        sp--;
+                        stack[sp - 1] -= stack[sp];
+                        break;
+                    case MULTIPLY:
+                        sp--;
+                        stack[sp - 1] *= stack[sp];
+                        break;
+                    case DIVIDE:
+                        sp--;
+                        stack[sp - 1] /= stack[sp];
+                        break;
+                    case NEGATE:
+                        stack[sp - 1] = -stack[sp - 1];
+                        break;
+                    case MIN:
+                        sp--;
+                        stack[sp - 1] = Math.min(stack[sp - 1], stack[sp]);
+                        break;
+                    case MAX:
+                        sp--;
+                        stack[sp - 1] = Math.max(stack[sp - 1], stack[sp]);
+                        break;
+                    case WHEN:
+                        if (((ObservableBooleanValue) dependencies[code[pc++]]).get()) {
+                            pc++;
+                        } else {
+                            pc = code[pc];
+                        }
+                        break;
+                    case JUMP:
+                        pc = code[pc];
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown operation " + code[pc - 1]);
+                }
+            }
+            return stack[0];
+        }
+
+        @Override
+        public void dispose() {
+            super.unbind(dependencies);
+        }
+
+        @Override
+        @ReturnsUnmodifiableCollection
+        public ObservableList<?> getDependencies() {
+            return (dependencies.length == 0)?
+                        FXCollections.emptyObservableList()
+                    : (dependencies.length == 1)?
+                        FXCollections.singletonObservableList(dependencies[0])
+                    : new ImmutableObservableList<Observable>(dependencies);
+        }
+    }
+}
@@ -55,6 +55,9 @@ import com.sun.javafx.collections.ObservableSetWrapper;
 import com.sun.javafx.collections.MapAdapterChange;
 import com.sun.javafx.collections.ObservableFloatArrayImpl;
 import com.sun.javafx.collections.ObservableIntegerArrayImpl;
+import com.sun.javafx.collections.ObservableDoubleListImpl;
+import com.sun.javafx.collections.ObservableIntegerListImpl;
+import com.sun.javafx.collections.ObservableLongListImpl;
 import com.sun.javafx.collections.ObservableSequentialListWrapper;
 import com.sun.javafx.collections.SetAdapterChange;
 import com.sun.javafx.collections.SortableList;
@@ -295,6 +298,69 @@ public class FXCollections {
         return new ObservableFloatArrayImpl(array);
     }
 
+    /**
+     * Creates a new empty observable list of {@code double} values backed by a
+     * {@code double[]} array.
+     * @return a newly created ObservableDoubleList
+     * @since JavaFX 8u152
+     */
+    public static ObservableDoubleList observableDoubleList() {
+        return new ObservableDoubleListImpl();
+    }
+
+    /**
+     * Creates a new observable list of {@code double} values with a copy of
+     * {@code values} set to it.
+     * @param values the values that will be in the new observable list
+     * @return a newly created ObservableDoubleList
+     * @since JavaFX 8u152
+     */
+    public static ObservableDoubleList observableDoubleList(double... values) {
+        return new ObservableDoubleListImpl(values);
+    }
+
+    /**
+     * Creates a new empty observable list of {@code int} values backed by a
+     * {@code int[]} array.
+     * @return a newly created ObservableIntegerList
+     * @since JavaFX 8u152
+     */
+    public static ObservableIntegerList observableIntegerList() {
+        return new ObservableIntegerListImpl();
+    }
+
+    /**
+     * Creates a new observable list of {@code int} values with a copy of
+     * {@code values} set to it.
+     * @param values the values that will be in the new observable list
+     * @return a newly created ObservableIntegerList
+     * @since JavaFX 8u152
+     */
+    public static ObservableIntegerList observableIntegerList(int... values) {
+        return new ObservableIntegerListImpl(values);
+    }
+
+    /**
+     * Creates a new empty observable list of {@code long} values backed by a
+     * {@code long[]} array.
+     * @return a newly created ObservableLongList
+     * @since JavaFX 8u152
+     */
+    public static ObservableLongList observableLongList() {
+        return new ObservableLongListImpl();
+    }
+
+    /**
+     * Creates a new observable list of {@code long} values with a copy of
+     * {@code values} set to it.
+     * @param values the values that will be in the new observable list
+     * @return a newly created ObservableLongList
+     * @since JavaFX 8u152
+     */
+    public static ObservableLongList observableLongList(long... values) {
+        return new ObservableLongListImpl(values);
+    }
+
     /**
      * Creates a new empty observable list that is backed by an arraylist.
      * @see #observableList(java.util.List)
@@ -26,6 +26,8 @@
 package javafx.collections;
 
 import com.sun.javafx.collections.ChangeHelper;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,12 +41,32 @@ import javafx.collections.ListChangeListener.Change;
 final class ListChangeBuilder<E> {
 
     private static final int[] EMPTY_PERM = new int[0];
+
+    /**
+     * When set, a change that consists of a single sub-change is fired
+     * through a Change object and a removed list that are reused for the
+     * next notification, so that firing it does not allocate. Listeners
+     * must then not keep the Change or its removed list after they return.
+     */
+    private static final boolean REUSE_CHANGES =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    Boolean.getBoolean("javafx.collections.reuseChanges"));
+
+    // removed lists bigger than this are not kept for reuse
+    private static final int MAX_REUSED_REMOVED_SIZE = 64;
+
     private final ObservableListBase<E> list;
+    private final boolean reuseChanges;
     private int changeLock;
     private List<SubChange<E>> addRemoveChanges;
     private List<SubChange<E>> updateChanges;
     private SubChange<E> permutationChange;
 
+    // Only used with reuseChanges
+    private SingleChange<E> reusableChange;
+    private SubChange<E> reusableSubChange;
+    private boolean firing;
+
     private void checkAddRemoveList() {
         if (addRemoveChanges == null) {
             addRemoveChanges = new ArrayList<SubChange<E>>();
@@ -86,7 +108,7 @@ final class ListChangeBuilder<E> {
             } else if (idx < updateChanges.size() && (change = updateChanges.get(idx)).from == pos + 1) {
                 change.from = pos;
             } else {
-                updateChanges.add(idx, new SubChange<E>(pos, pos + 1, null, EMPTY_PERM, true));
+                updateChanges.add(idx, newSubChange(pos, pos + 1, false, true));
             }
         } // If found, no need to do another update
     }
@@ -105,9 +127,9 @@ final class ListChangeBuilder<E> {
                 change.to--;
                 change.removed.add(0, removed);
             } else {
-                ArrayList<E> removedList = new ArrayList<E>();
-                removedList.add(removed);
-                addRemoveChanges.add(idx, new SubChange<E>(pos, pos, removedList, EMPTY_PERM, false));
+                final SubChange<E> newChange = newSubChange(pos, pos, true, false);
+                newChange.removed.add(removed);
+                addRemoveChanges.add(idx, newChange);
             }
         } else {
             SubChange<E> change = addRemoveChanges.get(idx);
@@ -135,7 +157,7 @@ final class ListChangeBuilder<E> {
                 change.to = to;
                 --idx;
             } else {
-                addRemoveChanges.add(idx, new SubChange<E>(from, to, new ArrayList<E>(), EMPTY_PERM, false));
+                addRemoveChanges.add(idx, newSubChange(from, to, true, false));
             }
         } else {
             SubChange<E> change = addRemoveChanges.get(idx);
@@ -179,6 +201,9 @@ final class ListChangeBuilder<E> {
         List<E> removed;
         int[] perm;
         boolean updated;
+        // the removed list and its read-only view, kept when the sub-change is reused
+        ArrayList<E> removedStorage;
+        List<E> removedView;
 
         public SubChange(int from, int to, List<E> removed, int[] perm, boolean updated) {
             this.from = from;
@@ -190,7 +215,73 @@ final class ListChangeBuilder<E> {
     }
 
     ListChangeBuilder(ObservableListBase<E> list) {
+        this(list, REUSE_CHANGES);
+    }
+
+    ListChangeBuilder(ObservableListBase<E> list, boolean reuseChanges) {
         this.list = list;
+        this.reuseChanges = reuseChanges;
+    }
+
+    private SubChange<E> newSubChange(int from, int to, boolean withRemoved, boolean updated) {
+        final SubChange<E> change = reusableSubChange;
+        if (change == null) {
+            return new SubChange<E>(from, to, withRemoved ? new ArrayList<E>() : null, EMPTY_PERM, updated);
+        }
+        reusableSubChange = null;
+        change.from = from;
+        change.to = to;
+        change.perm = EMPTY_PERM;
+        change.updated = updated;
+        if (withRemoved) {
+            if (change.removedStorage == null) {
+                change.removedStorage = new ArrayList<E>();
+                change.removedView = Collections.unmodifiableList(change.removedStorage);
+            }
+            change.removed = change.removedStorage;
+        } else {
+            change.removed = null;
+        }
+        return change;
+    }
+
+    /**
+     * Fires a change made of a single sub-change. With reuseChanges, the
+     * Change object and the sub-change are kept for the next notification,
+     * unless this is a notification nested in another one.
+     */
+    private void fireSingleChange(SubChange<E> change) {
+        if (!reuseChanges || firing) {
+            list.fireChange(new SingleChange<E>(finalizeSubChange(change), list));
+            return;
+        }
+        if (change.removed != null && change.removed == change.removedStorage) {
+            change.removed = change.removedView;
+        } else {
+            finalizeSubChange(change);
+        }
+        if (reusableChange == null) {
+            reusableChange = new SingleChange<E>(change, list);
+        } else {
+            reusableChange.set(change);
+        }
+        firing = true;
+        try {
+            list.fireChange(reusableChange);
+        } finally {
+            firing = false;
+            reusableChange.set(null);
+            if (change.removedStorage != null) {
+                if (change.removedStorage.size() > MAX_REUSED_REMOVED_SIZE) {
+                    change.removedStorage = null;
+                    change.removedView = null;
+                } else {
+                    change.removedStorage.clear();
+                }
+            }
+            change.removed = null;
+            reusableSubChange = change;
+        }
     }
 
     public void nextRemove(int idx, E removed) {
@@ -477,17 +568,24 @@ final class ListChangeBuilder<E> {
                 || permutationChange != null)) {
             int totalSize = (updateChanges != null ? updateChanges.size() : 0) +
                     (addRemoveChanges != null ? addRemoveChanges.size() : 0) + (permutationChange != null ? 1 : 0);
-            if (totalSize == 1) {
+            if (!list.hasListeners()) {
+                // nobody to tell, spare building the Change
+                if (addRemoveChanges != null) addRemoveChanges.clear();
+                if (updateChanges != null) updateChanges.clear();
+                permutationChange = null;
+            } else if (totalSize == 1) {
+                // detach the sub-change first, so that changes made by
+                // the listeners start from a clean builder
+                final SubChange<E> change;
                 if (addRemoveNotEmpty) {
-                    list.fireChange(new SingleChange<E>(finalizeSubChange(addRemoveChanges.get(0)), list));
-                    addRemoveChanges.clear();
+                    change = addRemoveChanges.remove(0);
                 } else if (updateNotEmpty) {
-                    list.fireChange(new SingleChange<E>(finalizeSubChange(updateChanges.get(0)), list));
-                    updateChanges.clear();
+                    change = updateChanges.remove(0);
                 } else {
-                    list.fireChange(new SingleChange<E>(finalizeSubChange(permutationChange), list));
+                    change = permutationChange;
                     permutationChange = null;
                 }
+                fireSingleChange(change);
             } else {
                 if (updateNotEmpty) {
                     int removed = compress(updateChanges);
@@ -561,7 +659,7 @@ final class ListChangeBuilder<E> {
     }
 
     private static class SingleChange<E> extends Change<E> {
-        private final SubChange<E> change;
+        private SubChange<E> change;
         private boolean onChange;
 
         public SingleChange(SubChange<E> change, ObservableListBase<E> list) {
@@ -569,6 +667,11 @@ final class ListChangeBuilder<E> {
             this.change = change;
         }
 
+        void set(SubChange<E> change) {
+            this.change = change;
+            this.onChange = false;
+        }
+
         @Override
         public boolean next() {
             if (onChange) {
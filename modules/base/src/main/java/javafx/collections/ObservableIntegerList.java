@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections;
+
+/**
+ * An {@link ObservableList} of {@code int} values that stores them in a
+ * {@code int[]} array instead of boxing them. Besides the methods of
+ * {@code ObservableList}, which box and unbox values as needed, it provides
+ * primitive access and bulk operations that never box. Changes are reported
+ * to {@link ListChangeListener}s as usual; the removed values of a change are
+ * boxed only when a listener reads them.
+ * <p>
+ * The list does not accept {@code null} elements.
+ *
+ * @see FXCollections#observableIntegerList()
+ * @since JavaFX 8u152
+ */
+public interface ObservableIntegerList extends ObservableList<Integer> {
+
+    /**
+     * Gets a single value of the list without boxing it.
+     * @param index index of the value to get
+     * @return value at the given index
+     * @throws IndexOutOfBoundsException if {@code index} is outside the list
+     */
+    public int getInt(int index);
+
+    /**
+     * Sets a single value of the list without boxing it. No change is
+     * reported if the value is the same as the current one.
+     * @param index index of the value to set
+     * @param value new value for the given index
+     * @return the previous value at the given index
+     * @throws IndexOutOfBoundsException if {@code index} is outside the list
+     */
+    public int setInt(int index, int value);
+
+    /**
+     * Appends given {@code elements} to the end of this list.
+     * @param elements elements to append
+     */
+    public void addAll(int[] elements);
+
+    /**
+     * Appends a portion of given array to the end of this list.
+     * @param src source array
+     * @param srcIndex starting position in source array
+     * @param length length of portion to append
+     * @throws IndexOutOfBoundsException if the portion is outside the source array
+     */
+    public void addAll(int[] src, int srcIndex, int length);
+
+    /**
+     * Inserts a portion of given array at the given position of this list.
+     * @param index position in this list to insert the values at
+     * @param src source array
+     * @param srcIndex starting position in source array
+     * @param length length of portion to insert
+     * @throws IndexOutOfBoundsException if {@code index} is outside the list
+     * or the portion is outside the source array
+     */
+    public void addAll(int index, int[] src, int srcIndex, int length);
+
+    /**
+     * Replaces the content of this list with given elements.
+     * @param elements elements to put into the list
+     */
+    public void setAll(int[] elements);
+
+    /**
+     * Replaces the content of this list with a portion of given array.
+     * @param src source array
+     * @param srcIndex starting position in source array
+     * @param length length of portion to copy
+     * @throws IndexOutOfBoundsException if the portion is outside the source array
+     */
+    public void setAll(int[] src, int srcIndex, int length);
+
+    /**
+     * Copies a portion of given array into this list, overwriting the values
+     * starting at {@code destIndex}. The change is reported as a single
+     * replacement of the range.
+     * @param destIndex the starting destination position in this list
+     * @param src source array
+     * @param srcIndex starting position in source array
+     * @param length length of portion to copy
+     * @throws IndexOutOfBoundsException if either range is outside its bounds
+     */
+    public void set(int destIndex, int[] src, int srcIndex, int length);
+
+    /**
+     * Copies specified portion of this list into {@code dest} array.
+     * @param srcIndex starting position in this list
+     * @param dest destination array
+     * @param destIndex starting position in destination array
+     * @param length length of portion to copy
+     * @throws IndexOutOfBoundsException if either range is outside its bounds
+     */
+    public void copyTo(int srcIndex, int[] dest, int destIndex, int length);
+
+    /**
+     * Returns an array containing a copy of this list. If the list fits in the
+     * specified array, it is copied therein. Otherwise, a new array is
+     * allocated with the size of the list.
+     * @param dest the array into which the list is to be copied, if it is big
+     *          enough; otherwise, a new array is allocated. Ignored, if null.
+     * @return an array containing the copy of this list
+     */
+    public int[] toArray(int[] dest);
+
+    /**
+     * Grows the capacity of this list if the current capacity is less than
+     * given {@code capacity}, does nothing if it is already big enough.
+     * @param capacity capacity to grow to
+     */
+    public void ensureCapacity(int capacity);
+
+    /**
+     * Shrinks the capacity to the current size of data in the list.
+     */
+    public void trimToSize();
+}
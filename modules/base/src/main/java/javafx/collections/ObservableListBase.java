@@ -81,6 +81,11 @@ import javafx.beans.InvalidationListener;
  * <p>
  * Note: In order to create list with sequential access, you should override {@link #listIterator()},
  * {@link #iterator() } methods and use them in {@link #get}, {@link #size()} and other methods accordingly.
+ * <p>
+ * Note: When the {@code javafx.collections.reuseChanges} system property is set, a change that consists
+ * of a single add, remove, replace, update or permutation is fired with a {@code Change} object that is
+ * reused for the next change of the list. Listeners must then not keep the {@code Change}, or the list
+ * returned by its {@code getRemoved()} method, after they return.
  *
  * @param <E> the type of the elements contained in the List
  * @see ObservableList
@@ -26,13 +26,18 @@
 package javafx.collections.transformation;
 
 import com.sun.javafx.collections.NonIterableChange.GenericAddRemoveChange;
+import com.sun.javafx.collections.OrderStatisticTree;
 import com.sun.javafx.collections.SortHelper;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import javafx.beans.NamedArg;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
@@ -43,6 +48,18 @@ import javafx.collections.ObservableList;
  * Wraps an ObservableList and filters it's content using the provided Predicate.
  * All changes in the ObservableList are propagated immediately
  * to the FilteredList.
+ * <p>
+ * When the source list grows beyond the {@code javafx.filteredList.treeThreshold}
+ * system property (65536 elements by default, 0 to disable), the FilteredList
+ * keeps the source elements in a balanced tree that also indexes the matching
+ * elements, so that source elements are added, removed or re-evaluated in
+ * O(log n) time, at the cost of O(log n) time for {@link #get(int)}.
+ * <p>
+ * A new predicate is tested against all the source elements. If the
+ * {@code javafx.filteredList.parallelThreshold} system property is set to a
+ * positive value, sources of at least that many elements that support fast
+ * random access are tested in parallel. The predicates must then be safe to
+ * call from any thread.
  *
  * @see TransformationList
  * @since JavaFX 8.0
@@ -52,9 +69,24 @@ public final class FilteredList<E> extends TransformationList<E, E>{
     private int[] filtered;
     private int size;
 
+    // In tree mode filtered is null and the source elements are kept in this
+    // tree, where the elements matching the predicate are marked
+    private final int treeThreshold;
+    private OrderStatisticTree<E> tree;
+
+    private final int parallelThreshold;
+
     private SortHelper helper;
     private static final Predicate ALWAYS_TRUE = t -> true;
 
+    private static final int DEFAULT_TREE_THRESHOLD =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.filteredList.treeThreshold", 1 << 16));
+
+    private static final int DEFAULT_PARALLEL_THRESHOLD =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.filteredList.parallelThreshold", 0));
+
     /**
      * Constructs a new FilteredList wrapper around the source list.
      * The provided predicate will match the elements in the source list that will be visible.
@@ -63,7 +95,13 @@ public final class FilteredList<E> extends TransformationList<E, E>{
      * @param predicate the predicate to match the elements or null to match all elements.
      */
     public FilteredList(@NamedArg("source") ObservableList<E> source, @NamedArg("predicate") Predicate<? super E> predicate) {
+        this(source, predicate, DEFAULT_TREE_THRESHOLD, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    FilteredList(ObservableList<E> source, Predicate<? super E> predicate, int treeThreshold, int parallelThreshold) {
         super(source);
+        this.treeThreshold = treeThreshold;
+        this.parallelThreshold = parallelThreshold;
         filtered = new int[source.size() * 3 / 2  + 1];
         if (predicate != null) {
             setPredicate(predicate);
@@ -71,6 +109,7 @@ public final class FilteredList<E> extends TransformationList<E, E>{
             for (size = 0; size < source.size(); size++) {
                 filtered[size] = size;
             }
+            updateTreeMode();
         }
     }
 
@@ -132,10 +171,45 @@ public final class FilteredList<E> extends TransformationList<E, E>{
         return ALWAYS_TRUE;
     }
 
+    /**
+     * Tests the predicate again against the source elements in the given
+     * range. This is useful when the outcome of the predicate changed for
+     * some elements only, as it avoids testing all the source elements the
+     * way a new predicate does. Elements that start or stop matching the
+     * predicate are added to or removed from this list.
+     *
+     * @param sourceFrom the index of the first source element, inclusive
+     * @param sourceTo the index of the last source element, exclusive
+     * @throws IndexOutOfBoundsException if the range is not within the source list
+     * @since JavaFX 8u152
+     */
+    public void refilter(int sourceFrom, int sourceTo) {
+        if (sourceFrom < 0 || sourceTo > getSource().size() || sourceFrom > sourceTo) {
+            throw new IndexOutOfBoundsException();
+        }
+        beginChange();
+        if (tree != null) {
+            final Predicate<? super E> pred = getPredicateImpl();
+            OrderStatisticTree.Node<E> node = sourceFrom < sourceTo ? tree.get(sourceFrom) : null;
+            for (int i = sourceFrom; i < sourceTo; ++i, node = tree.next(node)) {
+                treeUpdate(node, pred, false);
+            }
+        } else {
+            update(sourceFrom, sourceTo, false);
+        }
+        endChange();
+    }
+
     @Override
     protected void sourceChanged(Change<? extends E> c) {
         beginChange();
         while (c.next()) {
+            if (tree != null && !treeUpdate(c)) {
+                leaveTreeMode();
+            }
+            if (tree != null) {
+                continue;
+            }
             if (c.wasPermutated()) {
                 permutate(c);
             } else if (c.wasUpdated()) {
@@ -144,6 +218,7 @@ public final class FilteredList<E> extends TransformationList<E, E>{
                 addRemove(c);
             }
         }
+        updateTreeMode();
         endChange();
     }
 
@@ -169,6 +244,9 @@ public final class FilteredList<E> extends TransformationList<E, E>{
         if (index >= size) {
             throw new IndexOutOfBoundsException();
         }
+        if (tree != null) {
+            return tree.getMarked(index).getValue();
+        }
         return getSource().get(filtered[index]);
     }
 
@@ -177,6 +255,9 @@ public final class FilteredList<E> extends TransformationList<E, E>{
         if (index >= size) {
             throw new IndexOutOfBoundsException();
         }
+        if (tree != null) {
+            return tree.indexOf(tree.getMarked(index));
+        }
         return filtered[index];
     }
 
@@ -278,10 +359,12 @@ public final class FilteredList<E> extends TransformationList<E, E>{
     }
 
     private void update(Change<? extends E> c) {
+        update(c.getFrom(), c.getTo(), true);
+    }
+
+    private void update(int sourceFrom, int sourceTo, boolean fireUpdates) {
         Predicate<? super E> pred = getPredicateImpl();
         ensureSize(getSource().size());
-        int sourceFrom = c.getFrom();
-        int sourceTo = c.getTo();
         int filterFrom = findPosition(sourceFrom);
         int filterTo = findPosition(sourceTo);
         ListIterator<? extends E> it = getSource().listIterator(sourceFrom);
@@ -295,7 +378,9 @@ public final class FilteredList<E> extends TransformationList<E, E>{
                     --size;
                     --filterTo;
                 } else {
-                    nextUpdate(pos);
+                    if (fireUpdates) {
+                        nextUpdate(pos);
+                    }
                     ++pos;
                 }
             } else {
@@ -314,24 +399,134 @@ public final class FilteredList<E> extends TransformationList<E, E>{
 
     @SuppressWarnings("unchecked")
     private void refilter() {
-        ensureSize(getSource().size());
         List<E> removed = null;
         if (hasListeners()) {
             removed = new ArrayList<>(this);
         }
+        if (tree != null) {
+            leaveTreeMode();
+        }
+        ensureSize(getSource().size());
         size = 0;
-        int i = 0;
         Predicate<? super E> pred = getPredicateImpl();
-        for (Iterator<? extends E> it = getSource().iterator();it.hasNext(); ) {
-            final E next = it.next();
-            if (pred.test(next)) {
-                filtered[size++] = i;
+        final ObservableList<? extends E> source = getSource();
+        final int sourceSize = source.size();
+        if (parallelThreshold > 0 && sourceSize >= parallelThreshold && source instanceof RandomAccess) {
+            final boolean[] matches = new boolean[sourceSize];
+            IntStream.range(0, sourceSize).parallel().forEach(i -> matches[i] = pred.test(source.get(i)));
+            for (int i = 0; i < sourceSize; ++i) {
+                if (matches[i]) {
+                    filtered[size++] = i;
+                }
+            }
+        } else {
+            int i = 0;
+            for (Iterator<? extends E> it = source.iterator();it.hasNext(); ) {
+                final E next = it.next();
+                if (pred.test(next)) {
+                    filtered[size++] = i;
+                }
+                ++i;
             }
-            ++i;
         }
+        updateTreeMode();
         if (hasListeners()) {
             fireChange(new GenericAddRemoveChange<>(0, size, removed, this));
         }
     }
 
+    private void updateTreeMode() {
+        final int sourceSize = getSource().size();
+        if (tree == null) {
+            if (treeThreshold > 0 && sourceSize >= treeThreshold) {
+                enterTreeMode();
+            }
+        } else if (sourceSize < treeThreshold / 2) {
+            leaveTreeMode();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void enterTreeMode() {
+        final int sourceSize = getSource().size();
+        final boolean[] marked = new boolean[sourceSize];
+        for (int i = 0; i < size; ++i) {
+            marked[filtered[i]] = true;
+        }
+        tree = new OrderStatisticTree<>();
+        tree.setAll((E[]) getSource().toArray(), marked, null, sourceSize);
+        filtered = null;
+    }
+
+    private void leaveTreeMode() {
+        filtered = new int[tree.size() * 3 / 2 + 1];
+        size = 0;
+        int i = 0;
+        for (OrderStatisticTree.Node<E> n = tree.first(); n != null; n = tree.next(n), ++i) {
+            if (n.isMarked()) {
+                filtered[size++] = i;
+            }
+        }
+        tree = null;
+    }
+
+    /**
+     * Applies the change to the tree. Returns false if the change is better
+     * handled by the array, as permutations and large changes are.
+     */
+    private boolean treeUpdate(Change<? extends E> c) {
+        if (c.wasPermutated()) {
+            return false;
+        }
+        final int changed = c.wasUpdated() ? c.getTo() - c.getFrom() : c.getRemovedSize() + c.getAddedSize();
+        if (changed * 64L >= tree.size()) {
+            return false;
+        }
+        final Predicate<? super E> pred = getPredicateImpl();
+        if (c.wasUpdated()) {
+            OrderStatisticTree.Node<E> node = tree.get(c.getFrom());
+            for (int i = c.getFrom(), to = c.getTo(); i < to; ++i, node = tree.next(node)) {
+                treeUpdate(node, pred, true);
+            }
+            return true;
+        }
+        for (int i = 0, sz = c.getRemovedSize(); i < sz; ++i) {
+            final OrderStatisticTree.Node<E> node = tree.get(c.getFrom());
+            if (node.isMarked()) {
+                nextRemove(tree.markedIndexOf(node), node.getValue());
+                --size;
+            }
+            tree.remove(node);
+        }
+        for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
+            final E e = c.getList().get(i);
+            final OrderStatisticTree.Node<E> node = tree.insert(i, e);
+            if (pred.test(e)) {
+                tree.setMarked(node, true);
+                ++size;
+                final int pos = tree.markedIndexOf(node);
+                nextAdd(pos, pos + 1);
+            }
+        }
+        return true;
+    }
+
+    private void treeUpdate(OrderStatisticTree.Node<E> node, Predicate<? super E> pred, boolean fireUpdate) {
+        final boolean matches = pred.test(node.getValue());
+        if (node.isMarked()) {
+            if (!matches) {
+                final int pos = tree.markedIndexOf(node);
+                tree.setMarked(node, false);
+                --size;
+                nextRemove(pos, node.getValue());
+            } else if (fireUpdate) {
+                nextUpdate(tree.markedIndexOf(node));
+            }
+        } else if (matches) {
+            tree.setMarked(node, true);
+            ++size;
+            final int pos = tree.markedIndexOf(node);
+            nextAdd(pos, pos + 1);
+        }
+    }
 }
@@ -26,9 +26,12 @@
 package javafx.collections.transformation;
 
 import com.sun.javafx.collections.NonIterableChange.SimplePermutationChange;
+import com.sun.javafx.collections.OrderStatisticTree;
 import com.sun.javafx.collections.SortHelper;
 import com.sun.javafx.collections.SourceAdapterChange;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -48,18 +51,46 @@ import javafx.collections.ObservableList;
  * Note: invalid SortedList (as a result of broken comparison) doesn't send any notification to listeners on becoming
  * valid again.
  *
+ * When a sorted list grows beyond the
+ * {@code javafx.sortedList.treeThreshold} system property (65536 elements by
+ * default, 0 to disable), it keeps its elements in balanced trees instead of
+ * arrays, so that single elements are added, removed or re-positioned in
+ * O(log n) time, at the cost of O(log n) time for {@link #get(int)}.
+ * <p>
+ * If the {@code javafx.sortedList.parallelThreshold} system property is set
+ * to a positive value, lists of at least that many elements are sorted in
+ * parallel. The comparators must then be safe to call from any thread, which
+ * rules out comparators that read properties or cells that may only be used
+ * on the JavaFX Application Thread.
+ *
  * @see TransformationList
  * @since JavaFX 8.0
  */
 public final class SortedList<E> extends TransformationList<E, E>{
 
+    private static final int DEFAULT_TREE_THRESHOLD =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.sortedList.treeThreshold", 1 << 16));
+
+    private static final int DEFAULT_PARALLEL_THRESHOLD =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.sortedList.parallelThreshold", 0));
+
     private Comparator<Element<E>> elementComparator;
     private Element<E>[] sorted;
     private int[] perm;
     private int size;
 
+    // In tree mode sorted and perm are null and the elements are kept in
+    // these two trees, ordered by the comparator and by the source order
+    private final int treeThreshold;
+    private OrderStatisticTree<Element<E>> sortedTree;
+    private OrderStatisticTree<Element<E>> sourceTree;
+
     private final SortHelper helper = new SortHelper();
 
+    private final int parallelThreshold;
+
     private final Element<E> tempElement = new Element<>(null, -1);
 
 
@@ -70,9 +101,16 @@ public final class SortedList<E> extends TransformationList<E, E>{
      * @param source a list to wrap
      * @param comparator a comparator to use or null for unordered List
      */
-    @SuppressWarnings("unchecked")
     public SortedList(@NamedArg("source") ObservableList<? extends E> source, @NamedArg("comparator") Comparator<? super E> comparator) {
+        this(source, comparator, DEFAULT_TREE_THRESHOLD, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    @SuppressWarnings("unchecked")
+    SortedList(ObservableList<? extends E> source, Comparator<? super E> comparator,
+               int treeThreshold, int parallelThreshold) {
         super(source);
+        this.treeThreshold = treeThreshold;
+        this.parallelThreshold = parallelThreshold;
         sorted = (Element<E>[]) new Element[source.size() *3/2 + 1];
         perm = new int[sorted.length];
         size = source.size();
@@ -100,6 +138,12 @@ public final class SortedList<E> extends TransformationList<E, E>{
         if (elementComparator != null) {
             beginChange();
             while (c.next()) {
+                if (sortedTree != null && !treeUpdate(c)) {
+                    leaveTreeMode();
+                }
+                if (sortedTree != null) {
+                    continue;
+                }
                 if (c.wasPermutated()) {
                     updatePermutationIndexes(c);
                 } else if (c.wasUpdated()) {
@@ -108,6 +152,7 @@ public final class SortedList<E> extends TransformationList<E, E>{
                     addRemove(c);
                 }
             }
+            updateTreeMode();
             endChange();
         } else {
             updateUnsorted(c);
@@ -129,7 +174,11 @@ public final class SortedList<E> extends TransformationList<E, E>{
                 protected void invalidated() {
                     Comparator<? super E> current = get();
                     elementComparator = current != null ? new ElementComparator<>(current) : null;
+                    if (sortedTree != null) {
+                        leaveTreeMode();
+                    }
                     doSortWithPermutationChange();
+                    updateTreeMode();
                 }
 
                 @Override
@@ -167,6 +216,9 @@ public final class SortedList<E> extends TransformationList<E, E>{
         if (index >= size) {
             throw new IndexOutOfBoundsException();
         }
+        if (sortedTree != null) {
+            return sortedTree.get(index).getValue().e;
+        }
         return sorted[index].e;
     }
 
@@ -182,10 +234,7 @@ public final class SortedList<E> extends TransformationList<E, E>{
 
     private void doSortWithPermutationChange() {
         if (elementComparator != null) {
-            int[] perm = helper.sort(sorted, 0, size, elementComparator);
-            for (int i = 0; i < size; i++) {
-                this.perm[sorted[i].index] = i;
-            }
+            int[] perm = sortElements();
             fireChange(new SimplePermutationChange<>(0, size, perm, this));
         } else {
             int[] perm = new int[size];
@@ -219,8 +268,35 @@ public final class SortedList<E> extends TransformationList<E, E>{
         }
     }
 
+    /**
+     * Sorts the elements and returns the permutation from the old positions
+     * to the new ones. Lists of parallelThreshold elements or more are
+     * sorted in parallel, which is stable just like the merge sort of the
+     * SortHelper.
+     */
+    private int[] sortElements() {
+        if (parallelThreshold <= 0 || size < parallelThreshold) {
+            int[] perm = helper.sort(sorted, 0, size, elementComparator);
+            for (int i = 0; i < size; i++) {
+                this.perm[sorted[i].index] = i;
+            }
+            return perm;
+        }
+        Arrays.parallelSort(sorted, 0, size, elementComparator);
+        int[] perm = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int sourceIndex = sorted[i].index;
+            perm[this.perm[sourceIndex]] = i;
+            this.perm[sourceIndex] = i;
+        }
+        return perm;
+    }
+
     @Override
     public int getSourceIndex(int index) {
+        if (sortedTree != null) {
+            return sourceTree.indexOf(sortedTree.get(index).getValue().sourceNode);
+        }
         return sorted[index].index;
     }
 
@@ -278,6 +354,9 @@ public final class SortedList<E> extends TransformationList<E, E>{
 
         private E e;
         private int index;
+        // only used in tree mode
+        private OrderStatisticTree.Node<Element<E>> sortedNode;
+        private OrderStatisticTree.Node<Element<E>> sourceNode;
     }
 
     private static class ElementComparator<E> implements Comparator<Element<E>> {
@@ -348,9 +427,9 @@ public final class SortedList<E> extends TransformationList<E, E>{
         size = to;
         for (int i = 0; i < to; ++i) {
             sorted[i] = new Element<E>(list.get(i), i);
+            perm[i] = i;
         }
-        int[] perm = helper.sort(sorted, 0, size, elementComparator);
-        System.arraycopy(perm, 0, this.perm, 0, size);
+        sortElements();
         nextAdd(0, size);
     }
 
@@ -375,16 +454,173 @@ public final class SortedList<E> extends TransformationList<E, E>{
     }
 
     private void update(Change<? extends E> c) {
-        int[] perm = helper.sort(sorted, 0, size, elementComparator);
-        for (int i = 0; i < size; i++) {
-            this.perm[sorted[i].index] = i;
+        if (c.getTo() - c.getFrom() == 1) {
+            moveToSortedPosition(perm[c.getFrom()]);
+        } else {
+            int[] perm = sortElements();
+            int from = 0;
+            int to = size;
+            while (from < to && perm[from] == from) {
+                ++from;
+            }
+            while (to > from && perm[to - 1] == to - 1) {
+                --to;
+            }
+            if (from < to) {
+                nextPermutation(from, to, Arrays.copyOfRange(perm, from, to));
+            }
         }
-        nextPermutation(0, size, perm);
         for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
             nextUpdate(this.perm[i]);
         }
     }
 
+    /**
+     * Moves a single updated element to its new position, shifting only the
+     * elements between the old and the new position.
+     */
+    private void moveToSortedPosition(int pos) {
+        final Element<E> element = sorted[pos];
+        int newPos;
+        if (pos > 0 && elementComparator.compare(sorted[pos - 1], element) > 0) {
+            newPos = upperBound(0, pos, element);
+            System.arraycopy(sorted, newPos, sorted, newPos + 1, pos - newPos);
+        } else if (pos < size - 1 && elementComparator.compare(element, sorted[pos + 1]) > 0) {
+            newPos = upperBound(pos + 1, size, element) - 1;
+            System.arraycopy(sorted, pos + 1, sorted, pos, newPos - pos);
+        } else {
+            return;
+        }
+        sorted[newPos] = element;
+        final int from = Math.min(pos, newPos);
+        final int to = Math.max(pos, newPos) + 1;
+        int[] perm = new int[to - from];
+        for (int i = from; i < to; ++i) {
+            perm[i - from] = i == pos ? newPos : (pos < newPos ? i - 1 : i + 1);
+            this.perm[sorted[i].index] = i;
+        }
+        nextPermutation(from, to, perm);
+    }
+
+    private int upperBound(int from, int to, Element<E> element) {
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            if (elementComparator.compare(element, sorted[mid]) < 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+
+    private void updateTreeMode() {
+        final boolean large = treeThreshold > 0 && size >= treeThreshold;
+        if (sortedTree == null) {
+            if (large && elementComparator != null) {
+                enterTreeMode();
+            }
+        } else if (elementComparator == null || size < treeThreshold / 2) {
+            leaveTreeMode();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void enterTreeMode() {
+        sortedTree = new OrderStatisticTree<>();
+        sourceTree = new OrderStatisticTree<>();
+        final OrderStatisticTree.Node<Element<E>>[] nodes = new OrderStatisticTree.Node[size];
+        sortedTree.setAll(sorted, nodes, size);
+        final Element<E>[] bySource = (Element<E>[]) new Element[size];
+        for (int i = 0; i < size; ++i) {
+            sorted[i].sortedNode = nodes[i];
+            bySource[sorted[i].index] = sorted[i];
+        }
+        sourceTree.setAll(bySource, nodes, size);
+        for (int i = 0; i < size; ++i) {
+            bySource[i].sourceNode = nodes[i];
+        }
+        sorted = null;
+        perm = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void leaveTreeMode() {
+        sorted = (Element<E>[]) new Element[size * 3/2 + 1];
+        perm = new int[sorted.length];
+        int i = 0;
+        for (OrderStatisticTree.Node<Element<E>> n = sourceTree.first(); n != null; n = sourceTree.next(n)) {
+            n.getValue().index = i++;
+        }
+        i = 0;
+        for (OrderStatisticTree.Node<Element<E>> n = sortedTree.first(); n != null; n = sortedTree.next(n)) {
+            final Element<E> element = n.getValue();
+            element.sortedNode = element.sourceNode = null;
+            sorted[i] = element;
+            perm[element.index] = i++;
+        }
+        sortedTree = null;
+        sourceTree = null;
+    }
+
+    /**
+     * Applies the change to the trees. Returns false if the change is better
+     * handled by the arrays, as permutations and large changes are.
+     */
+    private boolean treeUpdate(Change<? extends E> c) {
+        if (c.wasPermutated()) {
+            return false;
+        }
+        if (c.wasUpdated()) {
+            if (c.getTo() - c.getFrom() != 1) {
+                return false;
+            }
+            final Element<E> element = sourceTree.get(c.getFrom()).getValue();
+            treeMoveToSortedPosition(element);
+            nextUpdate(sortedTree.indexOf(element.sortedNode));
+            return true;
+        }
+        if ((c.getRemovedSize() + c.getAddedSize()) * 64L >= size) {
+            return false;
+        }
+        for (int i = 0, sz = c.getRemovedSize(); i < sz; ++i) {
+            final OrderStatisticTree.Node<Element<E>> sourceNode = sourceTree.get(c.getFrom());
+            final Element<E> element = sourceNode.getValue();
+            final int pos = sortedTree.indexOf(element.sortedNode);
+            sourceTree.remove(sourceNode);
+            sortedTree.remove(element.sortedNode);
+            --size;
+            nextRemove(pos, c.getRemoved().get(i));
+        }
+        for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
+            final Element<E> element = new Element<>(c.getList().get(i), -1);
+            element.sourceNode = sourceTree.insert(i, element);
+            element.sortedNode = sortedTree.insert(element, elementComparator);
+            ++size;
+            final int pos = sortedTree.indexOf(element.sortedNode);
+            nextAdd(pos, pos + 1);
+        }
+        return true;
+    }
+
+    private void treeMoveToSortedPosition(Element<E> element) {
+        final int pos = sortedTree.indexOf(element.sortedNode);
+        if ((pos == 0 || elementComparator.compare(sortedTree.get(pos - 1).getValue(), element) <= 0)
+                && (pos == size - 1 || elementComparator.compare(element, sortedTree.get(pos + 1).getValue()) <= 0)) {
+            return;
+        }
+        sortedTree.remove(element.sortedNode);
+        element.sortedNode = sortedTree.insert(element, elementComparator);
+        final int newPos = sortedTree.indexOf(element.sortedNode);
+        final int from = Math.min(pos, newPos);
+        final int to = Math.max(pos, newPos) + 1;
+        int[] perm = new int[to - from];
+        for (int i = from; i < to; ++i) {
+            perm[i - from] = i == pos ? newPos : (pos < newPos ? i - 1 : i + 1);
+        }
+        nextPermutation(from, to, perm);
+    }
+
     private void addRemove(Change<? extends E> c) {
         if (c.getFrom() == 0 && c.getRemovedSize() == size) {
             removeAllFromMapping();
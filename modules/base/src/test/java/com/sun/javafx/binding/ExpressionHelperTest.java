@@ -488,6 +488,62 @@ public class ExpressionHelperTest {
         changeListener[2].check(null, UNDEFINED, UNDEFINED, 0);
     }
 
+    @Test
+    public void testRemoveSeveralChangesWhileLocked() {
+        final InvalidationListener removingListener = observable -> {
+            helper = ExpressionHelper.removeListener(helper, changeListener[1]);
+            helper = ExpressionHelper.removeListener(helper, changeListener[2]);
+            helper = ExpressionHelper.removeListener(helper, changeListener[3]);
+        };
+        helper = ExpressionHelper.addListener(helper, observable, removingListener);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[1]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[2]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[3]);
+
+        observable.set(DATA_2);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        changeListener[0].check(observable, DATA_1, DATA_2, 1);
+        changeListener[1].check(observable, DATA_1, DATA_2, 1);
+        changeListener[2].check(observable, DATA_1, DATA_2, 1);
+        changeListener[3].check(observable, DATA_1, DATA_2, 1);
+
+        observable.set(DATA_1);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        changeListener[0].check(observable, DATA_2, DATA_1, 1);
+        changeListener[1].check(null, UNDEFINED, UNDEFINED, 0);
+        changeListener[2].check(null, UNDEFINED, UNDEFINED, 0);
+        changeListener[3].check(null, UNDEFINED, UNDEFINED, 0);
+    }
+
+    @Test
+    public void testNestedFireWhileLocked() {
+        final InvalidationListener nestedListener = new InvalidationListener() {
+            boolean nested;
+            @Override public void invalidated(Observable o) {
+                if (!nested) {
+                    nested = true;
+                    helper = ExpressionHelper.removeListener(helper, invalidationListener[1]);
+                    ExpressionHelper.fireValueChangedEvent(helper);
+                    helper = ExpressionHelper.addListener(helper, observable, invalidationListener[2]);
+                }
+            }
+        };
+        helper = ExpressionHelper.addListener(helper, observable, nestedListener);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 2);
+        invalidationListener[1].check(observable, 1);
+        invalidationListener[2].check(null, 0);
+
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 1);
+        invalidationListener[1].check(null, 0);
+        invalidationListener[2].check(observable, 1);
+    }
+
     @Test
     public void testFireValueChangedEvent() {
         helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
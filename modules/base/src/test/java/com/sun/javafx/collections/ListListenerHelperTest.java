@@ -417,6 +417,61 @@ public class ListListenerHelperTest {
         invalidationListenerMock[2].check(null, 0);
     }
 
+    @Test
+    public void testGeneric_RemoveSeveralInvalidationsInPulse() {
+        final ListChangeListener<Object> removeListener = c -> {
+            helper = ListListenerHelper.removeListener(helper, invalidationListenerMock[1]);
+            helper = ListListenerHelper.removeListener(helper, invalidationListenerMock[2]);
+            helper = ListListenerHelper.removeListener(helper, invalidationListenerMock[3]);
+        };
+        helper = ListListenerHelper.addListener(helper, removeListener);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[0]);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[1]);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[2]);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[3]);
+
+        ListListenerHelper.fireValueChangedEvent(helper, change);
+        invalidationListenerMock[0].check(list, 1);
+        invalidationListenerMock[1].check(list, 1);
+        invalidationListenerMock[2].check(list, 1);
+        invalidationListenerMock[3].check(list, 1);
+
+        ListListenerHelper.fireValueChangedEvent(helper, change);
+        invalidationListenerMock[0].check(list, 1);
+        invalidationListenerMock[1].check(null, 0);
+        invalidationListenerMock[2].check(null, 0);
+        invalidationListenerMock[3].check(null, 0);
+    }
+
+    @Test
+    public void testGeneric_NestedFireInPulse() {
+        final InvalidationListener nestedListener = new InvalidationListener() {
+            boolean nested;
+            @Override
+            public void invalidated(Observable observable) {
+                if (!nested) {
+                    nested = true;
+                    helper = ListListenerHelper.removeListener(helper, invalidationListenerMock[1]);
+                    ListListenerHelper.fireValueChangedEvent(helper, change);
+                    helper = ListListenerHelper.addListener(helper, invalidationListenerMock[2]);
+                }
+            }
+        };
+        helper = ListListenerHelper.addListener(helper, nestedListener);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[0]);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[1]);
+
+        ListListenerHelper.fireValueChangedEvent(helper, change);
+        invalidationListenerMock[0].check(list, 2);
+        invalidationListenerMock[1].check(list, 1);
+        invalidationListenerMock[2].check(null, 0);
+
+        ListListenerHelper.fireValueChangedEvent(helper, change);
+        invalidationListenerMock[0].check(list, 1);
+        invalidationListenerMock[1].check(null, 0);
+        invalidationListenerMock[2].check(list, 1);
+    }
+
     @Test
     public void testGeneric_AddChange() {
         helper = ListListenerHelper.addListener(helper, invalidationListenerMock[0]);
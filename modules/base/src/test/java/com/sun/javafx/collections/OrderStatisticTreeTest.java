@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class OrderStatisticTreeTest {
+
+    private final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>();
+
+    private void assertContent(List<Integer> expected) {
+        assertEquals(expected.size(), tree.size());
+        int i = 0;
+        for (OrderStatisticTree.Node<Integer> n = tree.first(); n != null; n = tree.next(n)) {
+            assertEquals(expected.get(i), n.getValue());
+            assertSame(n, tree.get(i));
+            assertEquals(i, tree.indexOf(n));
+            ++i;
+        }
+        assertEquals(expected.size(), i);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, tree.size());
+        assertNull(tree.first());
+        assertEquals(0, tree.upperBound(5, Comparator.naturalOrder()));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        tree.insert(0, 1);
+        tree.get(1);
+    }
+
+    @Test
+    public void testInsertAndRemoveByPosition() {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+        List<OrderStatisticTree.Node<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            int index = random.nextInt(expected.size() + 1);
+            expected.add(index, i);
+            nodes.add(index, tree.insert(index, i));
+            if (random.nextInt(3) == 0) {
+                int removed = random.nextInt(expected.size());
+                expected.remove(removed);
+                tree.remove(nodes.remove(removed));
+            }
+        }
+        assertContent(expected);
+    }
+
+    @Test
+    public void testSortedInsertKeepsOrderOfEqualValues() {
+        tree.insert(0, 1);
+        tree.insert(1, 3);
+        OrderStatisticTree.Node<Integer> a = tree.insert(2, Comparator.naturalOrder());
+        OrderStatisticTree.Node<Integer> b = tree.insert(2, Comparator.naturalOrder());
+        assertEquals(1, tree.indexOf(a));
+        assertEquals(2, tree.indexOf(b));
+        assertEquals(3, tree.upperBound(2, Comparator.naturalOrder()));
+    }
+
+    @Test
+    public void testSetAll() {
+        Integer[] values = new Integer[1000];
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i * 2;
+            expected.add(i * 2);
+        }
+        @SuppressWarnings("unchecked")
+        OrderStatisticTree.Node<Integer>[] nodes = new OrderStatisticTree.Node[values.length];
+        tree.setAll(values, nodes, values.length);
+        assertContent(expected);
+        for (int i = 0; i < nodes.length; ++i) {
+            assertEquals(i, tree.indexOf(nodes[i]));
+        }
+
+        tree.insert(1001, Comparator.naturalOrder());
+        expected.add(501, 1001);
+        tree.remove(nodes[0]);
+        expected.remove(0);
+        assertContent(expected);
+    }
+
+    @Test
+    public void testMarkedNodes() {
+        Random random = new Random(5);
+        Integer[] values = new Integer[300];
+        boolean[] marked = new boolean[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i;
+            marked[i] = random.nextBoolean();
+        }
+        @SuppressWarnings("unchecked")
+        OrderStatisticTree.Node<Integer>[] nodes = new OrderStatisticTree.Node[values.length];
+        tree.setAll(values, marked, nodes, values.length);
+        for (int i = 0; i < 200; ++i) {
+            int index = random.nextInt(values.length);
+            tree.setMarked(nodes[index], !nodes[index].isMarked());
+        }
+        tree.remove(nodes[17]);
+        tree.remove(nodes[150]);
+        tree.setMarked(tree.insert(10, -1), true);
+
+        List<OrderStatisticTree.Node<Integer>> expected = new ArrayList<>();
+        for (OrderStatisticTree.Node<Integer> n = tree.first(); n != null; n = tree.next(n)) {
+            assertEquals(expected.size(), tree.markedIndexOf(n));
+            if (n.isMarked()) {
+                expected.add(n);
+            }
+        }
+        assertEquals(expected.size(), tree.markedSize());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertSame(expected.get(i), tree.getMarked(i));
+        }
+    }
+}
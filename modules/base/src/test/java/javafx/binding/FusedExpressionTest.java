@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.binding;
+
+import javafx.beans.InvalidationListenerMock;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.binding.FusedExpression;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.value.ObservableNumberValue;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FusedExpressionTest {
+
+    private static final double EPSILON = 1e-12;
+
+    private DoubleProperty a;
+    private DoubleProperty b;
+    private IntegerProperty c;
+    private BooleanProperty cond;
+
+    @Before
+    public void setUp() {
+        a = new SimpleDoubleProperty(3.0);
+        b = new SimpleDoubleProperty(-2.5);
+        c = new SimpleIntegerProperty(7);
+        cond = new SimpleBooleanProperty(true);
+    }
+
+    @Test
+    public void testArithmetic() {
+        final DoubleBinding binding = FusedExpression.of(a)
+                .add(b)
+                .multiply(c)
+                .subtract(1.5)
+                .divide(FusedExpression.of(a).negate())
+                .toBinding();
+        assertEquals(((3.0 - 2.5) * 7 - 1.5) / -3.0, binding.get(), EPSILON);
+
+        a.set(4.0);
+        c.set(2);
+        assertEquals(((4.0 - 2.5) * 2 - 1.5) / -4.0, binding.get(), EPSILON);
+    }
+
+    @Test
+    public void testMinMax() {
+        final DoubleBinding binding = FusedExpression.of(a)
+                .min(FusedExpression.of(b))
+                .max(FusedExpression.constant(-1.0))
+                .toBinding();
+        assertEquals(-1.0, binding.get(), EPSILON);
+
+        b.set(2.0);
+        assertEquals(2.0, binding.get(), EPSILON);
+        a.set(1.0);
+        assertEquals(1.0, binding.get(), EPSILON);
+    }
+
+    @Test
+    public void testDivisionIsNotIntegerDivision() {
+        final IntegerProperty d = new SimpleIntegerProperty(2);
+        final DoubleBinding binding = FusedExpression.of(c).divide(d).toBinding();
+        assertEquals(3.5, binding.get(), EPSILON);
+    }
+
+    @Test
+    public void testWhen() {
+        final DoubleBinding binding = FusedExpression.of(a)
+                .add(FusedExpression.when(cond, FusedExpression.of(b).multiply(2), FusedExpression.of(c)))
+                .add(1.0)
+                .toBinding();
+        assertEquals(3.0 - 5.0 + 1.0, binding.get(), EPSILON);
+
+        cond.set(false);
+        assertEquals(3.0 + 7.0 + 1.0, binding.get(), EPSILON);
+
+        c.set(10);
+        assertEquals(3.0 + 10.0 + 1.0, binding.get(), EPSILON);
+    }
+
+    @Test
+    public void testNestedWhen() {
+        final BooleanProperty inner = new SimpleBooleanProperty(false);
+        final DoubleBinding binding = FusedExpression.when(cond,
+                FusedExpression.when(inner, FusedExpression.constant(1), FusedExpression.constant(2)),
+                FusedExpression.when(inner, FusedExpression.constant(3), FusedExpression.constant(4)))
+                .multiply(FusedExpression.constant(10))
+                .toBinding();
+        assertEquals(20.0, binding.get(), EPSILON);
+        inner.set(true);
+        assertEquals(10.0, binding.get(), EPSILON);
+        cond.set(false);
+        assertEquals(30.0, binding.get(), EPSILON);
+        inner.set(false);
+        assertEquals(40.0, binding.get(), EPSILON);
+    }
+
+    @Test
+    public void testConstant() {
+        final DoubleBinding binding = FusedExpression.constant(Math.PI).toBinding();
+        assertEquals(Math.PI, binding.get(), EPSILON);
+        assertTrue(binding.getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testDependencies() {
+        final FusedExpression shared = FusedExpression.of(a).multiply(a);
+        final DoubleBinding binding = shared.add(shared).add(b)
+                .subtract(FusedExpression.when(cond, FusedExpression.of(a), FusedExpression.of(b)))
+                .toBinding();
+        assertEquals(Arrays.asList(a, b, cond), binding.getDependencies());
+
+        final DoubleBinding single = FusedExpression.of(a).add(a).toBinding();
+        assertEquals(Arrays.asList(a), single.getDependencies());
+    }
+
+    @Test
+    public void testInvalidation() {
+        final DoubleBinding binding = FusedExpression.of(a).add(b).multiply(a).toBinding();
+        final InvalidationListenerMock listener = new InvalidationListenerMock();
+        binding.addListener(listener);
+        binding.get();
+
+        a.set(5.0);
+        listener.check(binding, 1);
+        assertEquals((5.0 - 2.5) * 5.0, binding.get(), EPSILON);
+
+        b.set(1.0);
+        listener.check(binding, 1);
+        // observables that are not used do not invalidate the binding
+        c.set(0);
+        cond.set(false);
+        listener.check(null, 0);
+        assertEquals((5.0 + 1.0) * 5.0, binding.get(), EPSILON);
+    }
+
+    @Test
+    public void testDispose() {
+        final DoubleBinding binding = FusedExpression.of(a).add(b).toBinding();
+        final InvalidationListenerMock listener = new InvalidationListenerMock();
+        binding.addListener(listener);
+        binding.get();
+        binding.dispose();
+
+        a.set(10.0);
+        listener.check(null, 0);
+    }
+
+    @Test
+    public void testReuse() {
+        final FusedExpression e = FusedExpression.of(a).multiply(2);
+        final DoubleBinding first = e.toBinding();
+        final DoubleBinding second = e.add(1).toBinding();
+        assertEquals(6.0, first.get(), EPSILON);
+        assertEquals(7.0, second.get(), EPSILON);
+    }
+
+    @Test
+    public void testLongChain() {
+        FusedExpression e = FusedExpression.of(a);
+        double expected = a.get();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                e = e.add(1);
+                expected += 1;
+            } else {
+                e = e.multiply(0.5);
+                expected *= 0.5;
+            }
+        }
+        assertEquals(expected, e.toBinding().get(), EPSILON);
+    }
+
+    @Test
+    public void testDeeplyNestedExpressions() {
+        // deep enough to overflow the stack if the tree was compiled recursively
+        final int depth = 100000;
+        FusedExpression leftDeep = FusedExpression.of(a);
+        FusedExpression rightDeep = FusedExpression.of(a);
+        FusedExpression negated = FusedExpression.of(a);
+        FusedExpression ternary = FusedExpression.of(a);
+        for (int i = 0; i < depth; i++) {
+            leftDeep = leftDeep.add(1);
+            rightDeep = FusedExpression.constant(1).add(rightDeep);
+            negated = negated.negate();
+            ternary = FusedExpression.when(cond, ternary, FusedExpression.constant(0));
+        }
+        assertEquals(a.get() + depth, leftDeep.toBinding().get(), EPSILON);
+        assertEquals(a.get() + depth, rightDeep.toBinding().get(), EPSILON);
+        assertEquals(a.get(), negated.toBinding().get(), EPSILON);
+        cond.set(true);
+        final DoubleBinding binding = ternary.toBinding();
+        assertEquals(a.get(), binding.get(), EPSILON);
+        cond.set(false);
+        assertEquals(0, binding.get(), EPSILON);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOf_Null() {
+        FusedExpression.of(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAdd_Null() {
+        FusedExpression.of(a).add((ObservableNumberValue) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testWhen_Null() {
+        FusedExpression.when(null, FusedExpression.of(a), FusedExpression.of(b));
+    }
+}
@@ -27,6 +27,8 @@ package javafx.collections;
 
 import com.sun.javafx.collections.ObservableListWrapper;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
@@ -243,4 +245,26 @@ public class FilteredListTest {
         assertEquals(list.size(), filteredList.size());
         assertEquals(list, filteredList);
     }
+
+    @Test
+    public void testRefilterRange() {
+        Set<String> excluded = new HashSet<>(Arrays.asList("c"));
+        filteredList.setPredicate(e -> !excluded.contains(e));
+        mlo.clear();
+        excluded.add("d");
+        excluded.remove("c");
+        filteredList.refilter(1, 3); // "c", "d"
+        assertEquals(Arrays.asList("a", "c"), filteredList);
+        assertEquals(1, filteredList.getSourceIndex(1));
+        mlo.check1AddRemove(filteredList, Arrays.asList("d"), 1, 2);
+
+        mlo.clear();
+        filteredList.refilter(0, 1);
+        mlo.check0();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRefilterOutOfBounds() {
+        filteredList.refilter(2, 5);
+    }
 }
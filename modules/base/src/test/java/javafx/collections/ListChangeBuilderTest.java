@@ -532,4 +532,80 @@ public class ListChangeBuilderTest {
         builder.endChange();
     }
 
+    @Test
+    public void testReusedSingleChange() {
+        observableList.removeListener(observer);
+        final ListChangeBuilder<String> reusing = new ListChangeBuilder<String>(observableList, true);
+        final List<ListChangeListener.Change<? extends String>> changes = new ArrayList<>();
+        final List<List<String>> removed = new ArrayList<>();
+        observableList.addListener((ListChangeListener.Change<? extends String> c) -> {
+            changes.add(c);
+            assertTrue(c.next());
+            removed.add(new ArrayList<String>(c.getRemoved()));
+            assertFalse(c.next());
+        });
+
+        reusing.beginChange();
+        list.remove(1);
+        reusing.nextRemove(1, "b");
+        reusing.endChange();
+
+        reusing.beginChange();
+        list.set(0, "aa");
+        reusing.nextSet(0, "a");
+        reusing.endChange();
+
+        assertEquals(2, changes.size());
+        assertSame(changes.get(0), changes.get(1));
+        assertEquals(Arrays.asList("b"), removed.get(0));
+        assertEquals(Arrays.asList("a"), removed.get(1));
+    }
+
+    @Test
+    public void testReusedSingleChange_Nested() {
+        observableList.removeListener(observer);
+        final ListChangeBuilder<String> reusing = new ListChangeBuilder<String>(observableList, true);
+        final List<String> log = new ArrayList<>();
+        observableList.addListener((ListChangeListener.Change<? extends String> c) -> {
+            assertTrue(c.next());
+            log.add(c.getFrom() + "-" + c.getTo() + c.getRemoved());
+            if (list.size() == 3) {
+                reusing.beginChange();
+                list.remove(0);
+                reusing.nextRemove(0, "a");
+                reusing.endChange();
+            }
+            // the outer change must still be intact after the nested one
+            c.reset();
+            assertTrue(c.next());
+            log.add(c.getFrom() + "-" + c.getTo() + c.getRemoved());
+        });
+
+        reusing.beginChange();
+        list.remove(3);
+        reusing.nextRemove(3, "d");
+        reusing.endChange();
+
+        assertEquals(Arrays.asList("b", "c"), list);
+        assertEquals(Arrays.asList("3-3[d]", "0-0[a]", "0-0[a]", "3-3[d]"), log);
+    }
+
+    @Test
+    public void testNoListeners() {
+        observableList.removeListener(observer);
+        builder.beginChange();
+        list.remove(0);
+        builder.nextRemove(0, "a");
+        builder.endChange();
+
+        final MockListObserver<String> late = new MockListObserver<String>();
+        observableList.addListener(late);
+        builder.beginChange();
+        list.add("e");
+        builder.nextAdd(3, 4);
+        builder.endChange();
+
+        late.check1AddRemove(observableList, Collections.EMPTY_LIST, 3, 4);
+    }
+
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for ObservableDoubleList, ObservableIntegerList and ObservableLongList.
+ */
+public class ObservablePrimitiveListTest {
+
+    private ObservableDoubleList list;
+    private MockListObserver<Double> observer;
+
+    @Before
+    public void setUp() {
+        list = FXCollections.observableDoubleList(1, 2, 3, 4);
+        observer = new MockListObserver<>();
+        list.addListener(observer);
+    }
+
+    @Test
+    public void testInitialContent() {
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0, 4.0), list);
+        assertEquals(4, list.size());
+        assertEquals(3.0, list.getDouble(2), 0);
+        assertArrayEquals(new double[] {1, 2, 3, 4}, list.toArray(new double[0]), 0);
+    }
+
+    @Test
+    public void testSetDouble() {
+        assertEquals(2.0, list.setDouble(1, 5), 0);
+        observer.check1AddRemove(list, Arrays.asList(2.0), 1, 2);
+        assertEquals(5.0, list.getDouble(1), 0);
+
+        observer.clear();
+        list.setDouble(1, 5);
+        observer.check0();
+    }
+
+    @Test
+    public void testBoxedOperations() {
+        list.add(0, 7.0);
+        observer.check1AddRemove(list, Collections.<Double>emptyList(), 0, 1);
+        observer.clear();
+        assertEquals(Double.valueOf(7.0), list.remove(0));
+        observer.check1AddRemove(list, Arrays.asList(7.0), 0, 0);
+        observer.clear();
+        list.set(3, 8.0);
+        observer.check1AddRemove(list, Arrays.asList(4.0), 3, 4);
+        observer.clear();
+        list.addAll(1, Arrays.asList(9.0, 10.0));
+        observer.check1AddRemove(list, Collections.<Double>emptyList(), 1, 3);
+        assertEquals(Arrays.asList(1.0, 9.0, 10.0, 2.0, 3.0, 8.0), list);
+        observer.clear();
+        list.removeAll(9.0, 2.0);
+        assertEquals(Arrays.asList(1.0, 10.0, 3.0, 8.0), list);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullIsRejected() {
+        list.add(null);
+    }
+
+    @Test
+    public void testAddAllRange() {
+        list.addAll(new double[] {5, 6, 7, 8}, 1, 2);
+        observer.check1AddRemove(list, Collections.<Double>emptyList(), 4, 6);
+        observer.clear();
+        list.addAll(0, new double[] {0}, 0, 1);
+        observer.check1AddRemove(list, Collections.<Double>emptyList(), 0, 1);
+        assertEquals(Arrays.asList(0.0, 1.0, 2.0, 3.0, 4.0, 6.0, 7.0), list);
+    }
+
+    @Test
+    public void testSetAllRange() {
+        list.setAll(new double[] {5, 6, 7, 8}, 1, 2);
+        observer.check1AddRemove(list, Arrays.asList(1.0, 2.0, 3.0, 4.0), 0, 2);
+        assertEquals(Arrays.asList(6.0, 7.0), list);
+
+        observer.clear();
+        list.setAll(new double[0]);
+        observer.check1AddRemove(list, Arrays.asList(6.0, 7.0), 0, 0);
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testSetRange() {
+        list.set(1, new double[] {9, 8, 7}, 1, 2);
+        observer.check1AddRemove(list, Arrays.asList(2.0, 3.0), 1, 3);
+        assertEquals(Arrays.asList(1.0, 8.0, 7.0, 4.0), list);
+    }
+
+    @Test
+    public void testRemoveRange() {
+        list.remove(1, 3);
+        observer.check1AddRemove(list, Arrays.asList(2.0, 3.0), 1, 1);
+        observer.clear();
+        list.clear();
+        observer.check1AddRemove(list, Arrays.asList(1.0, 4.0), 0, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddAllRangeOutOfBounds() {
+        list.addAll(new double[] {5, 6}, 1, 2);
+    }
+
+    @Test
+    public void testCopyToAndCapacity() {
+        list.ensureCapacity(100);
+        double[] dest = new double[3];
+        list.copyTo(1, dest, 1, 2);
+        assertArrayEquals(new double[] {0, 2, 3}, dest, 0);
+        list.trimToSize();
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0, 4.0), list);
+    }
+
+    @Test
+    public void testIntegerList() {
+        ObservableIntegerList ints = FXCollections.observableIntegerList(3, 1, 2);
+        MockListObserver<Integer> intObserver = new MockListObserver<>();
+        ints.addListener(intObserver);
+        ints.addAll(new int[] {4, 5});
+        intObserver.check1AddRemove(ints, Collections.<Integer>emptyList(), 3, 5);
+        assertEquals(1, ints.setInt(1, 7));
+        assertEquals(Arrays.asList(3, 7, 2, 4, 5), ints);
+        FXCollections.sort(ints);
+        assertEquals(Arrays.asList(2, 3, 4, 5, 7), ints);
+    }
+
+    @Test
+    public void testLongList() {
+        ObservableLongList longs = FXCollections.observableLongList();
+        longs.setAll(new long[] {1L << 40, 2, 3}, 0, 3);
+        assertEquals(1L << 40, longs.getLong(0));
+        longs.remove(0, 2);
+        assertEquals(Arrays.asList(3L), longs);
+    }
+}
@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Random;
 
 import javafx.beans.Observable;
 import javafx.beans.property.SimpleObjectProperty;
@@ -255,7 +256,7 @@ public class SortedListTest {
         ObservableList<Person> expected = FXCollections.observableArrayList(
                 new Person("five"), new Person("one"), new Person("three"),
                 new Person("two"), new Person("zero"));
-        listener.checkPermutation(0, expected, 0, list.size(), new int[]{0, 4, 1, 2, 3});
+        listener.checkPermutation(0, expected, 1, list.size(), new int[]{4, 1, 2, 3});
         listener.checkUpdate(1, expected, 4, 5);
         assertEquals(expected, sorted);
 
@@ -292,7 +293,7 @@ public class SortedListTest {
         ObservableList<Person> expected = FXCollections.observableArrayList(
                 new Person("five"), new Person("one"), new Person("three"),
                 new Person("two"), new Person("zero"));
-        listener.checkPermutation(0, expected, 0, expected.size(), new int[] {0, 4, 1, 2, 3});
+        listener.checkPermutation(0, expected, 1, expected.size(), new int[] {4, 1, 2, 3});
         listener.checkUpdate(1, expected, 4, 5);
         assertEquals(expected, sorted);
         assertEquals(expected, unsorted);
@@ -600,4 +601,39 @@ public class SortedListTest {
         mockListObserver.check1Permutation(sortedList, new int[] {0, 3, 2, 1});
         compareIndices();
     }
+
+    @Test
+    public void testSortOfLargeList() {
+        Random random = new Random(3);
+        ObservableList<Integer> source = FXCollections.observableArrayList();
+        for (int i = 0; i < 20000; ++i) {
+            source.add(random.nextInt(1000));
+        }
+        SortedList<Integer> sorted = source.sorted();
+        List<Integer> before = new ArrayList<>(sorted);
+        List<Integer> permuted = new ArrayList<>(before);
+        sorted.addListener((ListChangeListener<Integer>) c -> {
+            assertTrue(c.next());
+            assertTrue(c.wasPermutated());
+            for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                permuted.set(c.getPermutation(i), before.get(i));
+            }
+            assertFalse(c.next());
+        });
+
+        sorted.setComparator(Comparator.reverseOrder());
+        List<Integer> expected = new ArrayList<>(source);
+        Collections.sort(expected, Comparator.reverseOrder());
+        assertEquals(expected, sorted);
+        boolean[] seen = new boolean[source.size()];
+        for (int i = 0; i < sorted.size(); ++i) {
+            int sourceIndex = sorted.getSourceIndex(i);
+            assertFalse(seen[sourceIndex]);
+            seen[sourceIndex] = true;
+            assertSame(source.get(sourceIndex), sorted.get(i));
+        }
+        for (int i = 0; i < permuted.size(); ++i) {
+            assertSame(sorted.get(i), permuted.get(i));
+        }
+    }
 }
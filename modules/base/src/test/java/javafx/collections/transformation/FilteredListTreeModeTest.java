@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections.transformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javafx.beans.Observable;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Exercises the tree mode and the parallel filtering of FilteredList by using
+ * low thresholds.
+ */
+public class FilteredListTreeModeTest {
+
+    private static final class Item {
+        final IntegerProperty value = new SimpleIntegerProperty();
+
+        Item(int value) {
+            this.value.set(value);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value.get());
+        }
+    }
+
+    private static final Predicate<Item> EVEN = item -> item.value.get() % 2 == 0;
+
+    private final Random random = new Random(11);
+    private ObservableList<Item> source;
+    private FilteredList<Item> filtered;
+    private List<Item> mirror;
+
+    @Before
+    public void setUp() {
+        source = FXCollections.observableArrayList(item -> new Observable[] {item.value});
+        for (int i = 0; i < 100; ++i) {
+            source.add(new Item(random.nextInt(50)));
+        }
+        filtered = new FilteredList<>(source, EVEN, 16, 32);
+        mirror = new ArrayList<>(filtered);
+        filtered.addListener((ListChangeListener<Item>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    List<Item> copy = new ArrayList<>(mirror.subList(c.getFrom(), c.getTo()));
+                    for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                        mirror.set(c.getPermutation(i), copy.get(i - c.getFrom()));
+                    }
+                } else if (!c.wasUpdated()) {
+                    List<Item> removed = mirror.subList(c.getFrom(), c.getFrom() + c.getRemovedSize());
+                    assertEquals(c.getRemoved(), removed);
+                    removed.clear();
+                    mirror.addAll(c.getFrom(), c.getAddedSubList());
+                }
+            }
+        });
+    }
+
+    private void check() {
+        Predicate<? super Item> predicate = filtered.getPredicate() == null ? item -> true : filtered.getPredicate();
+        List<Item> expected = source.stream().filter(predicate).collect(Collectors.toList());
+        assertEquals(expected, filtered);
+        assertEquals(expected, mirror);
+        int last = -1;
+        for (int i = 0; i < filtered.size(); ++i) {
+            int sourceIndex = filtered.getSourceIndex(i);
+            assertTrue(sourceIndex > last);
+            assertSame(source.get(sourceIndex), filtered.get(i));
+            last = sourceIndex;
+        }
+    }
+
+    @Test
+    public void testInitialFilter() {
+        check();
+    }
+
+    @Test
+    public void testSingleElementChanges() {
+        for (int i = 0; i < 300; ++i) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    source.add(random.nextInt(source.size() + 1), new Item(random.nextInt(50)));
+                    break;
+                case 1:
+                    source.remove(random.nextInt(source.size()));
+                    break;
+                case 2:
+                    source.set(random.nextInt(source.size()), new Item(random.nextInt(50)));
+                    break;
+                default:
+                    source.get(random.nextInt(source.size())).value.set(random.nextInt(50));
+            }
+            check();
+        }
+    }
+
+    @Test
+    public void testBulkChangesAndPermutation() {
+        List<Item> added = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            added.add(new Item(random.nextInt(50)));
+        }
+        source.addAll(30, added);
+        check();
+        FXCollections.sort(source, (a, b) -> Integer.compare(a.value.get(), b.value.get()));
+        check();
+        source.remove(10, 250);
+        check();
+        source.add(0, new Item(8));
+        check();
+        source.clear();
+        check();
+        source.addAll(added);
+        check();
+    }
+
+    @Test
+    public void testPredicateChangeAndRefilter() {
+        int[] modulo = {3};
+        filtered.setPredicate(item -> item.value.get() % modulo[0] == 0);
+        check();
+        modulo[0] = 5;
+        filtered.refilter(0, 40);
+        for (int i = 0; i < 40; ++i) {
+            Item item = source.get(i);
+            assertEquals(item.value.get() % 5 == 0, filtered.contains(item));
+        }
+        filtered.refilter(40, source.size());
+        check();
+        filtered.setPredicate(null);
+        check();
+        source.remove(0, 60);
+        check();
+    }
+}
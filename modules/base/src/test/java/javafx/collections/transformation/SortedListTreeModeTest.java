@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections.transformation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javafx.beans.Observable;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.MockListObserver;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Exercises the tree mode and the parallel sorting of SortedList by using
+ * low thresholds.
+ */
+public class SortedListTreeModeTest {
+
+    private static final class Item {
+        final IntegerProperty value = new SimpleIntegerProperty();
+
+        Item(int value) {
+            this.value.set(value);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value.get());
+        }
+    }
+
+    private static final Comparator<Item> BY_VALUE = (a, b) -> Integer.compare(a.value.get(), b.value.get());
+
+    private final Random random = new Random(42);
+    private ObservableList<Item> source;
+    private SortedList<Item> sorted;
+    private List<Item> mirror;
+
+    @Before
+    public void setUp() {
+        source = FXCollections.observableArrayList(item -> new Observable[] {item.value});
+        for (int i = 0; i < 100; ++i) {
+            source.add(new Item(random.nextInt(50)));
+        }
+        sorted = new SortedList<>(source, BY_VALUE, 16, 0);
+        mirror = new ArrayList<>(sorted);
+        sorted.addListener((ListChangeListener<Item>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    List<Item> copy = new ArrayList<>(mirror.subList(c.getFrom(), c.getTo()));
+                    for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                        mirror.set(c.getPermutation(i), copy.get(i - c.getFrom()));
+                    }
+                } else if (!c.wasUpdated()) {
+                    List<Item> removed = mirror.subList(c.getFrom(), c.getFrom() + c.getRemovedSize());
+                    assertEquals(c.getRemoved(), removed);
+                    removed.clear();
+                    mirror.addAll(c.getFrom(), c.getAddedSubList());
+                }
+            }
+        });
+    }
+
+    private void check() {
+        assertEquals(source.size(), sorted.size());
+        for (int i = 1; i < sorted.size(); ++i) {
+            assertTrue(BY_VALUE.compare(sorted.get(i - 1), sorted.get(i)) <= 0);
+        }
+        Map<Integer, Integer> seen = new IdentityHashMap<>();
+        for (int i = 0; i < sorted.size(); ++i) {
+            int sourceIndex = sorted.getSourceIndex(i);
+            assertSame(source.get(sourceIndex), sorted.get(i));
+            assertNull(seen.put(sourceIndex, i));
+            assertSame(mirror.get(i), sorted.get(i));
+        }
+        assertEquals(mirror.size(), sorted.size());
+    }
+
+    @Test
+    public void testInitialSort() {
+        check();
+    }
+
+    @Test
+    public void testSingleElementChanges() {
+        for (int i = 0; i < 300; ++i) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    source.add(random.nextInt(source.size() + 1), new Item(random.nextInt(50)));
+                    break;
+                case 1:
+                    source.remove(random.nextInt(source.size()));
+                    break;
+                default:
+                    source.get(random.nextInt(source.size())).value.set(random.nextInt(50));
+            }
+            check();
+        }
+    }
+
+    @Test
+    public void testUpdateEmitsMinimalPermutation() {
+        source.setAll(new Item(0), new Item(10), new Item(20), new Item(30), new Item(40));
+        for (int i = 0; i < 20; ++i) {
+            source.add(new Item(100 + i));
+        }
+        MockListObserver<Item> observer = new MockListObserver<>();
+        sorted.addListener(observer);
+
+        source.get(1).value.set(35); // 10 -> 35 moves from 1 to 3
+        observer.checkPermutation(0, sorted, 1, 4, new int[] {3, 1, 2});
+        observer.checkUpdate(1, sorted, 3, 4);
+        check();
+
+        observer.clear();
+        source.get(2).value.set(21); // stays in place
+        observer.check1Update(sorted, 1, 2);
+        check();
+    }
+
+    @Test
+    public void testBulkChanges() {
+        List<Item> added = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            added.add(new Item(random.nextInt(50)));
+        }
+        source.addAll(30, added);
+        check();
+        source.remove(10, 250);
+        check();
+        source.add(0, new Item(7));
+        check();
+        source.remove(0, source.size());
+        check();
+        source.addAll(added);
+        check();
+    }
+
+    @Test
+    public void testComparatorChangeAndSourcePermutation() {
+        sorted.setComparator(BY_VALUE.reversed());
+        assertEquals(mirror, sorted);
+        for (int i = 1; i < sorted.size(); ++i) {
+            assertTrue(sorted.get(i - 1).value.get() >= sorted.get(i).value.get());
+        }
+        FXCollections.sort(source, BY_VALUE);
+        sorted.setComparator(BY_VALUE);
+        check();
+        source.get(0).value.set(1000);
+        check();
+        sorted.setComparator(null);
+        assertEquals(source, sorted);
+        assertEquals(mirror, sorted);
+    }
+
+    @Test
+    public void testParallelSort() {
+        // without the tree mode, so that every sort is a full sort
+        sorted = new SortedList<>(source, null, 0, 32);
+        mirror = new ArrayList<>(sorted);
+        sorted.addListener((ListChangeListener<Item>) c -> {
+            assertTrue(c.next());
+            assertTrue(c.wasPermutated());
+            List<Item> copy = new ArrayList<>(mirror.subList(c.getFrom(), c.getTo()));
+            for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                mirror.set(c.getPermutation(i), copy.get(i - c.getFrom()));
+            }
+            assertFalse(c.next());
+        });
+
+        sorted.setComparator(BY_VALUE.reversed());
+        List<Item> expected = new ArrayList<>(source);
+        expected.sort(BY_VALUE.reversed());
+        assertEquals(expected, sorted);
+        assertEquals(mirror, sorted);
+        for (int i = 0; i < sorted.size(); ++i) {
+            assertSame(source.get(sorted.getSourceIndex(i)), sorted.get(i));
+        }
+
+        sorted.setComparator(BY_VALUE);
+        expected.sort(BY_VALUE);
+        assertEquals(expected, sorted);
+        assertEquals(mirror, sorted);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.charts;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableDoubleList;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+import javafx.scene.chart.XYChart.Data;
+
+/**
+ * Keeps the data of an XYChart series in sync with two ObservableDoubleLists
+ * holding the x and the y values of the points, so that models can keep their
+ * values unboxed and only the points of the series are boxed. Existing points
+ * are updated in place when values change.
+ * <p>
+ * Points are added and removed following the changes of the y values, so the
+ * x values must be changed in the same way and before the y values.
+ */
+public final class DoubleSeriesAdapter {
+
+    private final XYChart.Series<Number, Number> series;
+    private final ObservableDoubleList xValues;
+    private final ObservableDoubleList yValues;
+
+    private final ListChangeListener<Double> xListener = this::xValuesChanged;
+    private final ListChangeListener<Double> yListener = this::yValuesChanged;
+
+    public DoubleSeriesAdapter(XYChart.Series<Number, Number> series,
+                               ObservableDoubleList xValues, ObservableDoubleList yValues) {
+        this.series = series;
+        this.xValues = xValues;
+        this.yValues = yValues;
+        series.getData().setAll(createData(0, yValues.size()));
+        xValues.addListener(xListener);
+        yValues.addListener(yListener);
+    }
+
+    /**
+     * Stops following the changes of the values. The points of the series
+     * are left as they are.
+     */
+    public void dispose() {
+        xValues.removeListener(xListener);
+        yValues.removeListener(yListener);
+    }
+
+    private void xValuesChanged(Change<? extends Double> c) {
+        while (c.next()) {
+            // other structural changes are applied along with the y values
+            if (c.wasPermutated() || c.wasUpdated() || c.getAddedSize() == c.getRemovedSize()) {
+                refresh(c.getFrom(), c.getTo());
+            }
+        }
+    }
+
+    private void yValuesChanged(Change<? extends Double> c) {
+        final ObservableList<Data<Number, Number>> data = series.getData();
+        while (c.next()) {
+            if (c.wasPermutated() || c.wasUpdated() || c.getAddedSize() == c.getRemovedSize()) {
+                refresh(c.getFrom(), c.getTo());
+            } else {
+                if (c.wasRemoved()) {
+                    data.remove(c.getFrom(), c.getFrom() + c.getRemovedSize());
+                }
+                if (c.wasAdded()) {
+                    data.addAll(c.getFrom(), createData(c.getFrom(), c.getTo()));
+                }
+            }
+        }
+    }
+
+    private void refresh(int from, int to) {
+        final ObservableList<Data<Number, Number>> data = series.getData();
+        to = Math.min(to, Math.min(data.size(), xValues.size()));
+        for (int i = from; i < to; ++i) {
+            final Data<Number, Number> point = data.get(i);
+            final double x = xValues.getDouble(i);
+            final double y = yValues.getDouble(i);
+            if (point.getXValue() == null || point.getXValue().doubleValue() != x) {
+                point.setXValue(x);
+            }
+            if (point.getYValue() == null || point.getYValue().doubleValue() != y) {
+                point.setYValue(y);
+            }
+        }
+    }
+
+    private List<Data<Number, Number>> createData(int from, int to) {
+        final List<Data<Number, Number>> points = new ArrayList<>(to - from);
+        for (int i = from; i < to; ++i) {
+            points.add(new Data<>(xValues.getDouble(i), yValues.getDouble(i)));
+        }
+        return points;
+    }
+}
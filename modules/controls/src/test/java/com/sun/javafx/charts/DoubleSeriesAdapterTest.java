@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.charts;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableDoubleList;
+import javafx.scene.chart.XYChart;
+import javafx.scene.chart.XYChart.Data;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DoubleSeriesAdapterTest {
+
+    private ObservableDoubleList xValues;
+    private ObservableDoubleList yValues;
+    private XYChart.Series<Number, Number> series;
+    private DoubleSeriesAdapter adapter;
+
+    @Before
+    public void setUp() {
+        xValues = FXCollections.observableDoubleList(0, 1, 2);
+        yValues = FXCollections.observableDoubleList(10, 11, 12);
+        series = new XYChart.Series<>();
+        adapter = new DoubleSeriesAdapter(series, xValues, yValues);
+    }
+
+    private void assertPoints(double... xy) {
+        assertEquals(xy.length / 2, series.getData().size());
+        for (int i = 0; i < xy.length / 2; ++i) {
+            Data<Number, Number> point = series.getData().get(i);
+            assertEquals(xy[2 * i], point.getXValue().doubleValue(), 0);
+            assertEquals(xy[2 * i + 1], point.getYValue().doubleValue(), 0);
+        }
+    }
+
+    @Test
+    public void testInitialPoints() {
+        assertPoints(0, 10, 1, 11, 2, 12);
+    }
+
+    @Test
+    public void testValueChangesUpdatePointsInPlace() {
+        Data<Number, Number> point = series.getData().get(1);
+        yValues.setDouble(1, 20);
+        xValues.set(0, new double[] {5, 6}, 0, 2);
+        assertSame(point, series.getData().get(1));
+        assertPoints(5, 10, 6, 20, 2, 12);
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        Data<Number, Number> last = series.getData().get(2);
+        xValues.addAll(new double[] {3}, 0, 1);
+        yValues.addAll(new double[] {13}, 0, 1);
+        xValues.remove(0);
+        yValues.remove(0);
+        assertPoints(1, 11, 2, 12, 3, 13);
+        assertSame(last, series.getData().get(1));
+    }
+
+    @Test
+    public void testDispose() {
+        adapter.dispose();
+        yValues.setDouble(0, 99);
+        assertPoints(0, 10, 1, 11, 2, 12);
+    }
+}
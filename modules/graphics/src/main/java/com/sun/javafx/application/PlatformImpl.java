@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -72,7 +73,12 @@ public class PlatformImpl {
     private static AtomicBoolean reallyIdle = new AtomicBoolean(false);
     private static Set<FinishListener> finishListeners =
             new CopyOnWriteArraySet<FinishListener>();
-    private final static Object runLaterLock = new Object();
+    private static final RunLaterQueue runLaterQueue = AccessController.doPrivileged(
+            (PrivilegedAction<RunLaterQueue>) () -> new RunLaterQueue(
+                    Integer.getInteger("javafx.runLater.batchSize", 1024),
+                    Integer.getInteger("javafx.runLater.capacity", 0),
+                    r -> Toolkit.getToolkit().defer(r),
+                    () -> Toolkit.getToolkit().isFxUserThread()));
     private static Boolean isGraphicsSupported;
     private static Boolean isControlsSupported;
     private static Boolean isMediaSupported;
@@ -268,7 +274,45 @@ public class PlatformImpl {
         runLater(r, false);
     }
 
+    /**
+     * Like {@link #runLater(Runnable)}, but if the run later queue is bounded
+     * with the {@code javafx.runLater.capacity} system property, waits at most
+     * the given time for the queue to have room for the runnable. If the queue
+     * is unbounded or this is called on the FX application thread, the
+     * runnable is always queued.
+     *
+     * @return false if the queue stayed full and the runnable was not queued
+     */
+    public static boolean runLater(final Runnable r, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return runLater(r, false, unit.toNanos(timeout));
+    }
+
+    /**
+     * Returns the number of runnables posted with runLater that are waiting
+     * to be run.
+     */
+    public static int getRunLaterQueueDepth() {
+        return runLaterQueue.getDepth();
+    }
+
     private static void runLater(final Runnable r, boolean exiting) {
+        try {
+            runLater(r, exiting, Long.MAX_VALUE);
+        } catch (InterruptedException ex) {
+            // runLater does not fail, the runnable has been queued anyway
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Queues the runnable, waiting at most timeoutNanos for room in a bounded
+     * queue unless the toolkit is exiting. If the wait is interrupted, a
+     * runnable without timeout is queued anyway before the exception is
+     * thrown.
+     */
+    private static boolean runLater(final Runnable r, boolean exiting, long timeoutNanos)
+            throws InterruptedException {
         if (!initialized.get()) {
             throw new IllegalStateException("Toolkit not initialized");
         }
@@ -280,27 +324,45 @@ public class PlatformImpl {
             Toolkit.getToolkit().pauseCurrentThread();
         }
 
-        synchronized (runLaterLock) {
-            if (!exiting && toolkitExit.get()) {
-                // Don't schedule a runnable after we have exited the toolkit
+        if (!exiting && toolkitExit.get()) {
+            // Don't schedule a runnable after we have exited the toolkit
+            pendingRunnables.decrementAndGet();
+            return true;
+        }
+
+        final AccessControlContext acc = AccessController.getContext();
+        // Don't catch exceptions, they are handled by Toolkit.defer()
+        final Runnable runnable = () -> {
+            try {
+                AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                    r.run();
+                    return null;
+                }, acc);
+            } finally {
                 pendingRunnables.decrementAndGet();
-                return;
+                checkIdle();
             }
+        };
 
-            final AccessControlContext acc = AccessController.getContext();
-            // Don't catch exceptions, they are handled by Toolkit.defer()
-            Toolkit.getToolkit().defer(() -> {
-                try {
-                    AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
-                        r.run();
-                        return null;
-                    }, acc);
-                } finally {
-                    pendingRunnables.decrementAndGet();
-                    checkIdle();
-                }
-            });
+        if (exiting) {
+            runLaterQueue.offer(runnable);
+            return true;
+        }
+        boolean queued = false;
+        try {
+            queued = runLaterQueue.offer(runnable, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            if (timeoutNanos == Long.MAX_VALUE) {
+                runLaterQueue.offer(runnable);
+                queued = true;
+            }
+            throw ex;
+        } finally {
+            if (!queued) {
+                pendingRunnables.decrementAndGet();
+            }
         }
+        return queued;
     }
 
     public static void runAndWait(final Runnable r) {
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.application;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import com.sun.javafx.perf.PerformanceTracker;
+
+/**
+ * The queue of runnables posted with {@code Platform.runLater}.
+ * <p>
+ * Producers append to a lock-free queue and only defer a drain to the
+ * toolkit when none is pending, so a burst of runnables costs a single
+ * wakeup of the FX application thread instead of one per runnable. Each
+ * drain runs at most {@code batchSize} runnables before yielding back to the
+ * event loop, so that input events and pulses are not starved.
+ * <p>
+ * While runnables remain queued, a drain is always pending. A runnable that
+ * enters a nested event loop therefore does not block the runnables queued
+ * after it, which may run inside the nested loop, as before.
+ * <p>
+ * If a capacity is set, producers other than the FX application thread wait
+ * while the queue holds that many runnables.
+ */
+final class RunLaterQueue {
+
+    private static final AtomicLong depthCounter =
+            PerformanceTracker.getCounter("RunLaterQueue.depth");
+    private static final AtomicLong maxDepthCounter =
+            PerformanceTracker.getCounter("RunLaterQueue.maxDepth");
+    private static final AtomicLong runCounter =
+            PerformanceTracker.getCounter("RunLaterQueue.runnables");
+    private static final AtomicLong wakeupCounter =
+            PerformanceTracker.getCounter("RunLaterQueue.wakeups");
+    private static final AtomicLong latencyCounter =
+            PerformanceTracker.getCounter("RunLaterQueue.latencyNanos");
+    private static final AtomicLong maxLatencyCounter =
+            PerformanceTracker.getCounter("RunLaterQueue.maxLatencyNanos");
+
+    private static final class Entry {
+        final Runnable runnable;
+        final long time;
+
+        Entry(Runnable runnable, long time) {
+            this.runnable = runnable;
+            this.time = time;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<Entry>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean drainPending = new AtomicBoolean();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+    private final Object capacityLock = new Object();
+    private final Runnable drainer = this::drain;
+
+    private final int batchSize;
+    private final int capacity;
+    private final Executor deferrer;
+    private final BooleanSupplier consumerThread;
+
+    /**
+     * @param batchSize the maximum number of runnables run per drain
+     * @param capacity the number of queued runnables at which producers
+     *                 start to wait, or 0 for an unbounded queue
+     * @param deferrer runs a drain later on the consumer thread, normally
+     *                 {@code Toolkit.defer}
+     * @param consumerThread tells whether the calling thread is the
+     *                 consumer thread, normally {@code Toolkit.isFxUserThread}
+     */
+    RunLaterQueue(int batchSize, int capacity, Executor deferrer,
+                  BooleanSupplier consumerThread) {
+        this.batchSize = Math.max(1, batchSize);
+        this.capacity = Math.max(0, capacity);
+        this.deferrer = deferrer;
+        this.consumerThread = consumerThread;
+    }
+
+    /**
+     * Returns the number of runnables waiting to be run.
+     */
+    int getDepth() {
+        return depth.get();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Appends a runnable once the queue has room for it, waiting for at most
+     * the given time. The room is taken in the same step as it is found, so
+     * another producer cannot fill the queue in between. Never waits on the
+     * FX application thread, which must never wait for itself.
+     *
+     * @return false if the queue is still full after the timeout, in which
+     *         case the runnable is not appended
+     */
+    boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+        if (capacity == 0 || consumerThread.getAsBoolean()) {
+            offer(runnable);
+            return true;
+        }
+        int d = reserve();
+        if (d == 0) {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (capacityLock) {
+                waitingProducers.incrementAndGet();
+                try {
+                    while ((d = reserve()) == 0) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(capacityLock, remaining);
+                    }
+                } finally {
+                    waitingProducers.decrementAndGet();
+                }
+            }
+        }
+        append(runnable, d);
+        return true;
+    }
+
+    /**
+     * Appends a runnable and makes sure a drain is pending, even if the
+     * queue is full.
+     */
+    void offer(Runnable runnable) {
+        append(runnable, depth.incrementAndGet());
+    }
+
+    // Takes room for one runnable, returns the new depth or 0 if the queue is full
+    private int reserve() {
+        int d;
+        while ((d = depth.get()) < capacity) {
+            if (depth.compareAndSet(d, d + 1)) {
+                return d + 1;
+            }
+        }
+        return 0;
+    }
+
+    // Appends a runnable for which depth has already been incremented to d
+    private void append(Runnable runnable, int d) {
+        queue.offer(new Entry(runnable, System.nanoTime()));
+        depthCounter.incrementAndGet();
+        if (d > maxDepthCounter.get()) {
+            updateMax(maxDepthCounter, d);
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!drainPending.get() && drainPending.compareAndSet(false, true)) {
+            wakeupCounter.incrementAndGet();
+            deferrer.execute(drainer);
+        }
+    }
+
+    private void drain() {
+        // Runnables offered from now on need another drain, unless this one
+        // reschedules itself below
+        drainPending.set(false);
+
+        for (int i = 0; i < batchSize; i++) {
+            final Entry entry = queue.poll();
+            if (entry == null) {
+                return;
+            }
+            final int d = depth.decrementAndGet();
+            depthCounter.decrementAndGet();
+            if (capacity > 0 && d < capacity && waitingProducers.get() > 0) {
+                synchronized (capacityLock) {
+                    capacityLock.notifyAll();
+                }
+            }
+
+            final long latency = System.nanoTime() - entry.time;
+            latencyCounter.addAndGet(latency);
+            if (latency > maxLatencyCounter.get()) {
+                updateMax(maxLatencyCounter, latency);
+            }
+            runCounter.incrementAndGet();
+
+            // Keep a drain pending while runnables remain, both to continue
+            // after this batch and in case this runnable enters a nested
+            // event loop or throws
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+            entry.runnable.run();
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import javafx.css.Styleable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bloom filter of the type selectors, ids and style-classes of the
+ * ancestors of a Styleable. A CompoundSelector can only apply to the
+ * Styleable if every SimpleSelector but the last one matches some ancestor,
+ * so if the filter does not contain the type, id and style-classes of those
+ * SimpleSelectors, the selector can be rejected without walking the ancestor
+ * chain. The filter may give false positives, in which case the selector is
+ * still matched the slow way, but never false negatives.
+ */
+final class AncestorFilter {
+
+    // 1024 bits, two bits per key
+    private static final int BITS = 1024;
+    private static final int MASK = BITS - 1;
+
+    private final long[] bits = new long[BITS / Long.SIZE];
+
+    /** Fill the filter from the ancestors of the given styleable. */
+    void reset(Styleable styleable) {
+
+        Arrays.fill(bits, 0L);
+
+        Styleable parent = styleable != null ? styleable.getStyleableParent() : null;
+        while (parent != null) {
+
+            add(typeHash(parent.getTypeSelector()));
+
+            final String id = parent.getId();
+            if (id != null && id.isEmpty() == false) {
+                add(idHash(id));
+            }
+
+            final List<String> styleClasses = parent.getStyleClass();
+            for (int n=0, nMax=styleClasses.size(); n<nMax; n++) {
+                final String styleClass = styleClasses.get(n);
+                if (styleClass == null || styleClass.isEmpty()) continue;
+                add(styleClassHash(styleClass));
+            }
+
+            parent = parent.getStyleableParent();
+        }
+    }
+
+    /**
+     * @return false if the ancestors cannot match all of the given hashes,
+     * true if they might
+     */
+    boolean mightContainAll(int[] hashes) {
+        for (int n=0; n<hashes.length; n++) {
+            if (mightContain(hashes[n]) == false) return false;
+        }
+        return true;
+    }
+
+    private void add(int hash) {
+        final int h1 = hash & MASK;
+        final int h2 = (hash >>> 16) & MASK;
+        bits[h1 >>> 6] |= 1L << h1;
+        bits[h2 >>> 6] |= 1L << h2;
+    }
+
+    private boolean mightContain(int hash) {
+        final int h1 = hash & MASK;
+        final int h2 = (hash >>> 16) & MASK;
+        return (bits[h1 >>> 6] & (1L << h1)) != 0
+                && (bits[h2 >>> 6] & (1L << h2)) != 0;
+    }
+
+    /*
+     * Types, ids and style-classes share the filter, so each gets its own
+     * salt; mix spreads String.hashCode over the bits used by add.
+     */
+    static int typeHash(String type) {
+        return mix(type != null ? type.hashCode() : 0);
+    }
+
+    static int idHash(String id) {
+        return mix(id.hashCode() ^ 0x5bd1e995);
+    }
+
+    static int styleClassHash(String styleClass) {
+        return mix(styleClass.hashCode() ^ 0x27d4eb2d);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
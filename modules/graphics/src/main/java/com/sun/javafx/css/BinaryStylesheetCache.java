@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import com.sun.javafx.css.parser.CSSParser;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import sun.util.logging.PlatformLogger;
+import sun.util.logging.PlatformLogger.Level;
+
+/**
+ * An on-disk cache of parsed stylesheets in binary format. Setting
+ * javafx.css.cache.dir to a directory enables the cache. A .css file loaded
+ * from a file: URL is then parsed only the first time its content is seen
+ * at that URL. The binary form is written to the cache directory, in a file
+ * named for a digest of the URL and the checksum of the content. Later
+ * loads, in this or later runs, read the binary form from there instead.
+ * The URL is part of the name since parsed url() values are resolved
+ * against it, so the same content at another URL parses differently.
+ * <p>
+ * Stylesheets with an @import are not cached, since their rules depend on
+ * the content of the imported stylesheets too. Neither are stylesheets with
+ * errors, which are only reported while parsing.
+ */
+final class BinaryStylesheetCache {
+
+    private static File cacheDir = AccessController.doPrivileged((PrivilegedAction<File>) () -> {
+        final String dir = System.getProperty("javafx.css.cache.dir");
+        return dir != null && dir.trim().isEmpty() == false ? new File(dir.trim()) : null;
+    });
+
+    private BinaryStylesheetCache() {
+    }
+
+    // package for testing
+    static void setCacheDir(File dir) {
+        cacheDir = dir;
+    }
+
+    // package for testing
+    static File getCacheFile(URL url) {
+        final byte[] checksum = StyleManager.calculateCheckSum(url.toExternalForm());
+        return cacheDir != null && checksum.length > 0
+                ? new File(cacheDir, fileName(url.toExternalForm(), checksum)) : null;
+    }
+
+    /** Parse the .css file at url, or load its cached binary form. */
+    static Stylesheet parse(final URL url) throws IOException {
+
+        final File dir = cacheDir;
+        final String path = url.toExternalForm();
+        final byte[] checksum =
+                dir != null ? StyleManager.calculateCheckSum(path) : new byte[0];
+
+        // calculateCheckSum only handles file: URLs
+        if (checksum.length == 0) {
+            return new CSSParser().parse(url);
+        }
+
+        final File file = new File(dir, fileName(path, checksum));
+        Stylesheet stylesheet = read(file, path);
+        if (stylesheet != null) {
+            return stylesheet;
+        }
+
+        final CSSParser parser = new CSSParser();
+        stylesheet = parser.parse(url);
+
+        // don't cache a stylesheet that changed while it was being parsed
+        if (parser.hasImports() == false && parser.hasErrors() == false
+                && Arrays.equals(checksum, StyleManager.calculateCheckSum(path))) {
+            write(file, stylesheet);
+        }
+        return stylesheet;
+    }
+
+    private static String fileName(String url, byte[] checksum) {
+        final byte[] key;
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("MD5");
+            digest.update(url.getBytes(StandardCharsets.UTF_8));
+            key = digest.digest(checksum);
+        } catch (NoSuchAlgorithmException e) {
+            // calculateCheckSum would have failed already
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder name = new StringBuilder(key.length * 2 + 8);
+        for (byte b : key) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16));
+            name.append(Character.forDigit(b & 0xf, 16));
+        }
+        return name.append("-v").append(Stylesheet.BINARY_CSS_VERSION).append(".bss").toString();
+    }
+
+    private static Stylesheet read(File file, String url) {
+        try {
+            if (file.isFile() == false) {
+                return null;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel channel = raf.getChannel()) {
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return Stylesheet.loadBinary(new ByteBufferInputStream(buffer), url);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A damaged cache file is parsed again and overwritten
+            log("Could not read cached stylesheet " + file + " for " + url + ": " + e);
+            return null;
+        }
+    }
+
+    private static void write(File file, Stylesheet stylesheet) {
+        final File dir = file.getParentFile();
+        File temp = null;
+        try {
+            if (dir.isDirectory() == false && dir.mkdirs() == false) {
+                return;
+            }
+            // Write to a temporary file first so that a concurrent reader,
+            // in this or another process, never sees a partial file
+            temp = File.createTempFile("css", ".tmp", dir);
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                stylesheet.writeBinary(out);
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException | SecurityException e) {
+            log("Could not cache stylesheet " + stylesheet.getUrl() + ": " + e);
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    private static void log(String message) {
+        final PlatformLogger logger = com.sun.javafx.util.Logging.getCSSLogger();
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(message);
+        }
+    }
+
+    /** An InputStream over a ByteBuffer, which supports mark and reset. */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (buffer.hasRemaining() == false) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override public long skip(long n) {
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override public int available() {
+            return buffer.remaining();
+        }
+
+        @Override public boolean markSupported() {
+            return true;
+        }
+
+        @Override public synchronized void mark(int readlimit) {
+            buffer.mark();
+        }
+
+        @Override public synchronized void reset() {
+            buffer.reset();
+        }
+    }
+}
@@ -88,6 +88,13 @@ public final class CalculatedValue {
         return true;
     }
 
+    @Override public int hashCode() {
+        int hash = value != null ? value.hashCode() : 0;
+        hash = 31 * hash + (origin != null ? origin.hashCode() : 0);
+        hash = 31 * hash + (relative ? 1 : 0);
+        return hash;
+    }
+
     private final Object value;
     private final StyleOrigin origin;
     private final boolean relative;
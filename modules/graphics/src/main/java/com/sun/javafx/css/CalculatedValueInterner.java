@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import javafx.geometry.Insets;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.Border;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Interns the CalculatedValues that go into a StyleCacheEntry so that equal
+ * values share one instance. A StyleCache is keyed by the StyleMaps of a node
+ * and of its parents, so identical nodes under slightly different parents
+ * (the cells of a TableView, for example) each have their own cache and would
+ * otherwise each hold their own copy of the same Background, Border, etc.
+ * <p>
+ * Only values of immutable types with value equality are interned: Insets,
+ * Background, Border, Font and Paint. The interned values are weakly held, so
+ * a value is dropped once no cache entry refers to it. Interning can be turned
+ * off with -Djavafx.css.intern=false.
+ */
+public final class CalculatedValueInterner {
+
+    private CalculatedValueInterner() {
+    }
+
+    private static final boolean enabled = AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+            Boolean.valueOf(System.getProperty("javafx.css.intern", "true")));
+
+    // The kinds of values that are interned. Used to index the statistics.
+    private static final int INSETS = 0;
+    private static final int BACKGROUND = 1;
+    private static final int BORDER = 2;
+    private static final int FONT = 3;
+    private static final int PAINT = 4;
+    private static final String[] KIND_NAMES = { "Insets", "Background", "Border", "Font", "Paint" };
+
+    private static final Map<CalculatedValue, WeakReference<CalculatedValue>> values = new WeakHashMap<>();
+
+    // number of calls to intern for each kind of value
+    private static final long[] requests = new long[KIND_NAMES.length];
+    // number of calls to intern that returned a value that was already interned
+    private static final long[] hits = new long[KIND_NAMES.length];
+
+    /**
+     * Return the interned instance of the given CalculatedValue, or the
+     * CalculatedValue itself if its value is not of a kind that is interned.
+     */
+    public static CalculatedValue intern(CalculatedValue calculatedValue) {
+
+        if (!enabled || calculatedValue == null || calculatedValue == CalculatedValue.SKIP) {
+            return calculatedValue;
+        }
+
+        final int kind = getKind(calculatedValue.getValue());
+        if (kind < 0) {
+            return calculatedValue;
+        }
+
+        synchronized (values) {
+
+            requests[kind] += 1;
+
+            final WeakReference<CalculatedValue> ref = values.get(calculatedValue);
+            final CalculatedValue interned = ref != null ? ref.get() : null;
+            if (interned != null) {
+                hits[kind] += 1;
+                return interned;
+            }
+
+            values.put(calculatedValue, new WeakReference<>(calculatedValue));
+            return calculatedValue;
+        }
+    }
+
+    private static int getKind(Object value) {
+        if (value instanceof Paint) return PAINT;
+        if (value instanceof Insets) return INSETS;
+        if (value instanceof Background) return BACKGROUND;
+        if (value instanceof Border) return BORDER;
+        if (value instanceof Font) return FONT;
+        return -1;
+    }
+
+    /**
+     * @return the number of distinct values that are currently interned
+     */
+    public static int size() {
+        synchronized (values) {
+            return values.size();
+        }
+    }
+
+    /**
+     * @return the number of times intern was called with a value of a kind
+     * that is interned
+     */
+    public static long getRequestCount() {
+        synchronized (values) {
+            long count = 0;
+            for (long n : requests) count += n;
+            return count;
+        }
+    }
+
+    /**
+     * @return the number of times intern returned a value that was already
+     * interned. Each hit is a duplicate that a StyleCacheEntry does not hold on to.
+     */
+    public static long getHitCount() {
+        synchronized (values) {
+            long count = 0;
+            for (long n : hits) count += n;
+            return count;
+        }
+    }
+
+    /**
+     * @return a one line summary, per kind of value, of the number of values
+     * currently interned and of the requests and hits so far.
+     */
+    public static String getStatistics() {
+
+        synchronized (values) {
+
+            final int[] sizes = new int[KIND_NAMES.length];
+            for (CalculatedValue calculatedValue : values.keySet()) {
+                final int kind = getKind(calculatedValue.getValue());
+                if (kind >= 0) sizes[kind] += 1;
+            }
+
+            final StringBuilder sbuf = new StringBuilder();
+            for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+                if (kind > 0) sbuf.append(", ");
+                sbuf.append(KIND_NAMES[kind])
+                    .append(" {interned=").append(sizes[kind])
+                    .append(", requests=").append(requests[kind])
+                    .append(", hits=").append(hits[kind])
+                    .append('}');
+            }
+            return sbuf.toString();
+        }
+    }
+
+    /**
+     * Reset the request and hit counts. The interned values are kept.
+     */
+    public static void resetStatistics() {
+        synchronized (values) {
+            for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+                requests[kind] = 0;
+                hits[kind] = 0;
+            }
+        }
+    }
+}
@@ -69,6 +69,11 @@ public class CascadingStyle implements Comparable<CascadingStyle> {
         return style.getDeclaration().getProperty();
     }
 
+    /* the pseudo-classes of the selector that matched, used by StyleMap */
+    Set<PseudoClass> getPseudoClasses() {
+        return pseudoClasses;
+    }
+
     // Wrapper to make StyleHelper's life a little easier
     public Selector getSelector() {
         return style.getSelector();
@@ -250,6 +250,41 @@ final public class CompoundSelector extends Selector {
         return false;
     }
 
+    // hashes of the type, id and style-classes that the ancestors of a
+    // matching node must have, for AncestorFilter. Computed on first use.
+    private int[] ancestorHashes = null;
+
+    int[] getAncestorHashes() {
+        if (ancestorHashes == null) {
+            final List<Integer> hashes = new ArrayList<>();
+            // the last selector matches the node itself, not an ancestor
+            for (int n=0, nMax=selectors.size()-1; n<nMax; n++) {
+                final SimpleSelector sel = selectors.get(n);
+
+                final String name = sel.getName();
+                if (name.isEmpty() == false && "*".equals(name) == false) {
+                    hashes.add(AncestorFilter.typeHash(name));
+                }
+
+                final String id = sel.getId();
+                if (id.isEmpty() == false) {
+                    hashes.add(AncestorFilter.idHash(id));
+                }
+
+                for (StyleClass styleClass : sel.getStyleClassSet()) {
+                    hashes.add(AncestorFilter.styleClassHash(styleClass.getStyleClassName()));
+                }
+            }
+
+            final int[] array = new int[hashes.size()];
+            for (int n=0; n<array.length; n++) {
+                array[n] = hashes.get(n);
+            }
+            ancestorHashes = array;
+        }
+        return ancestorHashes;
+    }
+
     private  int hash = -1;
 
     /* Hash code is used in Style's hash code and Style's hash
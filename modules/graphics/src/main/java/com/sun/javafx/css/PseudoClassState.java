@@ -115,14 +115,16 @@ public final class PseudoClassState extends BitSet<PseudoClass> {
         }
 
         final String pseudoClass = t.getPseudoClassName();
-        Integer index = pseudoClassMap.get(pseudoClass);
+        synchronized (pseudoClassMap) {
+            Integer index = pseudoClassMap.get(pseudoClass);
 
-        if (index == null) {
-            index = Integer.valueOf(pseudoClasses.size());
-            pseudoClasses.add(new PseudoClassImpl(pseudoClass, index.intValue()));
-            pseudoClassMap.put(pseudoClass, index);
+            if (index == null) {
+                index = Integer.valueOf(pseudoClasses.size());
+                pseudoClasses.add(new PseudoClassImpl(pseudoClass, index.intValue()));
+                pseudoClassMap.put(pseudoClass, index);
+            }
+            return index.intValue();
         }
-        return index.intValue();
 
     }
 
@@ -136,35 +138,40 @@ public final class PseudoClassState extends BitSet<PseudoClass> {
             throw new IllegalArgumentException("pseudoClass cannot be null or empty String");
         }
 
-        PseudoClass instance = null;
+        // Stylesheets may be parsed on several threads at once
+        synchronized (pseudoClassMap) {
+            PseudoClass instance = null;
 
-        final Integer value = pseudoClassMap.get(pseudoClass);
-        final int index = value != null ? value.intValue() : -1;
+            final Integer value = pseudoClassMap.get(pseudoClass);
+            final int index = value != null ? value.intValue() : -1;
 
-        final int size = pseudoClasses.size();
-        assert index < size;
+            final int size = pseudoClasses.size();
+            assert index < size;
 
-        if (index != -1 && index < size) {
-            instance = pseudoClasses.get(index);
-        }
+            if (index != -1 && index < size) {
+                instance = pseudoClasses.get(index);
+            }
 
-        if (instance == null) {
-            instance = new PseudoClassImpl(pseudoClass, size);
-            pseudoClasses.add(instance);
-            pseudoClassMap.put(pseudoClass, Integer.valueOf(size));
-        }
+            if (instance == null) {
+                instance = new PseudoClassImpl(pseudoClass, size);
+                pseudoClasses.add(instance);
+                pseudoClassMap.put(pseudoClass, Integer.valueOf(size));
+            }
 
-        return instance;
+            return instance;
+        }
     }
 
     static PseudoClass getPseudoClass(int index) {
-       if (0 <= index && index < pseudoClasses.size()) {
-           return pseudoClasses.get(index);
+       synchronized (pseudoClassMap) {
+           if (0 <= index && index < pseudoClasses.size()) {
+               return pseudoClasses.get(index);
+           }
+           return null;
        }
-       return null;
     }
 
-    // package private for unit test purposes
+    // package private for unit test purposes. Guarded by pseudoClassMap.
     static final Map<String,Integer> pseudoClassMap =
             new HashMap<String,Integer>(64);
 
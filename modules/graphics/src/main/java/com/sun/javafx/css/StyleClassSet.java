@@ -126,35 +126,40 @@ public final class StyleClassSet  extends BitSet<StyleClass> {
             throw new IllegalArgumentException("styleClass cannot be null or empty String");
         }
 
-        StyleClass instance = null;
+        // Stylesheets may be parsed on several threads at once
+        synchronized (styleClassMap) {
+            StyleClass instance = null;
 
-        final Integer value = styleClassMap.get(styleClass);
-        final int index = value != null ? value.intValue() : -1;
+            final Integer value = styleClassMap.get(styleClass);
+            final int index = value != null ? value.intValue() : -1;
 
-        final int size = styleClasses.size();
-        assert index < size;
+            final int size = styleClasses.size();
+            assert index < size;
 
-        if (index != -1 && index < size) {
-            instance = styleClasses.get(index);
-        }
+            if (index != -1 && index < size) {
+                instance = styleClasses.get(index);
+            }
 
-        if (instance == null) {
-            instance = new StyleClass(styleClass, size);
-            styleClasses.add(instance);
-            styleClassMap.put(styleClass, Integer.valueOf(size));
-        }
+            if (instance == null) {
+                instance = new StyleClass(styleClass, size);
+                styleClasses.add(instance);
+                styleClassMap.put(styleClass, Integer.valueOf(size));
+            }
 
-        return instance;
+            return instance;
+        }
     }
 
    static StyleClass getStyleClass(int index) {
-       if (0 <= index && index < styleClasses.size()) {
-           return styleClasses.get(index);
+       synchronized (styleClassMap) {
+           if (0 <= index && index < styleClasses.size()) {
+               return styleClasses.get(index);
+           }
+           return null;
        }
-       return null;
    }
 
-    // package private for unit test purposes
+    // package private for unit test purposes. Guarded by styleClassMap.
     static final Map<String,Integer> styleClassMap =
             new HashMap<String,Integer>(64);
 
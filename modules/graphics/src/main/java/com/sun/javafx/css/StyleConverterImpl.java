@@ -37,9 +37,9 @@ import sun.util.logging.PlatformLogger.Level;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Converter converts ParsedValueImpl&lt;F,T&gt; from type F to type T.
@@ -88,8 +88,9 @@ public class StyleConverterImpl<F, T> extends StyleConverter<F, T> {
         cache.put(key, value);
     }
 
-    // map of StyleConverter class name to StyleConverter
-    private static Map<String,StyleConverter<?, ?>> tmap;
+    // map of StyleConverter class name to StyleConverter. Binary stylesheets
+    // may be read on several threads at once, see StyleManager.preloadStylesheets
+    private static final Map<String,StyleConverter<?, ?>> tmap = new ConcurrentHashMap<>();
 
     @SuppressWarnings("rawtypes")
     public static StyleConverter<?,?> readBinary(DataInputStream is, String[] strings)
@@ -104,23 +105,21 @@ public class StyleConverterImpl<F, T> extends StyleConverter<F, T> {
             return (StyleConverter)com.sun.javafx.css.converters.EnumConverter.readBinary(is, strings);
         }
 
-        // Make a new entry in tmap, if necessary
-        if (tmap == null || !tmap.containsKey(cname)) {
-            StyleConverter<?,?> converter = getInstance(cname);
+        // Make a new entry in tmap, if necessary. A converter that cannot be
+        // found is not entered, and reported again the next time.
+        return tmap.computeIfAbsent(cname, key -> {
+            StyleConverter<?,?> converter = getInstance(key);
             if (converter == null) {
                 final PlatformLogger logger = Logging.getCSSLogger();
                 if (logger.isLoggable(Level.SEVERE)) {
-                    logger.severe("could not deserialize " + cname);
+                    logger.severe("could not deserialize " + key);
                 }
             }
             if (converter == null) {
-                System.err.println("could not deserialize " + cname);
+                System.err.println("could not deserialize " + key);
             }
-            if (tmap == null) tmap = new HashMap<String,StyleConverter<?,?>>();
-            tmap.put(cname, converter);
             return converter;
-        }
-        return tmap.get(cname);
+        });
     }
 
     // package for unit test purposes
@@ -74,6 +74,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -890,7 +896,8 @@ final public class StyleManager {
                 try (final InputStream stream = url.openStream();
                     final DigestInputStream dis = new DigestInputStream(stream, MessageDigest.getInstance("MD5")); ) {
                     dis.getMessageDigest().reset();
-                    while (dis.read() != -1) { /* empty loop body is intentional */ }
+                    final byte[] buffer = new byte[8192];
+                    while (dis.read(buffer) != -1) { /* empty loop body is intentional */ }
                     return dis.getMessageDigest().digest();
                 }
 
@@ -1025,116 +1032,269 @@ final public class StyleManager {
 
     private static Stylesheet loadStylesheetUnPrivileged(final String fname) {
 
-        synchronized (styleLock) {
-            Boolean parse = AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> {
-
-                final String bss = System.getProperty("binary.css");
-                // binary.css is true by default.
-                // parse only if the file is not a .bss
-                // and binary.css is set to false
-                return (!fname.endsWith(".bss") && bss != null) ?
-                    !Boolean.valueOf(bss) : Boolean.FALSE;
-            });
+        // A preload thread must not wait for styleLock, since the thread
+        // that holds it may be waiting for the preload to finish
+        if (Thread.currentThread() instanceof PreloadThread) {
+            return loadStylesheetUnLocked(fname);
+        }
 
-            try {
-                final String ext = (parse) ? (".css") : (".bss");
-                java.net.URL url = null;
-                Stylesheet stylesheet = null;
-                // check if url has extension, if not then just url as is and always parse as css text
-                if (!(fname.endsWith(".css") || fname.endsWith(".bss"))) {
-                    url = getURL(fname);
-                    parse = true;
-                } else {
-                    final String name = fname.substring(0, fname.length() - 4);
-
-                    url = getURL(name+ext);
-                    if (url == null && (parse = !parse)) {
-                        // If we failed to get the URL for the .bss file,
-                        // fall back to the .css file.
-                        // Note that 'parse' is toggled in the test.
-                        url = getURL(name+".css");
-                    }
+        synchronized (styleLock) {
+            return loadStylesheetUnLocked(fname);
+        }
+    }
 
-                    if ((url != null) && !parse) {
+    private static Stylesheet loadStylesheetUnLocked(final String fname) {
 
-                        try {
-                            // RT-36332: if loadBinary throws an IOException, make sure to try .css
-                            stylesheet = Stylesheet.loadBinary(url);
-                        } catch (IOException ioe) {
-                            stylesheet = null;
-                        }
+        // on a preload thread, these are the errors of the preload
+        final List<CssError> errors = getErrors();
 
-                        if (stylesheet == null && (parse = !parse)) {
-                            // If we failed to load the .bss file,
-                            // fall back to the .css file.
-                            // Note that 'parse' is toggled in the test.
-                            url = getURL(fname);
-                        }
-                    }
-                }
-
-                // either we failed to load the .bss file, or parse
-                // was set to true.
-                if ((url != null) && parse) {
-                    stylesheet = new CSSParser().parse(url);
-                }
+        try {
+            Stylesheet stylesheet = null;
+            // Preload threads do not wait for each other, see takePreloadedStylesheet
+            if (Thread.currentThread() instanceof PreloadThread == false) {
+                stylesheet = takePreloadedStylesheet(fname);
+            }
+            if (stylesheet == null) {
+                stylesheet = readStylesheet(fname);
+            }
 
-                if (stylesheet == null) {
-                    if (errors != null) {
-                        CssError error =
-                            new CssError(
-                                "Resource \""+fname+"\" not found."
-                            );
-                        errors.add(error);
-                    }
-                    if (getLogger().isLoggable(Level.WARNING)) {
-                        getLogger().warning(
-                            String.format("Resource \"%s\" not found.", fname)
+            if (stylesheet == null) {
+                if (errors != null) {
+                    CssError error =
+                        new CssError(
+                            "Resource \""+fname+"\" not found."
                         );
-                    }
+                    errors.add(error);
+                }
+                if (getLogger().isLoggable(Level.WARNING)) {
+                    getLogger().warning(
+                        String.format("Resource \"%s\" not found.", fname)
+                    );
                 }
+            }
 
-                // load any fonts from @font-face
-                if (stylesheet != null) {
-                    faceLoop: for(FontFace fontFace: stylesheet.getFontFaces()) {
-                        for(FontFace.FontFaceSrc src: fontFace.getSources()) {
-                            if (src.getType() == FontFace.FontFaceSrcType.URL) {
-                                Font loadedFont = Font.loadFont(src.getSrc(),10);
-                                if (loadedFont == null) {
-                                    getLogger().info("Could not load @font-face font [" + src.getSrc() + "]");
-                                }
-                                continue faceLoop;
+            // load any fonts from @font-face
+            if (stylesheet != null) {
+                faceLoop: for(FontFace fontFace: stylesheet.getFontFaces()) {
+                    for(FontFace.FontFaceSrc src: fontFace.getSources()) {
+                        if (src.getType() == FontFace.FontFaceSrcType.URL) {
+                            Font loadedFont = Font.loadFont(src.getSrc(),10);
+                            if (loadedFont == null) {
+                                getLogger().info("Could not load @font-face font [" + src.getSrc() + "]");
                             }
+                            continue faceLoop;
                         }
                     }
                 }
+            }
 
-                return stylesheet;
+            return stylesheet;
 
-            } catch (FileNotFoundException fnfe) {
+        } catch (FileNotFoundException fnfe) {
+            if (errors != null) {
+                CssError error =
+                    new CssError(
+                        "Stylesheet \""+fname+"\" not found."
+                    );
+                errors.add(error);
+            }
+            if (getLogger().isLoggable(Level.INFO)) {
+                getLogger().info("Could not find stylesheet: " + fname);//, fnfe);
+            }
+        } catch (IOException ioe) {
                 if (errors != null) {
                     CssError error =
                         new CssError(
-                            "Stylesheet \""+fname+"\" not found."
+                            "Could not load stylesheet: " + fname
                         );
                     errors.add(error);
                 }
-                if (getLogger().isLoggable(Level.INFO)) {
-                    getLogger().info("Could not find stylesheet: " + fname);//, fnfe);
+            if (getLogger().isLoggable(Level.INFO)) {
+                getLogger().info("Could not load stylesheet: " + fname);//, ioe);
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Find and read or parse the stylesheet, without reporting errors or
+     * loading fonts. Returns null if the stylesheet is not found.
+     */
+    private static Stylesheet readStylesheet(final String fname) throws IOException {
+
+        Boolean parse = AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> {
+
+            final String bss = System.getProperty("binary.css");
+            // binary.css is true by default.
+            // parse only if the file is not a .bss
+            // and binary.css is set to false
+            return (!fname.endsWith(".bss") && bss != null) ?
+                !Boolean.valueOf(bss) : Boolean.FALSE;
+        });
+
+        final String ext = (parse) ? (".css") : (".bss");
+        java.net.URL url = null;
+        Stylesheet stylesheet = null;
+        // check if url has extension, if not then just url as is and always parse as css text
+        if (!(fname.endsWith(".css") || fname.endsWith(".bss"))) {
+            url = getURL(fname);
+            parse = true;
+        } else {
+            final String name = fname.substring(0, fname.length() - 4);
+
+            url = getURL(name+ext);
+            if (url == null && (parse = !parse)) {
+                // If we failed to get the URL for the .bss file,
+                // fall back to the .css file.
+                // Note that 'parse' is toggled in the test.
+                url = getURL(name+".css");
+            }
+
+            if ((url != null) && !parse) {
+
+                try {
+                    // RT-36332: if loadBinary throws an IOException, make sure to try .css
+                    stylesheet = Stylesheet.loadBinary(url);
+                } catch (IOException ioe) {
+                    stylesheet = null;
+                }
+
+                if (stylesheet == null && (parse = !parse)) {
+                    // If we failed to load the .bss file,
+                    // fall back to the .css file.
+                    // Note that 'parse' is toggled in the test.
+                    url = getURL(fname);
                 }
-            } catch (IOException ioe) {
-                    if (errors != null) {
-                        CssError error =
-                            new CssError(
-                                "Could not load stylesheet: " + fname
-                            );
-                        errors.add(error);
+            }
+        }
+
+        // either we failed to load the .bss file, or parse
+        // was set to true.
+        if ((url != null) && parse) {
+            stylesheet = BinaryStylesheetCache.parse(url);
+        }
+
+        return stylesheet;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////
+    //
+    // Preloading stylesheets
+    //
+    ////////////////////////////////////////////////////////////////////////////
+
+    // Stylesheets being read on preload threads, by fname. The first
+    // loadStylesheet of a fname takes its entry.
+    private static final Map<String, Future<PreloadedStylesheet>> preloadedStylesheets = new ConcurrentHashMap<>();
+
+    // The errors of the stylesheet being read on a preload thread. They are
+    // added to the errors list by the loadStylesheet that takes the result,
+    // since that list may only be changed on the thread that loads css.
+    private static final ThreadLocal<ObservableList<CssError>> preloadErrors = new ThreadLocal<>();
+
+    private static final class PreloadedStylesheet {
+        private final Stylesheet stylesheet;
+        private final List<CssError> errors;
+
+        private PreloadedStylesheet(Stylesheet stylesheet, List<CssError> errors) {
+            this.stylesheet = stylesheet;
+            this.errors = errors;
+        }
+    }
+
+    private static ExecutorService preloadExecutor = null;
+
+    private static final class PreloadThread extends Thread {
+        private PreloadThread(Runnable runnable) {
+            super(runnable, "CSS Preload Thread");
+            setDaemon(true);
+        }
+    }
+
+    private static synchronized ExecutorService getPreloadExecutor() {
+        if (preloadExecutor == null) {
+            final int nThreads = Runtime.getRuntime().availableProcessors();
+            preloadExecutor = AccessController.doPrivileged((PrivilegedAction<ExecutorService>) () ->
+                    Executors.newFixedThreadPool(nThreads, PreloadThread::new));
+        }
+        return preloadExecutor;
+    }
+
+    /**
+     * Start reading the given stylesheets in parallel on background threads,
+     * ahead of their first use. A later loadStylesheet of one of them waits
+     * for its read to finish rather than reading it again. Fonts from
+     * {@literal @}font-face are still loaded by loadStylesheet, and errors
+     * are reported by it too.
+     *
+     * @param fnames The stylesheet URLs as Strings, as they will be passed
+     * to loadStylesheet
+     */
+    public void preloadStylesheets(final List<String> fnames) {
+
+        if (fnames == null || fnames.isEmpty()) return;
+
+        // read the stylesheets with the permissions and class loader of the caller
+        final AccessControlContext acc = AccessController.getContext();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final ExecutorService executor = getPreloadExecutor();
+        // only collect errors if someone is interested in them
+        final boolean collectErrors = errors != null;
+
+        for (int n=0, nMax=fnames.size(); n<nMax; n++) {
+            final String fname = fnames.get(n);
+            if (fname == null || fname.trim().isEmpty()) continue;
+
+            preloadedStylesheets.computeIfAbsent(fname, key -> executor.submit(() -> {
+                final Thread thread = Thread.currentThread();
+                final ObservableList<CssError> errorList =
+                        collectErrors ? FXCollections.observableArrayList() : null;
+                thread.setContextClassLoader(contextClassLoader);
+                preloadErrors.set(errorList);
+                try {
+                    final Stylesheet stylesheet = AccessController.doPrivileged(
+                            (PrivilegedExceptionAction<Stylesheet>) () -> readStylesheet(fname), acc);
+                    return new PreloadedStylesheet(stylesheet, errorList);
+                } finally {
+                    preloadErrors.remove();
+                    thread.setContextClassLoader(null);
+                }
+            }));
+        }
+    }
+
+    /*
+     * Take the preloaded stylesheet for fname, waiting for it to be read if
+     * need be. This never waits for a preload thread that is waiting for the
+     * caller: preload threads do not take styleLock, and do not take each
+     * others' stylesheets. Returns null if fname was not preloaded or the
+     * preload failed, in which case the caller reads it again and reports
+     * the error. The errors found by the preload are reported here.
+     */
+    private static Stylesheet takePreloadedStylesheet(final String fname) {
+
+        final Future<PreloadedStylesheet> future = preloadedStylesheets.remove(fname);
+        if (future == null) return null;
+
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    final PreloadedStylesheet preloaded = future.get();
+                    if (preloaded.errors != null && errors != null) {
+                        errors.addAll(preloaded.errors);
                     }
-                if (getLogger().isLoggable(Level.INFO)) {
-                    getLogger().info("Could not load stylesheet: " + fname);//, ioe);
+                    return preloaded.stylesheet;
+                } catch (InterruptedException ie) {
+                    interrupted = true;
                 }
             }
+        } catch (ExecutionException | CancellationException e) {
             return null;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
@@ -1496,6 +1656,21 @@ final public class StyleManager {
     private List<StylesheetContainer> processStylesheets(List<String> stylesheets, Parent parent) {
 
         synchronized (styleLock) {
+
+            // When more than one stylesheet has to be loaded, read them in
+            // parallel. The loop below then takes them in order.
+            List<String> toLoad = null;
+            for (int n = 0, nMax = stylesheets.size(); n < nMax; n++) {
+                final String fname = stylesheets.get(n);
+                if (!stylesheetContainerMap.containsKey(fname)) {
+                    if (toLoad == null) toLoad = new ArrayList<>();
+                    toLoad.add(fname);
+                }
+            }
+            if (toLoad != null && toLoad.size() > 1) {
+                preloadStylesheets(toLoad);
+            }
+
             final List<StylesheetContainer> list = new ArrayList<StylesheetContainer>();
             for (int n = 0, nMax = stylesheets.size(); n < nMax; n++) {
                 final String fname = stylesheets.get(n);
@@ -1609,6 +1784,9 @@ final public class StyleManager {
     // reuse key to avoid creation of numerous small objects
     private Key key = null;
 
+    // reuse the filter of the ancestors of the node being matched
+    private final AncestorFilter ancestorFilter = new AncestorFilter();
+
     /**
      * Finds matching styles for this Node.
      */
@@ -1833,7 +2011,7 @@ final public class StyleManager {
             //
             // Create a style helper for this node from the styles that match.
             //
-            StyleMap smap = cache.getStyleMap(cacheContainer, node, triggerStates, hasInlineStyles);
+            StyleMap smap = cache.getStyleMap(cacheContainer, node, triggerStates, hasInlineStyles, ancestorFilter);
 
             return smap;
         }
@@ -1873,6 +2051,10 @@ final public class StyleManager {
      * @return
      */
     public static ObservableList<CssError> getErrors() {
+        // a preload thread collects the errors of its stylesheet, see preloadStylesheets
+        if (Thread.currentThread() instanceof PreloadThread) {
+            return preloadErrors.get();
+        }
         return errors;
     }
 
@@ -2113,12 +2295,25 @@ final public class StyleManager {
         private final List<Selector> selectors;
         private final Map<Key, Integer> cache;
 
+        // true if any of the selectors needs to match the node's ancestors
+        private final boolean hasCompoundSelectors;
+
         Cache(List<Selector> selectors) {
             this.selectors = selectors;
             this.cache = new HashMap<Key, Integer>();
+
+            boolean compound = false;
+            for (int n=0, nMax=selectors.size(); n<nMax; n++) {
+                if (selectors.get(n) instanceof CompoundSelector) {
+                    compound = true;
+                    break;
+                }
+            }
+            this.hasCompoundSelectors = compound;
         }
 
-        private StyleMap getStyleMap(CacheContainer cacheContainer, Node node, Set<PseudoClass>[] triggerStates, boolean hasInlineStyle) {
+        private StyleMap getStyleMap(CacheContainer cacheContainer, Node node, Set<PseudoClass>[] triggerStates,
+                                     boolean hasInlineStyle, AncestorFilter ancestorFilter) {
 
             if ((selectors == null || selectors.isEmpty()) && !hasInlineStyle) {
                 return StyleMap.EMPTY_MAP;
@@ -2140,10 +2335,25 @@ final public class StyleManager {
             long key[] = new long[selectorDataSize/Long.SIZE + 1];
             boolean nothingMatched = true;
 
+            //
+            // A CompoundSelector walks up the ancestors of the node to find
+            // the nodes its other selectors apply to. Walking the ancestors
+            // once to fill the filter lets most of the selectors that do not
+            // apply be rejected without walking the ancestors again.
+            //
+            if (hasCompoundSelectors) {
+                ancestorFilter.reset(node);
+            }
+
             for (int s = 0; s < selectorDataSize; s++) {
 
                 final Selector sel = selectors.get(s);
 
+                if (sel instanceof CompoundSelector
+                        && ancestorFilter.mightContainAll(((CompoundSelector)sel).getAncestorHashes()) == false) {
+                    continue;
+                }
+
                 //
                 // This particular flavor of applies takes a PseudoClassState[]
                 // fills in the pseudo-class states from the selectors where
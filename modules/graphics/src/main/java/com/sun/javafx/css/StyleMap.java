@@ -29,8 +29,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import javafx.css.PseudoClass;
 
 /**
  * A map of property name to the cascading styles that match a node.
@@ -152,6 +156,111 @@ public final class StyleMap {
         return cascadingStyles;
     }
 
+    /**
+     * Return the names of the properties that have a style whose selector
+     * involves the given pseudo-class. When the pseudo-class state of a node
+     * changes, only these properties can take on a different value for that
+     * node. The returned set is not to be modified.
+     */
+    public Set<String> getPropertiesAffectedBy(PseudoClass pseudoClass) {
+
+        if (pseudoClassProperties == null) {
+
+            pseudoClassProperties = new HashMap<>();
+
+            for (Map.Entry<String, List<CascadingStyle>> entry : getCascadingStyles().entrySet()) {
+
+                final String property = entry.getKey();
+                final List<CascadingStyle> styles = entry.getValue();
+
+                for (int n=0, nMax=styles.size(); n<nMax; n++) {
+
+                    final Set<PseudoClass> pseudoClasses = styles.get(n).getPseudoClasses();
+                    if (pseudoClasses == null) continue;
+
+                    for (PseudoClass pc : pseudoClasses) {
+                        Set<String> properties = pseudoClassProperties.get(pc);
+                        if (properties == null) {
+                            properties = new HashSet<>();
+                            pseudoClassProperties.put(pc, properties);
+                        }
+                        properties.add(property);
+                    }
+                }
+            }
+        }
+
+        final Set<String> properties = pseudoClassProperties.get(pseudoClass);
+        return properties != null ? properties : Collections.<String>emptySet();
+    }
+
+    /**
+     * Return the names of the properties that the styles in this map resolve
+     * from other styles, either as a looked-up value or by an explicit
+     * "inherit". Such a value may come from an ancestor's styles, so the
+     * ancestor cannot change these properties without the node being updated.
+     * The returned set is not to be modified.
+     */
+    public Set<String> getReferencedProperties() {
+
+        if (referencedProperties == null) {
+
+            referencedProperties = new HashSet<>();
+
+            for (Map.Entry<String, List<CascadingStyle>> entry : getCascadingStyles().entrySet()) {
+
+                final List<CascadingStyle> styles = entry.getValue();
+
+                for (int n=0, nMax=styles.size(); n<nMax; n++) {
+
+                    final ParsedValueImpl<?,?> parsedValue = styles.get(n).getParsedValueImpl();
+                    if (parsedValue == null) continue;
+
+                    if ("inherit".equals(parsedValue.getValue())) {
+                        referencedProperties.add(entry.getKey());
+                    } else {
+                        addLookups(parsedValue, referencedProperties);
+                    }
+                }
+            }
+
+            if (referencedProperties.isEmpty()) {
+                referencedProperties = Collections.emptySet();
+            }
+        }
+
+        return referencedProperties;
+    }
+
+    // mirrors the walk that CssStyleHelper#resolveLookups does over a parsed value
+    private static void addLookups(ParsedValueImpl<?,?> parsedValue, Set<String> lookups) {
+
+        final Object value = parsedValue.getValue();
+
+        if (parsedValue.isLookup() && value instanceof String) {
+            lookups.add(((String) value).toLowerCase(Locale.ROOT));
+        }
+
+        if (parsedValue.isContainsLookups() == false) return;
+
+        if (value instanceof ParsedValueImpl) {
+            addLookups((ParsedValueImpl<?,?>) value, lookups);
+
+        } else if (value instanceof ParsedValueImpl[][]) {
+            for (ParsedValueImpl<?,?>[] layer : (ParsedValueImpl<?,?>[][]) value) {
+                if (layer == null) continue;
+                for (ParsedValueImpl<?,?> pv : layer) {
+                    if (pv != null) addLookups(pv, lookups);
+                }
+            }
+
+        } else if (value instanceof ParsedValueImpl[]) {
+            for (ParsedValueImpl<?,?> pv : (ParsedValueImpl<?,?>[]) value) {
+                if (pv != null) addLookups(pv, lookups);
+            }
+        }
+    }
+
     private static final Comparator<CascadingStyle> cascadingStyleComparator =
             (o1, o2) -> {
 
@@ -176,4 +285,6 @@ public final class StyleMap {
     private final int id; // unique per container
     private List<Selector> selectors;
     private Map<String, List<CascadingStyle>> cascadingStyles;
+    private Map<PseudoClass, Set<String>> pseudoClassProperties;
+    private Set<String> referencedProperties;
 }
@@ -39,6 +39,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
@@ -240,20 +242,43 @@ public class Stylesheet {
 
         Stylesheet stylesheet = null;
 
-        try (DataInputStream dataInputStream =
-                     new DataInputStream(new BufferedInputStream(url.openStream(), 40 * 1024))) {
+        try (InputStream stream = url.openStream()) {
+
+            stylesheet = loadBinary(new BufferedInputStream(stream, 40 * 1024), url.toExternalForm());
+
+        } catch (FileNotFoundException fnfe) {
+            // This comes from url.openStream() and is expected.
+            // It just means that the .bss file doesn't exist.
+        }
+
+        // return stylesheet
+        return stylesheet;
+    }
+
+    /**
+     * Load a binary stylesheet from a stream that supports mark and reset.
+     * The url is the url of the stylesheet, which need not be where the
+     * stream comes from.
+     */
+    static Stylesheet loadBinary(InputStream stream, String url) throws IOException {
+
+        assert stream.markSupported();
+
+        Stylesheet stylesheet = null;
+
+        try (DataInputStream dataInputStream = new DataInputStream(stream)) {
 
             // read file version
             final int bssVersion = dataInputStream.readShort();
             if (bssVersion > Stylesheet.BINARY_CSS_VERSION) {
-                throw new IOException(url.toString() + " wrong binary CSS version: "
+                throw new IOException(url + " wrong binary CSS version: "
                         + bssVersion + ". Expected version less than or equal to" +
                         Stylesheet.BINARY_CSS_VERSION);
             }
             // read strings
             final String[] strings = StringStore.readBinary(dataInputStream);
             // read binary data
-            stylesheet = new Stylesheet(url.toExternalForm());
+            stylesheet = new Stylesheet(url);
 
             try {
 
@@ -262,7 +287,7 @@ public class Stylesheet {
 
             } catch (Exception e) {
 
-                stylesheet = new Stylesheet(url.toExternalForm());
+                stylesheet = new Stylesheet(url);
 
                 dataInputStream.reset();
 
@@ -274,12 +299,8 @@ public class Stylesheet {
                 }
             }
 
-        } catch (FileNotFoundException fnfe) {
-            // This comes from url.openStream() and is expected.
-            // It just means that the .bss file doesn't exist.
         }
 
-        // return stylesheet
         return stylesheet;
     }
 
@@ -312,16 +333,23 @@ public class Stylesheet {
         URI sourceURI = source.toURI();
         Stylesheet stylesheet = new CSSParser().parse(sourceURI.toURL());
 
+        try (FileOutputStream fos = new FileOutputStream(destination)) {
+            stylesheet.writeBinary(fos);
+        }
+    }
+
+    /** Write this stylesheet in binary format, as read by loadBinary */
+    final void writeBinary(final OutputStream out) throws IOException {
+
         // first write all the css binary data into the buffer and collect strings on way
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         DataOutputStream dos = new DataOutputStream(baos);
         StringStore stringStore = new StringStore();
-        stylesheet.writeBinary(dos, stringStore);
+        writeBinary(dos, stringStore);
         dos.flush();
         dos.close();
 
-        FileOutputStream fos = new FileOutputStream(destination);
-        DataOutputStream os = new DataOutputStream(fos);
+        DataOutputStream os = new DataOutputStream(out);
 
         // write file version
         os.writeShort(BINARY_CSS_VERSION);
@@ -332,7 +360,6 @@ public class Stylesheet {
         // write binary css
         os.write(baos.toByteArray());
         os.flush();
-        os.close();
     }
 
     // Add the rules from the other stylesheet to this one
@@ -37,9 +37,9 @@ import sun.util.logging.PlatformLogger.Level;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class EnumConverter<E extends Enum<E>> extends StyleConverterImpl<String, E> {
 
@@ -86,24 +86,24 @@ public final class EnumConverter<E extends Enum<E>> extends StyleConverterImpl<S
 
         if (ename == null || ename.isEmpty()) return null;
 
-        if (converters == null || converters.containsKey(ename) == false) {
-            StyleConverter<?,?> converter = getInstance(ename);
+        // A converter that cannot be found is not entered, and reported
+        // again the next time
+        return converters.computeIfAbsent(ename, key -> {
+            StyleConverter<?,?> converter = getInstance(key);
 
             if (converter == null) {
                 final PlatformLogger logger = Logging.getCSSLogger();
                 if (logger.isLoggable(Level.SEVERE)) {
-                    logger.severe("could not deserialize EnumConverter for " + ename);
+                    logger.severe("could not deserialize EnumConverter for " + key);
                 }
             }
-
-            if (converters == null) converters = new HashMap<String,StyleConverter<?,?>>();
-            converters.put(ename, converter);
             return converter;
-        }
-        return converters.get(ename);
+        });
     }
 
-    private static Map<String,StyleConverter<?,?>> converters;
+    // Binary stylesheets may be read on several threads at once, see
+    // StyleManager.preloadStylesheets
+    private static final Map<String,StyleConverter<?,?>> converters = new ConcurrentHashMap<>();
 
     // package for unit testing
     static public StyleConverter<?,?> getInstance(final String ename) {
@@ -439,6 +439,7 @@ final public class CSSParser {
     }
 
     private void reportError(CssError error) {
+        hasErrors = true;
         List<CssError> errors = null;
         if ((errors = StyleManager.getErrors()) != null) {
             errors.add(error);
@@ -455,6 +456,8 @@ final public class CSSParser {
 
     private void reportException(Exception exception) {
 
+        hasErrors = true;
+
         if (LOGGER.isLoggable(Level.WARNING)) {
             final StackTraceElement[] stea = exception.getStackTrace();
             if (stea.length > 0) {
@@ -3861,11 +3864,40 @@ final public class CSSParser {
 
     }
 
-    // keep track of what is in process of being parsed to avoid import loops
-    private static Stack<String> imports;
+    // keep track of what is in process of being parsed to avoid import loops.
+    // Stylesheets may be parsed on several threads at once, so each thread
+    // has its own stack.
+    private static final ThreadLocal<Stack<String>> importStack = new ThreadLocal<>();
+
+    // true if the stylesheet parsed by this parser has an @import
+    private boolean hasImports = false;
+
+    /**
+     * @return true if the last stylesheet parsed by this parser imports
+     * another stylesheet, in which case the parsed rules depend on more than
+     * the content of the stylesheet itself.
+     */
+    public boolean hasImports() {
+        return hasImports;
+    }
+
+    // true if errors were reported while parsing the stylesheet
+    private boolean hasErrors = false;
+
+    /**
+     * @return true if errors were found in the last stylesheet parsed by
+     * this parser. They are reported only while parsing, so the parsed rules
+     * do not carry them.
+     */
+    public boolean hasErrors() {
+        return hasErrors;
+    }
 
     private void parse(Stylesheet stylesheet, CSSLexer lexer) {
 
+        hasImports = false;
+        hasErrors = false;
+
         // need to read the first token
         currentToken = nextToken(lexer);
 
@@ -3904,8 +3936,12 @@ final public class CSSParser {
 
             } else if ("import".equals(keyword)) {
 
-                if (CSSParser.imports == null) {
-                    CSSParser.imports = new Stack<>();
+                hasImports = true;
+
+                Stack<String> imports = importStack.get();
+                if (imports == null) {
+                    imports = new Stack<>();
+                    importStack.set(imports);
                 }
 
                 if (!imports.contains(sourceOfStylesheet)) {
@@ -3920,8 +3956,8 @@ final public class CSSParser {
 
                     imports.pop();
 
-                    if (CSSParser.imports.isEmpty()) {
-                        CSSParser.imports = null;
+                    if (imports.isEmpty()) {
+                        importStack.remove();
                     }
 
                 } else {
@@ -25,6 +25,10 @@
 
 package com.sun.javafx.perf;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javafx.scene.Scene;
 
 import com.sun.javafx.tk.Toolkit;
@@ -119,6 +123,37 @@ public abstract class PerformanceTracker {
         Toolkit.getToolkit().getPerformanceTracker().doOutputLog();
     }
 
+    private static final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     * Counters are global (not per scene) and may be updated from any
+     * thread, typically the render thread. Callers are expected to look
+     * up their counters once and keep the returned reference.
+     *
+     * @treatAsPrivate implementation detail
+     */
+    public static AtomicLong getCounter(String name) {
+        return counters.computeIfAbsent(name, n -> new AtomicLong());
+    }
+
+    /**
+     * Returns a snapshot of the current value of every counter, sorted by
+     * counter name.
+     */
+    public static Map<String, Long> getCounterValues() {
+        final Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        return values;
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    public static void resetCounters() {
+        counters.values().forEach(counter -> counter.set(0));
+    }
+
     /**
      * @treatAsPrivate implementation detail
      */
@@ -42,6 +42,12 @@ public enum CssFlags {
      * or grandchildren, etc is UPDATE or REAPPLY so we need to step into this branch.
      */
     DIRTY_BRANCH,
+    /**
+     * Indicates that a pseudoclass state change affects only some of the
+     * non-inherited properties of this node. Only those properties need to be
+     * looked up again; children are processed as for DIRTY_BRANCH.
+     */
+    UPDATE_PROPERTIES,
     /**
      * Indicates that we must update properties for this node and all child
      * nodes. This is typically in response to a pseudoclass state change and
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.impl.ResourcePool;
+
+/**
+ * Tracks the cost of rendering a node and how often it changes, in order to
+ * decide when the node should be cached automatically (as if the application
+ * had called Node.setCache(true)), and when such a cache should be dropped.
+ *
+ * A node is promoted to a cached texture once it has been rendered a few
+ * times without being invalidated, and rendering it has taken on average at
+ * least PrismSettings.autoCacheMinCost microseconds. The cost includes the
+ * time spent issuing the rendering of the whole subtree and applying its
+ * effects. A cached node is demoted when it keeps being invalidated (every
+ * invalidation means the cache must be rendered again, which is more
+ * expensive than rendering the node directly), or when the texture pool is
+ * running out of space.
+ *
+ * Automatic caching is only enabled with -Dprism.autocache=true. The cached
+ * nodes are shown with -Dprism.showautocache=true.
+ */
+final class AutoCache {
+
+    /**
+     * The number of renders without invalidation before a node is
+     * considered stable.
+     */
+    static final int STABLE_RENDERS = 4;
+
+    /**
+     * The number of invalidations of an unstable node, in a row, before its
+     * cache is dropped.
+     */
+    static final int MAX_CHURN = 3;
+
+    private final long minCost;
+
+    private long averageCost;
+    private int stableRenders;
+    private int churn;
+    private boolean cached;
+
+    AutoCache() {
+        this(PrismSettings.autoCacheMinCost * 1000L);
+    }
+
+    AutoCache(long minCostNanos) {
+        this.minCost = minCostNanos;
+    }
+
+    /**
+     * Returns whether the node has been cached automatically.
+     */
+    boolean isCached() {
+        return cached;
+    }
+
+    long getAverageCost() {
+        return averageCost;
+    }
+
+    /**
+     * Called whenever the node, or any of its descendants, changes.
+     */
+    void invalidated() {
+        if (stableRenders < STABLE_RENDERS) {
+            churn++;
+        } else {
+            churn = 0;
+        }
+        stableRenders = 0;
+    }
+
+    /**
+     * Called after the node has been rendered.
+     *
+     * @param nanos the time taken to render the node
+     */
+    void rendered(long nanos) {
+        if (stableRenders < Integer.MAX_VALUE) {
+            stableRenders++;
+        }
+        if (stableRenders >= STABLE_RENDERS) {
+            churn = 0;
+        }
+        // Rendering a cached node says nothing about the cost of rendering
+        // it without the cache
+        if (!cached) {
+            averageCost = (averageCost == 0) ? nanos : (averageCost * 3 + nanos) / 4;
+        }
+    }
+
+    /**
+     * Returns whether the node should now be cached.
+     *
+     * @param size the estimated size of the cache texture
+     * @param pool the pool the cache texture would be allocated from
+     */
+    boolean shouldPromote(long size, ResourcePool<?> pool) {
+        return !cached &&
+               stableRenders >= STABLE_RENDERS &&
+               averageCost >= minCost &&
+               !isUnderPressure(pool, size);
+    }
+
+    /**
+     * Returns whether the automatic cache of the node should be dropped.
+     */
+    boolean shouldDemote(ResourcePool<?> pool) {
+        return cached && (churn >= MAX_CHURN || isUnderPressure(pool, 0));
+    }
+
+    void setCached(boolean cached) {
+        this.cached = cached;
+        // Only promote the node again once it has been stable for a while
+        stableRenders = 0;
+        churn = 0;
+    }
+
+    /**
+     * Returns true if allocating the given number of bytes from the pool
+     * would exceed 7/8 of its target.
+     */
+    static boolean isUnderPressure(ResourcePool<?> pool, long size) {
+        final long target = pool.target();
+        return pool.used() + size > target - target / 8;
+    }
+}
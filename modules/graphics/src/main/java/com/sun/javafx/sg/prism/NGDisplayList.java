@@ -0,0 +1,806 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import java.util.List;
+import com.sun.glass.ui.Screen;
+import com.sun.javafx.font.FontStrike;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.text.GlyphList;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.CompositeMode;
+import com.sun.prism.Graphics;
+import com.sun.prism.PrinterGraphics;
+import com.sun.prism.RTTexture;
+import com.sun.prism.RenderTarget;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture;
+import com.sun.prism.paint.Color;
+import com.sun.prism.paint.Paint;
+
+/**
+ * A display list of the Graphics operations issued while rendering the
+ * children of an NGGroup. Once recorded, the list is replayed instead of
+ * traversing the children again, as long as the group stays clean and only
+ * the translation of the device transform of the group changes, by whole
+ * pixels (as when scrolling).
+ *
+ * The operations are recorded while the children are rendered normally,
+ * through a Recorder which forwards every call to the real Graphics. Only
+ * operations that do not depend on the render target or on textures are
+ * recorded; as soon as any other operation is issued (drawing a texture,
+ * setting or reading the clip, rendering to an intermediate texture for an
+ * effect, an opacity or a cache, 3D, etc.) the recording is abandoned until
+ * the group changes.
+ *
+ * The list is invalidated by NGNode.invalidateCache(), which is called for
+ * every ancestor of a node that becomes dirty.
+ */
+final class NGDisplayList {
+
+    /**
+     * The number of consecutive renders of an unchanged group before its
+     * children are recorded. Groups that change on every pulse are never
+     * recorded.
+     */
+    private static final int RECORD_THRESHOLD = 2;
+
+    private static final byte SET_TRANSFORM     = 0;
+    private static final byte SET_TRANSFORM_2D  = 1;
+    private static final byte SET_TRANSFORM_3D  = 2;
+    private static final byte TRANSFORM         = 3;
+    private static final byte TRANSLATE         = 4;
+    private static final byte TRANSLATE_3D      = 5;
+    private static final byte SCALE             = 6;
+    private static final byte SCALE_3D          = 7;
+    private static final byte DEPTH_TEST        = 8;
+    private static final byte ANTIALIASED_SHAPE = 9;
+    private static final byte EXTRA_ALPHA       = 10;
+    private static final byte PAINT             = 11;
+    private static final byte STROKE            = 12;
+    private static final byte COMPOSITE_MODE    = 13;
+    private static final byte NODE_BOUNDS       = 14;
+    private static final byte FILL              = 15;
+    private static final byte FILL_QUAD         = 16;
+    private static final byte FILL_RECT         = 17;
+    private static final byte FILL_ROUND_RECT   = 18;
+    private static final byte FILL_ELLIPSE      = 19;
+    private static final byte DRAW              = 20;
+    private static final byte DRAW_LINE         = 21;
+    private static final byte DRAW_RECT         = 22;
+    private static final byte DRAW_ROUND_RECT   = 23;
+    private static final byte DRAW_ELLIPSE      = 24;
+    private static final byte DRAW_STRING       = 25;
+
+    private GrowableDataBuffer buffer;
+    private boolean valid;
+    private boolean failed;
+    private int cleanRenders;
+
+    // The state of the Graphics when the list was recorded
+    private double mxx, mxy, myx, myy, mxt, myt;
+    private float extraAlpha;
+    private CompositeMode compositeMode;
+    private boolean depthTest;
+    private boolean antialiasedShape;
+
+    /**
+     * Discards the recorded operations. Called whenever the group, or any
+     * of its descendants, changes.
+     */
+    void invalidate() {
+        if (buffer != null) {
+            GrowableDataBuffer.returnBuffer(buffer);
+            buffer = null;
+        }
+        valid = false;
+        failed = false;
+        cleanRenders = 0;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Replays the recorded operations on the given Graphics if the list is
+     * valid and the current state of the Graphics allows it.
+     *
+     * @return true if the list was replayed
+     */
+    boolean replay(Graphics g) {
+        if (!valid) {
+            return false;
+        }
+        final BaseTransform tx = g.getTransformNoClone();
+        if (!tx.is2D() ||
+            tx.getMxx() != mxx || tx.getMxy() != mxy ||
+            tx.getMyx() != myx || tx.getMyy() != myy ||
+            g.getExtraAlpha() != extraAlpha ||
+            g.getCompositeMode() != compositeMode ||
+            g.isDepthTest() != depthTest ||
+            g.isAntialiasedShape() != antialiasedShape)
+        {
+            return false;
+        }
+        final double dx = tx.getMxt() - mxt;
+        final double dy = tx.getMyt() - myt;
+        if (dx != Math.rint(dx) || dy != Math.rint(dy)) {
+            // Pixel snapped content would be misplaced
+            return false;
+        }
+
+        final GrowableDataBuffer buf = buffer;
+        buf.save();
+        try {
+            while (buf.hasValues()) {
+                replayOp(g, buf, dx, dy);
+            }
+        } finally {
+            buf.restore();
+        }
+        return true;
+    }
+
+    private static void replayOp(Graphics g, GrowableDataBuffer buf, double dx, double dy) {
+        switch (buf.getByte()) {
+            case SET_TRANSFORM: {
+                final BaseTransform t = (BaseTransform) buf.getObject();
+                if (t == null) {
+                    g.setTransform(1, 0, 0, 1, dx, dy);
+                } else if (dx == 0 && dy == 0) {
+                    g.setTransform(t);
+                } else {
+                    g.setTransform3D(t.getMxx(), t.getMxy(), t.getMxz(), t.getMxt() + dx,
+                                     t.getMyx(), t.getMyy(), t.getMyz(), t.getMyt() + dy,
+                                     t.getMzx(), t.getMzy(), t.getMzz(), t.getMzt());
+                }
+                break;
+            }
+            case SET_TRANSFORM_2D:
+                g.setTransform(buf.getDouble(), buf.getDouble(),
+                               buf.getDouble(), buf.getDouble(),
+                               buf.getDouble() + dx, buf.getDouble() + dy);
+                break;
+            case SET_TRANSFORM_3D:
+                g.setTransform3D(buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble() + dx,
+                                 buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble() + dy,
+                                 buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble());
+                break;
+            case TRANSFORM:
+                g.transform((BaseTransform) buf.getObject());
+                break;
+            case TRANSLATE:
+                g.translate(buf.getFloat(), buf.getFloat());
+                break;
+            case TRANSLATE_3D:
+                g.translate(buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case SCALE:
+                g.scale(buf.getFloat(), buf.getFloat());
+                break;
+            case SCALE_3D:
+                g.scale(buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case DEPTH_TEST:
+                g.setDepthTest(buf.getBoolean());
+                break;
+            case ANTIALIASED_SHAPE:
+                g.setAntialiasedShape(buf.getBoolean());
+                break;
+            case EXTRA_ALPHA:
+                g.setExtraAlpha(buf.getFloat());
+                break;
+            case PAINT:
+                g.setPaint((Paint) buf.getObject());
+                break;
+            case STROKE:
+                g.setStroke((BasicStroke) buf.getObject());
+                break;
+            case COMPOSITE_MODE:
+                g.setCompositeMode((CompositeMode) buf.getObject());
+                break;
+            case NODE_BOUNDS:
+                g.setNodeBounds((RectBounds) buf.getObject());
+                break;
+            case FILL:
+                g.fill((Shape) buf.getObject());
+                break;
+            case FILL_QUAD:
+                g.fillQuad(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case FILL_RECT:
+                g.fillRect(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case FILL_ROUND_RECT:
+                g.fillRoundRect(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat(),
+                                buf.getFloat(), buf.getFloat());
+                break;
+            case FILL_ELLIPSE:
+                g.fillEllipse(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case DRAW:
+                g.draw((Shape) buf.getObject());
+                break;
+            case DRAW_LINE:
+                g.drawLine(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case DRAW_RECT:
+                g.drawRect(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case DRAW_ROUND_RECT:
+                g.drawRoundRect(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat(),
+                                buf.getFloat(), buf.getFloat());
+                break;
+            case DRAW_ELLIPSE:
+                g.drawEllipse(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+                break;
+            case DRAW_STRING:
+                g.drawString((GlyphList) buf.getObject(), (FontStrike) buf.getObject(),
+                             buf.getFloat(), buf.getFloat(), (Color) buf.getObject(),
+                             buf.getInt(), buf.getInt());
+                break;
+            default:
+                throw new InternalError("Unknown display list op");
+        }
+    }
+
+    /**
+     * Starts recording the rendering of the given children, if the group has
+     * been rendered unchanged often enough and its children are rendered in
+     * full on the given Graphics.
+     *
+     * @return the Graphics the children must be rendered to, in order to be
+     *         recorded, or null if they should not be recorded
+     */
+    Recorder beginRecording(Graphics g, List<NGNode> children) {
+        if (valid || failed || ++cleanRenders < RECORD_THRESHOLD) {
+            return null;
+        }
+        // Do not record while pre-culling children against dirty regions,
+        // since they would not all be rendered, nor inside another recording.
+        if (g instanceof Recorder || g instanceof PrinterGraphics ||
+            g.hasPreCullingBits() || g.getRenderRoot() != null || g.isState3D())
+        {
+            return null;
+        }
+        final BaseTransform tx = g.getTransformNoClone();
+        if (!tx.is2D() || !canRecord(children)) {
+            failed = true;
+            return null;
+        }
+        mxx = tx.getMxx();
+        mxy = tx.getMxy();
+        myx = tx.getMyx();
+        myy = tx.getMyy();
+        mxt = tx.getMxt();
+        myt = tx.getMyt();
+        extraAlpha = g.getExtraAlpha();
+        compositeMode = g.getCompositeMode();
+        depthTest = g.isDepthTest();
+        antialiasedShape = g.isAntialiasedShape();
+        buffer = GrowableDataBuffer.getBuffer(1024);
+        return new Recorder(g, buffer);
+    }
+
+    /**
+     * Completes a recording started with beginRecording. The list becomes
+     * valid unless an operation that cannot be recorded was issued.
+     */
+    void endRecording(Recorder recorder) {
+        if (recorder.failed) {
+            GrowableDataBuffer.returnBuffer(buffer);
+            buffer = null;
+            failed = true;
+        } else {
+            valid = true;
+        }
+    }
+
+    /**
+     * Blend modes are only applied to ReadbackGraphics, which the Recorder
+     * is not, so the subtrees which use them are never recorded.
+     */
+    private static boolean canRecord(List<NGNode> nodes) {
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            final NGNode node = nodes.get(i);
+            if (node.needsBlending() || node.isShape3D()) {
+                return false;
+            }
+            if (node instanceof NGGroup && !canRecord(((NGGroup) node).getChildren())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forwards every operation to the Graphics it wraps, and records the
+     * ones that can be replayed.
+     */
+    static final class Recorder implements Graphics {
+        private final Graphics g;
+        private final GrowableDataBuffer buf;
+        private boolean failed;
+
+        Recorder(Graphics g, GrowableDataBuffer buf) {
+            this.g = g;
+            this.buf = buf;
+        }
+
+        private void fail() {
+            failed = true;
+        }
+
+        private void putFloats(float a, float b, float c, float d) {
+            buf.putFloat(a);
+            buf.putFloat(b);
+            buf.putFloat(c);
+            buf.putFloat(d);
+        }
+
+        @Override public BaseTransform getTransformNoClone() {
+            return g.getTransformNoClone();
+        }
+
+        @Override public void setTransform(BaseTransform xform) {
+            buf.putByte(SET_TRANSFORM);
+            buf.putObject(xform == null ? null : xform.copy());
+            g.setTransform(xform);
+        }
+
+        @Override public void setTransform(double m00, double m10,
+                                           double m01, double m11,
+                                           double m02, double m12) {
+            buf.putByte(SET_TRANSFORM_2D);
+            buf.putDouble(m00);
+            buf.putDouble(m10);
+            buf.putDouble(m01);
+            buf.putDouble(m11);
+            buf.putDouble(m02);
+            buf.putDouble(m12);
+            g.setTransform(m00, m10, m01, m11, m02, m12);
+        }
+
+        @Override public void setTransform3D(double mxx, double mxy, double mxz, double mxt,
+                                             double myx, double myy, double myz, double myt,
+                                             double mzx, double mzy, double mzz, double mzt) {
+            buf.putByte(SET_TRANSFORM_3D);
+            buf.putDouble(mxx);
+            buf.putDouble(mxy);
+            buf.putDouble(mxz);
+            buf.putDouble(mxt);
+            buf.putDouble(myx);
+            buf.putDouble(myy);
+            buf.putDouble(myz);
+            buf.putDouble(myt);
+            buf.putDouble(mzx);
+            buf.putDouble(mzy);
+            buf.putDouble(mzz);
+            buf.putDouble(mzt);
+            g.setTransform3D(mxx, mxy, mxz, mxt, myx, myy, myz, myt, mzx, mzy, mzz, mzt);
+        }
+
+        @Override public void transform(BaseTransform xform) {
+            buf.putByte(TRANSFORM);
+            buf.putObject(xform.copy());
+            g.transform(xform);
+        }
+
+        @Override public void translate(float tx, float ty) {
+            buf.putByte(TRANSLATE);
+            buf.putFloat(tx);
+            buf.putFloat(ty);
+            g.translate(tx, ty);
+        }
+
+        @Override public void translate(float tx, float ty, float tz) {
+            buf.putByte(TRANSLATE_3D);
+            buf.putFloat(tx);
+            buf.putFloat(ty);
+            buf.putFloat(tz);
+            g.translate(tx, ty, tz);
+        }
+
+        @Override public void scale(float sx, float sy) {
+            buf.putByte(SCALE);
+            buf.putFloat(sx);
+            buf.putFloat(sy);
+            g.scale(sx, sy);
+        }
+
+        @Override public void scale(float sx, float sy, float sz) {
+            buf.putByte(SCALE_3D);
+            buf.putFloat(sx);
+            buf.putFloat(sy);
+            buf.putFloat(sz);
+            g.scale(sx, sy, sz);
+        }
+
+        @Override public void setCamera(NGCamera camera) {
+            fail();
+            g.setCamera(camera);
+        }
+
+        @Override public NGCamera getCameraNoClone() {
+            return g.getCameraNoClone();
+        }
+
+        @Override public void setDepthTest(boolean depthTest) {
+            buf.putByte(DEPTH_TEST);
+            buf.putBoolean(depthTest);
+            g.setDepthTest(depthTest);
+        }
+
+        @Override public boolean isDepthTest() {
+            return g.isDepthTest();
+        }
+
+        @Override public void setDepthBuffer(boolean depthBuffer) {
+            fail();
+            g.setDepthBuffer(depthBuffer);
+        }
+
+        @Override public boolean isDepthBuffer() {
+            return g.isDepthBuffer();
+        }
+
+        @Override public boolean isAlphaTestShader() {
+            return g.isAlphaTestShader();
+        }
+
+        @Override public void setAntialiasedShape(boolean aa) {
+            buf.putByte(ANTIALIASED_SHAPE);
+            buf.putBoolean(aa);
+            g.setAntialiasedShape(aa);
+        }
+
+        @Override public boolean isAntialiasedShape() {
+            return g.isAntialiasedShape();
+        }
+
+        // A node that tests its bounds or its clip against the device clip
+        // may skip operations that a replay at another translation needs
+        @Override public RectBounds getFinalClipNoClone() {
+            fail();
+            return g.getFinalClipNoClone();
+        }
+
+        @Override public Rectangle getClipRect() {
+            fail();
+            return g.getClipRect();
+        }
+
+        @Override public Rectangle getClipRectNoClone() {
+            fail();
+            return g.getClipRectNoClone();
+        }
+
+        @Override public void setHasPreCullingBits(boolean hasBits) {
+            if (hasBits) {
+                fail();
+            }
+            g.setHasPreCullingBits(hasBits);
+        }
+
+        @Override public boolean hasPreCullingBits() {
+            return g.hasPreCullingBits();
+        }
+
+        // The clip depends on the dirty region being rendered
+        @Override public void setClipRect(Rectangle clipRect) {
+            fail();
+            g.setClipRect(clipRect);
+        }
+
+        @Override public void setClipRectIndex(int index) {
+            fail();
+            g.setClipRectIndex(index);
+        }
+
+        @Override public int getClipRectIndex() {
+            return g.getClipRectIndex();
+        }
+
+        @Override public float getExtraAlpha() {
+            return g.getExtraAlpha();
+        }
+
+        @Override public void setExtraAlpha(float extraAlpha) {
+            buf.putByte(EXTRA_ALPHA);
+            buf.putFloat(extraAlpha);
+            g.setExtraAlpha(extraAlpha);
+        }
+
+        @Override public void setLights(NGLightBase[] lights) {
+            fail();
+            g.setLights(lights);
+        }
+
+        @Override public NGLightBase[] getLights() {
+            return g.getLights();
+        }
+
+        @Override public Paint getPaint() {
+            return g.getPaint();
+        }
+
+        @Override public void setPaint(Paint paint) {
+            buf.putByte(PAINT);
+            buf.putObject(paint);
+            g.setPaint(paint);
+        }
+
+        @Override public BasicStroke getStroke() {
+            return g.getStroke();
+        }
+
+        @Override public void setStroke(BasicStroke stroke) {
+            buf.putByte(STROKE);
+            buf.putObject(stroke == null ? null : stroke.copy());
+            g.setStroke(stroke);
+        }
+
+        @Override public void setCompositeMode(CompositeMode mode) {
+            buf.putByte(COMPOSITE_MODE);
+            buf.putObject(mode);
+            g.setCompositeMode(mode);
+        }
+
+        @Override public CompositeMode getCompositeMode() {
+            return g.getCompositeMode();
+        }
+
+        @Override public void clear() {
+            fail();
+            g.clear();
+        }
+
+        @Override public void clear(Color color) {
+            fail();
+            g.clear(color);
+        }
+
+        @Override public void clearQuad(float x1, float y1, float x2, float y2) {
+            fail();
+            g.clearQuad(x1, y1, x2, y2);
+        }
+
+        @Override public void fill(Shape shape) {
+            buf.putByte(FILL);
+            buf.putObject(shape.copy());
+            g.fill(shape);
+        }
+
+        @Override public void fillQuad(float x1, float y1, float x2, float y2) {
+            buf.putByte(FILL_QUAD);
+            putFloats(x1, y1, x2, y2);
+            g.fillQuad(x1, y1, x2, y2);
+        }
+
+        @Override public void fillRect(float x, float y, float width, float height) {
+            buf.putByte(FILL_RECT);
+            putFloats(x, y, width, height);
+            g.fillRect(x, y, width, height);
+        }
+
+        @Override public void fillRoundRect(float x, float y, float width, float height,
+                                            float arcw, float arch) {
+            buf.putByte(FILL_ROUND_RECT);
+            putFloats(x, y, width, height);
+            buf.putFloat(arcw);
+            buf.putFloat(arch);
+            g.fillRoundRect(x, y, width, height, arcw, arch);
+        }
+
+        @Override public void fillEllipse(float x, float y, float width, float height) {
+            buf.putByte(FILL_ELLIPSE);
+            putFloats(x, y, width, height);
+            g.fillEllipse(x, y, width, height);
+        }
+
+        @Override public void draw(Shape shape) {
+            buf.putByte(DRAW);
+            buf.putObject(shape.copy());
+            g.draw(shape);
+        }
+
+        @Override public void drawLine(float x1, float y1, float x2, float y2) {
+            buf.putByte(DRAW_LINE);
+            putFloats(x1, y1, x2, y2);
+            g.drawLine(x1, y1, x2, y2);
+        }
+
+        @Override public void drawRect(float x, float y, float width, float height) {
+            buf.putByte(DRAW_RECT);
+            putFloats(x, y, width, height);
+            g.drawRect(x, y, width, height);
+        }
+
+        @Override public void drawRoundRect(float x, float y, float width, float height,
+                                            float arcw, float arch) {
+            buf.putByte(DRAW_ROUND_RECT);
+            putFloats(x, y, width, height);
+            buf.putFloat(arcw);
+            buf.putFloat(arch);
+            g.drawRoundRect(x, y, width, height, arcw, arch);
+        }
+
+        @Override public void drawEllipse(float x, float y, float width, float height) {
+            buf.putByte(DRAW_ELLIPSE);
+            putFloats(x, y, width, height);
+            g.drawEllipse(x, y, width, height);
+        }
+
+        @Override public void setNodeBounds(RectBounds bounds) {
+            buf.putByte(NODE_BOUNDS);
+            buf.putObject(bounds == null ? null : new RectBounds(bounds));
+            g.setNodeBounds(bounds);
+        }
+
+        @Override public void drawString(GlyphList gl, FontStrike strike, float x, float y,
+                                         Color selectColor, int selectStart, int selectEnd) {
+            buf.putByte(DRAW_STRING);
+            buf.putObject(gl);
+            buf.putObject(strike);
+            buf.putFloat(x);
+            buf.putFloat(y);
+            buf.putObject(selectColor);
+            buf.putInt(selectStart);
+            buf.putInt(selectEnd);
+            g.drawString(gl, strike, x, y, selectColor, selectStart, selectEnd);
+        }
+
+        // Textures may be evicted, reused or disposed after the recording,
+        // so none of the texture operations are recorded.
+
+        @Override public void blit(RTTexture srcTex, RTTexture dstTex,
+                                   int srcX0, int srcY0, int srcX1, int srcY1,
+                                   int dstX0, int dstY0, int dstX1, int dstY1) {
+            fail();
+            g.blit(srcTex, dstTex, srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1);
+        }
+
+        @Override public void drawTexture(Texture tex, float x, float y, float w, float h) {
+            fail();
+            g.drawTexture(tex, x, y, w, h);
+        }
+
+        @Override public void drawTexture(Texture tex,
+                                          float dx1, float dy1, float dx2, float dy2,
+                                          float sx1, float sy1, float sx2, float sy2) {
+            fail();
+            g.drawTexture(tex, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2);
+        }
+
+        @Override public void drawTexture3SliceH(Texture tex,
+                                                 float dx1, float dy1, float dx2, float dy2,
+                                                 float sx1, float sy1, float sx2, float sy2,
+                                                 float dh1, float dh2, float sh1, float sh2) {
+            fail();
+            g.drawTexture3SliceH(tex, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, dh1, dh2, sh1, sh2);
+        }
+
+        @Override public void drawTexture3SliceV(Texture tex,
+                                                 float dx1, float dy1, float dx2, float dy2,
+                                                 float sx1, float sy1, float sx2, float sy2,
+                                                 float dv1, float dv2, float sv1, float sv2) {
+            fail();
+            g.drawTexture3SliceV(tex, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, dv1, dv2, sv1, sv2);
+        }
+
+        @Override public void drawTexture9Slice(Texture tex,
+                                                float dx1, float dy1, float dx2, float dy2,
+                                                float sx1, float sy1, float sx2, float sy2,
+                                                float dh1, float dv1, float dh2, float dv2,
+                                                float sh1, float sv1, float sh2, float sv2) {
+            fail();
+            g.drawTexture9Slice(tex, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2,
+                                dh1, dv1, dh2, dv2, sh1, sv1, sh2, sv2);
+        }
+
+        @Override public void drawTextureVO(Texture tex,
+                                            float topopacity, float botopacity,
+                                            float dx1, float dy1, float dx2, float dy2,
+                                            float sx1, float sy1, float sx2, float sy2) {
+            fail();
+            g.drawTextureVO(tex, topopacity, botopacity, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2);
+        }
+
+        @Override public void drawTextureRaw(Texture tex,
+                                             float dx1, float dy1, float dx2, float dy2,
+                                             float tx1, float ty1, float tx2, float ty2) {
+            fail();
+            g.drawTextureRaw(tex, dx1, dy1, dx2, dy2, tx1, ty1, tx2, ty2);
+        }
+
+        @Override public void drawMappedTextureRaw(Texture tex,
+                                                   float dx1, float dy1, float dx2, float dy2,
+                                                   float tx11, float ty11, float tx21, float ty21,
+                                                   float tx12, float ty12, float tx22, float ty22) {
+            fail();
+            g.drawMappedTextureRaw(tex, dx1, dy1, dx2, dy2,
+                                   tx11, ty11, tx21, ty21, tx12, ty12, tx22, ty22);
+        }
+
+        @Override public void sync() {
+            fail();
+            g.sync();
+        }
+
+        @Override public Screen getAssociatedScreen() {
+            return g.getAssociatedScreen();
+        }
+
+        @Override public ResourceFactory getResourceFactory() {
+            return g.getResourceFactory();
+        }
+
+        @Override public RenderTarget getRenderTarget() {
+            fail();
+            return g.getRenderTarget();
+        }
+
+        @Override public void setRenderRoot(NodePath root) {
+            if (root != null) {
+                fail();
+            }
+            g.setRenderRoot(root);
+        }
+
+        @Override public NodePath getRenderRoot() {
+            return g.getRenderRoot();
+        }
+
+        @Override public void setState3D(boolean flag) {
+            if (flag) {
+                fail();
+            }
+            g.setState3D(flag);
+        }
+
+        @Override public boolean isState3D() {
+            return g.isState3D();
+        }
+
+        @Override public void setup3DRendering() {
+            fail();
+            g.setup3DRendering();
+        }
+
+        @Override public void setPixelScaleFactor(float pixelScale) {
+            fail();
+            g.setPixelScaleFactor(pixelScale);
+        }
+
+        @Override public float getPixelScaleFactor() {
+            return g.getPixelScaleFactor();
+        }
+    }
+}
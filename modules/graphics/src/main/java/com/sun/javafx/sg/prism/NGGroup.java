@@ -28,18 +28,23 @@ package com.sun.javafx.sg.prism;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import com.sun.javafx.geom.BoxBounds;
 import com.sun.javafx.geom.DirtyRegionContainer;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.geom.transform.GeneralTransform3D;
 import com.sun.prism.Graphics;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.scenario.effect.Blend;
 import com.sun.scenario.effect.Blend.Mode;
 import com.sun.scenario.effect.FilterContext;
 import com.sun.scenario.effect.ImageData;
 import com.sun.scenario.effect.impl.prism.PrDrawable;
 import com.sun.scenario.effect.impl.prism.PrEffectHelper;
+import com.sun.javafx.logging.PulseLogger;
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
 
 /**
  */
@@ -63,6 +68,42 @@ public class NGGroup extends NGNode {
      */
     private static final int REGION_INTERSECTS_MASK = 0x15555555;
 
+    /**
+     * This mask has all bits that mark that a region contains this group.
+     * Which means it looks like this: 00101010101010101010101010101010 (first bit for sign)
+     */
+    private static final int REGION_CONTAINS_MASK = 0x2AAAAAAA;
+
+    /**
+     * The maximum number of opaque children used to cull the children
+     * drawn below them.
+     */
+    private static final int MAX_OCCLUDERS = 4;
+
+    /**
+     * Whether the children hidden by opaque siblings are culled. Taken from
+     * PrismSettings.occlusionCullingEnabled, but may be changed by tests.
+     */
+    static boolean occlusionCullingEnabled = PrismSettings.occlusionCullingEnabled;
+
+    // Garbage-reduction variables used for occlusion culling:
+    private static final RectBounds[] TEMP_OCCLUDERS = new RectBounds[MAX_OCCLUDERS];
+    static {
+        for (int i = 0; i < MAX_OCCLUDERS; i++) {
+            TEMP_OCCLUDERS[i] = new RectBounds();
+        }
+    }
+    private static final BoxBounds TEMP_OCCLUSION_BOUNDS = new BoxBounds();
+    private static final RectBounds TEMP_OCCLUDED_BOUNDS = new RectBounds();
+    private static final Affine3D TEMP_OCCLUDER_TRANSFORM = new Affine3D();
+
+    /**
+     * Whether the children of this group have been marked by the last
+     * pre-culling pass although the group was completely inside the dirty
+     * regions, because some of its descendants are hidden.
+     */
+    private boolean occludedDescendants;
+
     /***************************************************************************
      *                                                                         *
      * Implementation of the PGGroup interface                                 *
@@ -115,7 +156,9 @@ public class NGGroup extends NGNode {
 
     public void clearFrom(int fromIndex) {
         if (fromIndex < children.size()) {
-            children.subList(fromIndex, children.size()).clear();
+            final List<NGNode> cleared = children.subList(fromIndex, children.size());
+            childrenRemoved(cleared);
+            cleared.clear();
             geometryChanged();
             childDirty = true;
             markTreeDirtyNoIncrement();
@@ -152,26 +195,47 @@ public class NGGroup extends NGNode {
         // sub-region that had been occupied by the node as dirty, but we do not
         // as yet have this optimization (mostly because we didn't have it in
         // Scenario, mostly because it was hard to optimize correctly).
-        children.remove(node);
+        if (children.remove(node)) {
+            childRemoved(node);
+        }
         geometryChanged();
         childDirty = true;
         markTreeDirtyNoIncrement();
     }
 
     public void remove(int index) {
-        children.remove(index);
+        childRemoved(children.remove(index));
         geometryChanged();
         childDirty = true;
         markTreeDirtyNoIncrement();
     }
 
     public void clear() {
+        childrenRemoved(children);
         children.clear();
         childDirty = false;
         geometryChanged();
         markTreeDirtyNoIncrement();
     }
 
+    /**
+     * Stops counting the caches of a removed child in this group, unless
+     * the child has already been added to another group.
+     */
+    private void childRemoved(NGNode child) {
+        if (child.getParent() == this) {
+            child.removedFromParent();
+        }
+    }
+
+    private void childrenRemoved(List<NGNode> nodes) {
+        // Every child is visited, even if none is cached yet: a child that
+        // stays counted would add its later caches to this group
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            childRemoved(nodes.get(i));
+        }
+    }
+
     /**
      * Set by the FX scene graph.
      * @param blendMode cannot be null
@@ -223,6 +287,9 @@ public class NGGroup extends NGNode {
         if (blendMode == Blend.Mode.SRC_OVER ||
                 children.size() < 2) {  // Blend modes only work "between" siblings
 
+            if (startPos == 0 && PrismSettings.displayListsEnabled && renderDisplayList(g)) {
+                return;
+            }
             for (int i = startPos; i < children.size(); i++) {
                 NGNode child;
                 try {
@@ -279,6 +346,44 @@ public class NGGroup extends NGNode {
         }
     }
 
+    /**
+     * Replays the display list of this group, or records it while rendering
+     * the children when the group has been unchanged for a few frames.
+     *
+     * @return true if the children have been rendered
+     */
+    private boolean renderDisplayList(Graphics g) {
+        if (displayList == null) {
+            displayList = new NGDisplayList();
+        }
+        if (displayList.replay(g)) {
+            if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("NGGroup display lists replayed");
+            }
+            return true;
+        }
+        final NGDisplayList.Recorder recorder = displayList.beginRecording(g, children);
+        if (recorder == null) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < children.size(); i++) {
+                children.get(i).render(recorder);
+            }
+        } finally {
+            displayList.endRecording(recorder);
+        }
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("NGGroup display lists recorded");
+        }
+        return true;
+    }
+
+    @Override
+    boolean isAutoCacheCandidate() {
+        return !children.isEmpty() || super.isAutoCacheCandidate();
+    }
+
     @Override
     protected boolean hasOverlappingContents() {
         if (blendMode != Mode.SRC_OVER) {
@@ -417,7 +522,11 @@ public class NGGroup extends NGNode {
 
         //cullingRegionsBits == 0 group is outside all dirty regions
         // we can cull all children otherwise check children.
-        // If none of the regions intersect this group, skip pre-culling
+        // If none of the regions intersect this group, skip pre-culling,
+        // unless some of the descendants of the group are hidden by opaque
+        // siblings (occlusion culling).
+        occludedDescendants = false;
+        final boolean occlusionCulling = occlusionCullingEnabled && cullingBits != -1;
         if (cullingBits == -1 || (cullingBits != 0 && (cullingBits & REGION_INTERSECTS_MASK) != 0)) {
             //save current transform
             double mxx = tx.getMxx();
@@ -445,9 +554,170 @@ public class NGGroup extends NGNode {
                         chTx,
                         pvTx);
             }
+            if (occlusionCulling) {
+                cullOccludedChildren(chTx, pvTx, false);
+            }
             // restore previous transform state
             tx.restoreTransform(mxx, mxy, mxz, mxt, myx, myy, myz, myt, mzx, mzy, mzz, mzt);
+        } else if (cullingBits != 0 && occlusionCulling) {
+            // This group is completely inside the dirty regions, so its
+            // children need not be marked and will all be rendered, unless
+            // some of its descendants are hidden. In that case, the children
+            // are marked as if the group only intersected the dirty regions,
+            // and the culling bits are still checked when rendering them.
+            double mxx = tx.getMxx();
+            double mxy = tx.getMxy();
+            double mxz = tx.getMxz();
+            double mxt = tx.getMxt();
+
+            double myx = tx.getMyx();
+            double myy = tx.getMyy();
+            double myz = tx.getMyz();
+            double myt = tx.getMyt();
+
+            double mzx = tx.getMzx();
+            double mzy = tx.getMzy();
+            double mzz = tx.getMzz();
+            double mzt = tx.getMzt();
+            BaseTransform chTx = tx.deriveWithConcatenation(getTransform());
+
+            if (hasOccludedDescendants(chTx, pvTx)) {
+                occludedDescendants = true;
+                final int bits = cullingBits | ((cullingBits & REGION_CONTAINS_MASK) >>> 1);
+                for (int chldIdx = 0; chldIdx < children.size(); chldIdx++) {
+                    children.get(chldIdx).markCullRegions(drc, bits, chTx, pvTx);
+                }
+                cullOccludedChildren(chTx, pvTx, false);
+            }
+            tx.restoreTransform(mxx, mxy, mxz, mxt, myx, myy, myz, myt, mzx, mzy, mzz, mzt);
+        }
+    }
+
+    @Override
+    boolean hasOccludedDescendants() {
+        return occludedDescendants;
+    }
+
+    /**
+     * Returns whether any child of this group, or of its descendant groups,
+     * is completely hidden by an opaque sibling drawn above it.
+     *
+     * @param chTx the transform from the local space of this group to the
+     *             screen. It is restored before returning.
+     * @param pvTx the perspective transform
+     */
+    private boolean hasOccludedDescendants(BaseTransform chTx, GeneralTransform3D pvTx) {
+        if (cullOccludedChildren(chTx, pvTx, true)) {
+            return true;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            final NGNode child = children.get(i);
+            if (!(child instanceof NGGroup) || !child.isVisible() || !child.getTransform().is2D()) {
+                // the children of a group with a 3D transform are not culled
+                continue;
+            }
+            double mxx = chTx.getMxx();
+            double mxy = chTx.getMxy();
+            double mxz = chTx.getMxz();
+            double mxt = chTx.getMxt();
+
+            double myx = chTx.getMyx();
+            double myy = chTx.getMyy();
+            double myz = chTx.getMyz();
+            double myt = chTx.getMyt();
+
+            double mzx = chTx.getMzx();
+            double mzy = chTx.getMzy();
+            double mzz = chTx.getMzz();
+            double mzt = chTx.getMzt();
+            final BaseTransform tx = chTx.deriveWithConcatenation(child.getTransform());
+            final boolean occluded = ((NGGroup) child).hasOccludedDescendants(tx, pvTx);
+            tx.restoreTransform(mxx, mxy, mxz, mxt, myx, myy, myz, myt, mzx, mzy, mzz, mzt);
+            if (occluded) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Culls the children which are completely hidden by the opaque region of
+     * a sibling drawn above them, by clearing their culling bits, so that
+     * they are skipped when rendering any of the dirty regions. Only the
+     * opaque regions which remain axis aligned on screen are used, and only
+     * when the children are drawn in order. This is not the case with depth
+     * testing, but it only applies to scenes with a depth buffer, which are
+     * always rendered entirely, without pre-culling. It is not the case
+     * either for 3D shapes or children with a 3D transform, in which case
+     * nothing is culled.
+     *
+     * @param chTx the transform from the local space of this group to the
+     *             screen
+     * @param pvTx the perspective transform
+     * @param dryRun if true, the children are not culled, and their culling
+     *               bits are ignored, as they may not have been computed
+     * @return true if at least one child is hidden
+     */
+    private boolean cullOccludedChildren(BaseTransform chTx, GeneralTransform3D pvTx, boolean dryRun) {
+        if (!pvTx.isIdentity() || !chTx.is2D() || children.size() < 2) {
+            return false;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            final NGNode child = children.get(i);
+            if (child.isShape3D() || !child.getTransform().is2D()) {
+                return false;
+            }
+        }
+        boolean found = false;
+        int numOccluders = 0;
+        for (int i = children.size() - 1; i >= 0; i--) {
+            final NGNode child = children.get(i);
+            if ((!dryRun && child.cullingBits == 0) || !child.isVisible()) {
+                continue;
+            }
+
+            if (numOccluders > 0) {
+                chTx.transform(child.transformedBounds, TEMP_OCCLUSION_BOUNDS);
+                TEMP_OCCLUSION_BOUNDS.flattenInto(TEMP_OCCLUDED_BOUNDS);
+                boolean occluded = false;
+                for (int j = 0; j < numOccluders && !occluded; j++) {
+                    occluded = TEMP_OCCLUDERS[j].contains(TEMP_OCCLUDED_BOUNDS);
+                }
+                if (occluded) {
+                    if (dryRun) {
+                        return true;
+                    }
+                    found = true;
+                    child.cullingBits = 0;
+                    // Make sure that the dirty flags of the culled node are
+                    // cleared, as for the nodes outside of the dirty regions
+                    if (child.dirty != DirtyFlag.CLEAN || child.childDirty) {
+                        child.clearDirtyTree();
+                    }
+                    if (PULSE_LOGGING_ENABLED) {
+                        PulseLogger.incrementCounter("Nodes culled by occlusion");
+                    }
+                    continue;
+                }
+            }
+
+            if (numOccluders < MAX_OCCLUDERS) {
+                final RectBounds opaqueRegion = child.getOpaqueRegion();
+                if (opaqueRegion == null || opaqueRegion.isEmpty()) {
+                    continue;
+                }
+                final BaseTransform tx = TEMP_OCCLUDER_TRANSFORM.deriveWithNewTransform(chTx)
+                        .deriveWithConcatenation(child.getTransform());
+                if ((tx.getType() & ~(BaseTransform.TYPE_TRANSLATION
+                        | BaseTransform.TYPE_QUADRANT_ROTATION
+                        | BaseTransform.TYPE_MASK_SCALE)) != 0) {
+                    continue;
+                }
+                tx.transform(opaqueRegion, TEMP_OCCLUSION_BOUNDS);
+                TEMP_OCCLUSION_BOUNDS.flattenInto(TEMP_OCCLUDERS[numOccluders++]);
+            }
         }
+        return found;
     }
 
     @Override
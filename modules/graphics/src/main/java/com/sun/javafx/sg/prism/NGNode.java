@@ -43,9 +43,12 @@ import com.sun.javafx.geom.transform.NoninvertibleTransformException;
 import com.sun.prism.CompositeMode;
 import com.sun.prism.Graphics;
 import com.sun.prism.GraphicsPipeline;
+import com.sun.prism.PrinterGraphics;
 import com.sun.prism.RTTexture;
 import com.sun.prism.ReadbackGraphics;
 import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.impl.TextureResourcePool;
+import com.sun.prism.paint.Color;
 import com.sun.scenario.effect.Blend;
 import com.sun.scenario.effect.Effect;
 import com.sun.scenario.effect.FilterContext;
@@ -208,6 +211,42 @@ public abstract class NGNode {
      */
     private CacheFilter cacheFilter;
 
+    /**
+     * The recorded rendering of the children of this node, used by NGGroup
+     * when display lists are enabled. Null until the first attempt to
+     * record it.
+     */
+    NGDisplayList displayList;
+
+    /**
+     * The statistics used to decide whether this node should be cached
+     * automatically. Null unless automatic caching is enabled and this node
+     * is a candidate for it, and unless the application asked for this node
+     * to be cached explicitly.
+     */
+    private AutoCache autoCache;
+
+    /**
+     * The number of descendants of this node (including clip nodes) that
+     * have a cache filter, whether set by the application or automatically.
+     * A node with cached descendants is not cached automatically, so that
+     * nested caches do not hold copies of the same pixels.
+     */
+    private int cachedDescendants;
+
+    /**
+     * Whether the caches of this node and of its descendants are included
+     * in the cachedDescendants count of its parent. A node removed from a
+     * group keeps a reference to it, but is no longer counted.
+     */
+    private boolean countedInParent;
+
+    /**
+     * The color of the overlay drawn over automatically cached nodes, when
+     * -Dprism.showautocache=true
+     */
+    private static final Color AUTO_CACHE_OVERLAY = new Color(0f, 1f, 0f, 0.25f);
+
     /**
      * A filter used whenever an effect is placed on the node. Of course
      * effects can form a kind of tree, such that this one effect might be
@@ -493,9 +532,15 @@ public abstract class NGNode {
             throw new IllegalArgumentException("Internal Error: cacheHint must not be null");
         }
 
+        // An explicit request overrides any automatic caching decision. If
+        // the node is no longer cached, it may be cached automatically again
+        // later on.
+        autoCache = null;
+
         if (cached) {
             if (cacheFilter == null) {
                 cacheFilter = new CacheFilter(this, cacheHint);
+                cachesChanged(1);
                 // We do not technically need to do a render pass here, but if
                 // we wait for the next render pass to cache it, then we will
                 // cache not the current visuals, but the visuals as defined
@@ -522,6 +567,7 @@ public abstract class NGNode {
             if (cacheFilter != null) {
                 cacheFilter.dispose();
                 cacheFilter = null;
+                cachesChanged(-1);
                 // A cache will often look worse than uncached rendering.  It
                 // may look the same in some circumstances, and this may then
                 // be an unnecessary rendering pass, but we do not have enough
@@ -613,8 +659,37 @@ public abstract class NGNode {
     }
 
     private void setParent(NGNode parent, boolean isClip) {
+        removedFromParent();
         this.parent = parent;
         this.isClip = isClip;
+        if (parent != null) {
+            countedInParent = true;
+            cachesChanged(cachedDescendants + (cacheFilter != null ? 1 : 0));
+        }
+    }
+
+    /**
+     * Called when this node is removed from its parent, which it still
+     * references afterwards, to stop counting its caches in its ancestors.
+     */
+    void removedFromParent() {
+        if (countedInParent) {
+            cachesChanged(-(cachedDescendants + (cacheFilter != null ? 1 : 0)));
+            countedInParent = false;
+        }
+    }
+
+    /**
+     * Adds delta to the number of cached descendants of every ancestor of
+     * this node that counts it.
+     */
+    private void cachesChanged(int delta) {
+        if (delta == 0) {
+            return;
+        }
+        for (NGNode n = this; n.countedInParent; n = n.parent) {
+            n.parent.cachedDescendants += delta;
+        }
     }
 
     /**
@@ -926,6 +1001,12 @@ public abstract class NGNode {
         if (cacheFilter != null) {
             cacheFilter.invalidate();
         }
+        if (autoCache != null) {
+            autoCache.invalidated();
+        }
+        if (displayList != null) {
+            displayList.invalidate();
+        }
     }
 
     /**
@@ -936,6 +1017,12 @@ public abstract class NGNode {
         if (cacheFilter != null) {
             cacheFilter.invalidateByTranslation(hint.translateXDelta, hint.translateYDelta);
         }
+        if (autoCache != null) {
+            autoCache.invalidated();
+        }
+        if (displayList != null) {
+            displayList.invalidate();
+        }
     }
 
     /***************************************************************************
@@ -1312,6 +1399,16 @@ public abstract class NGNode {
      *                                                                         *
      **************************************************************************/
 
+    /**
+     * Returns whether some descendants of this node have been culled by the
+     * last pre-culling pass because they are hidden by opaque siblings, in
+     * which case the culling bits of the subtree must be checked even if
+     * this node is completely inside the dirty regions.
+     */
+    boolean hasOccludedDescendants() {
+        return false;
+    }
+
     /**
      * Culling support for multiple dirty regions.
      * Set culling bits for the whole graph.
@@ -1983,16 +2080,28 @@ public abstract class NGNode {
                     // If no culling bits are set for this region, this group
                     // does not intersect (nor is covered by) the region
                     return;
-                } else if ((bits & DIRTY_REGION_CONTAINS_NODE_BOUNDS) != 0) {
+                } else if ((bits & DIRTY_REGION_CONTAINS_NODE_BOUNDS) != 0 &&
+                           !hasOccludedDescendants()) {
                     // When this group is fully covered by the region,
                     // turn off the culling checks in the subtree, as everything
-                    // gets rendered
+                    // gets rendered (unless some of its descendants are hidden)
                     g.setHasPreCullingBits(false);
                     preCullingTurnedOff = true;
                 }
             }
         }
 
+        // Automatically cache or uncache this node, before deciding how to
+        // render it, and measure how long it takes to render
+        AutoCache ac = null;
+        long renderStart = 0L;
+        if (PrismSettings.autoCacheEnabled && !isShape3D()) {
+            ac = updateAutoCache(g);
+            if (ac != null) {
+                renderStart = System.nanoTime();
+            }
+        }
+
         // save current depth test state
         boolean prevDepthTest = g.isDepthTest();
 
@@ -2056,6 +2165,15 @@ public abstract class NGNode {
             }
         }
 
+        if (ac != null) {
+            ac.rendered(System.nanoTime() - renderStart);
+            if (PrismSettings.showAutoCache && ac.isCached()) {
+                g.setPaint(AUTO_CACHE_OVERLAY);
+                g.fillRect(contentBounds.getMinX(), contentBounds.getMinY(),
+                           contentBounds.getWidth(), contentBounds.getHeight());
+            }
+        }
+
         if (preCullingTurnedOff) {
             g.setHasPreCullingBits(true);
         }
@@ -2085,6 +2203,81 @@ public abstract class NGNode {
         }
     }
 
+    /**
+     * Returns whether this node may be worth caching automatically, which
+     * is the case of nodes with an effect. Groups override this, since their
+     * whole subtree may be cached.
+     */
+    boolean isAutoCacheCandidate() {
+        return getEffectFilter() != null;
+    }
+
+    /**
+     * Returns whether this node may hold an automatic cache given its place
+     * in the graph. The root of a scene is never cached, and neither is a
+     * node that has a cached ancestor or a cached descendant, since every
+     * one of these caches would hold its own texture of the same pixels.
+     */
+    boolean canCacheAutomatically() {
+        if (parent == null || cachedDescendants > 0) {
+            return false;
+        }
+        for (NGNode n = parent; n != null; n = n.parent) {
+            if (n.cacheFilter != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates or drops the automatic cache of this node, as recommended by
+     * its AutoCache statistics.
+     *
+     * @return the statistics of this node, or null if this node is not
+     *         cached automatically
+     */
+    private AutoCache updateAutoCache(Graphics g) {
+        if (g instanceof PrinterGraphics) {
+            return null;
+        }
+        if (autoCache == null) {
+            // Leave alone the nodes cached by the application
+            if (cacheFilter != null || !isAutoCacheCandidate()) {
+                return null;
+            }
+            autoCache = new AutoCache();
+        } else if (!autoCache.isCached() && !isAutoCacheCandidate()) {
+            autoCache = null;
+            return null;
+        }
+
+        final TextureResourcePool<?> pool = g.getResourceFactory().getTextureResourcePool();
+        if (autoCache.shouldDemote(pool)
+                || (autoCache.isCached() && !canCacheAutomatically())) {
+            cacheFilter.dispose();
+            cacheFilter = null;
+            cachesChanged(-1);
+            autoCache.setCached(false);
+            if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("Automatic node caches dropped");
+            }
+        } else if (cacheFilter == null) {
+            final long size = pool.estimateRTTextureSize(
+                    (int) Math.ceil(transformedBounds.getWidth()),
+                    (int) Math.ceil(transformedBounds.getHeight()), false);
+            if (autoCache.shouldPromote(size, pool) && canCacheAutomatically()) {
+                cacheFilter = new CacheFilter(this, CacheHint.DEFAULT);
+                cachesChanged(1);
+                autoCache.setCached(true);
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Nodes cached automatically");
+                }
+            }
+        }
+        return autoCache;
+    }
+
     /**
      * Return true if this node has a blend mode that requires special
      * processing.
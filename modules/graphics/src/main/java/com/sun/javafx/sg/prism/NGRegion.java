@@ -193,7 +193,7 @@ public class NGRegion extends NGGroup {
      * Is the key into the image cache that identifies the required background
      * for the region.
      */
-    private Integer cacheKey;
+    private RegionImageCache.CacheKey cacheKey;
 
     /**
      * Simple Helper Function for cleanup.
@@ -470,15 +470,9 @@ public class NGRegion extends NGGroup {
         return cache;
     }
 
-    private Integer getCacheKey(int w, int h) {
+    private RegionImageCache.CacheKey getCacheKey(int w, int h) {
         if (cacheKey == null) {
-            int key = 31 * w;
-            key = key * 37 + h;
-            key = key * 47 + background.hashCode();
-            if (shape != null) {
-                key = key * 73 + shape.hashCode();
-            }
-            cacheKey = key;
+            cacheKey = new RegionImageCache.CacheKey(w, h, background, shape);
         }
         return cacheKey;
     }
@@ -613,10 +607,10 @@ public class NGRegion extends NGGroup {
             if (cacheMode != 0 && g.getTransformNoClone().isTranslateOrIdentity()) {
                 final RegionImageCache imageCache = getImageCache(g);
                 if (imageCache.isImageCachable(textureWidth, textureHeight)) {
-                    final Integer key = getCacheKey(textureWidth, textureHeight);
+                    final RegionImageCache.CacheKey key = getCacheKey(textureWidth, textureHeight);
                     rect = TEMP_RECT;
                     rect.setBounds(0, 0, textureWidth + border, textureHeight + border);
-                    boolean render = imageCache.getImageLocation(key, rect, background, shape, g);
+                    boolean render = imageCache.getImageLocation(key, rect, g);
                     if (!rect.isEmpty()) {
                         // An empty rect indicates a failure occurred in the imageCache
                         cached = imageCache.getBackingStore();
@@ -810,10 +804,10 @@ public class NGRegion extends NGGroup {
         if (cache) {
             RegionImageCache imageCache = getImageCache(g);
             if (imageCache.isImageCachable(textureWidth, textureHeight)) {
-                final Integer key = getCacheKey(textureWidth, textureHeight);
+                final RegionImageCache.CacheKey key = getCacheKey(textureWidth, textureHeight);
                 rect = TEMP_RECT;
                 rect.setBounds(0, 0, textureWidth + border, textureHeight + border);
-                boolean render = imageCache.getImageLocation(key, rect, background, shape, g);
+                boolean render = imageCache.getImageLocation(key, rect, g);
                 if (!rect.isEmpty()) {
                     // An empty rect indicates a failure occurred in the imageCache
                     cached = imageCache.getBackingStore();
@@ -26,38 +26,70 @@
 package com.sun.javafx.sg.prism;
 
 import javafx.scene.layout.Background;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.Shape;
 import com.sun.javafx.logging.PulseLogger;
 import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+import com.sun.javafx.perf.PerformanceTracker;
+import com.sun.javafx.util.Utils;
 import com.sun.prism.Graphics;
 import com.sun.prism.RTTexture;
 import com.sun.prism.ResourceFactory;
 import com.sun.prism.Texture.WrapMode;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.impl.packrect.RectanglePacker;
 
 /**
- * RegionImageCache - A fixed pixel count sized cache of Images keyed by arbitrary set of arguments. All images are held with
- * SoftReferences so they will be dropped by the GC if heap memory gets tight. When our size hits max pixel count least
- * recently requested images are removed first.
+ * RegionImageCache - A fixed size cache of rendered region backgrounds, keyed by the size, Background and Shape
+ * of the region, and stored in a single backing store texture. The size of the backing store is controlled by
+ * the prism.regionCacheSize texture memory budget.
  *
+ * When the backing store is full, the least recently used images are evicted and the remaining ones are
+ * repacked into the backing store, rather than throwing the whole cache away. The number of hits, misses,
+ * evictions, repacks and flushes are tracked by the PerformanceTracker counters.
  */
 class RegionImageCache {
 
     // Maximum cached image size in pixels
     private final static int MAX_SIZE = 300 * 300;
     private static final int WIDTH = 1024;
-    private static final int HEIGHT = 1024;
+    private static final int MIN_HEIGHT = 256;
 
-    private HashMap<Integer, CachedImage> imageMap;
-    private RTTexture backingStore;
-    private RectanglePacker hPacker;
-    private RectanglePacker vPacker;
+    // When repacking, the most recently used images are kept until they
+    // cover this fraction of the area of their half of the backing store
+    private static final float REPACK_RATIO = 0.5f;
 
+    private static final AtomicLong hits = PerformanceTracker.getCounter("RegionImageCache.hits");
+    private static final AtomicLong misses = PerformanceTracker.getCounter("RegionImageCache.misses");
+    private static final AtomicLong evictions = PerformanceTracker.getCounter("RegionImageCache.evictions");
+    private static final AtomicLong repacks = PerformanceTracker.getCounter("RegionImageCache.repacks");
+    private static final AtomicLong flushes = PerformanceTracker.getCounter("RegionImageCache.flushes");
+
+    // Iterates from the least recently used to the most recently used image
+    private final LinkedHashMap<CacheKey, CachedImage> imageMap = new LinkedHashMap<>(64, 0.75f, true);
+    private final ResourceFactory factory;
+    private final int height;
+    private final RTTexture backingStore;
+    private final RectanglePacker hPacker;
+    private final RectanglePacker vPacker;
+    private final Rectangle tempRect = new Rectangle();
 
     RegionImageCache(final ResourceFactory factory) {
-        imageMap = new HashMap<>();
+        this(factory, Utils.clamp(MIN_HEIGHT,
+                                  (int) Math.min(PrismSettings.regionCacheSize / (4L * (WIDTH + WIDTH)),
+                                                 Integer.MAX_VALUE),
+                                  PrismSettings.maxTextureSize));
+    }
+
+    RegionImageCache(final ResourceFactory factory, int height) {
+        this.factory = factory;
+        this.height = height;
         WrapMode mode;
         int pad;
         if (factory.isWrapModeSupported(WrapMode.CLAMP_TO_ZERO)) {
@@ -67,7 +99,7 @@ class RegionImageCache {
             mode = WrapMode.CLAMP_NOT_NEEDED;
             pad = 1;
         }
-        backingStore = factory.createRTTexture(WIDTH + WIDTH, HEIGHT, mode);
+        backingStore = factory.createRTTexture(WIDTH + WIDTH, height, mode);
         backingStore.contentsUseful();
         backingStore.makePermanent();
         factory.setRegionTexture(backingStore);
@@ -78,8 +110,8 @@ class RegionImageCache {
         // Note that requests are already padded on the right and bottom edges
         // (and that includes the gap between the caches) so we only have to
         // pad top and left edges if CLAMP_TO_ZERO needs to be simulated.
-        hPacker = new RectanglePacker(backingStore, pad, pad, WIDTH-pad, HEIGHT-pad, false);
-        vPacker = new RectanglePacker(backingStore, WIDTH, pad, WIDTH, HEIGHT-pad, true);
+        hPacker = new RectanglePacker(backingStore, pad, pad, WIDTH-pad, height-pad, false);
+        vPacker = new RectanglePacker(backingStore, WIDTH, pad, WIDTH, height-pad, true);
     }
 
     /**
@@ -91,7 +123,7 @@ class RegionImageCache {
      */
     boolean isImageCachable(int w, int h) {
         return 0 < w && w < WIDTH &&
-               0 < h && h < HEIGHT &&
+               0 < h && h < height &&
                (w * h) < MAX_SIZE;
     }
 
@@ -106,66 +138,185 @@ class RegionImageCache {
      * If a failure occurred the rect is set to empty to indicate the caller
      * to disable caching.
      *
-     * @param key the hash key for the image
+     * @param key the key for the image, as returned by NGRegion.getCacheKey
      * @param rect the rect image. On input, width and height determine the requested
      *        texture space. On ouput, the x and y the location in the texture
-     * @param background the background used to validated if the correct image was found
-     * @param shape the shape used to validated if the correct image was found
      * @param g the graphics to flush if the texture needs to be restarted
      * @return true means to caller needs to render to rect to initialize the content.
      */
-    boolean getImageLocation(Integer key, Rectangle rect, Background background,
-                             Shape shape, Graphics g) {
+    boolean getImageLocation(CacheKey key, Rectangle rect, Graphics g) {
         CachedImage cache = imageMap.get(key);
         if (cache != null) {
-            if (cache.equals(rect.width, rect.height, background, shape)) {
-                rect.x = cache.x;
-                rect.y = cache.y;
-                return false;
-            }
-            // hash collision, mark rectangle empty indicates the caller to
-            // disable caching
-            rect.width = rect.height = -1;
+            rect.x = cache.x;
+            rect.y = cache.y;
+            hits.incrementAndGet();
             return false;
         }
+        misses.incrementAndGet();
+
         boolean vertical = rect.height > 64;
         RectanglePacker packer = vertical ? vPacker : hPacker;
 
         if (!packer.add(rect)) {
             g.sync();
 
-            vPacker.clear();
-            hPacker.clear();
-            imageMap.clear();
-            packer.add(rect);
-            backingStore.createGraphics().clear();
-            if (PULSE_LOGGING_ENABLED) {
-                PulseLogger.incrementCounter("Region image cache flushed");
+            if (!repack() || !packer.add(rect)) {
+                flush();
+                if (!packer.add(rect)) {
+                    rect.width = rect.height = -1;
+                    return false;
+                }
+            }
+        }
+        imageMap.put(key, new CachedImage(rect, vertical));
+        return true;
+    }
+
+    /**
+     * Evicts the least recently used images and moves the remaining ones
+     * to the start of the backing store, using a scratch texture.
+     *
+     * @return false if no image could be kept, in which case the cache
+     *         is left untouched and should be flushed instead.
+     */
+    private boolean repack() {
+        final long keepArea = (long) (WIDTH * height * REPACK_RATIO);
+        long hArea = 0, vArea = 0;
+        final List<CachedImage> kept = new ArrayList<>();
+        final List<CacheKey> evicted = new ArrayList<>();
+        final List<Map.Entry<CacheKey, CachedImage>> entries = new ArrayList<>(imageMap.entrySet());
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            final CachedImage image = entries.get(i).getValue();
+            final long area = (long) image.width * image.height;
+            if (image.vertical && vArea + area <= keepArea) {
+                vArea += area;
+                kept.add(image);
+            } else if (!image.vertical && hArea + area <= keepArea) {
+                hArea += area;
+                kept.add(image);
+            } else {
+                evicted.add(entries.get(i).getKey());
+            }
+        }
+        if (kept.isEmpty()) {
+            return false;
+        }
+
+        final int w = backingStore.getContentWidth();
+        final int h = backingStore.getContentHeight();
+        final RTTexture scratch = factory.createRTTexture(w, h, WrapMode.CLAMP_NOT_NEEDED);
+        if (scratch == null) {
+            return false;
+        }
+        scratch.contentsUseful();
+        scratch.setLinearFiltering(false);
+        final Graphics scratchGraphics = scratch.createGraphics();
+        scratchGraphics.clear();
+        scratchGraphics.drawTexture(backingStore, 0, 0, w, h, 0, 0, w, h);
+        scratchGraphics.sync();
+
+        vPacker.clear();
+        hPacker.clear();
+        final Graphics g = backingStore.createGraphics();
+        g.clear();
+        for (int i = 0, max = kept.size(); i < max; i++) {
+            final CachedImage image = kept.get(i);
+            final Rectangle rect = tempRect;
+            rect.setBounds(0, 0, image.width, image.height);
+            // Everything kept fits in half of each packer, so this
+            // should not fail, but the image is dropped if it does
+            if ((image.vertical ? vPacker : hPacker).add(rect)) {
+                g.drawTexture(scratch,
+                              rect.x, rect.y, rect.x + rect.width, rect.y + rect.height,
+                              image.x, image.y, image.x + image.width, image.y + image.height);
+                image.x = rect.x;
+                image.y = rect.y;
+            } else {
+                image.width = -1;
+            }
+        }
+        g.sync();
+        scratch.dispose();
+
+        for (Iterator<CachedImage> it = imageMap.values().iterator(); it.hasNext(); ) {
+            if (it.next().width < 0) {
+                it.remove();
+                evictions.incrementAndGet();
             }
         }
-        imageMap.put(key, new CachedImage(rect, background, shape));
+        for (int i = 0, max = evicted.size(); i < max; i++) {
+            imageMap.remove(evicted.get(i));
+        }
+        evictions.addAndGet(evicted.size());
+        repacks.incrementAndGet();
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Region image cache repacked");
+        }
         return true;
     }
 
+    private void flush() {
+        vPacker.clear();
+        hPacker.clear();
+        evictions.addAndGet(imageMap.size());
+        imageMap.clear();
+        backingStore.createGraphics().clear();
+        flushes.incrementAndGet();
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Region image cache flushed");
+        }
+    }
+
+    /**
+     * The key of a cached image. Two regions share the same image if
+     * they have the same size, equal backgrounds and the same shape.
+     */
+    static final class CacheKey {
+        private final int width, height;
+        private final Background background;
+        private final Shape shape;
+        private final int hash;
+
+        CacheKey(int width, int height, Background background, Shape shape) {
+            this.width = width;
+            this.height = height;
+            this.background = background;
+            this.shape = shape;
+            int h = 31 * width;
+            h = h * 37 + height;
+            h = h * 47 + (background == null ? 0 : background.hashCode());
+            if (shape != null) {
+                h = h * 73 + shape.hashCode();
+            }
+            this.hash = h;
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof CacheKey)) return false;
+            final CacheKey other = (CacheKey) obj;
+            return hash == other.hash &&
+                   width == other.width &&
+                   height == other.height &&
+                   (background == null ? other.background == null : background.equals(other.background)) &&
+                   (shape == null ? other.shape == null : shape.equals(other.shape));
+        }
+    }
+
     static class CachedImage {
-        Background background;
-        Shape shape;
+        final boolean vertical;
         int x, y, width, height;
 
-        CachedImage(Rectangle rect, Background background, Shape shape) {
+        CachedImage(Rectangle rect, boolean vertical) {
             this.x = rect.x;
             this.y = rect.y;
             this.width = rect.width;
             this.height = rect.height;
-            this.background = background;
-            this.shape = shape;
-        }
-
-        public boolean equals(int width, int height, Background background, Shape shape) {
-            return this.width == width &&
-                   this.height == height &&
-                   (this.background == null ? background == null : this.background.equals(background)) &&
-                   (this.shape == null ? shape == null : this.shape.equals(shape));
+            this.vertical = vertical;
         }
     }
 
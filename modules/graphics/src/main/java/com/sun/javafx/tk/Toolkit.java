@@ -70,6 +70,7 @@ import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import com.sun.glass.ui.CommonDialogs.FileChooserResult;
 import com.sun.glass.utils.NativeLibLoader;
 import com.sun.javafx.PlatformUtil;
@@ -814,6 +815,35 @@ public abstract class Toolkit {
 
     public abstract Object renderToImage(ImageRenderingContext context);
 
+    /*
+     * This method renders a PG-graph to a platform image object, like
+     * renderToImage(ImageRenderingContext), and passes the platform image
+     * to the given callback on the FX application thread once it is ready.
+     * The default implementation renders synchronously and calls the
+     * callback before returning.  Toolkits that render on a separate thread
+     * may return as soon as the rendering has been scheduled, so that the
+     * FX thread can process CSS and layout for other scenes while this one
+     * is being rendered.  Until the callback has been called, the render
+     * graph reachable from the context (root, camera and lights) must only
+     * be synchronized from within synchronizeForSnapshot().
+     *
+     * @param context a ImageRenderingContext instance specifying
+     *               the various rendering parameters
+     * @param callback called with the platform specific image object
+     */
+    public void renderToImage(ImageRenderingContext context, Consumer<Object> callback) {
+        callback.accept(renderToImage(context));
+    }
+
+    /*
+     * Runs the given synchronization of a PG-graph that is about to be
+     * rendered by renderToImage. Any snapshot that is still pending is
+     * rendered first, so it does not see the changes of this synchronization.
+     */
+    public void synchronizeForSnapshot(Runnable synchronizer) {
+        synchronizer.run();
+    }
+
     /**
      * Returns the key code for the key which is commonly used on the
      * corresponding platform as a modifier key in shortcuts. For example
@@ -154,6 +154,7 @@ final class EmbeddedScene extends GlassScene implements EmbeddedSceneInterface {
     @Override
     public void repaint() {
         Toolkit tk = Toolkit.getToolkit();
+        frameSubmitted();
         tk.addRenderJob(paintRenderJob);
     }
 
@@ -75,6 +75,14 @@ abstract class GlassScene implements TKScene {
     private boolean doPresent = true;
     private final AtomicBoolean painting = new AtomicBoolean(false);
 
+    // The number of frames submitted to the render thread that have not
+    // been rendered yet. Written from both threads, guarded by the lock.
+    private final Object pendingFramesLock = new Object();
+    private int pendingFrames;
+
+    // The number of frames ever submitted, only used on the FX thread
+    private int submittedFrames;
+
     private final boolean depthBuffer;
     private final boolean msaa;
 
@@ -124,11 +132,13 @@ abstract class GlassScene implements TKScene {
     }
 
     public void waitForRenderingToComplete() {
-        PaintCollector.getInstance().waitForRenderingToComplete();
+        PaintCollector.getInstance().waitForRenderingToComplete(this);
     }
 
     @Override
     public void waitForSynchronization() {
+        // a deferred snapshot must render the graph it was synchronized for
+        QuantumToolkit.waitForPendingSnapshots();
         ViewPainter.renderLock.lock();
     }
 
@@ -294,6 +304,51 @@ abstract class GlassScene implements TKScene {
         // Overridden in subclasses
     }
 
+    /**
+     * Called on the FX thread by subclasses right before a paint job for
+     * this scene is submitted to the render thread.
+     */
+    final void frameSubmitted() {
+        submittedFrames++;
+        synchronized (pendingFramesLock) {
+            pendingFrames++;
+        }
+    }
+
+    /**
+     * Gets the number of paint jobs submitted for this scene so far. Only
+     * called on the FX thread.
+     */
+    final int getSubmittedFrames() {
+        return submittedFrames;
+    }
+
+    /**
+     * Called by the PaintCollector when a paint job for this scene has
+     * completed.
+     */
+    final void frameCompleted() {
+        synchronized (pendingFramesLock) {
+            if (pendingFrames > 0) {
+                pendingFrames--;
+            }
+            if (pendingFrames == 0) {
+                pendingFramesLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until every paint job submitted for this scene has completed.
+     */
+    final void waitForPendingFrames() throws InterruptedException {
+        synchronized (pendingFramesLock) {
+            while (pendingFrames > 0) {
+                pendingFramesLock.wait();
+            }
+        }
+    }
+
     final void stageVisible(boolean visible) {
         // if the stage became invisible (for example before being destroyed)
         // we need to remove the scene from the repainter list to prevent
@@ -54,6 +54,7 @@ import com.sun.javafx.logging.PulseLogger;
  *     <li>getRendered: May be called from any thread</li>
  *     <li>liveRepaintRenderJob: Called only on the FX Thread</li>
  *     <li>renderAll: Called only on the FX Thread</li>
+ *     <li>waitForRenderingToComplete(GlassScene): Called only on the FX Thread</li>
  * </ul>
  *
  * Assertions have been added to each method to verify whether the calling
@@ -168,6 +169,32 @@ final class PaintCollector implements CompletionListener {
         }
     }
 
+    /**
+     * Called by a scene before it synchronizes its render graph, to wait
+     * for its previous frame to be rendered. Unless -Dquantum.perSceneSync
+     * is set, this waits for the previous frame of every scene instead.
+     *
+     * <p>This method must only be called on the FX Thread</p>
+     *
+     * @param scene    The scene about to be synchronized. Must not be null.
+     */
+    void waitForRenderingToComplete(GlassScene scene) {
+        assert scene != null;
+
+        if (toolkit.shouldWaitForAllScenes()) {
+            waitForRenderingToComplete();
+            return;
+        }
+        while (true) {
+            try {
+                scene.waitForPendingFrames();
+                return;
+            } catch (InterruptedException ex) {
+                // See waitForRenderingToComplete() above, keep waiting
+            }
+        }
+    }
+
     /**
      * Gets whether there are any dirty scenes that need to be rendered. If
      * true, then a subsequent pulse event and renderAll call is required.
@@ -283,6 +310,18 @@ final class PaintCollector implements CompletionListener {
         // than going through this round-about way.
         scene.frameRendered();
 
+        frameDone();
+
+        // Release the FX thread if it is only waiting for this scene
+        scene.frameCompleted();
+    }
+
+    /**
+     * Counts down the allWorkCompletedLatch for one scene of the current
+     * frame, and finishes the frame if it was the last one. Called on the
+     * render thread.
+     */
+    private void frameDone() {
         // Work to be done after all rendering is completed. Note that
         // I check against "1" to indicate all rendering is done, and
         // only decrement the allWorkCompletedLatch after wards. This is
@@ -330,6 +369,40 @@ final class PaintCollector implements CompletionListener {
          });
      }
 
+    /**
+     * Repaints a scene and returns whether a paint job was actually
+     * submitted for it. A scene that is still being painted, or that has
+     * no view, does not submit a job.
+     */
+    private boolean repaint(GlassScene scene) {
+        final int submitted = scene.getSubmittedFrames();
+        try {
+            scene.repaint();
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+        return scene.getSubmittedFrames() != submitted;
+    }
+
+    /**
+     * Counts down the allWorkCompletedLatch for the scenes of the current
+     * frame that did not submit a paint job, so that the latch only waits
+     * for the jobs that were actually submitted. The latch has to be created
+     * before the first job is submitted, so it is sized for every scene and
+     * the skipped ones are counted down by a job that the render thread runs
+     * after the submitted ones. The frame is then still finished on the
+     * render thread, once all of its paint jobs are done.
+     */
+    private void skipFrames(final int count) {
+        if (count > 0) {
+            toolkit.addRenderJob(new RenderJob(() -> { }, job -> {
+                for (int i = 0; i < count; i++) {
+                    frameDone();
+                }
+            }));
+        }
+    }
+
     /**
      * Called by QuantumToolkit during a pulse to render whatever dirty scenes
      * we have. This method is only called on the FX thread.
@@ -360,6 +433,14 @@ final class PaintCollector implements CompletionListener {
         // then we want to process them first.
         Collections.sort(dirtyScenes, DIRTY_SCENE_SORTER);
 
+        // Unless the pulse waited for every scene before synchronizing,
+        // paint jobs of the previous frame may still be running. They
+        // count down the current latch, so they must be done before it
+        // is replaced.
+        if (!toolkit.shouldWaitForAllScenes()) {
+            waitForRenderingToComplete();
+        }
+
         // Reset the fields
         hasDirty = false;
         needsHint = false;
@@ -383,10 +464,13 @@ final class PaintCollector implements CompletionListener {
             // we need to recopy the all of the window contents to the screen on every frame.
             final List<com.sun.glass.ui.Window> glassWindowList = com.sun.glass.ui.Window.getWindows();
             allWorkCompletedLatch = new CountDownLatch(glassWindowList.size());
+            int skipped = 0;
             for (int i = 0, n = glassWindowList.size(); i < n; i++) {
                 final Window w = glassWindowList.get(i);
                 final WindowStage ws = WindowStage.findWindowStage(w);
-                if (ws != null) {
+                if (ws == null) {
+                    skipped++;
+                } else {
                     final ViewScene vs = ws.getViewScene();
 
                     // Check to see if this scene is in our dirty list.  If so, we will need to render
@@ -403,13 +487,12 @@ final class PaintCollector implements CompletionListener {
                     } else {
                         vs.setDoPresent(false);
                     }
-                    try {
-                        vs.repaint();
-                    } catch (Throwable t) {
-                        t.printStackTrace();
+                    if (!repaint(vs)) {
+                        skipped++;
                     }
                 }
             }
+            skipFrames(skipped);
         } else {
             // We have a native window manager.  Only call repaint on the dirty scenes,
             // and swap to the screen on a per-window basis.
@@ -422,6 +505,7 @@ final class PaintCollector implements CompletionListener {
             // processed.
             allWorkCompletedLatch = new CountDownLatch(dirtyScenes.size());
 
+            int skipped = 0;
             for (final GlassScene gs : dirtyScenes) {
                 // Only post the vsync hint if there are synchronous scenes
                 if (!needsHint) {
@@ -431,12 +515,11 @@ final class PaintCollector implements CompletionListener {
                 // we always need to rerender the scene  if it's in the dirty list and we do a
                 // swap on a per-window basis
                 gs.setDoPresent(true);
-                try {
-                    gs.repaint();
-                } catch (Throwable t) {
-                    t.printStackTrace();
+                if (!repaint(gs)) {
+                    skipped++;
                 }
             }
+            skipFrames(skipped);
         }
 
         dirtyScenes.clear();
@@ -72,6 +72,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import com.sun.glass.ui.Application;
 import com.sun.glass.ui.Clipboard;
@@ -153,6 +154,15 @@ public final class QuantumToolkit extends Toolkit {
                 return result;
             });
 
+    /*
+     * When true, the FX thread only waits for the previous frame of a scene
+     * to be rendered before synchronizing that scene, rather than for the
+     * previous frame of every scene. With several windows open, this lets
+     * the pulse of one scene proceed while the others are still rendering.
+     */
+    private static final boolean perSceneSync =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> Boolean.getBoolean("quantum.perSceneSync"));
+
     private static boolean debug =
             AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> Boolean.getBoolean("quantum.debug"));
 
@@ -283,6 +293,10 @@ public final class QuantumToolkit extends Toolkit {
         return !multithreaded;
     }
 
+    boolean shouldWaitForAllScenes() {
+        return !perSceneSync;
+    }
+
     /**
      * Method to initialize the Scene Graph on the JavaFX application thread.
      * Specifically, we will do static initialization for those classes in
@@ -410,6 +424,44 @@ public final class QuantumToolkit extends Toolkit {
         }
     }
 
+    /*
+     * The number of deferred snapshots that have been submitted to the
+     * render thread but not yet rendered, guarded by pendingSnapshotsLock.
+     */
+    private static final Object pendingSnapshotsLock = new Object();
+    private static int pendingSnapshots = 0;
+
+    /**
+     * Waits until all deferred snapshots submitted by renderToImage have
+     * been rendered. A snapshot renders the render graph as it is when the
+     * job runs, so the FX thread calls this before synchronizing the graph
+     * again to keep the snapshot from seeing the changes of a later pulse
+     * or snapshot.
+     */
+    static void waitForPendingSnapshots() {
+        // The pending jobs need the render lock, waiting for them while
+        // holding it would never return
+        if (ViewPainter.renderLock.isHeldByCurrentThread()) {
+            return;
+        }
+        synchronized (pendingSnapshotsLock) {
+            while (pendingSnapshots > 0) {
+                try {
+                    pendingSnapshotsLock.wait();
+                } catch (InterruptedException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static void snapshotRendered() {
+        synchronized (pendingSnapshotsLock) {
+            pendingSnapshots--;
+            pendingSnapshotsLock.notifyAll();
+        }
+    }
+
     boolean hasNativeSystemVsync() {
         return nativeSystemVsync;
     }
@@ -1355,10 +1407,70 @@ public final class QuantumToolkit extends Toolkit {
     public Object renderToImage(ImageRenderingContext p) {
         Object saveImage = p.platformImage;
         final ImageRenderingContext params = p;
-        final com.sun.prism.paint.Paint currentPaint = p.platformPaint instanceof com.sun.prism.paint.Paint ?
-                (com.sun.prism.paint.Paint)p.platformPaint : null;
 
-        RenderJob re = new RenderJob(new Runnable() {
+        RenderJob re = createRenderToImageJob(params, false);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        re.setCompletionListener(job -> latch.countDown());
+        addRenderJob(re);
+
+        do {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                ex.printStackTrace();
+            }
+        } while (true);
+
+        Object image = params.platformImage;
+        params.platformImage = saveImage;
+
+        return image;
+    }
+
+    @Override
+    public void renderToImage(ImageRenderingContext p, Consumer<Object> callback) {
+        final Object saveImage = p.platformImage;
+        final ImageRenderingContext params = p;
+
+        // The FX thread does not wait for this job, but it does not
+        // synchronize the render graph again until the job has run (see
+        // waitForPendingSnapshots), so the job renders the graph as it was
+        // synchronized for this snapshot. The job also holds the render lock
+        // to keep the graph stable while it renders.
+        RenderJob re = createRenderToImageJob(params, true);
+        re.setCompletionListener(job -> defer(() -> {
+            Object image = params.platformImage;
+            params.platformImage = saveImage;
+            callback.accept(image);
+        }));
+        if (noRenderJobs) {
+            // the job is never run, see addRenderJob
+            addRenderJob(re);
+            return;
+        }
+        synchronized (pendingSnapshotsLock) {
+            pendingSnapshots++;
+        }
+        addRenderJob(re);
+    }
+
+    @Override
+    public void synchronizeForSnapshot(Runnable synchronizer) {
+        waitForPendingSnapshots();
+        runWithRenderLock(() -> {
+            synchronizer.run();
+            return null;
+        });
+    }
+
+    private RenderJob createRenderToImageJob(final ImageRenderingContext params,
+                                             final boolean lockRenderGraph) {
+        final com.sun.prism.paint.Paint currentPaint = params.platformPaint instanceof com.sun.prism.paint.Paint ?
+                (com.sun.prism.paint.Paint)params.platformPaint : null;
+
+        return new RenderJob(new Runnable() {
 
             private com.sun.prism.paint.Color getClearColor() {
                 if (currentPaint == null) {
@@ -1404,6 +1516,20 @@ public final class QuantumToolkit extends Toolkit {
 
             @Override
             public void run() {
+                if (lockRenderGraph) {
+                    ViewPainter.renderLock.lock();
+                    try {
+                        render();
+                    } finally {
+                        ViewPainter.renderLock.unlock();
+                        snapshotRendered();
+                    }
+                } else {
+                    render();
+                }
+            }
+
+            private void render() {
 
                 ResourceFactory rf = GraphicsPipeline.getDefaultResourceFactory();
 
@@ -1464,24 +1590,6 @@ public final class QuantumToolkit extends Toolkit {
                 }
             }
         });
-
-        final CountDownLatch latch = new CountDownLatch(1);
-        re.setCompletionListener(job -> latch.countDown());
-        addRenderJob(re);
-
-        do {
-            try {
-                latch.await();
-                break;
-            } catch (InterruptedException ex) {
-                ex.printStackTrace();
-            }
-        } while (true);
-
-        Object image = params.platformImage;
-        params.platformImage = saveImage;
-
-        return image;
     }
 
     @Override
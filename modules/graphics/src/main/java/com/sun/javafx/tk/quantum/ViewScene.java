@@ -137,6 +137,7 @@ class ViewScene extends GlassScene {
 
         if (!setPainting(true)) {
             Toolkit tk = Toolkit.getToolkit();
+            frameSubmitted();
             tk.addRenderJob(paintRenderJob);
         }
     }
@@ -36,6 +36,7 @@ import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.image.ByteToBytePixelConverter;
 import com.sun.javafx.image.impl.ByteGray;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.javafx.sg.prism.NGCamera;
 import com.sun.prism.PixelFormat;
 import com.sun.prism.RTTexture;
@@ -47,6 +48,8 @@ import com.sun.prism.impl.paint.PaintUtil;
 import com.sun.prism.impl.shape.MaskData;
 import com.sun.prism.paint.Gradient;
 
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
 public abstract class BaseContext {
 
     private final Screen screen;
@@ -116,6 +119,9 @@ public abstract class BaseContext {
 
     public void drawQuads(float coordArray[], byte colorArray[], int numVertices) {
         flushMask();
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Vertex buffer batches rendered");
+        }
         renderQuads(coordArray, colorArray, numVertices);
     }
 
@@ -169,6 +175,22 @@ public abstract class BaseContext {
         glyphCaches.clear();
     }
 
+    /**
+     * Clears the glyph caches of the strikes that were last rendered before
+     * the given stamp of their GlyphAtlas.
+     */
+    void clearGlyphCaches(boolean lcd, long stamp) {
+        Map<FontStrike, GlyphCache> glyphCaches = lcd ? lcdGlyphCaches : greyGlyphCaches;
+        for (Iterator<Map.Entry<FontStrike, GlyphCache>> iter = glyphCaches.entrySet().iterator(); iter.hasNext();) {
+            Map.Entry<FontStrike, GlyphCache> entry = iter.next();
+            if (entry.getValue().getLastUsed() < stamp) {
+                entry.getKey().clearDesc();
+                entry.getValue().clear();
+                iter.remove();
+            }
+        }
+    }
+
     abstract public RTTexture getLCDBuffer();
 
     public GlyphCache getGlyphCache(FontStrike strike) {
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.logging.PulseLogger;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture;
+import com.sun.prism.Texture.WrapMode;
+import com.sun.prism.impl.packrect.RectanglePacker;
+
+import java.util.WeakHashMap;
+
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
+/**
+ * The glyph texture shared by the GlyphCaches of every font strike rendered
+ * by a context. The texture is split in horizontal pages, each with its own
+ * RectanglePacker. When no page has room for a new glyph, only the least
+ * recently used page is evicted, so the glyphs of the strikes in use survive
+ * while rarely used strikes are dropped.
+ *
+ * Evicting a page invalidates the GlyphData allocated on it by bumping the
+ * page generation; GlyphCache re-rasterizes such glyphs on their next use.
+ */
+final class GlyphAtlas {
+
+    private static final int WIDTH = PrismSettings.glyphCacheWidth; // in pixels
+    private static final int HEIGHT = PrismSettings.glyphCacheHeight; // in pixels
+    private static final int NUM_PAGES = PrismSettings.glyphCachePages;
+
+    /* Share an atlas for all uses on a particular screen.
+     */
+    private static final WeakHashMap<BaseContext, GlyphAtlas> greyAtlasMap =
+        new WeakHashMap<BaseContext, GlyphAtlas>();
+
+    private static final WeakHashMap<BaseContext, GlyphAtlas> lcdAtlasMap =
+        new WeakHashMap<BaseContext, GlyphAtlas>();
+
+    static GlyphAtlas getAtlas(BaseContext context, boolean lcd) {
+        WeakHashMap<BaseContext, GlyphAtlas> atlasMap = lcd ? lcdAtlasMap : greyAtlasMap;
+        GlyphAtlas atlas = atlasMap.get(context);
+        if (atlas == null) {
+            ResourceFactory factory = context.getResourceFactory();
+            Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
+                                                    WrapMode.CLAMP_NOT_NEEDED);
+            tex.contentsUseful();
+            tex.makePermanent();
+            if (!lcd) {
+                factory.setGlyphTexture(tex);
+            }
+            tex.setLinearFiltering(false);
+            atlas = new GlyphAtlas(context, tex, lcd, NUM_PAGES);
+            atlasMap.put(context, atlas);
+        }
+        return atlas;
+    }
+
+    private final BaseContext context;
+    private final Texture texture;
+    private final boolean lcd;
+    private final Page[] pages;
+    private Page currentPage;
+    private long clock;
+
+    GlyphAtlas(BaseContext context, Texture texture, boolean lcd, int numPages) {
+        this.context = context;
+        this.texture = texture;
+        this.lcd = lcd;
+        int height = texture.getContentHeight();
+        int width = texture.getContentWidth();
+        pages = new Page[numPages];
+        int y = 0;
+        for (int i = 0; i < numPages; i++) {
+            int pageHeight = (height - y) / (numPages - i);
+            pages[i] = new Page(new RectanglePacker(texture, 0, y, width, pageHeight, false));
+            y += pageHeight;
+        }
+        currentPage = pages[0];
+    }
+
+    Texture getBackingStore() {
+        return texture;
+    }
+
+    /**
+     * Advances and returns the use stamp of this atlas. The stamp is
+     * used to order the pages, and the glyph caches, by recency of use.
+     */
+    long nextStamp() {
+        return ++clock;
+    }
+
+    /**
+     * Marks the given page as used at the given stamp.
+     */
+    void touch(Page page, long stamp) {
+        page.lastUsed = stamp;
+    }
+
+    /**
+     * Finds room for the rectangle on one of the pages, evicting the least
+     * recently used page if none of them has room. On success the x and y
+     * coordinates of rect are set to its location on the texture.
+     *
+     * @return the page on which rect was allocated, or null if rect does
+     *         not fit on an empty page.
+     */
+    Page add(Rectangle rect, long stamp) {
+        if (currentPage.packer.add(rect)) {
+            currentPage.lastUsed = stamp;
+            return currentPage;
+        }
+        Page lru = currentPage;
+        for (Page page : pages) {
+            if (page != currentPage && page.packer.add(rect)) {
+                page.lastUsed = stamp;
+                currentPage = page;
+                return page;
+            }
+            if (page.lastUsed < lru.lastUsed) {
+                lru = page;
+            }
+        }
+        evict(lru);
+        currentPage = lru;
+        if (lru.packer.add(rect)) {
+            lru.lastUsed = stamp;
+            return lru;
+        }
+        return null;
+    }
+
+    private void evict(Page page) {
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Font Glyph Cache Page Evicted");
+        }
+        // flush any pending vertices that may depend on the current
+        // content of the page.
+        context.flushVertexBuffer();
+        long evictedStamp = page.lastUsed;
+        page.packer.clear();
+        page.generation++;
+        page.lastUsed = 0;
+        // Strikes that were not used since the evicted page was last used
+        // are colder than every glyph on it, release them as well.
+        context.clearGlyphCaches(lcd, evictedStamp);
+    }
+
+    static final class Page {
+        final RectanglePacker packer;
+        int generation;
+        long lastUsed;
+
+        Page(RectanglePacker packer) {
+            this.packer = packer;
+        }
+    }
+}
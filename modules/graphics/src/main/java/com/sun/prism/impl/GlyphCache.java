@@ -35,32 +35,15 @@ import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.Point2D;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.scene.text.GlyphList;
-import com.sun.prism.impl.packrect.RectanglePacker;
 import com.sun.prism.Texture;
 import com.sun.prism.impl.shape.MaskData;
 import com.sun.prism.paint.Color;
 
 import java.nio.ByteBuffer;
 import java.util.HashMap;
-import java.util.WeakHashMap;
-
-import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
-import com.sun.javafx.logging.PulseLogger;
-
-import com.sun.prism.ResourceFactory;
-import com.sun.prism.Texture.WrapMode;
 
 public class GlyphCache {
 
-    // REMIND: For a less powerful device, the size of this cache
-    // is likely something we'd want to tune as they may have much less
-    // VRAM and are less likely to be used for apps that have huge
-    // text demands.
-    // 2048 pixels introduced very noticeable pauses when trying
-    // to free 1/4 of the glyphs, which for spiral text also amounts
-    // to 1/4 of the strikes.
-    private static final int WIDTH = PrismSettings.glyphCacheWidth; // in pixels
-    private static final int HEIGHT = PrismSettings.glyphCacheHeight; // in pixels
     private static ByteBuffer emptyMask;
 
     private final BaseContext context;
@@ -76,18 +59,13 @@ public class GlyphCache {
     // Using them for subpixel
     private static final int SUBPIXEL_SHIFT = 27;
 
-    private RectanglePacker packer;
-
-    private boolean isLCDCache;
+    // The atlas is shared by the caches of all the strikes of a context
+    private final GlyphAtlas atlas;
 
-    /* Share a RectanglePacker and its associated texture cache
-     * for all uses on a particular screen.
-     */
-    static WeakHashMap<BaseContext, RectanglePacker> greyPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    // The atlas stamp of the last time this cache was rendered
+    private long lastUsed;
 
-    static WeakHashMap<BaseContext, RectanglePacker> lcdPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    private boolean isLCDCache;
 
     public GlyphCache(BaseContext context, FontStrike strike) {
         this.context = context;
@@ -96,22 +74,7 @@ public class GlyphCache {
         //int numSegments = (numGlyphs + SEGSIZE-1)/SEGSIZE;
         //this.glyphs = new GlyphData[numSegments][];
         isLCDCache = strike.getAAMode() == FontResource.AA_LCD;
-        WeakHashMap<BaseContext, RectanglePacker>
-            packerMap = isLCDCache ? lcdPackerMap : greyPackerMap;
-        packer = packerMap.get(context);
-        if (packer == null) {
-            ResourceFactory factory = context.getResourceFactory();
-            Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
-                                                    WrapMode.CLAMP_NOT_NEEDED);
-            tex.contentsUseful();
-            tex.makePermanent();
-            if (!isLCDCache) {
-                factory.setGlyphTexture(tex);
-            }
-            tex.setLinearFiltering(false);
-            packer = new RectanglePacker(tex, WIDTH, HEIGHT);
-            packerMap.put(context, packer);
-        }
+        atlas = GlyphAtlas.getAtlas(context, isLCDCache);
     }
 
     public void render(BaseContext ctx, GlyphList gl, float x, float y,
@@ -128,6 +91,8 @@ public class GlyphCache {
         }
         Texture tex = getBackingStore();
         VertexBuffer vb = ctx.getVertexBuffer();
+        long stamp = atlas.nextStamp();
+        lastUsed = stamp;
 
         int len = gl.getGlyphCount();
         Color currentColor = null;
@@ -144,7 +109,7 @@ public class GlyphCache {
             }
             pt.setLocation(x + gl.getPosX(gi), y + gl.getPosY(gi));
             int subPixel = strike.getQuantizedPosition(pt);
-            GlyphData data = getCachedGlyph(gc, subPixel);
+            GlyphData data = getCachedGlyph(gc, subPixel, stamp);
             if (data != null) {
                 if (clip != null) {
                     // Always check clipping using user space.
@@ -222,29 +187,33 @@ public class GlyphCache {
     }
 
     public Texture getBackingStore() {
-        return packer.getBackingStore();
+        return atlas.getBackingStore();
     }
 
-    public void clear() {
-        glyphDataMap.clear();
+    long getLastUsed() {
+        return lastUsed;
     }
 
-    private void clearAll() {
-        // flush any pending vertices that may depend on the current state
-        // of the glyph cache texture.
-        context.flushVertexBuffer();
-        context.clearGlyphCaches();
-        packer.clear();
+    public void clear() {
+        glyphDataMap.clear();
     }
 
-    private GlyphData getCachedGlyph(int glyphCode, int subPixel) {
+    private GlyphData getCachedGlyph(int glyphCode, int subPixel, long stamp) {
         int segIndex = glyphCode >> SEGSHIFT;
         int subIndex = glyphCode % SEGSIZE;
         segIndex |= (subPixel << SUBPIXEL_SHIFT);
         GlyphData[] segment = glyphDataMap.get(segIndex);
         if (segment != null) {
-            if (segment[subIndex] != null) {
-                return segment[subIndex];
+            GlyphData data = segment[subIndex];
+            if (data != null) {
+                if (data.page == null) {
+                    return data;
+                }
+                if (data.generation == data.page.generation) {
+                    atlas.touch(data.page, stamp);
+                    return data;
+                }
+                // The page of the glyph was evicted, rasterize it again
             }
         } else {
             segment = new GlyphData[SEGSIZE];
@@ -279,19 +248,19 @@ public class GlyphCache {
                 int originX = maskData.getOriginX();
                 int originY = maskData.getOriginY();
                 Rectangle rect = new Rectangle(0, 0, rectW, rectH);
+                GlyphAtlas.Page page = atlas.add(rect, stamp);
+                if (page == null) {
+                    // The glyph is larger than a page of the atlas
+                    if (PrismSettings.verbose) {
+                        System.err.println("Glyph too large for the glyph cache: " +
+                                           rectW + "x" + rectH);
+                    }
+                    return null;
+                }
                 data = new GlyphData(originX, originY, border,
                                      glyph.getPixelXAdvance(),
                                      glyph.getPixelYAdvance(),
-                                     rect);
-
-                if (!packer.add(rect)) {
-                    if (PULSE_LOGGING_ENABLED) {
-                        PulseLogger.incrementCounter("Font Glyph Cache Cleared");
-                    }
-                    // If add fails,clear up the cache. Try add again.
-                    clearAll();
-                    packer.add(rect);
-                }
+                                     rect, page);
 
                 // We always pass skipFlush=true to backingStore.update()
                 // since we are in control of the contents of the backingStore
@@ -354,8 +323,20 @@ public class GlyphCache {
         // The rectangle on the backing store corresponding to this glyph
         private final Rectangle rect;
 
+        // The atlas page holding the rectangle, and the generation of the
+        // page at the time the glyph was uploaded
+        private final GlyphAtlas.Page page;
+        private final int generation;
+
         GlyphData(int originX, int originY, int blankBoundary,
                   float xAdvance, float yAdvance, Rectangle rect)
+        {
+            this(originX, originY, blankBoundary, xAdvance, yAdvance, rect, null);
+        }
+
+        GlyphData(int originX, int originY, int blankBoundary,
+                  float xAdvance, float yAdvance, Rectangle rect,
+                  GlyphAtlas.Page page)
         {
             this.originX = originX;
             this.originY = originY;
@@ -363,6 +344,8 @@ public class GlyphCache {
             this.xAdvance = xAdvance;
             this.yAdvance = yAdvance;
             this.rect = rect;
+            this.page = page;
+            this.generation = page == null ? 0 : page.generation;
         }
 
         int getOriginX() {
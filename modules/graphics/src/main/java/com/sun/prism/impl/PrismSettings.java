@@ -48,6 +48,9 @@ public final class PrismSettings {
     public static final boolean dirtyOptsEnabled;
     public static final boolean occlusionCullingEnabled;
     public static final boolean scrollCacheOpt;
+    public static final boolean displayListsEnabled;
+    public static final boolean autoCacheEnabled;
+    public static final int autoCacheMinCost;
     public static final boolean threadCheck;
     public static final boolean cacheSimpleShapes;
     public static final boolean cacheComplexShapes;
@@ -60,6 +63,7 @@ public final class PrismSettings {
     public static final boolean noFallback;
     public static final boolean showDirtyRegions;
     public static final boolean showOverdraw;
+    public static final boolean showAutoCache;
     public static final boolean printRenderGraph;
     public static final int minRTTSize;
     public static final int dirtyRegionCount;
@@ -68,6 +72,7 @@ public final class PrismSettings {
     public static final int maxTextureSize;
     public static final int primTextureSize;
     public static final boolean disableRegionCaching;
+    public static final long regionCacheSize;
     public static final boolean forcePow2;
     public static final boolean noClampToZero;
     public static final boolean disableD3D9Ex;
@@ -79,6 +84,7 @@ public final class PrismSettings {
     public static final boolean disableEffects;
     public static final int glyphCacheWidth;
     public static final int glyphCacheHeight;
+    public static final int glyphCachePages;
     public static final String perfLog;
     public static final boolean perfLogExitFlush;
     public static final boolean perfLogFirstPaintFlush;
@@ -88,6 +94,7 @@ public final class PrismSettings {
     public static final boolean forceUploadingPainter;
     public static final boolean forceAlphaTestShader;
     public static final boolean forceNonAntialiasedShape;
+    public static final int swRasterThreads;
 
 
     private PrismSettings() {
@@ -117,10 +124,13 @@ public final class PrismSettings {
         /* Dirty region optimizations */
         dirtyOptsEnabled = getBoolean(systemProperties, "prism.dirtyopts",
                                       true);
+        // Culling the nodes hidden by opaque siblings walks the children of
+        // the groups inside the dirty regions on every frame, so it is off
+        // unless asked for
         occlusionCullingEnabled =
                 dirtyOptsEnabled && getBoolean(systemProperties,
                                                "prism.occlusion.culling",
-                                               true);
+                                               false);
 
         // The maximum number of dirty regions to use. The absolute max that we can
         // support at present is 15.
@@ -130,6 +140,19 @@ public final class PrismSettings {
         // Disabled as a workaround for RT-39755.
         scrollCacheOpt = getBoolean(systemProperties, "prism.scrollcacheopt", false);
 
+        // Record the rendering of unchanged groups into display lists and
+        // replay them, rather than traversing the group, when possible
+        displayListsEnabled = getBoolean(systemProperties, "prism.displaylists", false);
+
+        // Automatically cache the nodes which are expensive to render, but
+        // rarely change, as if Node.setCache(true) had been called
+        autoCacheEnabled = getBoolean(systemProperties, "prism.autocache", false);
+
+        // The minimum average time, in microseconds, taken to render a node
+        // before it is automatically cached
+        autoCacheMinCost = getInt(systemProperties, "prism.autocache.mincost", 500,
+                                  "Try -Dprism.autocache.mincost=<number>");
+
         /* Dirty region optimizations */
         threadCheck = getBoolean(systemProperties, "prism.threadcheck", false);
 
@@ -142,6 +165,9 @@ public final class PrismSettings {
          */
         showOverdraw = getBoolean(systemProperties, "prism.showoverdraw", false);
 
+        /* Draws overlay rectangles over the nodes which have been cached automatically */
+        showAutoCache = getBoolean(systemProperties, "prism.showautocache", false);
+
         /* Prints out the render graph, annotated with dirty opts information */
         printRenderGraph = getBoolean(systemProperties, "prism.printrendergraph", false);
 
@@ -305,6 +331,14 @@ public final class PrismSettings {
                                           "prism.disableRegionCaching",
                                           false);
 
+        /*
+         * Texture memory budget, in bytes, of the texture used to cache
+         * rendered region backgrounds. Default is 8M (2048 x 1024 pixels).
+         */
+        regionCacheSize = getLong(systemProperties, "prism.regionCacheSize",
+                                  8 * 1024 * 1024,
+                                  "Try -Dprism.regionCacheSize=<long>[kKmMgG]");
+
         disableD3D9Ex = getBoolean(systemProperties, "prism.disableD3D9Ex", false);
 
         disableEffects = getBoolean(systemProperties, "prism.disableEffects", false);
@@ -313,6 +347,15 @@ public final class PrismSettings {
                 "Try -Dprism.glyphCacheWidth=<number>");
         glyphCacheHeight = getInt(systemProperties, "prism.glyphCacheHeight", 1024,
                 "Try -Dprism.glyphCacheHeight=<number>");
+        /*
+         * The glyph cache texture is split in this many horizontal pages,
+         * and only the least recently used page is evicted when it is full.
+         * Every page must be taller than the largest rasterized glyph (see
+         * prism.fontSizeLimit), so this is limited to one page per 128 rows.
+         */
+        glyphCachePages = Math.max(1, Math.min(glyphCacheHeight / 128,
+                getInt(systemProperties, "prism.glyphCachePages", 4,
+                       "Try -Dprism.glyphCachePages=<number>")));
 
         /*
          * Performance Logger flags
@@ -334,6 +377,16 @@ public final class PrismSettings {
         // Force non anti-aliasing (not smooth) shape rendering
         forceNonAntialiasedShape = getBoolean(systemProperties, "prism.forceNonAntialiasedShape", false);
 
+        /*
+         * Number of threads used by the SW pipeline to rasterize disjoint
+         * tiles of large render targets in parallel. A value <= 1 (the
+         * default) keeps rasterization on the render thread.
+         * -Dprism.sw.threads=true uses one thread per available processor.
+         */
+        swRasterThreads = getInt(systemProperties, "prism.sw.threads",
+                0, Runtime.getRuntime().availableProcessors(),
+                "Try -Dprism.sw.threads=<true or number>");
+
     }
 
     private static int parseInt(String s, int dflt, int trueDflt,
@@ -29,6 +29,7 @@ import com.sun.glass.ui.Screen;
 import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.javafx.sg.prism.NGCamera;
 import com.sun.prism.CompositeMode;
 import com.sun.prism.PixelFormat;
@@ -47,6 +48,8 @@ import com.sun.prism.paint.RadialGradient;
 import com.sun.prism.ps.Shader;
 import com.sun.prism.ps.ShaderFactory;
 
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
 /**
  * Maintains resources such as Shaders and GlyphCaches that are intended to
  * be cached on a per-Screen basis, and provides methods that are called by
@@ -159,6 +162,14 @@ public abstract class BaseShaderContext extends BaseContext {
 
     private State state;
 
+    // The gradient paint whose parameters were last uploaded to
+    // lastPaintShader; lets consecutive primitives sharing a gradient
+    // stay in the same vertex buffer batch (see validatePaintOp).
+    private Paint lastPaint;
+    private Shader lastPaintShader;
+    private float lastPaintX, lastPaintY, lastPaintW, lastPaintH;
+    private final Affine3D lastPaintTx = new Affine3D();
+
     protected BaseShaderContext(Screen screen, ShaderFactory factory, int vbQuads) {
         super(screen, factory, vbQuads);
         this.factory = factory;
@@ -167,6 +178,8 @@ public abstract class BaseShaderContext extends BaseContext {
 
     protected void init() {
         state = null;
+        lastPaint = null;
+        lastPaintShader = null;
         if (externalShader != null && !externalShader.isValid()) {
             externalShader.dispose();
             externalShader = null;
@@ -294,6 +307,51 @@ public abstract class BaseShaderContext extends BaseContext {
         }
     }
 
+    /**
+     * Returns true if the parameters of the given gradient paint have
+     * already been uploaded to the last paint shader for the same paint
+     * bounds and transform, so that pending vertices drawn with that shader
+     * remain valid.  The old paint style bakes the full transform, including
+     * its translation, into the paint parameters, so shapes that are each
+     * drawn with their own translation never match.  Only the old paint style is tracked; the new paint
+     * style computes paint coordinates per vertex and may update the
+     * gradient texture, which always requires a flush.
+     */
+    private boolean isPaintValid(BaseShaderGraphics g, MaskType maskType, Paint paint,
+                                 float bx, float by, float bw, float bh)
+    {
+        if (paint != lastPaint || maskType.isNewPaintStyle()) {
+            return false;
+        }
+        BaseTransform xform = g.getTransformNoClone();
+        if (!xform.is2D() || !xform.equals(lastPaintTx)) {
+            return false;
+        }
+        if (paint.isProportional()) {
+            return bx == lastPaintX && by == lastPaintY &&
+                   bw == lastPaintW && bh == lastPaintH;
+        }
+        return true;
+    }
+
+    private void rememberPaint(BaseShaderGraphics g, Shader shader,
+                               MaskType maskType, Paint paint,
+                               float bx, float by, float bw, float bh)
+    {
+        BaseTransform xform = g.getTransformNoClone();
+        if (paint.getType().isGradient() && !maskType.isNewPaintStyle() && xform.is2D()) {
+            lastPaint = paint;
+            lastPaintShader = shader;
+            lastPaintX = bx;
+            lastPaintY = by;
+            lastPaintW = bw;
+            lastPaintH = bh;
+            lastPaintTx.setTransform(xform);
+        } else {
+            lastPaint = null;
+        }
+    }
+
     private Shader getSpecialShader(BaseGraphics g, SpecialShaderType sst) {
         // We do alpha test if depth test is enabled
         boolean alphaTest = g.isAlphaTestShader();
@@ -421,15 +479,18 @@ public abstract class BaseShaderContext extends BaseContext {
             Texture paintTex = null;
             Texture tex0;
             Texture tex1;
+            boolean paintValid = false;
             if (paint.getType().isGradient()) {
                 // we need to flush here in case the paint shader is staying
-                // the same but the paint parameters are changing; we do this
-                // unconditionally for now (in theory we could keep track
-                // of the last validated paint, and the shape bounds in the
-                // case of proportional gradients, but the case where the
-                // same paint parameters are used multiple times in a row
-                // is so rare that it's not worth optimizing this any further)
-                flushVertexBuffer();
+                // the same but the paint parameters are changing; the flush
+                // (and the parameter upload) can only be skipped when the
+                // same gradient is validated again for the same bounds and
+                // the exact same transform, such as a Canvas filling many
+                // shapes with one non-proportional gradient
+                paintValid = isPaintValid(g, maskType, paint, bx, by, bw, bh);
+                if (!paintValid) {
+                    flushVertexBuffer();
+                }
                 // we have to fetch the texture containing the gradient
                 // colors in advance since checkState() is responsible for
                 // binding the texture(s)
@@ -441,6 +502,7 @@ public abstract class BaseShaderContext extends BaseContext {
             } else if (paint.getType() == Paint.Type.IMAGE_PATTERN) {
                 // We need to flush here. See comment above about paint parameters changing.
                 flushVertexBuffer();
+                lastPaint = null;
                 ImagePattern texPaint = (ImagePattern)paint;
                 ResourceFactory rf = g.getResourceFactory();
                 paintTex = rf.getCachedTexture(texPaint.getImage(), Texture.WrapMode.REPEAT);
@@ -479,7 +541,16 @@ public abstract class BaseShaderContext extends BaseContext {
             checkState(g, CHECK_PAINT_OP_MASK, xform, shader);
             setTexture(0, tex0);
             setTexture(1, tex1);
-            updatePaintShader(g, shader, maskType, paint, bx, by, bw, bh);
+            // checkState() forgets the last paint whenever it switches
+            // shaders, since the shader constants may have been clobbered
+            if (paintValid && lastPaint == paint && lastPaintShader == shader) {
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Gradient paint validations skipped");
+                }
+            } else {
+                updatePaintShader(g, shader, maskType, paint, bx, by, bw, bh);
+                rememberPaint(g, shader, maskType, paint, bx, by, bw, bh);
+            }
             updatePerVertexColor(paint, g.getExtraAlpha());
             if (paintTex != null) paintTex.unlock();
             return shader;
@@ -648,6 +719,7 @@ public abstract class BaseShaderContext extends BaseContext {
                 flushVertexBuffer();
                 shader.enable();
                 state.lastShader = shader;
+                lastPaint = null;
                 // the transform matrix is part of the state of each shader
                 // (in ES2 at least), so we need to make sure the transform
                 // is updated for the current shader by setting isXformValid=false
@@ -745,6 +817,7 @@ public abstract class BaseShaderContext extends BaseContext {
         {
             flushVertexBuffer();
             state = updateRenderTarget(target, camera, depthTest);
+            lastPaint = null;
             state.lastRenderTarget = target;
             state.lastCamera = camera;
             state.lastDepthTest = depthTest;
@@ -759,6 +832,7 @@ public abstract class BaseShaderContext extends BaseContext {
             if (state3D != state.lastState3D) {
                 state.lastState3D = state3D;
                 state.lastShader = null;
+                lastPaint = null;
                 state.lastConst1 = Float.NaN;
                 state.lastConst2 = Float.NaN;
                 state.lastConst3 = Float.NaN;
@@ -39,36 +39,102 @@ import com.sun.openpisces.TransformingPathConsumer2D;
 import com.sun.prism.BasicStroke;
 
 public class OpenPiscesPrismUtils {
-    private static final Renderer savedAARenderer = new Renderer(3, 3);
-    private static final Renderer savedRenderer = new Renderer(0, 0);
-    private static final Stroker savedStroker = new Stroker(savedRenderer);
-    private static final Dasher savedDasher = new Dasher(savedStroker);
+    private static final RendererState sharedState = new RendererState();
 
-    private static TransformingPathConsumer2D.FilterSet transformer =
-        new TransformingPathConsumer2D.FilterSet();
+    /**
+     * The set of (stateful) OpenPisces objects used to set up a Renderer
+     * for a shape.  The static {@code setupRenderer} methods all share a
+     * single instance and so may only be used from one thread at a time.
+     * Code that rasterizes shapes on more than one thread at once must
+     * give each thread its own {@code RendererState}.
+     */
+    public static final class RendererState {
+        private final Renderer savedAARenderer = new Renderer(3, 3);
+        private final Renderer savedRenderer = new Renderer(0, 0);
+        private final Stroker savedStroker = new Stroker(savedRenderer);
+        private final Dasher savedDasher = new Dasher(savedStroker);
 
-    private static PathConsumer2D initRenderer(BasicStroke stroke,
-                                               BaseTransform tx,
-                                               Rectangle clip,
-                                               int pirule,
-                                               Renderer renderer)
-    {
-        int oprule = (stroke == null && pirule == PathIterator.WIND_EVEN_ODD) ?
-            Renderer.WIND_EVEN_ODD : Renderer.WIND_NON_ZERO;
-        renderer.reset(clip.x, clip.y, clip.width, clip.height, oprule);
-        PathConsumer2D ret = transformer.getConsumer(renderer, tx);
-        if (stroke != null) {
-            savedStroker.reset(stroke.getLineWidth(), stroke.getEndCap(),
-                               stroke.getLineJoin(), stroke.getMiterLimit());
-            savedStroker.setConsumer(ret);
-            ret = savedStroker;
-            float dashes[] = stroke.getDashArray();
-            if (dashes != null) {
-                savedDasher.reset(dashes, stroke.getDashPhase());
-                ret = savedDasher;
+        private final TransformingPathConsumer2D.FilterSet transformer =
+            new TransformingPathConsumer2D.FilterSet();
+
+        private PathConsumer2D initRenderer(BasicStroke stroke,
+                                            BaseTransform tx,
+                                            Rectangle clip,
+                                            int pirule,
+                                            Renderer renderer)
+        {
+            int oprule = (stroke == null && pirule == PathIterator.WIND_EVEN_ODD) ?
+                Renderer.WIND_EVEN_ODD : Renderer.WIND_NON_ZERO;
+            renderer.reset(clip.x, clip.y, clip.width, clip.height, oprule);
+            PathConsumer2D ret = transformer.getConsumer(renderer, tx);
+            if (stroke != null) {
+                savedStroker.reset(stroke.getLineWidth(), stroke.getEndCap(),
+                                   stroke.getLineJoin(), stroke.getMiterLimit());
+                savedStroker.setConsumer(ret);
+                ret = savedStroker;
+                float dashes[] = stroke.getDashArray();
+                if (dashes != null) {
+                    savedDasher.reset(dashes, stroke.getDashPhase());
+                    ret = savedDasher;
+                }
             }
+            return ret;
+        }
+
+        public Renderer setupRenderer(Shape shape,
+                                      BasicStroke stroke,
+                                      BaseTransform xform,
+                                      Rectangle rclip,
+                                      boolean antialiasedShape)
+        {
+            PathIterator pi = shape.getPathIterator(null);
+            Renderer r = antialiasedShape ? savedAARenderer : savedRenderer;
+            feedConsumer(pi, initRenderer(stroke, xform, rclip, pi.getWindingRule(), r));
+            return r;
+        }
+
+        public Renderer setupRenderer(Path2D p2d,
+                                      BasicStroke stroke,
+                                      BaseTransform xform,
+                                      Rectangle rclip,
+                                      boolean antialiasedShape)
+        {
+            Renderer r = antialiasedShape ? savedAARenderer : savedRenderer;
+            PathConsumer2D pc2d = initRenderer(stroke, xform, rclip, p2d.getWindingRule(), r);
+
+            float coords[] = p2d.getFloatCoordsNoClone();
+            byte types[] = p2d.getCommandsNoClone();
+            int nsegs = p2d.getNumCommands();
+            int coff = 0;
+            for (int i = 0; i < nsegs; i++) {
+                switch (types[i]) {
+                    case PathIterator.SEG_MOVETO:
+                        pc2d.moveTo(coords[coff+0], coords[coff+1]);
+                        coff += 2;
+                        break;
+                    case PathIterator.SEG_LINETO:
+                        pc2d.lineTo(coords[coff+0], coords[coff+1]);
+                        coff += 2;
+                        break;
+                    case PathIterator.SEG_QUADTO:
+                        pc2d.quadTo(coords[coff+0], coords[coff+1],
+                                    coords[coff+2], coords[coff+3]);
+                        coff += 4;
+                        break;
+                    case PathIterator.SEG_CUBICTO:
+                        pc2d.curveTo(coords[coff+0], coords[coff+1],
+                                     coords[coff+2], coords[coff+3],
+                                     coords[coff+4], coords[coff+5]);
+                        coff += 6;
+                        break;
+                    case PathIterator.SEG_CLOSE:
+                        pc2d.closePath();
+                        break;
+                }
+            }
+            pc2d.pathDone();
+            return r;
         }
-        return ret;
     }
 
     public static void feedConsumer(PathIterator pi, PathConsumer2D pc) {
@@ -106,10 +172,7 @@ public class OpenPiscesPrismUtils {
                                   Rectangle rclip,
                                   boolean antialiasedShape)
     {
-        PathIterator pi = shape.getPathIterator(null);
-        Renderer r = antialiasedShape ? savedAARenderer : savedRenderer;
-        feedConsumer(pi, initRenderer(stroke, xform, rclip, pi.getWindingRule(), r));
-        return r;
+        return sharedState.setupRenderer(shape, stroke, xform, rclip, antialiasedShape);
     }
 
     public static Renderer setupRenderer(Path2D p2d,
@@ -118,40 +181,6 @@ public class OpenPiscesPrismUtils {
                                   Rectangle rclip,
                                   boolean antialiasedShape)
     {
-        Renderer r = antialiasedShape ? savedAARenderer : savedRenderer;
-        PathConsumer2D pc2d = initRenderer(stroke, xform, rclip, p2d.getWindingRule(), r);
-
-        float coords[] = p2d.getFloatCoordsNoClone();
-        byte types[] = p2d.getCommandsNoClone();
-        int nsegs = p2d.getNumCommands();
-        int coff = 0;
-        for (int i = 0; i < nsegs; i++) {
-            switch (types[i]) {
-                case PathIterator.SEG_MOVETO:
-                    pc2d.moveTo(coords[coff+0], coords[coff+1]);
-                    coff += 2;
-                    break;
-                case PathIterator.SEG_LINETO:
-                    pc2d.lineTo(coords[coff+0], coords[coff+1]);
-                    coff += 2;
-                    break;
-                case PathIterator.SEG_QUADTO:
-                    pc2d.quadTo(coords[coff+0], coords[coff+1],
-                                coords[coff+2], coords[coff+3]);
-                    coff += 4;
-                    break;
-                case PathIterator.SEG_CUBICTO:
-                    pc2d.curveTo(coords[coff+0], coords[coff+1],
-                                 coords[coff+2], coords[coff+3],
-                                 coords[coff+4], coords[coff+5]);
-                    coff += 6;
-                    break;
-                case PathIterator.SEG_CLOSE:
-                    pc2d.closePath();
-                    break;
-            }
-        }
-        pc2d.pathDone();
-        return r;
+        return sharedState.setupRenderer(p2d, stroke, xform, rclip, antialiasedShape);
     }
 }
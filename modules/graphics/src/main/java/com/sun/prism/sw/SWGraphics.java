@@ -72,10 +72,12 @@ final class SWGraphics implements ReadbackGraphics {
     private final SWContext context;
     private final SWRTTexture target;
     private final SWPaint swPaint;
+    private final SWTileRenderer tileRenderer;
 
     private final BaseTransform tx = new Affine2D();
 
     private CompositeMode compositeMode = CompositeMode.SRC_OVER;
+    private int piscesCompositeRule = RendererBase.COMPOSITE_SRC_OVER;
 
     private Rectangle clip;
     private final Rectangle finalClip = new Rectangle();
@@ -110,10 +112,20 @@ final class SWGraphics implements ReadbackGraphics {
         this.context = context;
         this.pr = pr;
         this.swPaint = new SWPaint(context, pr);
+        this.tileRenderer = target.getTileRenderer();
 
         this.setClipRect(null);
     }
 
+    /**
+     * Renders the operations recorded by the tile renderer of the target.
+     * Must be called before anything is rendered directly into the target
+     * through the PiscesRenderer.
+     */
+    private void flushTiles() {
+        target.flushTiles();
+    }
+
     public RenderTarget getRenderTarget() {
         return target;
     }
@@ -127,6 +139,7 @@ final class SWGraphics implements ReadbackGraphics {
     }
 
     public void sync() {
+        flushTiles();
     }
 
     public BaseTransform getTransformNoClone() {
@@ -336,6 +349,7 @@ final class SWGraphics implements ReadbackGraphics {
             default:
                 throw new InternalError("Unrecognized composite mode: "+mode);
         }
+        this.piscesCompositeRule = piscesComp;
         this.pr.setCompositeRule(piscesComp);
     }
 
@@ -360,6 +374,7 @@ final class SWGraphics implements ReadbackGraphics {
         if (PrismSettings.debug) {
             System.out.println("+ PR.clear: " + color);
         }
+        flushTiles();
         this.swPaint.setColor(color, 1f);
         pr.clearRect(0, 0, target.getPhysicalWidth(), target.getPhysicalHeight());
         getRenderTarget().setOpaque(color.isOpaque());
@@ -415,7 +430,15 @@ final class SWGraphics implements ReadbackGraphics {
             tx.transform(p1, p1);
             tx.transform(p2, p2);
 
-            if (this.paint.getType() == Paint.Type.IMAGE_PATTERN) {
+            if (tileRenderer != null && SWTileRenderer.canRecord(this.paint)) {
+                if (!this.finalClip.isEmpty()) {
+                    tileRenderer.addRect((int)(Math.min(p1.x, p2.x) * SWUtils.TO_PISCES), (int)(Math.min(p1.y, p2.y) * SWUtils.TO_PISCES),
+                            (int)(Math.abs(p2.x - p1.x) * SWUtils.TO_PISCES), (int)(Math.abs(p2.y - p1.y) * SWUtils.TO_PISCES),
+                            x, y, width, height, this.tx, this.paint, this.nodeBounds,
+                            this.finalClip, this.piscesCompositeRule, swPaint.getCompositeAlpha());
+                }
+            } else if (this.paint.getType() == Paint.Type.IMAGE_PATTERN) {
+                flushTiles();
                 // we can call pr.drawImage(...) directly
                 final ImagePattern ip = (ImagePattern)this.paint;
                 if (ip.getImage().getPixelFormat() == PixelFormat.BYTE_ALPHA) {
@@ -447,6 +470,7 @@ final class SWGraphics implements ReadbackGraphics {
                             tex.hasAlpha());
                 }
             } else {
+                flushTiles();
                 swPaint.setPaintFromShape(this.paint, this.tx, null, this.nodeBounds, x, y, width, height);
                 this.pr.fillRect((int)(Math.min(p1.x, p2.x) * SWUtils.TO_PISCES), (int)(Math.min(p1.y, p2.y) * SWUtils.TO_PISCES),
                         (int)(Math.abs(p2.x - p1.x) * SWUtils.TO_PISCES), (int)(Math.abs(p2.y - p1.y) * SWUtils.TO_PISCES));
@@ -485,10 +509,31 @@ final class SWGraphics implements ReadbackGraphics {
             }
             return;
         }
+        if (tileRenderer != null && SWTileRenderer.canRecord(this.paint)) {
+            recordShape(shape, st, tr);
+            return;
+        }
+        flushTiles();
         swPaint.setPaintFromShape(this.paint, this.tx, shape, this.nodeBounds, 0,0,0,0);
         this.paintShapePaintAlreadySet(shape, st, tr);
     }
 
+    private void recordShape(Shape shape, BasicStroke st, BaseTransform tr) {
+        RectBounds paintBounds = this.nodeBounds;
+        if (st != null && st.getType() != BasicStroke.TYPE_CENTERED) {
+            // The tiles only know how to render centered strokes, see
+            // SWContext.JavaShapeRenderer.  The paint still has to be
+            // computed relative to the original shape.
+            if (paintBounds == null && this.paint.isProportional()) {
+                paintBounds = shape.getBounds();
+            }
+            shape = st.createStrokedShape(shape);
+            st = null;
+        }
+        tileRenderer.addShape(shape, st, tr, this.paint, paintBounds, this.finalClip,
+                              this.piscesCompositeRule, swPaint.getCompositeAlpha(), isAntialiasedShape());
+    }
+
     private void paintShapePaintAlreadySet(Shape shape, BasicStroke st, BaseTransform tr) {
         if (this.finalClip.isEmpty()) {
             if (PrismSettings.debug) {
@@ -570,6 +615,7 @@ final class SWGraphics implements ReadbackGraphics {
                     ", x: " + x + ", y: " + y +
                     ", selectStart: " + selectStart + ", selectEnd: " + selectEnd);
         }
+        flushTiles();
 
         final float bx, by, bw, bh;
         if (paint.isProportional()) {
@@ -676,6 +722,7 @@ final class SWGraphics implements ReadbackGraphics {
                              float dx1, float dy1, float dx2, float dy2,
                              float sx1, float sy1, float sx2, float sy2,
                              int lEdge, int rEdge, int tEdge, int bEdge) {
+        flushTiles();
         final int imageMode;
         final float compositeAlpha = swPaint.getCompositeAlpha();
         if (compositeAlpha == 1f) {
@@ -825,6 +872,7 @@ final class SWGraphics implements ReadbackGraphics {
         if (PrismSettings.debug) {
             System.out.println("* drawTextureVO");
         }
+        flushTiles();
         final int[] fractions = { 0x0000, 0x10000 };
         final int[] argb = { 0xffffff | (((int)(topopacity * 255)) << 24),
                              0xffffff | (((int)(botopacity * 255)) << 24) };
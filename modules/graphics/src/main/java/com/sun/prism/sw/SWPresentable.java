@@ -60,6 +60,8 @@ final class SWPresentable extends SWRTTexture implements Presentable {
             int h = getPhysicalHeight();
             pixels = pixelSource.getUnusedPixels(w, h, 1.0f);
             IntBuffer pixBuf = (IntBuffer) pixels.getPixels();
+            // getSurface() also merges any tiles still being rasterized
+            // in parallel (see SWTileRenderer)
             IntBuffer buf = getSurface().getDataIntBuffer();
             assert buf.hasArray();
             System.arraycopy(buf.array(), 0, pixBuf.array(), 0, w*h);
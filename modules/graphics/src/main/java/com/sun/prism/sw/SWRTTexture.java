@@ -44,18 +44,45 @@ class SWRTTexture extends SWArgbPreTexture implements RTTexture {
     private JavaSurface surface;
     private final Rectangle dimensions = new Rectangle();
     private boolean isOpaque;
+    private final SWTileRenderer tileRenderer;
 
     SWRTTexture(SWResourceFactory factory, int w, int h) {
         super(factory, WrapMode.CLAMP_TO_ZERO, w, h);
         this.allocate();
-        this.surface = new JavaSurface(getDataNoClone(), RendererBase.TYPE_INT_ARGB_PRE, w, h);
+        this.surface = new JavaSurface(super.getDataNoClone(), RendererBase.TYPE_INT_ARGB_PRE, w, h);
         this.dimensions.setBounds(0, 0, w, h);
+        this.tileRenderer = SWTileRenderer.create(factory.getContext(), this.surface, w, h);
+    }
+
+    /**
+     * Returns the renderer used to rasterize shapes into this texture in
+     * parallel, or null if shapes have to be rendered on the calling thread.
+     */
+    SWTileRenderer getTileRenderer() {
+        return this.tileRenderer;
+    }
+
+    /**
+     * Renders any operations recorded by the tile renderer, so that the
+     * pixels of this texture are up to date.
+     */
+    void flushTiles() {
+        if (tileRenderer != null) {
+            tileRenderer.flush();
+        }
     }
 
     JavaSurface getSurface() {
+        flushTiles();
         return this.surface;
     }
 
+    @Override
+    int[] getDataNoClone() {
+        flushTiles();
+        return super.getDataNoClone();
+    }
+
     @Override
     public int[] getPixels() {
         if (contentWidth == physicalWidth) {
@@ -112,6 +139,14 @@ class SWRTTexture extends SWArgbPreTexture implements RTTexture {
         return getResourceFactory().getScreen();
     }
 
+    @Override
+    public void dispose() {
+        if (tileRenderer != null) {
+            tileRenderer.clear();
+        }
+        super.dispose();
+    }
+
     public Graphics createGraphics() {
         if (pr == null) {
             pr = new PiscesRenderer(this.surface);
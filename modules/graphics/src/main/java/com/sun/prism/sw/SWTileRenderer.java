@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.sw;
+
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.openpisces.Renderer;
+import com.sun.pisces.JavaSurface;
+import com.sun.pisces.PiscesRenderer;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.impl.shape.OpenPiscesPrismUtils;
+import com.sun.prism.paint.Paint;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Records the shape fills and strokes issued against a large SWRTTexture
+ * and rasterizes them later, in parallel, into disjoint horizontal tiles
+ * of the texture.  Every tile replays the whole list of recorded operations
+ * clipped to its own bounds, using its own PiscesRenderer and OpenPisces
+ * rasterizer, so the result is identical to rendering the operations in
+ * order on a single thread.
+ *
+ * Only operations that do not depend on mutable state (textures, glyph
+ * caches, the image paint texture of the SWContext) are recorded.  Every
+ * other operation on the target must call {@link #flush()} first, which is
+ * done by SWGraphics, and by SWRTTexture whenever its pixels are read.
+ *
+ * The tile renderer is only enabled with -Dprism.sw.threads=N (N > 1).
+ */
+final class SWTileRenderer {
+
+    /** The minimum height of a tile, in pixels. */
+    private static final int MIN_TILE_HEIGHT = 64;
+
+    /** Pending operations beyond this count are flushed eagerly. */
+    private static final int MAX_PENDING_OPS = 4096;
+
+    private static ForkJoinPool pool;
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = AccessController.doPrivileged((PrivilegedAction<ForkJoinPool>) () ->
+                new ForkJoinPool(PrismSettings.swRasterThreads, p -> {
+                    ForkJoinWorkerThread t =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    t.setName("SW Raster Thread " + t.getPoolIndex());
+                    t.setDaemon(true);
+                    return t;
+                }, null, false));
+        }
+        return pool;
+    }
+
+    /**
+     * Returns a tile renderer for a render target of the given size, or
+     * null if parallel rasterization is disabled or the target is too small
+     * to be split into more than one tile.
+     */
+    static SWTileRenderer create(SWContext context, JavaSurface surface, int width, int height) {
+        final int numTiles = Math.min(PrismSettings.swRasterThreads, height / MIN_TILE_HEIGHT);
+        if (numTiles <= 1) {
+            return null;
+        }
+        return new SWTileRenderer(context, surface, width, height, numTiles);
+    }
+
+    private final Tile[] tiles;
+    private final ArrayList<Op> ops = new ArrayList<Op>();
+
+    private SWTileRenderer(SWContext context, JavaSurface surface, int width, int height, int numTiles) {
+        tiles = new Tile[numTiles];
+        int y = 0;
+        for (int i = 0; i < numTiles; i++) {
+            final int tileHeight = (height - y) / (numTiles - i);
+            tiles[i] = new Tile(context, surface, new Rectangle(0, y, width, tileHeight));
+            y += tileHeight;
+        }
+    }
+
+    /**
+     * Returns true if a shape filled or stroked with the given paint can be
+     * recorded instead of being rendered immediately.
+     */
+    static boolean canRecord(Paint paint) {
+        return paint.getType() != Paint.Type.IMAGE_PATTERN;
+    }
+
+    /**
+     * Records a shape fill (if {@code stroke} is null) or a centered stroke.
+     * All arguments are copied, so the caller may reuse them.
+     */
+    void addShape(Shape shape, BasicStroke stroke, BaseTransform tx, Paint paint, RectBounds nodeBounds,
+                  Rectangle clip, int compositeRule, float compositeAlpha, boolean antialiasedShape)
+    {
+        final Op op = new Op(tx, paint, nodeBounds, clip, compositeRule, compositeAlpha);
+        op.shape = shape.copy();
+        op.stroke = (stroke == null) ? null : stroke.copy();
+        op.antialiasedShape = antialiasedShape;
+        add(op);
+    }
+
+    /**
+     * Records an axis aligned rectangle fill.  The {@code pix*} arguments
+     * are the device space bounds in Pisces fixed point, the {@code local*}
+     * arguments are the user space bounds used to compute proportional
+     * paints.
+     */
+    void addRect(int pixX, int pixY, int pixW, int pixH,
+                 float localX, float localY, float localW, float localH,
+                 BaseTransform tx, Paint paint, RectBounds nodeBounds,
+                 Rectangle clip, int compositeRule, float compositeAlpha)
+    {
+        final Op op = new Op(tx, paint, nodeBounds, clip, compositeRule, compositeAlpha);
+        op.pixX = pixX;
+        op.pixY = pixY;
+        op.pixW = pixW;
+        op.pixH = pixH;
+        op.localX = localX;
+        op.localY = localY;
+        op.localW = localW;
+        op.localH = localH;
+        add(op);
+    }
+
+    private void add(Op op) {
+        ops.add(op);
+        if (ops.size() >= MAX_PENDING_OPS) {
+            flush();
+        }
+    }
+
+    /**
+     * Rasterizes all pending operations into the render target and waits
+     * for every tile to complete.
+     */
+    void flush() {
+        if (ops.isEmpty()) {
+            return;
+        }
+        if (PrismSettings.debug) {
+            System.out.println("+ SWTileRenderer.flush: " + ops.size() + " ops, " + tiles.length + " tiles");
+        }
+        try {
+            getPool().invoke(ForkJoinTask.adapt(() -> {
+                final ForkJoinTask<?> tasks[] = new ForkJoinTask<?>[tiles.length];
+                for (int i = 0; i < tiles.length; i++) {
+                    final Tile tile = tiles[i];
+                    tasks[i] = ForkJoinTask.adapt(() -> tile.render(ops));
+                }
+                ForkJoinTask.invokeAll(tasks);
+            }));
+        } finally {
+            ops.clear();
+        }
+    }
+
+    /**
+     * Drops all pending operations without rendering them.
+     */
+    void clear() {
+        ops.clear();
+    }
+
+    private static final class Op {
+        final BaseTransform tx;
+        final Paint paint;
+        final RectBounds nodeBounds;
+        final Rectangle clip;
+        final int compositeRule;
+        final float compositeAlpha;
+
+        // shape operations
+        Shape shape;
+        BasicStroke stroke;
+        boolean antialiasedShape;
+
+        // rectangle operations
+        int pixX, pixY, pixW, pixH;
+        float localX, localY, localW, localH;
+
+        Op(BaseTransform tx, Paint paint, RectBounds nodeBounds,
+           Rectangle clip, int compositeRule, float compositeAlpha)
+        {
+            this.tx = tx.copy();
+            this.paint = paint;
+            this.nodeBounds = (nodeBounds == null) ? null : new RectBounds(nodeBounds);
+            this.clip = new Rectangle(clip);
+            this.compositeRule = compositeRule;
+            this.compositeAlpha = compositeAlpha;
+        }
+    }
+
+    private static final class Tile {
+        private final Rectangle bounds;
+        private final Rectangle tileClip = new Rectangle();
+        private final PiscesRenderer pr;
+        private final SWPaint swPaint;
+        private final DirectRTPiscesAlphaConsumer alphaConsumer = new DirectRTPiscesAlphaConsumer();
+        private final OpenPiscesPrismUtils.RendererState rendererState =
+                new OpenPiscesPrismUtils.RendererState();
+
+        Tile(SWContext context, JavaSurface surface, Rectangle bounds) {
+            this.bounds = bounds;
+            this.pr = new PiscesRenderer(surface);
+            // The context is only used by SWPaint for image patterns,
+            // which are never recorded.
+            this.swPaint = new SWPaint(context, pr);
+        }
+
+        void render(ArrayList<Op> ops) {
+            for (int i = 0, n = ops.size(); i < n; i++) {
+                final Op op = ops.get(i);
+                tileClip.setBounds(op.clip);
+                tileClip.intersectWith(bounds);
+                if (tileClip.isEmpty()) {
+                    continue;
+                }
+                pr.setClip(tileClip.x, tileClip.y, tileClip.width, tileClip.height);
+                pr.setCompositeRule(op.compositeRule);
+                swPaint.setCompositeAlpha(op.compositeAlpha);
+                if (op.shape == null) {
+                    swPaint.setPaintFromShape(op.paint, op.tx, null, op.nodeBounds,
+                                              op.localX, op.localY, op.localW, op.localH);
+                    pr.fillRect(op.pixX, op.pixY, op.pixW, op.pixH);
+                } else {
+                    swPaint.setPaintFromShape(op.paint, op.tx, op.shape, op.nodeBounds, 0, 0, 0, 0);
+                    final Renderer r = rendererState.setupRenderer(op.shape, op.stroke, op.tx,
+                                                                   tileClip, op.antialiasedShape);
+                    alphaConsumer.initConsumer(r, pr);
+                    r.produceAlphas(alphaConsumer);
+                }
+            }
+        }
+    }
+}
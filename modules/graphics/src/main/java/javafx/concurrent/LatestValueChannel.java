@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.concurrent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+import javafx.beans.value.WritableValue;
+import com.sun.javafx.tk.TKPulseListener;
+import com.sun.javafx.tk.Toolkit;
+
+/**
+ * A channel through which background threads can update properties, or any
+ * other {@link WritableValue}, that must only be modified on the FX
+ * Application Thread.
+ * <p>
+ * Only the latest value sent to each target is kept. All of the targets
+ * with a pending value are set in a single pass on the FX Application
+ * Thread at the start of the next pulse, before CSS and layout, so any
+ * number of updates sent between two frames cost one assignment per target
+ * and no runnables at all. This is the same coalescing that {@link Task}
+ * applies to its own value, message and progress, made available for
+ * arbitrary model properties:
+ *
+ * <pre><code>
+ * final LatestValueChannel channel = new LatestValueChannel();
+ * feed.setListener(quote -&gt; {
+ *     // called on the feed thread, maybe many thousand times a second
+ *     channel.update(priceProperty, quote.getPrice());
+ *     channel.update(volumeProperty, quote.getVolume());
+ * });
+ * </code></pre>
+ *
+ * <p>
+ * Updates of the same target are applied in the order they were sent, the
+ * last one winning, but no order is guaranteed between different targets.
+ * Updates sent on the FX Application Thread are applied immediately and
+ * discard any pending value of the same target.
+ * <p>
+ * A channel that is no longer referenced stops listening for pulses on its
+ * own; {@link #dispose()} does so explicitly.
+ *
+ * @since JavaFX 8u152
+ */
+public final class LatestValueChannel {
+
+    // ConcurrentHashMap does not allow null values
+    private static final Object NULL = new Object();
+
+    private final ConcurrentHashMap<WritableValue<?>, Object> pending =
+            new ConcurrentHashMap<WritableValue<?>, Object>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // The toolkit keeps its pulse listeners weakly, so this channel holds
+    // the only strong reference to its own listener
+    private final TKPulseListener pulseListener = () -> flush();
+
+    private volatile boolean listening;
+
+    /**
+     * Creates a new, empty channel.
+     */
+    public LatestValueChannel() {
+    }
+
+    /**
+     * Sends a new value for the given target. This may be called on any
+     * thread. Unless it is called on the FX Application Thread, the target
+     * is only set at the next pulse, to the latest value sent by then.
+     *
+     * @param <T> the type of the target value
+     * @param target the value to update, must not be null
+     * @param value the new value, may be null
+     */
+    public <T> void update(WritableValue<T> target, T value) {
+        if (target == null) {
+            throw new NullPointerException("target cannot be null");
+        }
+        if (Platform.isFxApplicationThread()) {
+            pending.remove(target);
+            target.setValue(value);
+            return;
+        }
+        pending.put(target, value == null ? NULL : value);
+        if (!flushScheduled.get() && flushScheduled.compareAndSet(false, true)) {
+            schedulePulse();
+        }
+    }
+
+    /**
+     * Sets every target with a pending value right away, rather than at the
+     * next pulse. This must be called on the FX Application Thread.
+     */
+    public void flush() {
+        checkThread();
+        // updates sent from now on need another pulse
+        flushScheduled.set(false);
+        boolean completed = false;
+        try {
+            for (WritableValue<?> target : pending.keySet()) {
+                final Object value = pending.remove(target);
+                if (value != null) {
+                    apply(target, value);
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed && !pending.isEmpty()
+                    && flushScheduled.compareAndSet(false, true)) {
+                // a target threw, make sure the others are not left behind
+                schedulePulse();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of targets with a pending value.
+     *
+     * @return the number of targets waiting to be set
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Discards all pending values and stops listening for pulses. Later
+     * updates are still accepted and make the channel listen again.
+     */
+    public void dispose() {
+        pending.clear();
+        if (listening) {
+            listening = false;
+            Toolkit.getToolkit().removeStageTkPulseListener(pulseListener);
+        }
+        flushScheduled.set(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void apply(WritableValue<T> target, Object value) {
+        target.setValue(value == NULL ? null : (T) value);
+    }
+
+    private void checkThread() {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("LatestValueChannel must only be flushed from the FX Application Thread");
+        }
+    }
+
+    private void schedulePulse() {
+        final Toolkit toolkit = Toolkit.getToolkit();
+        if (!listening) {
+            listening = true;
+            toolkit.addStageTkPulseListener(pulseListener);
+        }
+        toolkit.requestNextPulse();
+    }
+}
@@ -247,6 +247,42 @@ public abstract class Camera extends Node {
         return this;
     }
 
+    /**
+     * Creates a new peer holding the state of this camera for a viewport of
+     * the given size, leaving the peer used to render the scene untouched.
+     * Package private, used by the deferred snapshots, which are rendered
+     * while the camera may already be changing again.
+     */
+    NGCamera createSnapshotPeer(double width, double height) {
+        final double oldViewWidth = viewWidth;
+        final double oldViewHeight = viewHeight;
+        setViewWidth(width);
+        setViewHeight(height);
+
+        final NGCamera peer = (NGCamera) impl_createPeer();
+        updateSnapshotPeer(peer);
+        peer.setNearClip((float) getNearClip());
+        peer.setFarClip((float) getFarClip());
+        peer.setViewWidth(width);
+        peer.setViewHeight(height);
+        peer.setWorldTransform(getCameraTransform());
+        peer.setProjViewTransform(getProjViewTransform());
+        Vec3d pos = computePosition(null);
+        getCameraTransform().transform(pos, pos);
+        peer.setPosition(pos);
+
+        setViewWidth(oldViewWidth);
+        setViewHeight(oldViewHeight);
+        return peer;
+    }
+
+    /**
+     * Copies the state specific to the type of this camera into the given
+     * snapshot peer.
+     */
+    void updateSnapshotPeer(NGCamera peer) {
+    }
+
     /**
      * @treatAsPrivate implementation detail
      * @deprecated This is an internal API that is not intended for use and will be removed in the next version
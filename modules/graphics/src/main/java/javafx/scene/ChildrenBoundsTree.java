@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import java.util.Arrays;
+import com.sun.javafx.geom.BaseBounds;
+
+/**
+ * A segment tree over the bounds of the visible children of a {@link Parent},
+ * used by parents with very many children to keep their bounds up to date
+ * without scanning all of the children whenever one at the edge of the bounds
+ * moves or is removed.
+ * <p>
+ * Each child is given a slot, recorded in {@code Node.boundsTreeSlot}. Since
+ * the union of the bounds does not depend on the order of the children,
+ * slots are not related to child indices and survive permutations of the
+ * children list. Setting or clearing the bounds of a slot updates the
+ * unions on the path to the root, so adding, removing or moving a child
+ * costs O(log n).
+ */
+final class ChildrenBoundsTree {
+
+    private static final int MIN_X = 0;
+    private static final int MIN_Y = 1;
+    private static final int MIN_Z = 2;
+    private static final int MAX_X = 3;
+    private static final int MAX_Y = 4;
+    private static final int MAX_Z = 5;
+    private static final int STRIDE = 6;
+
+    /** Number of leaves, always a power of two. */
+    private int capacity;
+
+    /**
+     * Bounds of the tree nodes, STRIDE floats each. Node 1 is the root, the
+     * children of node i are 2i and 2i + 1 and the leaf for slot s is node
+     * capacity + s. Empty bounds are stored as an inverted infinite box so
+     * that they drop out of the unions.
+     */
+    private float[] bounds;
+
+    private Node[] nodes;
+    private int[] freeSlots;
+    private int freeCount;
+    private int usedSlots;
+
+    ChildrenBoundsTree(int expectedSize) {
+        capacity = Integer.highestOneBit(Math.max(expectedSize, 16) - 1) << 1;
+        bounds = new float[2 * capacity * STRIDE];
+        for (int i = 1; i < 2 * capacity; i++) {
+            clear(i);
+        }
+        nodes = new Node[capacity];
+        freeSlots = new int[16];
+    }
+
+    /**
+     * Sets the bounds of the given child, giving it a slot if it does not
+     * have one yet.
+     */
+    void update(Node node, BaseBounds childBounds) {
+        int slot = node.boundsTreeSlot;
+        if (slot < 0 || slot >= usedSlots || nodes[slot] != node) {
+            slot = allocate(node);
+        }
+        final int leaf = capacity + slot;
+        if (childBounds.isEmpty()) {
+            clear(leaf);
+        } else {
+            final int b = leaf * STRIDE;
+            bounds[b + MIN_X] = childBounds.getMinX();
+            bounds[b + MIN_Y] = childBounds.getMinY();
+            bounds[b + MIN_Z] = childBounds.getMinZ();
+            bounds[b + MAX_X] = childBounds.getMaxX();
+            bounds[b + MAX_Y] = childBounds.getMaxY();
+            bounds[b + MAX_Z] = childBounds.getMaxZ();
+        }
+        propagate(leaf);
+    }
+
+    /**
+     * Removes the given child from the tree and releases its slot.
+     */
+    void remove(Node node) {
+        final int slot = node.boundsTreeSlot;
+        node.boundsTreeSlot = -1;
+        if (slot < 0 || slot >= usedSlots || nodes[slot] != node) {
+            return;
+        }
+        nodes[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        clear(capacity + slot);
+        propagate(capacity + slot);
+    }
+
+    /**
+     * Releases the slots of all of the children, before the tree is dropped.
+     */
+    void dispose() {
+        for (int i = 0; i < usedSlots; i++) {
+            final Node node = nodes[i];
+            if (node != null && node.boundsTreeSlot == i) {
+                node.boundsTreeSlot = -1;
+            }
+        }
+        nodes = null;
+    }
+
+    /**
+     * Returns the union of the bounds of all children in the tree.
+     */
+    BaseBounds getBounds(BaseBounds result) {
+        if (bounds[STRIDE + MIN_X] > bounds[STRIDE + MAX_X]) {
+            return result.makeEmpty();
+        }
+        return result.deriveWithNewBounds(
+                bounds[STRIDE + MIN_X], bounds[STRIDE + MIN_Y], bounds[STRIDE + MIN_Z],
+                bounds[STRIDE + MAX_X], bounds[STRIDE + MAX_Y], bounds[STRIDE + MAX_Z]);
+    }
+
+    private int allocate(Node node) {
+        final int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (usedSlots == capacity) {
+                grow();
+            }
+            slot = usedSlots++;
+        }
+        nodes[slot] = node;
+        node.boundsTreeSlot = slot;
+        return slot;
+    }
+
+    private void grow() {
+        final int newCapacity = capacity * 2;
+        final float[] newBounds = new float[2 * newCapacity * STRIDE];
+        System.arraycopy(bounds, capacity * STRIDE,
+                         newBounds, newCapacity * STRIDE, capacity * STRIDE);
+        bounds = newBounds;
+        final int oldCapacity = capacity;
+        capacity = newCapacity;
+        for (int i = newCapacity + oldCapacity; i < 2 * newCapacity; i++) {
+            clear(i);
+        }
+        for (int i = newCapacity - 1; i >= 1; i--) {
+            union(i);
+        }
+        nodes = Arrays.copyOf(nodes, newCapacity);
+    }
+
+    private void propagate(int leaf) {
+        for (int i = leaf >>> 1; i >= 1; i >>>= 1) {
+            if (!union(i)) {
+                // the ancestors already reflect this subtree
+                break;
+            }
+        }
+    }
+
+    /**
+     * Recomputes the bounds of an inner node from its two children, returning
+     * whether they changed.
+     */
+    private boolean union(int i) {
+        final int b = i * STRIDE;
+        final int l = 2 * i * STRIDE;
+        final int r = l + STRIDE;
+        boolean changed = false;
+        for (int k = MIN_X; k <= MIN_Z; k++) {
+            final float v = Math.min(bounds[l + k], bounds[r + k]);
+            if (v != bounds[b + k]) {
+                bounds[b + k] = v;
+                changed = true;
+            }
+        }
+        for (int k = MAX_X; k <= MAX_Z; k++) {
+            final float v = Math.max(bounds[l + k], bounds[r + k]);
+            if (v != bounds[b + k]) {
+                bounds[b + k] = v;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void clear(int i) {
+        final int b = i * STRIDE;
+        bounds[b + MIN_X] = bounds[b + MIN_Y] = bounds[b + MIN_Z] = Float.POSITIVE_INFINITY;
+        bounds[b + MAX_X] = bounds[b + MAX_Y] = bounds[b + MAX_Z] = Float.NEGATIVE_INFINITY;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.PickRay;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.input.PickResultChooser;
+
+/**
+ * A uniform grid over the bounds of the children of a {@link Parent}, used
+ * to pick a point along an axis-aligned ray without testing every child.
+ * Each cell holds the indices of the children whose bounds in the parent's
+ * coordinate space overlap it, in ascending order, so the children found at
+ * a point can be visited in the same back-to-front order as the linear scan
+ * in {@code Parent.impl_pickNodeLocal}.
+ * <p>
+ * The grid is built lazily the first time a large parent is picked. Changes
+ * to the bounds or visibility of a child are recorded through
+ * {@link #childChanged(Node)} and applied to the grid before the next pick;
+ * any change to the children list discards the grid entirely.
+ */
+final class ChildrenPickGrid {
+
+    // Cell ranges are packed into 7 bits per coordinate
+    private static final int MAX_CELLS_PER_AXIS = 128;
+
+    private static final int CHILDREN_PER_CELL = 4;
+
+    private static final int NOT_INDEXED = -1;
+
+    private final Parent parent;
+    private final List<Node> children;
+    private final IdentityHashMap<Node, Integer> indices;
+    private final int[] childCells;
+
+    private final int[][] cells;
+    private final int[] cellSizes;
+    private final int cols;
+    private final int rows;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final double padding;
+
+    private final List<Node> changed = new ArrayList<Node>();
+    private boolean stale;
+
+    private BaseBounds tmpBounds = new RectBounds();
+
+    ChildrenPickGrid(Parent parent, List<Node> children) {
+        this.parent = parent;
+        this.children = children;
+
+        final int size = children.size();
+        indices = new IdentityHashMap<Node, Integer>(size);
+        childCells = new int[size];
+
+        // first pass: the extent of the finite bounds of all visible children
+        final double[] childBounds = new double[4 * size];
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        int indexed = 0;
+        for (int i = 0; i < size; i++) {
+            final Node child = children.get(i);
+            indices.put(child, i);
+            childCells[i] = NOT_INDEXED;
+            if (!computeBounds(child, childBounds, 4 * i)) {
+                continue;
+            }
+            indexed++;
+            final int b = 4 * i;
+            if (isFinite(childBounds[b]))     x0 = Math.min(x0, childBounds[b]);
+            if (isFinite(childBounds[b + 1])) y0 = Math.min(y0, childBounds[b + 1]);
+            if (isFinite(childBounds[b + 2])) x1 = Math.max(x1, childBounds[b + 2]);
+            if (isFinite(childBounds[b + 3])) y1 = Math.max(y1, childBounds[b + 3]);
+        }
+        if (x0 > x1) { x0 = x1 = 0; }
+        if (y0 > y1) { y0 = y1 = 0; }
+
+        final double width = x1 - x0;
+        final double height = y1 - y0;
+        final int targetCells = Math.max(1, indexed / CHILDREN_PER_CELL);
+        int c, r;
+        if (width <= 0 || height <= 0) {
+            c = width > 0 ? targetCells : 1;
+            r = height > 0 ? targetCells : 1;
+        } else {
+            c = (int) Math.round(Math.sqrt(targetCells * width / height));
+            c = clamp(c, 1, MAX_CELLS_PER_AXIS);
+            r = (int) Math.round((double) targetCells / c);
+        }
+        cols = clamp(c, 1, MAX_CELLS_PER_AXIS);
+        rows = clamp(r, 1, MAX_CELLS_PER_AXIS);
+        minX = x0;
+        minY = y0;
+        maxX = x1;
+        maxY = y1;
+        cellWidth = width > 0 ? width / cols : 1;
+        cellHeight = height > 0 ? height / rows : 1;
+        // tolerate rounding differences between the bounds computed here and
+        // the bounds a child tests against its own local copy of the ray
+        padding = 1e-6 * Math.max(1, Math.max(width, height));
+
+        cells = new int[cols * rows][];
+        cellSizes = new int[cols * rows];
+
+        // second pass: children are added in ascending order, so each cell
+        // stays sorted without searching
+        for (int i = 0; i < size; i++) {
+            final int b = 4 * i;
+            if (childBounds[b] <= childBounds[b + 2]) {
+                insert(i, childBounds[b], childBounds[b + 1],
+                          childBounds[b + 2], childBounds[b + 3], false);
+            }
+        }
+    }
+
+    /**
+     * Records that the bounds or visibility of the given child have changed.
+     */
+    void childChanged(Node child) {
+        if (stale) {
+            return;
+        }
+        // once enough children have changed it is cheaper to start over
+        if (changed.size() > children.size() / 4) {
+            changed.clear();
+            stale = true;
+            return;
+        }
+        changed.add(child);
+    }
+
+    /**
+     * Brings the grid up to date with the recorded changes. Returns false if
+     * that is not possible and the grid has to be rebuilt, either because too
+     * many children have changed or because a child has moved outside of the
+     * area covered by the grid.
+     */
+    boolean update() {
+        if (stale) {
+            return false;
+        }
+        final double[] bounds = new double[4];
+        for (int n = 0, max = changed.size(); n < max; n++) {
+            final Integer index = indices.get(changed.get(n));
+            if (index == null) {
+                continue;
+            }
+            final int i = index;
+            remove(i);
+            if (computeBounds(children.get(i), bounds, 0)) {
+                if (bounds[0] < minX - padding || bounds[1] < minY - padding ||
+                        bounds[2] > maxX + padding || bounds[3] > maxY + padding) {
+                    stale = true;
+                    return false;
+                }
+                insert(i, bounds[0], bounds[1], bounds[2], bounds[3], true);
+            }
+        }
+        changed.clear();
+        return true;
+    }
+
+    /**
+     * Returns true if the point lies within the area covered by the grid, in
+     * which case only the children found by {@link #pick} can contain it.
+     */
+    boolean contains(double x, double y) {
+        return x >= minX - padding && x <= maxX + padding &&
+               y >= minY - padding && y <= maxY + padding;
+    }
+
+    /**
+     * Picks the children in the cell containing the origin of the ray, from
+     * the last child to the first. Returns true if the result was closed.
+     */
+    boolean pick(double x, double y, PickRay pickRay, PickResultChooser result) {
+        final int cell = row(y) * cols + col(x);
+        final int[] cellChildren = cells[cell];
+        for (int n = cellSizes[cell] - 1; n >= 0; n--) {
+            children.get(cellChildren[n]).impl_pickNode(pickRay, result);
+            if (result.isClosed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean computeBounds(Node child, double[] bounds, int offset) {
+        if (!child.isVisible()) {
+            bounds[offset] = 0;
+            bounds[offset + 2] = -1;
+            return false;
+        }
+        tmpBounds = parent.getChildTransformedBounds(child,
+                BaseTransform.IDENTITY_TRANSFORM, tmpBounds);
+        if (tmpBounds.isEmpty()) {
+            bounds[offset] = 0;
+            bounds[offset + 2] = -1;
+            return false;
+        }
+        bounds[offset] = tmpBounds.getMinX();
+        bounds[offset + 1] = tmpBounds.getMinY();
+        bounds[offset + 2] = tmpBounds.getMaxX();
+        bounds[offset + 3] = tmpBounds.getMaxY();
+        return true;
+    }
+
+    private void insert(int index, double x0, double y0, double x1, double y1, boolean sorted) {
+        final int c0 = col(x0 - padding);
+        final int r0 = row(y0 - padding);
+        final int c1 = col(x1 + padding);
+        final int r1 = row(y1 + padding);
+        childCells[index] = (c0 << 21) | (r0 << 14) | (c1 << 7) | r1;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                add(r * cols + c, index, sorted);
+            }
+        }
+    }
+
+    private void remove(int index) {
+        final int packed = childCells[index];
+        if (packed == NOT_INDEXED) {
+            return;
+        }
+        childCells[index] = NOT_INDEXED;
+        final int c0 = (packed >>> 21) & 0x7F;
+        final int r0 = (packed >>> 14) & 0x7F;
+        final int c1 = (packed >>> 7) & 0x7F;
+        final int r1 = packed & 0x7F;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                final int cell = r * cols + c;
+                final int[] cellChildren = cells[cell];
+                final int size = cellSizes[cell];
+                final int pos = binarySearch(cellChildren, size, index);
+                if (pos >= 0) {
+                    System.arraycopy(cellChildren, pos + 1, cellChildren, pos, size - pos - 1);
+                    cellSizes[cell] = size - 1;
+                }
+            }
+        }
+    }
+
+    private void add(int cell, int index, boolean sorted) {
+        int[] cellChildren = cells[cell];
+        final int size = cellSizes[cell];
+        if (cellChildren == null) {
+            cellChildren = cells[cell] = new int[CHILDREN_PER_CELL];
+        } else if (size == cellChildren.length) {
+            final int[] grown = new int[size * 2];
+            System.arraycopy(cellChildren, 0, grown, 0, size);
+            cellChildren = cells[cell] = grown;
+        }
+        int pos = size;
+        if (sorted) {
+            pos = -binarySearch(cellChildren, size, index) - 1;
+            System.arraycopy(cellChildren, pos, cellChildren, pos + 1, size - pos);
+        }
+        cellChildren[pos] = index;
+        cellSizes[cell] = size + 1;
+    }
+
+    private int col(double x) {
+        return clamp((int) Math.floor((x - minX) / cellWidth), 0, cols - 1);
+    }
+
+    private int row(double y) {
+        return clamp((int) Math.floor((y - minY) / cellHeight), 0, rows - 1);
+    }
+
+    private static int binarySearch(int[] a, int size, int key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (a[mid] < key) {
+                low = mid + 1;
+            } else if (a[mid] > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    private static boolean isFinite(double value) {
+        return !Double.isInfinite(value) && !Double.isNaN(value);
+    }
+}
@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -51,6 +52,7 @@ import javafx.scene.text.FontWeight;
 import com.sun.javafx.util.Logging;
 import com.sun.javafx.util.Utils;
 import com.sun.javafx.css.CalculatedValue;
+import com.sun.javafx.css.CalculatedValueInterner;
 import com.sun.javafx.css.CascadingStyle;
 import com.sun.javafx.css.CssError;
 import com.sun.javafx.css.ParsedValueImpl;
@@ -130,7 +132,7 @@ final class CssStyleHelper {
             }
             node.styleHelper.cacheContainer.forceSlowpath = true;
             node.styleHelper.triggerStates.addAll(triggerStates[0]);
-            updateParentTriggerStates(node, depth, triggerStates);
+            updateParentTriggerStates(node, depth, triggerStates, styleMap);
             return node.styleHelper;
 
         }
@@ -170,7 +172,7 @@ final class CssStyleHelper {
         final CssStyleHelper helper = new CssStyleHelper();
         helper.triggerStates.addAll(triggerStates[0]);
 
-        updateParentTriggerStates(node, depth, triggerStates);
+        updateParentTriggerStates(node, depth, triggerStates, styleMap);
 
         helper.cacheContainer = new CacheContainer(node, styleMap, depth);
 
@@ -183,7 +185,12 @@ final class CssStyleHelper {
         return helper;
     }
 
-    private static void updateParentTriggerStates(Styleable styleable, int depth, PseudoClassState[] triggerStates) {
+    private static void updateParentTriggerStates(Styleable styleable, int depth, PseudoClassState[] triggerStates, StyleMap styleMap) {
+
+        // The properties this node might resolve from its ancestors' styles.
+        final Set<String> referencedProperties =
+                styleMap != null ? styleMap.getReferencedProperties() : Collections.<String>emptySet();
+
         // make sure parent's transition states include the pseudo-classes
         // found when matching selectors
         Styleable parent = styleable.getStyleableParent();
@@ -207,7 +214,14 @@ final class CssStyleHelper {
                     parentNode.styleHelper = new CssStyleHelper();
                 }
                 parentNode.styleHelper.triggerStates.addAll(triggerState);
+                parentNode.styleHelper.addDescendantTriggerStates(triggerState);
+
+            }
 
+            // A parent without a style helper has no pseudo-class state that
+            // triggers a transition, so it doesn't need to know.
+            if (referencedProperties.isEmpty() == false && parentNode.styleHelper != null) {
+                parentNode.styleHelper.addDescendantReferences(referencedProperties);
             }
 
             parent=parent.getStyleableParent();
@@ -429,6 +443,11 @@ final class CssStyleHelper {
         private final Map<CssMetaData, CalculatedValue> cssSetProperties;
 
         private boolean forceSlowpath = false;
+
+        // For a pseudo-class, the properties to update when only the node's
+        // own, non-inherited properties are affected by a change in that
+        // pseudo-class. If the value is null, a change requires a full update.
+        private Map<PseudoClass, List<CssMetaData<? extends Styleable, ?>>> localTransitions;
     }
 
     private void resetToInitialValues(final Styleable styleable) {
@@ -484,10 +503,218 @@ final class CssStyleHelper {
      */
     private PseudoClassState triggerStates = new PseudoClassState();
 
+    /**
+     * The pseudo-classes in triggerStates that come from selectors matching
+     * the descendants of the node. In the example above, "hover" is one of
+     * these for the Button since a change to hover changes the styles of the
+     * label. A change to one of these states means the node's children have
+     * to be updated, too.
+     */
+    private final PseudoClassState descendantTriggerStates = new PseudoClassState();
+
+    /**
+     * The property names that the descendants of the node may resolve from
+     * their ancestors' styles, as given by StyleMap#getReferencedProperties.
+     * The sets are held by identity since nodes that share a StyleMap share
+     * the set.
+     */
+    private Set<Set<String>> descendantReferences;
+
+    /**
+     * The pseudo-class changes that only affect the node's own properties and
+     * that are waiting for the next CSS pass.
+     */
+    private PseudoClassState pendingStates;
+
     boolean pseudoClassStateChanged(PseudoClass pseudoClass) {
         return triggerStates.contains(pseudoClass);
     }
 
+    private void addDescendantTriggerStates(PseudoClassState states) {
+        if (descendantTriggerStates.addAll(states) && cacheContainer != null) {
+            cacheContainer.localTransitions = null;
+        }
+    }
+
+    private void addDescendantReferences(Set<String> referencedProperties) {
+        if (descendantReferences == null) {
+            descendantReferences = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        if (descendantReferences.add(referencedProperties) && cacheContainer != null) {
+            cacheContainer.localTransitions = null;
+        }
+    }
+
+    /**
+     * Called when a pseudo-class in triggerStates has changed. Returns true
+     * if the change only affects properties of the node that neither inherit
+     * nor are referenced by the styles of the node or its descendants. If so,
+     * the pseudo-class is remembered so that the next call to
+     * transitionToState(node, true) only looks up those properties; the
+     * node's children do not need to be updated at all.
+     */
+    boolean isLocalTransition(final Node node, final PseudoClass pseudoClass) {
+
+        if (getLocalTransition(node, pseudoClass) == null) {
+            return false;
+        }
+
+        if (pendingStates == null) {
+            pendingStates = new PseudoClassState();
+        }
+        pendingStates.add(pseudoClass);
+        return true;
+    }
+
+    private List<CssMetaData<? extends Styleable, ?>> getLocalTransition(final Node node, final PseudoClass pseudoClass) {
+
+        // A SubScene passes its css flag on to its root, which isn't what we want.
+        if (cacheContainer == null || node instanceof SubScene) {
+            return null;
+        }
+
+        // The pseudo-class matters to a descendant
+        if (descendantTriggerStates.contains(pseudoClass)) {
+            return null;
+        }
+
+        if (cacheContainer.localTransitions == null) {
+            cacheContainer.localTransitions = new HashMap<>();
+        } else if (cacheContainer.localTransitions.containsKey(pseudoClass)) {
+            return cacheContainer.localTransitions.get(pseudoClass);
+        }
+
+        final StyleMap styleMap = getStyleMap(node);
+        if (styleMap == null) {
+            // StyleManager blew the style map away. Don't cache the answer
+            // since css will be reapplied.
+            return null;
+        }
+
+        final List<CssMetaData<? extends Styleable, ?>> localTransition =
+                calculateLocalTransition(node, styleMap.getPropertiesAffectedBy(pseudoClass), styleMap);
+        cacheContainer.localTransitions.put(pseudoClass, localTransition);
+        return localTransition;
+    }
+
+    private List<CssMetaData<? extends Styleable, ?>> calculateLocalTransition(
+            final Node node,
+            final Set<String> affectedProperties,
+            final StyleMap styleMap) {
+
+        final Set<String> referencedProperties = styleMap.getReferencedProperties();
+        final List<CssMetaData<? extends Styleable, ?>> styleables = node.getCssMetaData();
+        final List<CssMetaData<? extends Styleable, ?>> localTransition = new ArrayList<>();
+
+        for (String property : affectedProperties) {
+
+            // Some other property of this node is looked up from this property
+            if (referencedProperties.contains(property)) {
+                return null;
+            }
+
+            if (descendantReferences != null) {
+                for (Set<String> references : descendantReferences) {
+                    if (references.contains(property)) {
+                        return null;
+                    }
+                }
+            }
+
+            // If there is no CssMetaData for the property, then the property is
+            // something like -fx-base which may be looked up by any node.
+            final CssMetaData<? extends Styleable, ?> cssMetaData = getNonInheritedCssMetaData(styleables, property);
+            if (cssMetaData == null) {
+                return null;
+            }
+
+            if (localTransition.contains(cssMetaData) == false) {
+                localTransition.add(cssMetaData);
+            }
+        }
+
+        return localTransition;
+    }
+
+    //
+    // Find the CssMetaData, or the CssMetaData whose sub-property, is the given
+    // property. Returns null if there is no such CssMetaData or if either inherits.
+    //
+    private static CssMetaData<? extends Styleable, ?> getNonInheritedCssMetaData(
+            final List<CssMetaData<? extends Styleable, ?>> styleables,
+            final String property) {
+
+        for (int n=0, nMax=styleables != null ? styleables.size() : 0; n<nMax; n++) {
+            final CssMetaData<? extends Styleable, ?> cssMetaData = styleables.get(n);
+            final CssMetaData<? extends Styleable, ?> match = findCssMetaData(cssMetaData, property);
+            if (match != null) {
+                return (cssMetaData.isInherits() || match.isInherits()) ? null : cssMetaData;
+            }
+        }
+        return null;
+    }
+
+    private static CssMetaData<? extends Styleable, ?> findCssMetaData(
+            final CssMetaData<? extends Styleable, ?> cssMetaData,
+            final String property) {
+
+        if (property.equals(cssMetaData.getProperty())) {
+            return cssMetaData;
+        }
+
+        final List<CssMetaData<? extends Styleable, ?>> subProperties = cssMetaData.getSubProperties();
+        for (int n=0, nMax=subProperties != null ? subProperties.size() : 0; n<nMax; n++) {
+            final CssMetaData<? extends Styleable, ?> match = findCssMetaData(subProperties.get(n), property);
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    //
+    // The properties to update for the pending local transitions, or null if
+    // all of the properties need to be updated.
+    //
+    private List<CssMetaData<? extends Styleable, ?>> getPendingTransition(final Node node) {
+
+        if (pendingStates == null || pendingStates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<CssMetaData<? extends Styleable, ?>> pendingTransition = null;
+        boolean copied = false;
+
+        for (PseudoClass pseudoClass : pendingStates) {
+
+            final List<CssMetaData<? extends Styleable, ?>> localTransition = getLocalTransition(node, pseudoClass);
+            if (localTransition == null) {
+                return null;
+            }
+
+            if (pendingTransition == null) {
+                // most of the time, there is only one pending state
+                pendingTransition = localTransition;
+                continue;
+            }
+
+            if (copied == false) {
+                // don't modify the cached list
+                pendingTransition = new ArrayList<>(pendingTransition);
+                copied = true;
+            }
+
+            for (int n=0, nMax=localTransition.size(); n<nMax; n++) {
+                final CssMetaData<? extends Styleable, ?> cssMetaData = localTransition.get(n);
+                if (pendingTransition.contains(cssMetaData) == false) {
+                    pendingTransition.add(cssMetaData);
+                }
+            }
+        }
+
+        return pendingTransition;
+    }
+
     /**
      * Dynamic pseudo-class state of the node and its parents.
      * Only valid during a pulse.
@@ -562,6 +789,22 @@ final class CssStyleHelper {
      * animations and that support is detectable via the API.
      */
     void transitionToState(final Node node) {
+        transitionToState(node, false);
+    }
+
+    /**
+     * Called by Node#impl_processCSS. If updatePendingOnly is true, then only
+     * the properties affected by the pending local transitions (see
+     * isLocalTransition) need to be looked up, provided the calculated values
+     * for the new state are already in cache.
+     */
+    void transitionToState(final Node node, final boolean updatePendingOnly) {
+
+        final List<CssMetaData<? extends Styleable, ?>> pendingTransition =
+                updatePendingOnly ? getPendingTransition(node) : null;
+        if (pendingStates != null) {
+            pendingStates.clear();
+        }
 
         if (cacheContainer == null) {
             return;
@@ -607,6 +850,7 @@ final class CssStyleHelper {
             if (cachedFont == SKIP) cachedFont = getCachedFont(node.getStyleableParent());
             if (cachedFont == null) cachedFont = new CalculatedValue(Font.getDefault(), null, false);
 
+            cachedFont = CalculatedValueInterner.intern(cachedFont);
             cacheContainer.fontSizeCache.put(fontCacheKey,cachedFont);
 
         }
@@ -624,14 +868,20 @@ final class CssStyleHelper {
             sharedCache.addStyleCacheEntry(cacheEntryKey, cacheEntry);
         }
 
-        final List<CssMetaData<? extends Styleable,  ?>> styleables = node.getCssMetaData();
+        final boolean isForceSlowpath = cacheContainer.forceSlowpath;
+        cacheContainer.forceSlowpath = false;
+
+        // The cache entry for the new state has to be complete if only some
+        // of the properties are looked up, otherwise a property that wasn't
+        // looked up would appear to have no style in the new state.
+        final List<CssMetaData<? extends Styleable,  ?>> styleables =
+                (pendingTransition != null && fastpath && !isForceSlowpath)
+                        ? pendingTransition
+                        : node.getCssMetaData();
 
         // Used in the for loop below, and a convenient place to stop when debugging.
         final int max = styleables.size();
 
-        final boolean isForceSlowpath = cacheContainer.forceSlowpath;
-        cacheContainer.forceSlowpath = false;
-
         // RT-20643
         CssError.setCurrentScene(node.getScene());
 
@@ -726,7 +976,8 @@ final class CssStyleHelper {
                 if (addToCache) {
 
                     // If we're not on the fastpath, then add the calculated
-                    // value to cache.
+                    // value to cache. Equal values are shared between caches.
+                    calculatedValue = CalculatedValueInterner.intern(calculatedValue);
                     cacheEntry.put(property, calculatedValue);
                 }
 
@@ -102,6 +102,7 @@ import javafx.scene.transform.Transform;
 import javafx.stage.Window;
 import javafx.util.Callback;
 import java.security.AccessControlContext;
+import java.security.AccessController;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -110,6 +111,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.sun.glass.ui.Accessible;
 import com.sun.glass.ui.Application;
@@ -1823,11 +1825,19 @@ public abstract class Node implements EventTarget, Styleable {
         doLayoutPass();
         updateBounds();
         Scene.impl_setAllowPGAccess(true);
-        syncAll(this);
+        // a deferred snapshot of this node may still be rendering
+        Toolkit.getToolkit().synchronizeForSnapshot(() -> syncAll(this));
         Scene.impl_setAllowPGAccess(false);
     }
 
     private WritableImage doSnapshot(SnapshotParameters params, WritableImage img) {
+        return doSnapshot(params, img, null);
+    }
+
+    // If callback is non-null the snapshot is rendered asynchronously, see
+    // Scene.doSnapshot
+    private WritableImage doSnapshot(SnapshotParameters params, WritableImage img,
+                                     Consumer<WritableImage> callback) {
         if (getScene() != null) {
             getScene().doCSSLayoutSyncForSnapshot(this);
         } else {
@@ -1863,7 +1873,7 @@ public abstract class Node implements EventTarget, Styleable {
         }
         WritableImage result = Scene.doSnapshot(getScene(), x, y, w, h,
                 this, transform, params.isDepthBufferInternal(),
-                params.getFill(), params.getEffectiveCamera(), img);
+                params.getFill(), params.getEffectiveCamera(), img, callback);
 
         return result;
     }
@@ -2043,15 +2053,12 @@ public abstract class Node implements EventTarget, Styleable {
         // that is called after all of the scenes have been synced but before
         // any of them have been rendered.
         final Runnable snapshotRunnable = () -> {
-            WritableImage img = doSnapshot(theParams, theImage);
-            SnapshotResult result = new SnapshotResult(img, Node.this, theParams);
+            final AccessControlContext acc = AccessController.getContext();
+            doSnapshot(theParams, theImage, img -> {
+                SnapshotResult result = new SnapshotResult(img, Node.this, theParams);
 //                System.err.println("Calling snapshot callback");
-            try {
-                Void v = theCallback.call(result);
-            } catch (Throwable th) {
-                System.err.println("Exception in snapshot callback");
-                th.printStackTrace(System.err);
-            }
+                Scene.callSnapshotCallback(theCallback, result, acc);
+            });
         };
 
 //        System.err.println("Schedule a snapshot in the future");
@@ -3365,6 +3372,13 @@ public abstract class Node implements EventTarget, Styleable {
      */
     boolean boundsChanged;
 
+    /**
+     * The slot holding the bounds of this node in the bounds tree of its
+     * parent, or -1 if the parent does not keep one. Like boundsChanged, this
+     * belongs to the parent and should only be modified by it.
+     */
+    int boundsTreeSlot = -1;
+
     /**
      * Returns geometric bounds, but may be over-ridden by a subclass.
      * @treatAsPrivate implementation detail
@@ -8826,17 +8840,23 @@ public abstract class Node implements EventTarget, Styleable {
 
     /**
      * Called when a CSS pseudo-class change would cause styles to be reapplied.
+     * If the change only affects some of this node's own properties, then
+     * only those properties are updated and the children are left alone.
      */
-    private void requestCssStateTransition() {
+    private void requestCssStateTransition(boolean updatePropertiesOnly) {
         // If there is no scene, then we cannot make it dirty, so we'll leave
         // the flag alone
         if (getScene() == null) return;
         // Don't bother doing anything if the cssFlag is not CLEAN.
         // If the flag indicates a DIRTY_BRANCH, the flag needs to be changed
-        // to UPDATE to ensure that impl_processCSS is called on the node.
+        // to UPDATE (or UPDATE_PROPERTIES) to ensure that impl_processCSS is
+        // called on the node.
         if (cssFlag == CssFlags.CLEAN || cssFlag == CssFlags.DIRTY_BRANCH) {
-            cssFlag = CssFlags.UPDATE;
+            cssFlag = updatePropertiesOnly ? CssFlags.UPDATE_PROPERTIES : CssFlags.UPDATE;
             notifyParentsOfInvalidatedCSS();
+        } else if (cssFlag == CssFlags.UPDATE_PROPERTIES && !updatePropertiesOnly) {
+            // parents were already notified
+            cssFlag = CssFlags.UPDATE;
         }
     }
 
@@ -8877,7 +8897,7 @@ public abstract class Node implements EventTarget, Styleable {
         if (modified && styleHelper != null) {
             final boolean isTransition = styleHelper.pseudoClassStateChanged(pseudoClass);
             if (isTransition) {
-                requestCssStateTransition();
+                requestCssStateTransition(styleHelper.isLocalTransition(this, pseudoClass));
             }
         }
    }
@@ -9054,6 +9074,7 @@ public abstract class Node implements EventTarget, Styleable {
             }
             case REAPPLY:
             case UPDATE:
+            case UPDATE_PROPERTIES:
             default:
                 impl_processCSS(null);
         }
@@ -9182,13 +9203,15 @@ public abstract class Node implements EventTarget, Styleable {
             reapplyCss();
         }
 
+        final boolean updatePropertiesOnly = cssFlag == CssFlags.UPDATE_PROPERTIES;
+
         // Clear the flag first in case the flag is set to something
         // other than clean by downstream processing.
         cssFlag = CssFlags.CLEAN;
 
         // Transition to the new state and apply styles
         if (styleHelper != null && getScene() != null) {
-            styleHelper.transitionToState(this);
+            styleHelper.transitionToState(this, updatePropertiesOnly);
         }
     }
 
@@ -48,6 +48,7 @@ import com.sun.javafx.css.Selector;
 import com.sun.javafx.css.StyleManager;
 import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.PickRay;
+import com.sun.javafx.geom.Vec3d;
 import com.sun.javafx.geom.Point2D;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.transform.BaseTransform;
@@ -82,6 +83,12 @@ public abstract class Parent extends Node {
     // package private for testing
     static final int DIRTY_CHILDREN_THRESHOLD = 10;
 
+    // package private for testing
+    static final int PICK_GRID_THRESHOLD = 128;
+
+    // package private for testing
+    static final int BOUNDS_TREE_THRESHOLD = 1024;
+
     // If set to true, generate a warning message whenever adding a node to a
     // parent if it is currently a child of another parent.
     private static final boolean warnOnAutoMove = PropertyHelper.getBooleanProperty("javafx.sg.warn");
@@ -230,6 +237,7 @@ public abstract class Parent extends Node {
         protected void onChanged(Change<Node> c) {
             // proceed with updating the scene graph
             unmodifiableManagedChildren = null;
+            pickGrid = null;
             boolean relayout = false;
             if (childSetModified) {
                 while (c.next()) {
@@ -266,7 +274,15 @@ public abstract class Parent extends Node {
                             relayout = true;
                         }
                         node.setParent(Parent.this);
-                        node.setScenes(getScene(), getSubScene(), /* reapplyCSS*/ true);
+                        if (childrenUpdateDepth > 0) {
+                            // scene assignment happens once, at commit
+                            if (childrenUpdateAdded == null) {
+                                childrenUpdateAdded = new ArrayList<Node>();
+                            }
+                            childrenUpdateAdded.add(node);
+                        } else {
+                            node.setScenes(getScene(), getSubScene(), /* reapplyCSS*/ true);
+                        }
                         // assert !node.boundsChanged;
                         if (node.isVisible()) {
                             geomChanged = true;
@@ -335,12 +351,17 @@ public abstract class Parent extends Node {
             // if one of the new children needs layout, in which case need to ensure
             // the needsLayout flag is set all the way to the root so the next layout
             // pass will reach the child.
-            if (relayout) {
-                requestLayout();
-            }
+            if (childrenUpdateDepth > 0) {
+                childrenUpdateRelayout |= relayout;
+                childrenUpdateGeomChanged |= geomChanged;
+            } else {
+                if (relayout) {
+                    requestLayout();
+                }
 
-            if (geomChanged) {
-                impl_geomChanged();
+                if (geomChanged) {
+                    impl_geomChanged();
+                }
             }
 
             // Note the starting index at which we need to update the
@@ -351,10 +372,11 @@ public abstract class Parent extends Node {
                 startIdx = c.getFrom();
             }
 
-            impl_markDirty(DirtyBits.PARENT_CHILDREN);
-            // Force synchronization to include the handling of invisible node
-            // so that removed list will get cleanup to prevent memory leak.
-            impl_markDirty(DirtyBits.NODE_FORCE_SYNC);
+            if (childrenUpdateDepth > 0) {
+                childrenUpdateModified = true;
+            } else {
+                markChildrenDirty();
+            }
         }
 
     }) {
@@ -486,7 +508,7 @@ public abstract class Parent extends Node {
                     if (oldScene != null) {
                         oldScene.generateMouseExited(old);
                     }
-                    if (dirtyChildren != null) {
+                    if (dirtyChildren != null && old.boundsChanged) {
                         dirtyChildren.remove(old);
                     }
                     if (old.isVisible()) {
@@ -529,6 +551,94 @@ public abstract class Parent extends Node {
     private final ObservableList<Node> unmodifiableChildren =
             FXCollections.unmodifiableObservableList(children);
 
+    private void markChildrenDirty() {
+        impl_markDirty(DirtyBits.PARENT_CHILDREN);
+        // Force synchronization to include the handling of invisible node
+        // so that removed list will get cleanup to prevent memory leak.
+        impl_markDirty(DirtyBits.NODE_FORCE_SYNC);
+    }
+
+    /**
+     * Nesting depth of impl_beginChildrenUpdate calls. While it is positive,
+     * the side effects of changes to the children list that only need to
+     * happen once are collected in the fields below and applied at commit.
+     */
+    private int childrenUpdateDepth;
+    private List<Node> childrenUpdateAdded;
+    private boolean childrenUpdateRelayout;
+    private boolean childrenUpdateGeomChanged;
+    private boolean childrenUpdateModified;
+
+    /**
+     * Starts a batch of changes to the children of this parent, to be ended
+     * by a matching call to {@link #impl_commitChildrenUpdate()}, preferably
+     * in a finally block. Calls may be nested; the batch ends with the
+     * outermost commit.
+     * <p>
+     * Within a batch, changes to the children list are still validated and
+     * applied immediately, and removed children leave the scene immediately.
+     * Added children get their parent right away, but are only assigned to
+     * the scene of this parent (and so only styled and synchronized) at
+     * commit. Layout, bounds and peer invalidation of this parent are done
+     * once at commit rather than once per change. This makes building a
+     * large scene graph with many individual add and remove calls as cheap
+     * as a single {@code addAll}.
+     *
+     * @treatAsPrivate implementation detail
+     * @deprecated This is an internal API that is not intended for use and will be removed in the next version
+     */
+    @Deprecated
+    public final void impl_beginChildrenUpdate() {
+        childrenUpdateDepth++;
+    }
+
+    /**
+     * Ends a batch of changes started by {@link #impl_beginChildrenUpdate()}.
+     * When the outermost batch ends, the children added in it are assigned to
+     * the scene of this parent, and layout, bounds and the peer of this parent
+     * are invalidated if the children changed.
+     *
+     * @throws IllegalStateException if no batch was started
+     * @treatAsPrivate implementation detail
+     * @deprecated This is an internal API that is not intended for use and will be removed in the next version
+     */
+    @Deprecated
+    public final void impl_commitChildrenUpdate() {
+        if (childrenUpdateDepth == 0) {
+            throw new IllegalStateException("No children update in progress");
+        }
+        if (--childrenUpdateDepth > 0) {
+            return;
+        }
+
+        final List<Node> added = childrenUpdateAdded;
+        childrenUpdateAdded = null;
+        if (added != null) {
+            final Scene scene = getScene();
+            final SubScene subScene = getSubScene();
+            for (int i = 0, max = added.size(); i < max; i++) {
+                final Node node = added.get(i);
+                // skip children removed or moved elsewhere within the batch
+                if (node.getParent() == this) {
+                    node.setScenes(scene, subScene, /* reapplyCSS*/ true);
+                }
+            }
+        }
+
+        if (childrenUpdateRelayout) {
+            childrenUpdateRelayout = false;
+            requestLayout();
+        }
+        if (childrenUpdateGeomChanged) {
+            childrenUpdateGeomChanged = false;
+            impl_geomChanged();
+        }
+        if (childrenUpdateModified) {
+            childrenUpdateModified = false;
+            markChildrenDirty();
+        }
+    }
+
     /**
      * A cached reference to the unmodifiable managed children of this Parent. This is
      * created whenever first asked for, and thrown away whenever children are added
@@ -705,11 +815,8 @@ public abstract class Parent extends Node {
         double boundsDistance = impl_intersectsBounds(pickRay);
 
         if (!Double.isNaN(boundsDistance)) {
-            for (int i = children.size()-1; i >= 0; i--) {
-                children.get(i).impl_pickNode(pickRay, result);
-                if (result.isClosed()) {
-                    return;
-                }
+            if (impl_pickChildren(pickRay, result)) {
+                return;
             }
 
             if (isPickOnBounds()) {
@@ -718,6 +825,45 @@ public abstract class Parent extends Node {
         }
     }
 
+    /**
+     * Uniform grid of the children bounds, used to pick large parents
+     * without testing every child. Created on the first such pick and
+     * discarded whenever the children list changes.
+     */
+    private ChildrenPickGrid pickGrid;
+
+    /**
+     * Picks the children of this parent from the last to the first, stopping
+     * as soon as the result is closed. When the parent has many children and
+     * the ray is parallel to the z axis, only the children whose bounds may
+     * contain the ray are tested.
+     *
+     * @return true if the pick result was closed by one of the children
+     * @treatAsPrivate implementation detail
+     * @deprecated This is an internal API that is not intended for use and will be removed in the next version
+     */
+    @Deprecated
+    protected final boolean impl_pickChildren(PickRay pickRay, PickResultChooser result) {
+        final Vec3d dir = pickRay.getDirectionNoClone();
+        if (dir.x == 0.0 && dir.y == 0.0 && children.size() >= PICK_GRID_THRESHOLD) {
+            if (pickGrid == null || !pickGrid.update()) {
+                pickGrid = new ChildrenPickGrid(this, children);
+            }
+            final Vec3d origin = pickRay.getOriginNoClone();
+            if (pickGrid.contains(origin.x, origin.y)) {
+                return pickGrid.pick(origin.x, origin.y, pickRay, result);
+            }
+        }
+
+        for (int i = children.size()-1; i >= 0; i--) {
+            children.get(i).impl_pickNode(pickRay, result);
+            if (result.isClosed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override boolean isConnected() {
         return super.isConnected() || sceneRoot;
     }
@@ -850,7 +996,7 @@ public abstract class Parent extends Node {
 
     private void markDirtyLayout(boolean local) {
         setLayoutFlag(LayoutFlags.NEEDS_LAYOUT);
-        if (local || layoutRoot) {
+        if (local || layoutRoot || impl_isLayoutBoundary()) {
             if (sceneRoot) {
                 Toolkit.getToolkit().requestNextPulse();
                 if (getSubScene() != null) {
@@ -1138,6 +1284,21 @@ public abstract class Parent extends Node {
         return sceneRoot;
     }
 
+    /**
+     * Returns true if the size hints of this Parent do not depend on its
+     * children. A layout request from within such a Parent only needs this
+     * Parent to be laid out again, so the request does not go on to the
+     * parent. Changes to the size hints themselves still call
+     * {@link #requestParentLayout()}.
+     *
+     * @treatAsPrivate implementation detail
+     * @deprecated This is an internal API that is not intended for use and will be removed in the next version
+     */
+    @Deprecated
+    protected boolean impl_isLayoutBoundary() {
+        return false;
+    }
+
     /***********************************************************************
      *                                                                     *
      *                         Stylesheet Handling                         *
@@ -1245,6 +1406,10 @@ public abstract class Parent extends Node {
             return;
         }
 
+        // If only some of this node's own properties need to be updated, then
+        // the children are processed as for DIRTY_BRANCH.
+        final boolean updateChildren = cssFlag != CssFlags.UPDATE_PROPERTIES;
+
         // Let the super implementation handle CSS for this node
         super.impl_processCSS(unused);
 
@@ -1271,6 +1436,11 @@ public abstract class Parent extends Node {
             final Parent childParent = child.getParent();
             if (childParent == null || childParent != this) continue;
 
+            if (updateChildren == false) {
+                child.processCSS();
+                continue;
+            }
+
             // If the parent styles are being updated, recalculated or
             // reapplied, then make sure the children get the same treatment.
             // Unless the child is already more dirty than this parent (RT-29074).
@@ -1362,6 +1532,14 @@ public abstract class Parent extends Node {
      */
     private ArrayList<Node> dirtyChildren;
 
+    /**
+     * Segment tree of the children bounds, used instead of the edge nodes
+     * below once the number of children reaches BOUNDS_TREE_THRESHOLD, so
+     * that removing or moving a child on the edge does not require a scan of
+     * all of the children.
+     */
+    private ChildrenBoundsTree boundsTree;
+
     private Node top;
     private Node left;
     private Node bottom;
@@ -1503,6 +1681,11 @@ public abstract class Parent extends Node {
             cachedBoundsInvalid = true;
         }
 
+        if (boundsTree != null && node.boundsTreeSlot >= 0) {
+            boundsTree.remove(node);
+            cachedBoundsInvalid = true;
+        }
+
         setChildDirty(node, false);
     }
 
@@ -1510,6 +1693,16 @@ public abstract class Parent extends Node {
      * Recomputes the bounds from scratch and saves the cached bounds.
      */
     private void recomputeBounds() {
+        if (boundsTree != null && children.size() < BOUNDS_TREE_THRESHOLD) {
+            // the edge nodes are out of date while the tree is in use
+            boundsTree.dispose();
+            boundsTree = null;
+            if (children.size() > 1) {
+                createCachedBounds(children);
+                return;
+            }
+        }
+
         // fast path for case of no children
         if (children.isEmpty()) {
             cachedBounds.makeEmpty();
@@ -1531,6 +1724,11 @@ public abstract class Parent extends Node {
             return;
         }
 
+        if (children.size() >= BOUNDS_TREE_THRESHOLD) {
+            updateBoundsTree();
+            return;
+        }
+
         if ((dirtyChildrenCount == 0) ||
                 !updateCachedBounds(dirtyChildren != null
                                         ? dirtyChildren : children,
@@ -1540,6 +1738,34 @@ public abstract class Parent extends Node {
         }
     }
 
+    private void updateBoundsTree() {
+        if (boundsTree == null) {
+            boundsTree = new ChildrenBoundsTree(children.size());
+            for (int i = 0, max = children.size(); i < max; i++) {
+                final Node node = children.get(i);
+                node.boundsChanged = false;
+                if (node.isVisible()) {
+                    tmp = getChildTransformedBounds(node, BaseTransform.IDENTITY_TRANSFORM, tmp);
+                    boundsTree.update(node, tmp);
+                }
+            }
+        } else {
+            final List<Node> dirtyNodes = dirtyChildren != null ? dirtyChildren : children;
+            int remainingDirtyNodes = dirtyChildrenCount;
+            for (int i = dirtyNodes.size() - 1; remainingDirtyNodes > 0; --i) {
+                final Node node = dirtyNodes.get(i);
+                if (node.boundsChanged) {
+                    // assert node.isVisible();
+                    node.boundsChanged = false;
+                    --remainingDirtyNodes;
+                    tmp = getChildTransformedBounds(node, BaseTransform.IDENTITY_TRANSFORM, tmp);
+                    boundsTree.update(node, tmp);
+                }
+            }
+        }
+        cachedBounds = boundsTree.getBounds(cachedBounds);
+    }
+
     private final int LEFT_INVALID = 1;
     private final int TOP_INVALID = 1 << 1;
     private final int NEAR_INVALID = 1 << 2;
@@ -1727,7 +1953,7 @@ public abstract class Parent extends Node {
     // was invalidated during the computation. We can safely ignore such invalidations from that Node in this case
     private Node currentlyProcessedChild;
 
-    private BaseBounds getChildTransformedBounds(Node node, BaseTransform tx, BaseBounds bounds) {
+    BaseBounds getChildTransformedBounds(Node node, BaseTransform tx, BaseBounds bounds) {
         currentlyProcessedChild = node;
         bounds = node.getTransformedBounds(bounds, tx);
         currentlyProcessedChild = null;
@@ -1745,6 +1971,10 @@ public abstract class Parent extends Node {
 
         cachedBoundsInvalid = true;
 
+        if (pickGrid != null) {
+            pickGrid.childChanged(node);
+        }
+
         // mark the node such that the parent knows that the child's bounds
         // are not in sync with this parent. In this way, when the bounds
         // need to be computed, we'll come back and figure out the new bounds
@@ -1767,6 +1997,10 @@ public abstract class Parent extends Node {
             childExcluded(node);
         }
 
+        if (pickGrid != null) {
+            pickGrid.childChanged(node);
+        }
+
         impl_geomChanged();
     }
 
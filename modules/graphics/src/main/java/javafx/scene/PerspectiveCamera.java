@@ -30,6 +30,7 @@ import com.sun.javafx.geom.Vec3d;
 import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.GeneralTransform3D;
 import com.sun.javafx.scene.DirtyBits;
+import com.sun.javafx.sg.prism.NGCamera;
 import com.sun.javafx.sg.prism.NGNode;
 import com.sun.javafx.sg.prism.NGPerspectiveCamera;
 import javafx.application.ConditionalFeature;
@@ -253,6 +254,13 @@ public class PerspectiveCamera extends Camera {
         }
     }
 
+    @Override
+    void updateSnapshotPeer(NGCamera peer) {
+        NGPerspectiveCamera perspectivePeer = (NGPerspectiveCamera) peer;
+        perspectivePeer.setFieldOfView((float) getFieldOfView());
+        perspectivePeer.setVerticalFieldOfView(isVerticalFieldOfView());
+    }
+
     @Override
     void computeProjectionTransform(GeneralTransform3D proj) {
         proj.perspective(isVerticalFieldOfView(), Math.toRadians(getFieldOfView()),
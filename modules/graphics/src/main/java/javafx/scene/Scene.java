@@ -89,6 +89,8 @@ import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.sun.javafx.logging.PulseLogger;
 
@@ -1168,7 +1170,9 @@ public class Scene implements EventTarget {
                     impl_peer.releaseSynchronization(false);
                 }
             } else {
-                scenePulseListener.synchronizeSceneNodes();
+                // a deferred snapshot of this scene may still be rendering
+                Toolkit.getToolkit().synchronizeForSnapshot(
+                        scenePulseListener::synchronizeSceneNodes);
             }
         }
 
@@ -1180,6 +1184,19 @@ public class Scene implements EventTarget {
             double x, double y, double w, double h,
             Node root, BaseTransform transform, boolean depthBuffer,
             Paint fill, Camera camera, WritableImage wimg) {
+        return doSnapshot(scene, x, y, w, h, root, transform, depthBuffer,
+                fill, camera, wimg, null);
+    }
+
+    // If callback is non-null the snapshot is rendered asynchronously: the
+    // image is passed to the callback once it is ready, and null is returned.
+    // This lets the FX thread process CSS and layout for the next deferred
+    // snapshot while the render thread renders this one.
+    static WritableImage doSnapshot(Scene scene,
+            double x, double y, double w, double h,
+            Node root, BaseTransform transform, boolean depthBuffer,
+            Paint fill, Camera camera, WritableImage wimg,
+            Consumer<WritableImage> callback) {
 
         Toolkit tk = Toolkit.getToolkit();
         Toolkit.ImageRenderingContext context = new Toolkit.ImageRenderingContext();
@@ -1208,7 +1225,11 @@ public class Scene implements EventTarget {
         context.platformPaint = fill == null ? null : tk.getPaint(fill);
         double cameraViewWidth = 1.0;
         double cameraViewHeight = 1.0;
-        if (camera != null) {
+        if (camera != null && callback != null) {
+            // the shared camera peer may change before this snapshot is
+            // rendered, so render it with a camera peer of its own
+            context.camera = camera.createSnapshotPeer(width, height);
+        } else if (camera != null) {
             // temporarily adjust camera viewport to the snapshot size
             cameraViewWidth = camera.getViewWidth();
             cameraViewHeight = camera.getViewHeight();
@@ -1232,6 +1253,19 @@ public class Scene implements EventTarget {
         Toolkit.WritableImageAccessor accessor = Toolkit.getWritableImageAccessor();
         context.platformImage = accessor.getTkImageLoader(wimg);
         impl_setAllowPGAccess(false);
+
+        if (callback != null) {
+            final WritableImage theImage = wimg;
+            tk.renderToImage(context, tkImage -> {
+                accessor.loadTkImage(theImage, tkImage);
+                if (scene != null && scene.impl_peer != null) {
+                    scene.setNeedsRepaint();
+                }
+                callback.accept(theImage);
+            });
+            return null;
+        }
+
         Object tkImage = tk.renderToImage(context);
         accessor.loadTkImage(wimg, tkImage);
 
@@ -1257,6 +1291,10 @@ public class Scene implements EventTarget {
      * Implementation method for snapshot
      */
     private WritableImage doSnapshot(WritableImage img) {
+        return doSnapshot(img, null);
+    }
+
+    private WritableImage doSnapshot(WritableImage img, Consumer<WritableImage> callback) {
         // TODO: no need to do CSS, layout or sync in the deferred case,
         // if this scene is attached to a visible stage
         doCSSLayoutSyncForSnapshot(getRoot());
@@ -1267,7 +1305,7 @@ public class Scene implements EventTarget {
 
         return doSnapshot(this, 0, 0, w, h,
                 getRoot(), transform, isDepthBufferInternal(),
-                getFill(), getEffectiveCamera(), img);
+                getFill(), getEffectiveCamera(), img, callback);
     }
 
     // Pulse listener used to run all deferred (async) snapshot requests
@@ -1320,6 +1358,21 @@ public class Scene implements EventTarget {
         Toolkit.getToolkit().requestNextPulse();
     }
 
+    // Calls the callback of a deferred snapshot, which may be called from a
+    // later runnable than the one that took the snapshot
+    static void callSnapshotCallback(Callback<SnapshotResult, Void> callback,
+            SnapshotResult result, AccessControlContext acc) {
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            try {
+                callback.call(result);
+            } catch (Throwable th) {
+                System.err.println("Exception in snapshot callback");
+                th.printStackTrace(System.err);
+            }
+            return null;
+        }, acc);
+    }
+
     /**
      * Takes a snapshot of this scene and returns the rendered image when
      * it is ready.
@@ -1418,15 +1471,12 @@ public class Scene implements EventTarget {
         // that is called after all of the scenes have been synced but before
         // any of them have been rendered.
         final Runnable snapshotRunnable = () -> {
-            WritableImage img = doSnapshot(theImage);
+            final AccessControlContext acc = AccessController.getContext();
+            doSnapshot(theImage, img -> {
 //                System.err.println("Calling snapshot callback");
-            SnapshotResult result = new SnapshotResult(img, Scene.this, null);
-            try {
-                Void v = theCallback.call(result);
-            } catch (Throwable th) {
-                System.err.println("Exception in snapshot callback");
-                th.printStackTrace(System.err);
-            }
+                SnapshotResult result = new SnapshotResult(img, Scene.this, null);
+                callSnapshotCallback(theCallback, result, acc);
+            });
         };
 //        System.err.println("Schedule a snapshot in the future");
         addSnapshotRunnable(snapshotRunnable);
@@ -2262,6 +2312,13 @@ public class Scene implements EventTarget {
 
         private boolean firstPulse = true;
 
+        // Time spent in the layout pass, summed over all scenes, and the time
+        // of the most recent one. Divide the total by the number of passes for
+        // the average.
+        private final AtomicLong layoutPasses = PerformanceTracker.getCounter("Scene.layoutPasses");
+        private final AtomicLong layoutPassNanos = PerformanceTracker.getCounter("Scene.layoutPassNanos");
+        private final AtomicLong lastLayoutPassNanos = PerformanceTracker.getCounter("Scene.lastLayoutPassNanos");
+
         /**
          * PG synchronizer. Called once per frame from the pulse listener.
          * This function calls the synchronizePGNode method on each node in
@@ -2394,7 +2451,12 @@ public class Scene implements EventTarget {
             if (PULSE_LOGGING_ENABLED) {
                 PulseLogger.newPhase("Layout Pass");
             }
+            final long layoutStart = System.nanoTime();
             Scene.this.doLayoutPass();
+            final long layoutTime = System.nanoTime() - layoutStart;
+            layoutPasses.incrementAndGet();
+            layoutPassNanos.addAndGet(layoutTime);
+            lastLayoutPassNanos.set(layoutTime);
 
             boolean dirty = dirtyNodes == null || dirtyNodesSize != 0 || !isDirtyEmpty();
             if (dirty) {
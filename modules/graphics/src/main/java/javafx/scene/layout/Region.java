@@ -56,6 +56,8 @@ import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeLineJoin;
 import javafx.scene.shape.StrokeType;
 import javafx.util.Callback;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Arrays;
@@ -171,6 +173,19 @@ public class
 
     static Vec2d TEMP_VEC2D = new Vec2d();
 
+    /**
+     * If true, a Region whose min, pref and max sizes are all set to
+     * a value (rather than USE_COMPUTED_SIZE) is a layout boundary: since its
+     * size hints do not depend on its content, a change to its content only
+     * requires the Region itself to be laid out again. This is opt-in
+     * (-Djavafx.layout.fixedSizeBoundaries=true) since a parent that aligns
+     * children on their baseline is not laid out again when the baseline of
+     * such a Region changes.
+     */
+    // package for testing
+    static boolean fixedSizeLayoutBoundaries = AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+            Boolean.getBoolean("javafx.layout.fixedSizeBoundaries"));
+
     /***************************************************************************
      *                                                                         *
      * Static convenience methods for layout                                   *
@@ -1473,6 +1488,24 @@ public class
         return Double.isNaN(override) || override < 0 ? 0 : override;
     }
 
+    /**
+     * @treatAsPrivate implementation detail
+     * @deprecated This is an internal API that is not intended for use and will be removed in the next version
+     */
+    @Deprecated
+    @Override protected boolean impl_isLayoutBoundary() {
+        return fixedSizeLayoutBoundaries
+                && isFixedSize(getMinWidth(), getPrefWidth(), getMaxWidth())
+                && isFixedSize(getMinHeight(), getPrefHeight(), getMaxHeight());
+    }
+
+    private static boolean isFixedSize(double min, double pref, double max) {
+        // min and max may refer to pref, but pref has to be a size
+        return pref >= 0
+                && min != USE_COMPUTED_SIZE
+                && max != USE_COMPUTED_SIZE;
+    }
+
     /**
      * Computes the minimum width of this region.
      * Returns the sum of the left and right insets by default.
@@ -2931,12 +2964,8 @@ public class
         double boundsDistance = impl_intersectsBounds(pickRay);
 
         if (!Double.isNaN(boundsDistance)) {
-            ObservableList<Node> children = getChildren();
-            for (int i = children.size()-1; i >= 0; i--) {
-                children.get(i).impl_pickNode(pickRay, result);
-                if (result.isClosed()) {
-                    return;
-                }
+            if (impl_pickChildren(pickRay, result)) {
+                return;
             }
 
             impl_intersects(pickRay, result);
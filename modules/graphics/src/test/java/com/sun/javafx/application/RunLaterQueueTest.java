@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RunLaterQueueTest {
+
+    private final List<Runnable> deferred = new ArrayList<Runnable>();
+    private final List<Integer> ran = new ArrayList<Integer>();
+
+    private RunLaterQueue createQueue(int batchSize, int capacity) {
+        return new RunLaterQueue(batchSize, capacity,
+                r -> {
+                    synchronized (deferred) {
+                        deferred.add(r);
+                    }
+                },
+                () -> false);
+    }
+
+    private boolean runNextDeferred() {
+        final Runnable r;
+        synchronized (deferred) {
+            if (deferred.isEmpty()) {
+                return false;
+            }
+            r = deferred.remove(0);
+        }
+        r.run();
+        return true;
+    }
+
+    private void runAllDeferred() {
+        while (runNextDeferred()) { }
+    }
+
+    private Runnable record(final int i) {
+        return () -> ran.add(i);
+    }
+
+    @Test
+    public void burstOfRunnablesSharesOneWakeup() {
+        final RunLaterQueue queue = createQueue(1024, 0);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(record(i));
+        }
+        assertEquals(1, deferred.size());
+        assertEquals(100, queue.getDepth());
+
+        runAllDeferred();
+        assertEquals(100, ran.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) ran.get(i));
+        }
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void drainIsBoundedByBatchSize() {
+        final RunLaterQueue queue = createQueue(10, 0);
+        for (int i = 0; i < 25; i++) {
+            queue.offer(record(i));
+        }
+
+        assertTrue(runNextDeferred());
+        assertEquals(10, ran.size());
+        assertEquals(15, queue.getDepth());
+        assertEquals(1, deferred.size());
+
+        assertTrue(runNextDeferred());
+        assertEquals(20, ran.size());
+
+        runAllDeferred();
+        assertEquals(25, ran.size());
+    }
+
+    @Test
+    public void runnableOfferedAfterDrainSchedulesNewWakeup() {
+        final RunLaterQueue queue = createQueue(1024, 0);
+        queue.offer(record(0));
+        runAllDeferred();
+
+        queue.offer(record(1));
+        assertEquals(1, deferred.size());
+        runAllDeferred();
+        assertEquals(2, ran.size());
+    }
+
+    @Test
+    public void runnablesQueuedBehindNestedEventLoopStillRun() {
+        final RunLaterQueue queue = createQueue(1024, 0);
+        final AtomicBoolean secondRanInNestedLoop = new AtomicBoolean();
+        queue.offer(() -> {
+            // a nested event loop keeps dispatching deferred runnables
+            runAllDeferred();
+            secondRanInNestedLoop.set(ran.contains(1));
+        });
+        queue.offer(record(1));
+
+        runAllDeferred();
+        assertTrue(secondRanInNestedLoop.get());
+        assertEquals(1, ran.size());
+    }
+
+    @Test
+    public void runnablesAfterFailingOneStillRun() {
+        final RunLaterQueue queue = createQueue(1024, 0);
+        queue.offer(() -> {
+            throw new IllegalStateException();
+        });
+        queue.offer(record(1));
+
+        try {
+            runNextDeferred();
+            fail("Expected the exception to reach the event loop");
+        } catch (IllegalStateException expected) {
+        }
+        runAllDeferred();
+        assertEquals(1, ran.size());
+    }
+
+    @Test
+    public void unboundedQueueNeverWaits() throws InterruptedException {
+        final RunLaterQueue queue = createQueue(1024, 0);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(record(i));
+        }
+        assertTrue(queue.offer(record(100), 0, TimeUnit.MILLISECONDS));
+        assertEquals(101, queue.getDepth());
+    }
+
+    @Test
+    public void boundedQueueMakesProducersWait() throws Exception {
+        final RunLaterQueue queue = createQueue(1024, 2);
+        assertTrue(queue.offer(record(0), 0, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer(record(1), 0, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer(record(-1), 10, TimeUnit.MILLISECONDS));
+        assertEquals(2, queue.getDepth());
+
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final AtomicBoolean admitted = new AtomicBoolean();
+        final Thread producer = new Thread(() -> {
+            try {
+                waiting.countDown();
+                admitted.set(queue.offer(record(2), 10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        waiting.await();
+        while (producer.isAlive()) {
+            runAllDeferred();
+            producer.join(10);
+        }
+        runAllDeferred();
+
+        assertTrue(admitted.get());
+        assertEquals(Arrays.asList(0, 1, 2), ran);
+    }
+
+    @Test
+    public void admittedProducersNeverExceedCapacity() throws Exception {
+        final RunLaterQueue queue = createQueue(1024, 1);
+        final int producers = 8;
+        final CountDownLatch done = new CountDownLatch(producers);
+        final AtomicBoolean overfull = new AtomicBoolean();
+        final AtomicInteger admitted = new AtomicInteger();
+        for (int i = 0; i < producers; i++) {
+            new Thread(() -> {
+                try {
+                    if (queue.offer(() -> { }, 10, TimeUnit.SECONDS)) {
+                        admitted.incrementAndGet();
+                    }
+                    if (queue.getDepth() > 1) {
+                        overfull.set(true);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        while (!done.await(10, TimeUnit.MILLISECONDS)) {
+            runAllDeferred();
+        }
+        runAllDeferred();
+
+        assertFalse(overfull.get());
+        assertEquals(producers, admitted.get());
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void consumerThreadNeverWaits() throws InterruptedException {
+        final RunLaterQueue queue = new RunLaterQueue(1024, 1, r -> { }, () -> true);
+        queue.offer(record(0));
+        assertTrue(queue.offer(record(1), 0, TimeUnit.MILLISECONDS));
+        assertEquals(2, queue.getDepth());
+    }
+}
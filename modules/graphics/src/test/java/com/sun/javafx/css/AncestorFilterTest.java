@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import javafx.scene.Group;
+import javafx.scene.shape.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AncestorFilterTest {
+
+    private Group root;
+    private Group parent;
+    private Rectangle node;
+    private AncestorFilter filter;
+
+    @Before
+    public void setup() {
+        root = new Group();
+        root.getStyleClass().addAll("root", "theme");
+        parent = new Group();
+        parent.setId("parent");
+        parent.getStyleClass().add("table-row-cell");
+        node = new Rectangle();
+        node.getStyleClass().add("cell");
+        parent.getChildren().add(node);
+        root.getChildren().add(parent);
+        filter = new AncestorFilter();
+        filter.reset(node);
+    }
+
+    private boolean mightApply(String selector) {
+        final CompoundSelector compound = (CompoundSelector) Selector.createSelector(selector);
+        return filter.mightContainAll(compound.getAncestorHashes());
+    }
+
+    @Test
+    public void testMatchingSelectorsPassFilter() {
+        String[] selectors = {
+            ".root .cell",
+            ".theme > Group > .cell",
+            "#parent .cell",
+            "Group.table-row-cell .cell",
+            "* .cell",
+        };
+        for (String selector : selectors) {
+            assertTrue(selector, mightApply(selector));
+            assertTrue(selector, Selector.createSelector(selector).applies(node));
+        }
+    }
+
+    @Test
+    public void testSelectorsWithMissingAncestorAreRejected() {
+        String[] selectors = {
+            ".tree-cell .cell",
+            "#other .cell",
+            "Region .cell",
+            ".root.missing .cell",
+        };
+        for (String selector : selectors) {
+            assertFalse(selector, mightApply(selector));
+            assertFalse(selector, Selector.createSelector(selector).applies(node));
+        }
+    }
+
+    @Test
+    public void testNodeItselfIsNotAnAncestor() {
+        assertFalse(mightApply(".cell .cell"));
+    }
+
+    @Test
+    public void testIdAndStyleClassWithSameNameAreDistinct() {
+        assertFalse(mightApply("#theme .cell"));
+        assertFalse(mightApply(".parent .cell"));
+    }
+
+    @Test
+    public void testResetClearsPreviousAncestors() {
+        filter.reset(root);
+        assertFalse(mightApply(".root .cell"));
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BinaryStylesheetCacheTest {
+
+    private File cacheDir;
+    private File source;
+
+    @Before
+    public void setup() throws IOException {
+        cacheDir = File.createTempFile("css_cache_", "");
+        cacheDir.delete();
+        cacheDir.mkdirs();
+        BinaryStylesheetCache.setCacheDir(cacheDir);
+        source = createStylesheet(".a { -fx-fill: red; } .b .c { -fx-stroke: blue; }");
+    }
+
+    @After
+    public void cleanup() {
+        BinaryStylesheetCache.setCacheDir(null);
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        cacheDir.delete();
+        source.delete();
+    }
+
+    private static File createStylesheet(String text) throws IOException {
+        File file = File.createTempFile("css_cache_", ".css");
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(text);
+        }
+        return file;
+    }
+
+    @Test
+    public void testParseWritesCacheFile() throws IOException {
+        URL url = source.toURI().toURL();
+        File cacheFile = BinaryStylesheetCache.getCacheFile(url);
+        assertFalse(cacheFile.exists());
+
+        Stylesheet stylesheet = BinaryStylesheetCache.parse(url);
+        assertEquals(2, stylesheet.getRules().size());
+        assertTrue(cacheFile.exists());
+    }
+
+    @Test
+    public void testCachedStylesheetEqualsParsedStylesheet() throws IOException {
+        URL url = source.toURI().toURL();
+        Stylesheet parsed = BinaryStylesheetCache.parse(url);
+        Stylesheet cached = BinaryStylesheetCache.parse(url);
+
+        assertEquals(url.toExternalForm(), cached.getUrl());
+        assertEquals(parsed.getRules().size(), cached.getRules().size());
+        for (int n = 0; n < parsed.getRules().size(); n++) {
+            Rule parsedRule = parsed.getRules().get(n);
+            Rule cachedRule = cached.getRules().get(n);
+            assertEquals(parsedRule.getSelectors(), cachedRule.getSelectors());
+            assertEquals(parsedRule.getDeclarations(), cachedRule.getDeclarations());
+        }
+    }
+
+    @Test
+    public void testCacheFileIsReadInsteadOfParsing() throws IOException {
+        URL url = source.toURI().toURL();
+        File cacheFile = BinaryStylesheetCache.getCacheFile(url);
+
+        // put the binary form of another stylesheet in the cache file
+        File other = createStylesheet(".other { -fx-fill: green; }");
+        try {
+            Stylesheet otherStylesheet = new com.sun.javafx.css.parser.CSSParser().parse(other.toURI().toURL());
+            try (FileOutputStream out = new FileOutputStream(cacheFile)) {
+                otherStylesheet.writeBinary(out);
+            }
+        } finally {
+            other.delete();
+        }
+
+        Stylesheet stylesheet = BinaryStylesheetCache.parse(url);
+        assertEquals(1, stylesheet.getRules().size());
+        assertEquals(Arrays.asList("other"),
+                ((SimpleSelector) stylesheet.getRules().get(0).getSelectors().get(0)).getStyleClasses());
+        assertEquals(url.toExternalForm(), stylesheet.getUrl());
+    }
+
+    @Test
+    public void testChangedStylesheetIsParsedAgain() throws IOException {
+        URL url = source.toURI().toURL();
+        BinaryStylesheetCache.parse(url);
+
+        try (FileWriter writer = new FileWriter(source)) {
+            writer.write(".d { -fx-fill: red; }");
+        }
+        Stylesheet stylesheet = BinaryStylesheetCache.parse(url);
+        assertEquals(1, stylesheet.getRules().size());
+        assertEquals(2, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testSameContentAtAnotherUrlIsCachedSeparately() throws IOException {
+        File copy = createStylesheet(".a { -fx-fill: red; } .b .c { -fx-stroke: blue; }");
+        try {
+            URL url = source.toURI().toURL();
+            URL copyUrl = copy.toURI().toURL();
+            assertFalse(BinaryStylesheetCache.getCacheFile(url).equals(BinaryStylesheetCache.getCacheFile(copyUrl)));
+
+            BinaryStylesheetCache.parse(url);
+            Stylesheet stylesheet = BinaryStylesheetCache.parse(copyUrl);
+            assertEquals(copyUrl.toExternalForm(), stylesheet.getUrl());
+            assertEquals(2, cacheDir.listFiles().length);
+        } finally {
+            copy.delete();
+        }
+    }
+
+    @Test
+    public void testDamagedCacheFileIsReplaced() throws IOException {
+        URL url = source.toURI().toURL();
+        File cacheFile = BinaryStylesheetCache.getCacheFile(url);
+        try (FileWriter writer = new FileWriter(cacheFile)) {
+            writer.write("not a binary stylesheet");
+        }
+
+        Stylesheet stylesheet = BinaryStylesheetCache.parse(url);
+        assertEquals(2, stylesheet.getRules().size());
+        assertEquals(2, BinaryStylesheetCache.parse(url).getRules().size());
+    }
+
+    @Test
+    public void testStylesheetWithImportIsNotCached() throws IOException {
+        File importing = createStylesheet(
+                "@import \"" + source.toURI().toURL().toExternalForm() + "\";\n.e { -fx-fill: red; }");
+        try {
+            URL url = importing.toURI().toURL();
+            Stylesheet stylesheet = BinaryStylesheetCache.parse(url);
+            assertEquals(3, stylesheet.getRules().size());
+            assertFalse(BinaryStylesheetCache.getCacheFile(url).exists());
+        } finally {
+            importing.delete();
+        }
+    }
+
+    @Test
+    public void testStylesheetWithErrorsIsNotCached() throws IOException {
+        File bad = createStylesheet(".a { -fx-fill: red; } .b { -fx-fill red; }");
+        try {
+            URL url = bad.toURI().toURL();
+            assertNotNull(BinaryStylesheetCache.parse(url));
+            assertFalse(BinaryStylesheetCache.getCacheFile(url).exists());
+        } finally {
+            bad.delete();
+        }
+    }
+
+    @Test
+    public void testCachedStylesheetsAreReadInParallel() throws Exception {
+        final int nThreads = 8;
+        final URL[] urls = new URL[nThreads];
+        final File[] files = new File[nThreads];
+        final Stylesheet[] parsed = new Stylesheet[nThreads];
+        try {
+            for (int n = 0; n < nThreads; n++) {
+                files[n] = createStylesheet(".s" + n + " { -fx-fill: #" + (100000 + n) + "; "
+                        + "-fx-alignment: center-left; -fx-cursor: hand; -fx-padding: " + n + "px; "
+                        + "-fx-font: bold 12px \"Amble\"; -fx-effect: dropshadow(gaussian, red, 3, 0, 0, 0); "
+                        + "-fx-background-repeat: no-repeat; -fx-shape: \"M0 0 L1 1\"; }");
+                urls[n] = files[n].toURI().toURL();
+                // write the binary form
+                parsed[n] = BinaryStylesheetCache.parse(urls[n]);
+                assertTrue(BinaryStylesheetCache.getCacheFile(urls[n]).exists());
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+            try {
+                for (int round = 0; round < 20; round++) {
+                    final CountDownLatch start = new CountDownLatch(1);
+                    final List<Future<Stylesheet>> results = new ArrayList<>();
+                    for (int n = 0; n < nThreads; n++) {
+                        final URL url = urls[n];
+                        results.add(executor.submit(() -> {
+                            start.await();
+                            return BinaryStylesheetCache.parse(url);
+                        }));
+                    }
+                    start.countDown();
+                    for (int n = 0; n < nThreads; n++) {
+                        Stylesheet stylesheet = results.get(n).get(10, TimeUnit.SECONDS);
+                        assertEquals(urls[n].toExternalForm(), stylesheet.getUrl());
+                        assertEquals(1, stylesheet.getRules().size());
+                        assertEquals(parsed[n].getRules().get(0).getDeclarations(),
+                                stylesheet.getRules().get(0).getDeclarations());
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            for (File file : files) {
+                if (file != null) file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testNoCacheDir() throws IOException {
+        BinaryStylesheetCache.setCacheDir(null);
+        URL url = source.toURI().toURL();
+        assertEquals(2, BinaryStylesheetCache.parse(url).getRules().size());
+        assertEquals(0, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testPreloadedStylesheetIsLoaded() throws IOException {
+        BinaryStylesheetCache.setCacheDir(null);
+        File other = createStylesheet(".other { -fx-fill: green; }");
+        try {
+            String fname = source.toURI().toURL().toExternalForm();
+            String otherFname = other.toURI().toURL().toExternalForm();
+            StyleManager.getInstance().preloadStylesheets(Arrays.asList(fname, otherFname));
+
+            Stylesheet stylesheet = StyleManager.loadStylesheet(fname);
+            assertEquals(2, stylesheet.getRules().size());
+            assertEquals(fname, stylesheet.getUrl());
+            assertEquals(1, StyleManager.loadStylesheet(otherFname).getRules().size());
+        } finally {
+            other.delete();
+        }
+    }
+
+    @Test
+    public void testPreloadErrorsAreReportedByLoadStylesheet() throws Exception {
+        BinaryStylesheetCache.setCacheDir(null);
+        File bad = createStylesheet(".a { -fx-fill: red; } .b { -fx-fill red; }");
+        List<CssError> errors = StyleManager.errorsProperty();
+        errors.clear();
+        try {
+            String fname = bad.toURI().toURL().toExternalForm();
+            StyleManager.getInstance().preloadStylesheets(Arrays.asList(fname));
+            // wait for the preload, without taking it
+            Thread.sleep(500);
+            assertTrue(errors.isEmpty());
+
+            assertNotNull(StyleManager.loadStylesheet(fname));
+            assertFalse(errors.isEmpty());
+        } finally {
+            errors.clear();
+            bad.delete();
+        }
+    }
+
+    @Test
+    public void testPreloadOfMissingStylesheetFallsBack() throws IOException {
+        File missing = File.createTempFile("css_cache_", ".css");
+        missing.delete();
+        String fname = missing.toURI().toURL().toExternalForm();
+        StyleManager.getInstance().preloadStylesheets(Arrays.asList(fname));
+        assertNull(StyleManager.loadStylesheet(fname));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import java.lang.ref.WeakReference;
+import javafx.css.StyleOrigin;
+import javafx.geometry.Insets;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CalculatedValueInternerTest {
+
+    @Test
+    public void testEqualValuesAreShared() {
+        CalculatedValue cv1 = new CalculatedValue(new Insets(1, 2, 3, 4), StyleOrigin.USER_AGENT, false);
+        CalculatedValue cv2 = new CalculatedValue(new Insets(1, 2, 3, 4), StyleOrigin.USER_AGENT, false);
+
+        CalculatedValue interned = CalculatedValueInterner.intern(cv1);
+        assertSame(cv1, interned);
+        assertSame(cv1, CalculatedValueInterner.intern(cv2));
+    }
+
+    @Test
+    public void testDifferentOriginIsNotShared() {
+        CalculatedValue cv1 = new CalculatedValue(Color.web("#123456"), StyleOrigin.USER_AGENT, false);
+        CalculatedValue cv2 = new CalculatedValue(Color.web("#123456"), StyleOrigin.AUTHOR, false);
+
+        assertSame(cv1, CalculatedValueInterner.intern(cv1));
+        assertSame(cv2, CalculatedValueInterner.intern(cv2));
+    }
+
+    @Test
+    public void testDifferentRelativeIsNotShared() {
+        CalculatedValue cv1 = new CalculatedValue(Font.font("System", 17), StyleOrigin.USER_AGENT, false);
+        CalculatedValue cv2 = new CalculatedValue(Font.font("System", 17), StyleOrigin.USER_AGENT, true);
+
+        assertSame(cv1, CalculatedValueInterner.intern(cv1));
+        assertSame(cv2, CalculatedValueInterner.intern(cv2));
+    }
+
+    @Test
+    public void testOtherValuesAreNotInterned() {
+        CalculatedValue cv1 = new CalculatedValue(Double.valueOf(3), StyleOrigin.USER_AGENT, false);
+        CalculatedValue cv2 = new CalculatedValue(Double.valueOf(3), StyleOrigin.USER_AGENT, false);
+
+        assertSame(cv1, CalculatedValueInterner.intern(cv1));
+        assertSame(cv2, CalculatedValueInterner.intern(cv2));
+        assertSame(CalculatedValue.SKIP, CalculatedValueInterner.intern(CalculatedValue.SKIP));
+        assertNull(CalculatedValueInterner.intern(null));
+    }
+
+    @Test
+    public void testStatistics() {
+        CalculatedValueInterner.resetStatistics();
+
+        CalculatedValueInterner.intern(new CalculatedValue(Color.web("#654321"), StyleOrigin.USER_AGENT, false));
+        CalculatedValueInterner.intern(new CalculatedValue(Color.web("#654321"), StyleOrigin.USER_AGENT, false));
+        CalculatedValueInterner.intern(new CalculatedValue("not interned", StyleOrigin.USER_AGENT, false));
+
+        assertEquals(2, CalculatedValueInterner.getRequestCount());
+        assertEquals(1, CalculatedValueInterner.getHitCount());
+        assertTrue(CalculatedValueInterner.getStatistics(),
+                CalculatedValueInterner.getStatistics().contains("Paint {interned="));
+    }
+
+    @Test
+    public void testInternedValuesAreWeaklyHeld() {
+        CalculatedValue cv = new CalculatedValue(new Insets(42, 42, 42, 42), StyleOrigin.USER_AGENT, false);
+        assertSame(cv, CalculatedValueInterner.intern(cv));
+        final WeakReference<CalculatedValue> ref = new WeakReference<>(cv);
+
+        cv = null;
+        // the interner must not keep the value reachable, but the collector
+        // is not bound to clear it on the first request
+        final long endTime = System.currentTimeMillis() + 5000;
+        while (ref.get() != null) {
+            if (System.currentTimeMillis() > endTime) {
+                fail("Interned value has not been GCed");
+            }
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                // try again
+            }
+        }
+
+        // an equal value is no longer replaced by the collected one
+        final CalculatedValue other = new CalculatedValue(new Insets(42, 42, 42, 42), StyleOrigin.USER_AGENT, false);
+        assertSame(other, CalculatedValueInterner.intern(other));
+    }
+}
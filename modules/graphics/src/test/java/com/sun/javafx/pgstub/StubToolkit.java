@@ -163,8 +163,8 @@ public class StubToolkit extends Toolkit {
 
     @Override
     public boolean isFxUserThread() {
-        // Always on the FX app thread
-        return true;
+        // Always on the FX app thread, unless a test set one
+        return testFxUserThread == null || testFxUserThread == Thread.currentThread();
     }
 
     @Override
@@ -372,6 +372,16 @@ public class StubToolkit extends Toolkit {
         pulseRequested = false;
     }
 
+    private Thread testFxUserThread;
+
+    /**
+     * Makes isFxUserThread true on the given thread only, or on any thread
+     * if it is null, which is the default.
+     */
+    public void setTestFxUserThread(Thread thread) {
+        testFxUserThread = thread;
+    }
+
     // do nothing -- bringing in FrameJob and MasterTimer also bring in
     // Settings and crap which isn't setup for the testing stuff because
     // we don't run through a RuntimeProvider or do normal startup
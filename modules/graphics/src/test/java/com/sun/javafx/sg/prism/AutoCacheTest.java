@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import com.sun.prism.impl.BaseResourcePool;
+import javafx.scene.CacheHint;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AutoCacheTest {
+    private static final long MIN_COST = 1000;
+
+    private AutoCache autoCache;
+    private BaseResourcePool<Object> pool;
+
+    @Before
+    public void setup() {
+        autoCache = new AutoCache(MIN_COST);
+        pool = new BaseResourcePool<Object>(1000, 2000) {
+            @Override public long size(Object resource) {
+                return 0;
+            }
+        };
+    }
+
+    private void render(int times, long cost) {
+        for (int i = 0; i < times; i++) {
+            autoCache.rendered(cost);
+        }
+    }
+
+    @Test
+    public void expensiveStableNodeIsPromoted() {
+        render(AutoCache.STABLE_RENDERS - 1, MIN_COST * 2);
+        assertFalse(autoCache.shouldPromote(100, pool));
+        render(1, MIN_COST * 2);
+        assertTrue(autoCache.shouldPromote(100, pool));
+    }
+
+    @Test
+    public void cheapNodeIsNotPromoted() {
+        render(AutoCache.STABLE_RENDERS * 2, MIN_COST / 2);
+        assertFalse(autoCache.shouldPromote(100, pool));
+    }
+
+    @Test
+    public void changingNodeIsNotPromoted() {
+        for (int i = 0; i < 10; i++) {
+            render(AutoCache.STABLE_RENDERS - 1, MIN_COST * 2);
+            autoCache.invalidated();
+            assertFalse(autoCache.shouldPromote(100, pool));
+        }
+    }
+
+    @Test
+    public void nodeIsNotPromotedWhenTheCacheWouldNotFit() {
+        render(AutoCache.STABLE_RENDERS, MIN_COST * 2);
+        assertFalse(autoCache.shouldPromote(900, pool));
+        pool.recordAllocated(800);
+        assertFalse(autoCache.shouldPromote(100, pool));
+    }
+
+    @Test
+    public void churningCachedNodeIsDemoted() {
+        render(AutoCache.STABLE_RENDERS, MIN_COST * 2);
+        autoCache.setCached(true);
+        assertFalse(autoCache.shouldDemote(pool));
+        for (int i = 0; i < AutoCache.MAX_CHURN; i++) {
+            autoCache.rendered(10);
+            autoCache.invalidated();
+        }
+        assertTrue(autoCache.shouldDemote(pool));
+    }
+
+    @Test
+    public void occasionalChangesDoNotDemote() {
+        autoCache.setCached(true);
+        for (int i = 0; i < 10; i++) {
+            render(AutoCache.STABLE_RENDERS, 10);
+            autoCache.invalidated();
+            assertFalse(autoCache.shouldDemote(pool));
+        }
+    }
+
+    @Test
+    public void cachedNodeIsDemotedUnderMemoryPressure() {
+        autoCache.setCached(true);
+        pool.recordAllocated(950);
+        assertTrue(autoCache.shouldDemote(pool));
+    }
+
+    @Test
+    public void cachedRendersDoNotChangeTheCost() {
+        render(1, MIN_COST * 2);
+        autoCache.setCached(true);
+        render(10, 1);
+        assertEquals(MIN_COST * 2, autoCache.getAverageCost());
+    }
+
+    @Test
+    public void sceneRootIsNotCachedAutomatically() {
+        NGGroup root = new NGGroup();
+        NGGroup child = new NGGroup();
+        root.add(-1, child);
+        assertFalse(root.canCacheAutomatically());
+        assertTrue(child.canCacheAutomatically());
+    }
+
+    @Test
+    public void nestedNodesAreNotCachedAutomatically() {
+        NGGroup root = new NGGroup();
+        NGGroup outer = new NGGroup();
+        NGGroup middle = new NGGroup();
+        NGGroup inner = new NGGroup();
+        root.add(-1, outer);
+        outer.add(-1, middle);
+        middle.add(-1, inner);
+
+        middle.setCachedAsBitmap(true, CacheHint.DEFAULT);
+        // both the ancestor and the descendant of a cached node are excluded
+        assertFalse(outer.canCacheAutomatically());
+        assertFalse(inner.canCacheAutomatically());
+
+        middle.setCachedAsBitmap(false, CacheHint.DEFAULT);
+        assertTrue(outer.canCacheAutomatically());
+        assertTrue(inner.canCacheAutomatically());
+    }
+
+    @Test
+    public void movingACachedNodeUpdatesItsAncestors() {
+        NGGroup root = new NGGroup();
+        NGGroup first = new NGGroup();
+        NGGroup second = new NGGroup();
+        NGGroup cached = new NGGroup();
+        root.add(-1, first);
+        root.add(-1, second);
+        first.add(-1, cached);
+        cached.setCachedAsBitmap(true, CacheHint.DEFAULT);
+        assertFalse(first.canCacheAutomatically());
+        assertTrue(second.canCacheAutomatically());
+
+        first.remove(cached);
+        second.add(-1, cached);
+        assertTrue(first.canCacheAutomatically());
+        assertFalse(second.canCacheAutomatically());
+    }
+
+    @Test
+    public void nodeRemovedBeforeBeingCachedDoesNotUpdateItsOldParent() {
+        NGGroup root = new NGGroup();
+        NGGroup group = new NGGroup();
+        NGGroup first = new NGGroup();
+        NGGroup second = new NGGroup();
+        root.add(-1, group);
+        group.add(-1, first);
+        group.add(-1, second);
+
+        // none of the children is cached when they are removed
+        group.clear();
+        first.setCachedAsBitmap(true, CacheHint.DEFAULT);
+        group.add(-1, second);
+        group.remove(second);
+        second.setCachedAsBitmap(true, CacheHint.DEFAULT);
+        assertTrue(group.canCacheAutomatically());
+    }
+}
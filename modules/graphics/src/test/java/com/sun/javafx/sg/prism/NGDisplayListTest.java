@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.Graphics;
+import com.sun.prism.Texture;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NGDisplayListTest {
+    private NGDisplayList list;
+    private List<NGNode> children;
+    private TestLeaf leaf;
+
+    @Before
+    public void setup() {
+        list = new NGDisplayList();
+        leaf = new TestLeaf();
+        children = Arrays.asList(leaf);
+    }
+
+    private NGDisplayList.Recorder record(Graphics g) {
+        NGDisplayList.Recorder recorder = null;
+        for (int i = 0; i < 10 && recorder == null; i++) {
+            recorder = list.beginRecording(g, children);
+        }
+        assertNotNull(recorder);
+        for (NGNode child : children) {
+            child.render(recorder);
+        }
+        list.endRecording(recorder);
+        return recorder;
+    }
+
+    @Test
+    public void recordingIsDeferredUntilTheGroupIsUnchanged() {
+        assertNull(list.beginRecording(new RecordingGraphics(), children));
+        assertFalse(list.isValid());
+    }
+
+    @Test
+    public void replayIssuesTheRecordedOperations() {
+        RecordingGraphics g = new RecordingGraphics();
+        record(g);
+        assertTrue(list.isValid());
+        assertEquals(1, g.rects.size());
+
+        RecordingGraphics g2 = new RecordingGraphics();
+        assertTrue(list.replay(g2));
+        assertEquals(1, g2.rects.size());
+        assertEquals(1, leaf.renders);
+    }
+
+    @Test
+    public void replayAppliesIntegralTranslation() {
+        RecordingGraphics g = new RecordingGraphics();
+        g.translate(10, 20);
+        record(g);
+
+        RecordingGraphics g2 = new RecordingGraphics();
+        g2.translate(15, 40);
+        assertTrue(list.replay(g2));
+        assertEquals(15 + 5 + 2, g2.rects.get(0)[0], 0);
+        assertEquals(40 + 5 + 3, g2.rects.get(0)[1], 0);
+        // The transform set by the leaf is not left behind
+        assertEquals(15, g2.getTransformNoClone().getMxt(), 0);
+        assertEquals(40, g2.getTransformNoClone().getMyt(), 0);
+    }
+
+    @Test
+    public void replayFailsForOtherTransforms() {
+        RecordingGraphics g = new RecordingGraphics();
+        record(g);
+
+        RecordingGraphics g2 = new RecordingGraphics();
+        g2.translate(0.5f, 0);
+        assertFalse(list.replay(g2));
+        g2 = new RecordingGraphics();
+        g2.scale(2, 2);
+        assertFalse(list.replay(g2));
+        assertTrue(g2.rects.isEmpty());
+    }
+
+    @Test
+    public void textureOperationsAreNotRecorded() {
+        leaf.drawTexture = true;
+        record(new RecordingGraphics());
+        assertFalse(list.isValid());
+        assertNull(list.beginRecording(new RecordingGraphics(), children));
+    }
+
+    @Test
+    public void clipTestsAreNotRecorded() {
+        leaf.testClip = true;
+        record(new RecordingGraphics());
+        assertFalse(list.isValid());
+        assertNull(list.beginRecording(new RecordingGraphics(), children));
+    }
+
+    @Test
+    public void invalidateDiscardsTheList() {
+        record(new RecordingGraphics());
+        list.invalidate();
+        assertFalse(list.isValid());
+        assertFalse(list.replay(new RecordingGraphics()));
+    }
+
+    @Test
+    public void invalidateCacheInvalidatesTheList() {
+        NGGroup group = new NGGroup();
+        group.add(-1, leaf);
+        group.displayList = list;
+        record(new RecordingGraphics());
+        leaf.visualsChanged();
+        assertFalse(list.isValid());
+    }
+
+    /**
+     * Records the device space origin of every filled rectangle.
+     */
+    private static final class RecordingGraphics extends TestGraphics {
+        final List<float[]> rects = new ArrayList<>();
+
+        @Override public void fillRect(float x, float y, float width, float height) {
+            final BaseTransform tx = getTransformNoClone();
+            rects.add(new float[] { (float) (tx.getMxt() + x), (float) (tx.getMyt() + y) });
+        }
+    }
+
+    private static final class TestLeaf extends NGNode {
+        int renders;
+        boolean drawTexture;
+        boolean testClip;
+
+        @Override protected void renderContent(Graphics g) {
+            renders++;
+            if (testClip && g.getClipRectNoClone() != null) {
+                // as if culled against the device clip
+                return;
+            }
+            final BaseTransform saved = g.getTransformNoClone().copy();
+            g.translate(5, 5);
+            g.fillRect(2, 3, 10, 10);
+            if (drawTexture) {
+                g.drawTexture((Texture) null, 0, 0, 1, 1);
+            }
+            g.setTransform(saved);
+        }
+
+        @Override protected boolean hasOverlappingContents() {
+            return false;
+        }
+    }
+}
@@ -25,11 +25,16 @@
 
 package com.sun.javafx.sg.prism;
 
+import com.sun.javafx.geom.DirtyRegionContainer;
 import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.geom.transform.GeneralTransform3D;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -181,6 +186,101 @@ public class OcclusionCullingTest extends NGTestBase {
         assertRoot(rootPath, root);
     }
 
+    private boolean occlusionCullingEnabled;
+
+    @Before
+    public void enableOcclusionCulling() {
+        occlusionCullingEnabled = NGGroup.occlusionCullingEnabled;
+        NGGroup.occlusionCullingEnabled = true;
+    }
+
+    @After
+    public void restoreOcclusionCulling() {
+        NGGroup.occlusionCullingEnabled = occlusionCullingEnabled;
+    }
+
+    private void preCullAndRender(NGNode root, RectBounds... dirtyRegions) {
+        DirtyRegionContainer drc = new DirtyRegionContainer(dirtyRegions.length);
+        drc.deriveWithNewRegions(dirtyRegions);
+        root.doPreCulling(drc, BaseTransform.IDENTITY_TRANSFORM, new GeneralTransform3D());
+        TestGraphics g = new TestGraphics();
+        g.setHasPreCullingBits(true);
+        for (int i = 0; i < dirtyRegions.length; i++) {
+            g.setClipRectIndex(i);
+            root.render(g);
+        }
+    }
+
+    @Test
+    public void testSiblingOcclusionCulling() {
+        final TestNGRectangle hidden = createRectangle(10, 10, 50, 50);
+        final TestNGRectangle visible = createRectangle(150, 10, 50, 50);
+        final TestNGRectangle occluder = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(hidden, visible, occluder);
+        // The dirty region is larger than the occluder, so there is no render root
+        preCullAndRender(group, new RectBounds(0, 0, 300, 300));
+        assertTrue(group.rendered());
+        assertFalse(hidden.rendered());
+        assertTrue(visible.rendered());
+        assertTrue(occluder.rendered());
+        assertEquals(0, hidden.cullingBits);
+    }
+
+    @Test
+    public void testNestedGroupOcclusionCulling() {
+        final TestNGRectangle hidden = createRectangle(10, 10, 50, 50);
+        final TestNGGroup hiddenGroup = createGroup(hidden);
+        final TestNGRectangle occluder = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(createGroup(hiddenGroup, occluder),
+                                        createRectangle(200, 200, 10, 10));
+        preCullAndRender(group, new RectBounds(0, 0, 300, 300));
+        assertFalse(hiddenGroup.rendered());
+        assertFalse(hidden.rendered());
+        assertTrue(occluder.rendered());
+    }
+
+    @Test
+    public void testPartiallyCoveredNodeIsRendered() {
+        final TestNGRectangle partial = createRectangle(50, 50, 100, 100);
+        final TestNGRectangle occluder = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(partial, occluder);
+        preCullAndRender(group, new RectBounds(0, 0, 300, 300));
+        assertTrue(partial.rendered());
+        assertTrue(occluder.rendered());
+    }
+
+    @Test
+    public void testNodeAboveOccluderIsRendered() {
+        final TestNGRectangle occluder = createRectangle(0, 0, 100, 100);
+        final TestNGRectangle above = createRectangle(10, 10, 50, 50);
+        TestNGGroup group = createGroup(occluder, above);
+        preCullAndRender(group, new RectBounds(0, 0, 300, 300));
+        assertTrue(occluder.rendered());
+        assertTrue(above.rendered());
+    }
+
+    @Test
+    public void testTranslucentNodeDoesNotOcclude() {
+        final TestNGRectangle below = createRectangle(10, 10, 50, 50);
+        final TestNGRectangle translucent = createRectangle(0, 0, 100, 100);
+        translucent.setOpacity(0.5f);
+        TestNGGroup group = createGroup(below, translucent);
+        preCullAndRender(group, new RectBounds(0, 0, 300, 300));
+        assertTrue(below.rendered());
+    }
+
+    @Test
+    public void test3DTransformDisablesOcclusionCulling() {
+        final TestNGRectangle hidden = createRectangle(10, 10, 50, 50);
+        final TestNGRectangle occluder = createRectangle(0, 0, 100, 100);
+        final Affine3D tx = new Affine3D();
+        tx.translate(0, 0, 10);
+        occluder.setTransformMatrix(tx);
+        TestNGGroup group = createGroup(hidden, occluder, createRectangle(200, 200, 10, 10));
+        preCullAndRender(group, new RectBounds(0, 0, 300, 300));
+        assertTrue(hidden.rendered());
+    }
+
     private void checkRootRendering(TestNGNode node, NodePath root) {
         assertTrue(node.rendered());
         if (node instanceof TestNGGroup) {
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.perf.PerformanceTracker;
+import com.sun.prism.Graphics;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegionImageCacheTest {
+    private RegionImageCache cache;
+    private Graphics g;
+
+    @Before public void setup() {
+        g = TestGraphics.TEST_GRAPHICS;
+        cache = new RegionImageCache(g.getResourceFactory(), 256);
+    }
+
+    private static RegionImageCache.CacheKey key(int i) {
+        return new RegionImageCache.CacheKey(i, 50, null, null);
+    }
+
+    @Test public void sameKeyIsAHit() {
+        Rectangle rect = new Rectangle(100, 50);
+        assertTrue(cache.getImageLocation(key(1), rect, g));
+        int x = rect.x, y = rect.y;
+
+        Rectangle rect2 = new Rectangle(100, 50);
+        assertFalse(cache.getImageLocation(key(1), rect2, g));
+        assertEquals(x, rect2.x);
+        assertEquals(y, rect2.y);
+    }
+
+    @Test public void differentKeysGetDifferentLocations() {
+        Rectangle rect = new Rectangle(100, 50);
+        assertTrue(cache.getImageLocation(key(1), rect, g));
+        Rectangle rect2 = new Rectangle(100, 50);
+        assertTrue(cache.getImageLocation(key(2), rect2, g));
+        Rectangle intersection = new Rectangle(rect);
+        intersection.intersectWith(rect2);
+        assertTrue(intersection.isEmpty());
+    }
+
+    @Test public void recentlyUsedImagesSurviveRepack() {
+        final long repacks = PerformanceTracker.getCounter("RegionImageCache.repacks").get();
+        final RegionImageCache.CacheKey a = key(0);
+        assertTrue(cache.getImageLocation(a, new Rectangle(100, 50), g));
+        for (int i = 1; i < 200; i++) {
+            Rectangle rect = new Rectangle(100, 50);
+            assertTrue(cache.getImageLocation(key(i), rect, g));
+            assertFalse(rect.isEmpty());
+            assertFalse(cache.getImageLocation(a, new Rectangle(100, 50), g));
+        }
+        assertTrue(PerformanceTracker.getCounter("RegionImageCache.repacks").get() > repacks);
+        // The most recently added image is still cached, the oldest ones are not
+        assertFalse(cache.getImageLocation(key(199), new Rectangle(100, 50), g));
+        assertTrue(cache.getImageLocation(key(1), new Rectangle(100, 50), g));
+    }
+
+    @Test public void imageTooLargeForCacheIsNotCachable() {
+        assertFalse(cache.isImageCachable(2000, 10));
+        assertFalse(cache.isImageCachable(10, 300));
+        assertTrue(cache.isImageCachable(100, 50));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.sg.prism.NGCamera;
+import com.sun.javafx.sg.prism.TestGraphics;
+import com.sun.prism.PixelFormat;
+import com.sun.prism.RTTexture;
+import com.sun.prism.RenderTarget;
+import com.sun.prism.Texture;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GlyphAtlasTest {
+    private GlyphAtlas atlas;
+
+    @Before public void setup() {
+        Texture tex = TestGraphics.TEST_GRAPHICS.getResourceFactory()
+                .createRTTexture(64, 256, Texture.WrapMode.CLAMP_NOT_NEEDED);
+        // Four pages of 64x64
+        atlas = new GlyphAtlas(new StubContext(), tex, false, 4);
+    }
+
+    private GlyphAtlas.Page fillPage(long stamp) {
+        GlyphAtlas.Page page = atlas.add(new Rectangle(64, 64), stamp);
+        assertNotNull(page);
+        return page;
+    }
+
+    @Test public void glyphsArePackedOnTheSamePage() {
+        Rectangle r1 = new Rectangle(16, 16);
+        Rectangle r2 = new Rectangle(16, 16);
+        long stamp = atlas.nextStamp();
+        GlyphAtlas.Page p1 = atlas.add(r1, stamp);
+        GlyphAtlas.Page p2 = atlas.add(r2, stamp);
+        assertSame(p1, p2);
+        assertEquals(r1.y, r2.y);
+        assertEquals(r1.x + 16, r2.x);
+    }
+
+    @Test public void leastRecentlyUsedPageIsEvicted() {
+        GlyphAtlas.Page p1 = fillPage(atlas.nextStamp());
+        GlyphAtlas.Page p2 = fillPage(atlas.nextStamp());
+        GlyphAtlas.Page p3 = fillPage(atlas.nextStamp());
+        GlyphAtlas.Page p4 = fillPage(atlas.nextStamp());
+        assertNotSame(p1, p2);
+        assertNotSame(p3, p4);
+
+        // p2 is now the least recently used page
+        atlas.touch(p1, atlas.nextStamp());
+        int p1Generation = p1.generation;
+        int p2Generation = p2.generation;
+
+        Rectangle rect = new Rectangle(16, 16);
+        assertSame(p2, atlas.add(rect, atlas.nextStamp()));
+        assertEquals(p2Generation + 1, p2.generation);
+        assertEquals(p1Generation, p1.generation);
+        assertEquals(64, rect.y);
+    }
+
+    @Test public void glyphLargerThanAPageIsRejected() {
+        assertNull(atlas.add(new Rectangle(32, 100), atlas.nextStamp()));
+    }
+
+    private static class StubContext extends BaseContext {
+        StubContext() {
+            super(null, TestGraphics.TEST_GRAPHICS.getResourceFactory(), 32);
+        }
+
+        @Override
+        protected void renderQuads(float[] coordArray, byte[] colorArray, int numVertices) {
+        }
+
+        @Override
+        protected void setRenderTarget(RenderTarget target, NGCamera camera, boolean depthTest, boolean state3D) {
+        }
+
+        @Override
+        public void validateClearOp(BaseGraphics g) {
+        }
+
+        @Override
+        public void validatePaintOp(BaseGraphics g, BaseTransform xform, Texture maskTex, float bx, float by, float bw, float bh) {
+        }
+
+        @Override
+        public void validateTextureOp(BaseGraphics g, BaseTransform xform, Texture src, PixelFormat format) {
+        }
+
+        @Override
+        public RTTexture getLCDBuffer() {
+            return null;
+        }
+    }
+}
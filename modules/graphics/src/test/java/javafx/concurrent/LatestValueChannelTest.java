@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.concurrent;
+
+import com.sun.javafx.pgstub.StubToolkit;
+import com.sun.javafx.tk.Toolkit;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The test thread plays the FX Application Thread, updates are sent from
+ * a background thread.
+ */
+public class LatestValueChannelTest {
+    private StubToolkit toolkit;
+    private LatestValueChannel channel;
+    private IntegerProperty a;
+    private ObjectProperty<String> b;
+
+    @Before public void setup() {
+        toolkit = (StubToolkit) Toolkit.getToolkit();
+        toolkit.setTestFxUserThread(Thread.currentThread());
+        toolkit.clearPulseRequested();
+        channel = new LatestValueChannel();
+        a = new SimpleIntegerProperty();
+        b = new SimpleObjectProperty<String>("initial");
+    }
+
+    @After public void cleanup() {
+        channel.dispose();
+        toolkit.setTestFxUserThread(null);
+        toolkit.clearPulseRequested();
+    }
+
+    private static void inBackground(Runnable runnable) {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+            } catch (Throwable th) {
+                failure.set(th);
+            }
+        });
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        if (failure.get() instanceof RuntimeException) {
+            throw (RuntimeException) failure.get();
+        } else if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    @Test public void updatesAreConflatedUntilFlush() {
+        final AtomicInteger changes = new AtomicInteger();
+        a.addListener((o, oldValue, newValue) -> changes.incrementAndGet());
+
+        inBackground(() -> {
+            for (int i = 1; i <= 1000; i++) {
+                channel.update(a, i);
+            }
+            channel.update(b, "latest");
+        });
+
+        assertEquals(0, a.get());
+        assertEquals(2, channel.getPendingCount());
+        assertTrue(toolkit.isPulseRequested());
+
+        channel.flush();
+
+        assertEquals(1000, a.get());
+        assertEquals("latest", b.get());
+        assertEquals(1, changes.get());
+        assertEquals(0, channel.getPendingCount());
+    }
+
+    @Test public void updateAfterFlushSchedulesAnotherPulse() {
+        inBackground(() -> channel.update(a, 1));
+        channel.flush();
+        toolkit.clearPulseRequested();
+
+        inBackground(() -> channel.update(a, 2));
+        assertTrue(toolkit.isPulseRequested());
+        channel.flush();
+        assertEquals(2, a.get());
+    }
+
+    @Test public void updatesBeforeFlushShareOnePulse() {
+        inBackground(() -> channel.update(a, 1));
+        toolkit.clearPulseRequested();
+
+        inBackground(() -> channel.update(a, 2));
+        assertFalse(toolkit.isPulseRequested());
+    }
+
+    @Test public void nullValuesAreApplied() {
+        inBackground(() -> channel.update(b, null));
+        channel.flush();
+        assertNull(b.get());
+    }
+
+    @Test public void updateOnFxThreadAppliesImmediatelyAndDropsPendingValue() {
+        inBackground(() -> channel.update(a, 1));
+        channel.update(a, 2);
+        assertEquals(2, a.get());
+        assertEquals(0, channel.getPendingCount());
+        channel.flush();
+        assertEquals(2, a.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void flushOffFxThreadThrows() {
+        inBackground(() -> channel.flush());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullTargetThrows() {
+        channel.update(null, 1);
+    }
+
+    @Test public void failingTargetDoesNotStrandOthers() {
+        a.bind(new SimpleIntegerProperty(5));
+        inBackground(() -> {
+            channel.update(a, 1);
+            channel.update(b, "other");
+        });
+        toolkit.clearPulseRequested();
+        try {
+            channel.flush();
+            fail("Expected setting a bound property to fail");
+        } catch (RuntimeException expected) {
+        }
+        if (channel.getPendingCount() > 0) {
+            assertTrue(toolkit.isPulseRequested());
+            channel.flush();
+        }
+        assertEquals("other", b.get());
+    }
+
+    @Test public void disposeDiscardsPendingValues() {
+        inBackground(() -> channel.update(a, 1));
+        channel.dispose();
+        assertEquals(0, channel.getPendingCount());
+
+        toolkit.clearPulseRequested();
+        inBackground(() -> channel.update(a, 2));
+        assertTrue(toolkit.isPulseRequested());
+    }
+
+    @Test public void pendingValuesAreAppliedOnPulse() {
+        inBackground(() -> channel.update(a, 42));
+        assertEquals(0, a.get());
+
+        toolkit.firePulse();
+        assertEquals(42, a.get());
+    }
+
+    @Test public void disposedChannelIsNotFlushedOnPulse() {
+        inBackground(() -> channel.update(a, 42));
+        channel.dispose();
+
+        toolkit.firePulse();
+        assertEquals(0, a.get());
+    }
+}
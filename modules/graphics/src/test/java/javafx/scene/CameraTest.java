@@ -187,6 +187,35 @@ public class CameraTest {
         assertEquals(200.0, camera.getViewHeight(), 1.0e-20);
     }
 
+    @Test
+    public void testSnapshotPeerHasRequestedViewSize() {
+        final Scene scene = new Scene(new Group(), 300, 200);
+        StubPerspectiveCamera camera = new StubPerspectiveCamera();
+        scene.setCamera(camera);
+        camera.setFieldOfView(45);
+
+        StubNGPerspectiveCamera peer =
+                (StubNGPerspectiveCamera) camera.createSnapshotPeer(100, 50);
+        assertNotSame(camera.impl_getPeer(), peer);
+        assertEquals(100.0, peer.getViewWidth(), 1.0e-20);
+        assertEquals(50.0, peer.getViewHeight(), 1.0e-20);
+        assertEquals(45.0, peer.getFieldOfView(), 1.0e-20);
+        assertNotNull(peer.getProjViewTx());
+    }
+
+    @Test
+    public void testSnapshotPeerDoesNotChangeCamera() {
+        final Scene scene = new Scene(new Group(), 300, 200);
+        StubParallelCamera camera = new StubParallelCamera();
+        scene.setCamera(camera);
+        GeneralTransform3D projViewTx = camera.getProjViewTransform().copy();
+
+        camera.createSnapshotPeer(100, 50);
+        assertEquals(300.0, camera.getViewWidth(), 1.0e-20);
+        assertEquals(200.0, camera.getViewHeight(), 1.0e-20);
+        TransformHelper.assertMatrix(camera.getProjViewTransform(), projViewTx);
+    }
+
     @Test
     public void testDefaultCamera() {
         final Scene scene = new Scene(new Group(), 300, 200);
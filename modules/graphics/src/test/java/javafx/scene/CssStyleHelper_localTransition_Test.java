@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import com.sun.javafx.css.StyleManager;
+import com.sun.javafx.css.Stylesheet;
+import com.sun.javafx.css.parser.CSSParser;
+import com.sun.javafx.scene.CssFlags;
+import javafx.beans.value.WritableValue;
+import javafx.css.PseudoClass;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that a pseudo-class change which only affects a node's own properties
+ * does not update the node's children.
+ */
+public class CssStyleHelper_localTransition_Test {
+
+    private static final PseudoClass HOVER = PseudoClass.getPseudoClass("hover");
+
+    private Group parent;
+    private CountingRectangle rect;
+
+    private static class CountingRectangle extends Rectangle {
+        int processCount;
+        CountingRectangle() {
+            super(10, 10);
+            getStyleClass().add("rect");
+        }
+        @Override
+        protected void impl_processCSS(WritableValue<Boolean> unused) {
+            if (((Node) this).getCSSFlags() != CssFlags.CLEAN) processCount++;
+            super.impl_processCSS(unused);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        rect = new CountingRectangle();
+        parent = new Group(rect);
+        parent.getStyleClass().add("parent");
+        new Scene(new Group(parent));
+    }
+
+    private void applyStylesheet(String name, String css) throws Exception {
+        // The name has to differ from test to test for the UA stylesheet to be replaced.
+        final Stylesheet stylesheet = new CSSParser().parse(name, css);
+        StyleManager.getInstance().setDefaultUserAgentStylesheet(stylesheet);
+        parent.getScene().getRoot().applyCss();
+        rect.processCount = 0;
+    }
+
+    private void setHover(boolean hover) {
+        parent.pseudoClassStateChanged(HOVER, hover);
+        parent.getScene().getRoot().processCSS();
+    }
+
+    @Test
+    public void testOwnPropertyChangeDoesNotUpdateChildren() throws Exception {
+        applyStylesheet("testOwnPropertyChangeDoesNotUpdateChildren",
+                ".parent { -fx-opacity: 1; } " +
+                ".parent:hover { -fx-opacity: .5; } " +
+                ".rect { -fx-fill: red; }");
+
+        parent.pseudoClassStateChanged(HOVER, true);
+        assertEquals(CssFlags.UPDATE_PROPERTIES, parent.getCSSFlags());
+        assertEquals(CssFlags.CLEAN, ((Node) rect).getCSSFlags());
+
+        parent.getScene().getRoot().processCSS();
+        assertEquals(.5, parent.getOpacity(), 1e-6);
+
+        // the second time around, the calculated values are in cache
+        setHover(false);
+        assertEquals(1, parent.getOpacity(), 1e-6);
+        setHover(true);
+        assertEquals(.5, parent.getOpacity(), 1e-6);
+        setHover(false);
+        assertEquals(1, parent.getOpacity(), 1e-6);
+
+        assertEquals(0, rect.processCount);
+        assertEquals(Color.RED, rect.getFill());
+    }
+
+    @Test
+    public void testDescendantSelectorUpdatesChildren() throws Exception {
+        applyStylesheet("testDescendantSelectorUpdatesChildren",
+                ".parent:hover { -fx-opacity: .5; } " +
+                ".rect { -fx-fill: red; } " +
+                ".parent:hover .rect { -fx-fill: green; }");
+
+        parent.pseudoClassStateChanged(HOVER, true);
+        assertEquals(CssFlags.UPDATE, parent.getCSSFlags());
+
+        parent.getScene().getRoot().processCSS();
+        assertEquals(Color.GREEN, rect.getFill());
+
+        setHover(false);
+        assertEquals(Color.RED, rect.getFill());
+    }
+
+    @Test
+    public void testLookupUpdatesChildren() throws Exception {
+        applyStylesheet("testLookupUpdatesChildren",
+                ".parent { -my-color: red; } " +
+                ".parent:hover { -my-color: green; } " +
+                ".rect { -fx-fill: -my-color; }");
+
+        parent.pseudoClassStateChanged(HOVER, true);
+        assertEquals(CssFlags.UPDATE, parent.getCSSFlags());
+
+        parent.getScene().getRoot().processCSS();
+        assertEquals(Color.GREEN, rect.getFill());
+
+        setHover(false);
+        assertEquals(Color.RED, rect.getFill());
+    }
+
+    @Test
+    public void testInheritUpdatesChildren() throws Exception {
+        applyStylesheet("testInheritUpdatesChildren",
+                ".parent { -fx-opacity: .5; } " +
+                ".parent:hover { -fx-opacity: .25; } " +
+                ".rect { -fx-opacity: inherit; }");
+
+        assertEquals(.5, rect.getOpacity(), 1e-6);
+
+        parent.pseudoClassStateChanged(HOVER, true);
+        assertEquals(CssFlags.UPDATE, parent.getCSSFlags());
+
+        parent.getScene().getRoot().processCSS();
+        assertEquals(.25, rect.getOpacity(), 1e-6);
+    }
+
+    @Test
+    public void testOwnLookupUpdatesAllProperties() throws Exception {
+        applyStylesheet("testOwnLookupUpdatesAllProperties",
+                ".rect { -fx-fill: red; -fx-stroke: -fx-fill; } " +
+                ".rect:hover { -fx-fill: green; }");
+
+        rect.pseudoClassStateChanged(HOVER, true);
+        assertEquals(CssFlags.UPDATE, ((Node) rect).getCSSFlags());
+
+        parent.getScene().getRoot().processCSS();
+        assertEquals(Color.GREEN, rect.getFill());
+        assertEquals(Color.GREEN, rect.getStroke());
+    }
+
+    @Test
+    public void testFullTransitionOverridesPropertiesOnly() throws Exception {
+        applyStylesheet("testFullTransitionOverridesPropertiesOnly",
+                ".parent:hover { -fx-opacity: .5; } " +
+                ".parent:focused { -fx-opacity: .75; } " +
+                ".rect { -fx-fill: red; } " +
+                ".parent:focused .rect { -fx-fill: green; }");
+
+        parent.pseudoClassStateChanged(HOVER, true);
+        assertEquals(CssFlags.UPDATE_PROPERTIES, parent.getCSSFlags());
+
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("focused"), true);
+        assertEquals(CssFlags.UPDATE, parent.getCSSFlags());
+
+        parent.getScene().getRoot().processCSS();
+        assertEquals(Color.GREEN, rect.getFill());
+        assertEquals(1, rect.processCount);
+    }
+}
@@ -26,6 +26,7 @@
 package javafx.scene;
 
 import com.sun.javafx.pgstub.StubToolkit;
+import com.sun.javafx.scene.DirtyBits;
 import com.sun.javafx.sg.prism.NGGroup;
 import com.sun.javafx.tk.Toolkit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -674,6 +675,91 @@ public class ParentTest {
         assertSame(scene, child.getChildren().get(3).getScene());
     }
 
+    @Test
+    public void childrenUpdateDefersSceneAssignmentToCommit() {
+        final Group root = new Group();
+        final Scene scene = new Scene(root, 600, 450);
+        final Rectangle a = new Rectangle(10, 10, 10, 10);
+        final Rectangle b = new Rectangle(20, 20, 10, 10);
+
+        root.impl_beginChildrenUpdate();
+        root.getChildren().add(a);
+        root.getChildren().add(b);
+        assertSame(root, a.getParent());
+        assertNull(a.getScene());
+        assertNull(b.getScene());
+        root.impl_commitChildrenUpdate();
+
+        assertSame(scene, a.getScene());
+        assertSame(scene, b.getScene());
+    }
+
+    @Test
+    public void nestedChildrenUpdateCommitsWithOutermost() {
+        final Group root = new Group();
+        final Scene scene = new Scene(root, 600, 450);
+        final Rectangle a = new Rectangle();
+
+        root.impl_beginChildrenUpdate();
+        root.impl_beginChildrenUpdate();
+        root.getChildren().add(a);
+        root.impl_commitChildrenUpdate();
+        assertNull(a.getScene());
+        root.impl_commitChildrenUpdate();
+        assertSame(scene, a.getScene());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void commitWithoutBeginThrows() {
+        new Group().impl_commitChildrenUpdate();
+    }
+
+    @Test
+    public void childrenUpdateSkipsChildrenRemovedOrMovedWithinBatch() {
+        final Group root = new Group();
+        final Group other = new Group();
+        final Scene scene = new Scene(root, 600, 450);
+        final Scene otherScene = new Scene(other, 600, 450);
+        final Rectangle removed = new Rectangle();
+        final Rectangle moved = new Rectangle();
+
+        root.impl_beginChildrenUpdate();
+        root.getChildren().addAll(removed, moved);
+        root.getChildren().remove(removed);
+        other.getChildren().add(moved);
+        root.impl_commitChildrenUpdate();
+
+        assertNull(removed.getParent());
+        assertNull(removed.getScene());
+        assertSame(other, moved.getParent());
+        assertSame(otherScene, moved.getScene());
+        assertTrue(root.getChildren().isEmpty());
+    }
+
+    @Test
+    public void childrenUpdateInvalidatesBoundsAndPeerAtCommit() {
+        final Group root = new Group();
+        final Group g = new Group(new Rectangle(0, 0, 10, 10));
+        root.getChildren().add(g);
+        final Scene scene = new Scene(root, 600, 450);
+        stage.setScene(scene);
+        stage.show();
+        toolkit.firePulse();
+        assertEquals(10, g.getBoundsInParent().getWidth(), 1e-10);
+
+        g.impl_beginChildrenUpdate();
+        for (int i = 1; i <= 100; i++) {
+            g.getChildren().add(new Rectangle(i, i, 10, 10));
+        }
+        assertFalse(g.impl_isDirty(DirtyBits.PARENT_CHILDREN));
+        g.impl_commitChildrenUpdate();
+
+        assertTrue(g.impl_isDirty(DirtyBits.PARENT_CHILDREN));
+        assertEquals(110, g.getBoundsInParent().getWidth(), 1e-10);
+        toolkit.firePulse();
+        assertEquals(101, ((NGGroup) g.impl_getPeer()).getChildren().size());
+    }
+
     public static class MockParent extends Parent {
         public MockParent(Node... children) {
             getChildren().addAll(children);
@@ -607,4 +607,116 @@ public class Parent_recomputeBounds_Test {
 
         return result;
     }
+
+    private static Rectangle[] addManyRectangles(Group g) {
+        final Rectangle[] rects = new Rectangle[Parent.BOUNDS_TREE_THRESHOLD + 100];
+        for (int i = 0; i < rects.length; i++) {
+            // all within 100, 100 - 200, 200
+            rects[i] = new Rectangle(100 + i % 91, 100 + (i * 3) % 91, 10, 10);
+        }
+        g.getChildren().addAll(rects);
+        return rects;
+    }
+
+    private static void assertBounds(Bounds b, double minX, double minY, double width, double height) {
+        assertEquals(minX, b.getMinX(), 0.0001);
+        assertEquals(minY, b.getMinY(), 0.0001);
+        assertEquals(width, b.getWidth(), 0.0001);
+        assertEquals(height, b.getHeight(), 0.0001);
+    }
+
+    @Test
+    public void shouldRecomputeBoundsOfManyNodesWhenEdgeNodeMoved() {
+        final Group g = new Group();
+        final Rectangle[] rects = addManyRectangles(g);
+        final Rectangle edge = new Rectangle(20, 30, 10, 10);
+        g.getChildren().add(edge);
+
+        assertBounds(g.getBoundsInLocal(), 20, 30, 180, 170);
+
+        edge.setX(150);
+        edge.setY(150);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 100);
+
+        edge.setX(400);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 310, 100);
+
+        rects[0].setY(0);
+        assertBounds(g.getBoundsInLocal(), 100, 0, 310, 200);
+    }
+
+    @Test
+    public void shouldRecomputeBoundsOfManyNodesWhenEdgeNodeRemovedOrHidden() {
+        final Group g = new Group();
+        addManyRectangles(g);
+        final Rectangle left = new Rectangle(0, 150, 10, 10);
+        final Rectangle bottom = new Rectangle(150, 500, 10, 10);
+        g.getChildren().addAll(left, bottom);
+
+        assertBounds(g.getBoundsInLocal(), 0, 100, 200, 410);
+
+        g.getChildren().remove(left);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 410);
+
+        bottom.setVisible(false);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 100);
+
+        bottom.setY(600);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 100);
+
+        bottom.setVisible(true);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 510);
+
+        g.getChildren().add(0, left);
+        assertBounds(g.getBoundsInLocal(), 0, 100, 200, 510);
+    }
+
+    @Test
+    public void shouldRecomputeBoundsOfManyNodesWhenPermutedOrMovedToOtherParent() {
+        final Group g = new Group();
+        final Group other = new Group();
+        addManyRectangles(g);
+        final Rectangle edge = new Rectangle(300, 300, 10, 10);
+        g.getChildren().add(edge);
+
+        assertBounds(g.getBoundsInLocal(), 100, 100, 210, 210);
+
+        edge.toBack();
+        assertBounds(g.getBoundsInLocal(), 100, 100, 210, 210);
+
+        other.getChildren().add(edge);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 100);
+        assertBounds(other.getBoundsInLocal(), 300, 300, 10, 10);
+
+        g.getChildren().add(edge);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 210, 210);
+    }
+
+    @Test
+    public void shouldRecomputeBoundsWhenChildCountCrossesTreeThreshold() {
+        final Group g = new Group();
+        final Rectangle[] rects = addManyRectangles(g);
+        final Rectangle edge = new Rectangle(300, 300, 10, 10);
+        g.getChildren().add(edge);
+
+        assertBounds(g.getBoundsInLocal(), 100, 100, 210, 210);
+
+        g.getChildren().remove(10, rects.length);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 210, 210);
+
+        // the first ten span 100, 100 - 119, 137
+        edge.setX(0);
+        edge.setY(0);
+        assertBounds(g.getBoundsInLocal(), 0, 0, 119, 137);
+
+        g.getChildren().remove(edge);
+        final Rectangle[] more = addManyRectangles(g);
+        assertBounds(g.getBoundsInLocal(), 100, 100, 100, 100);
+
+        more[5].setX(-10);
+        assertBounds(g.getBoundsInLocal(), -10, 100, 210, 100);
+
+        g.getChildren().clear();
+        assertTrue(g.getBoundsInLocal().isEmpty());
+    }
 }
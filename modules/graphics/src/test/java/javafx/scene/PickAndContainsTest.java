@@ -226,5 +226,92 @@ public class PickAndContainsTest {
         assertFalse(r1.contains(pickX, pickY));
         assertFalse(r2.contains(pickX, pickY));
     }
-}
 
+    private static Rectangle[] createRectangleGrid(Parent parent, int columns, int rows) {
+        Rectangle[] rects = new Rectangle[columns * rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Rectangle rect = new Rectangle(c * 20, r * 20, 10, 10);
+                rect.setId("Rect " + c + "," + r);
+                rects[r * columns + c] = rect;
+            }
+        }
+        parent.getChildren().addAll(rects);
+        return rects;
+    }
+
+    @Test
+    public void testScenePickingManyChildren() {
+        Group root = new Group();
+        Rectangle[] rects = createRectangleGrid(root, 30, 30);
+        assertTrue(rects.length >= Parent.PICK_GRID_THRESHOLD);
+        Scene scene = new Scene(root);
+
+        assertSame(rects[0], scene.test_pick(5, 5));
+        assertSame(rects[3 * 30 + 7], scene.test_pick(7 * 20 + 9.5, 3 * 20 + 0.5));
+        assertSame(rects[29 * 30 + 29], scene.test_pick(29 * 20 + 5, 29 * 20 + 5));
+        assertNull(scene.test_pick(15, 5));
+        assertNull(scene.test_pick(5 * 20 + 12, 8 * 20 + 12));
+        assertNull(scene.test_pick(700, 700));
+    }
+
+    @Test
+    public void testScenePickingManyChildrenTopmostWins() {
+        Group root = new Group();
+        Rectangle[] rects = createRectangleGrid(root, 30, 30);
+        Rectangle cover = new Rectangle(0, 0, 100, 100);
+        root.getChildren().add(cover);
+        Scene scene = new Scene(root);
+
+        assertSame(cover, scene.test_pick(5, 5));
+        assertSame(rects[6 * 30 + 6], scene.test_pick(125, 125));
+
+        cover.toBack();
+        assertSame(rects[0], scene.test_pick(5, 5));
+        assertSame(cover, scene.test_pick(15, 5));
+    }
+
+    @Test
+    public void testScenePickingManyChildrenAfterChanges() {
+        Group root = new Group();
+        Rectangle[] rects = createRectangleGrid(root, 30, 30);
+        Scene scene = new Scene(root);
+
+        assertSame(rects[0], scene.test_pick(5, 5));
+
+        // moved within the area covered by the children
+        rects[0].setX(310);
+        rects[0].setY(310);
+        assertNull(scene.test_pick(5, 5));
+        assertSame(rects[0], scene.test_pick(315, 315));
+
+        // moved outside of it
+        rects[1].setTranslateX(1000);
+        assertNull(scene.test_pick(25, 5));
+        assertSame(rects[1], scene.test_pick(1025, 5));
+
+        rects[2].setVisible(false);
+        assertNull(scene.test_pick(45, 5));
+        rects[2].setVisible(true);
+        assertSame(rects[2], scene.test_pick(45, 5));
+
+        rects[3].setWidth(40);
+        assertSame(rects[4], scene.test_pick(85, 5));
+        assertSame(rects[3], scene.test_pick(75, 5));
+
+        root.getChildren().remove(rects[4]);
+        assertSame(rects[3], scene.test_pick(85, 5));
+    }
+
+    @Test
+    public void testScenePickingManyChildrenOfRegion() {
+        javafx.scene.layout.Pane root = new javafx.scene.layout.Pane();
+        Rectangle[] rects = createRectangleGrid(root, 30, 30);
+        Scene scene = new Scene(root, 600, 600);
+
+        assertSame(rects[2 * 30 + 5], scene.test_pick(5 * 20 + 5, 2 * 20 + 5));
+        assertSame(root, scene.test_pick(5 * 20 + 15, 2 * 20 + 5));
+        rects[2 * 30 + 5].setMouseTransparent(true);
+        assertSame(root, scene.test_pick(5 * 20 + 5, 2 * 20 + 5));
+    }
+}
@@ -1233,4 +1233,70 @@ public class RegionTest {
         r.impl_syncPeer();
         assertFalse(peer.isClean());
     }
+
+    private Region createFixedSizeChildOf(Pane root, Region content) {
+        StackPane fixed = new StackPane(content);
+        fixed.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        fixed.setPrefSize(100, 100);
+        fixed.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        root.getChildren().add(fixed);
+        root.layout();
+        return fixed;
+    }
+
+    @Test public void testLayoutRequestStopsAtFixedSizeRegion() {
+        final boolean enabled = Region.fixedSizeLayoutBoundaries;
+        Region.fixedSizeLayoutBoundaries = true;
+        try {
+            Pane root = new Pane();
+            Region content = new Region();
+            Region fixed = createFixedSizeChildOf(root, content);
+            assertFalse(root.isNeedsLayout());
+
+            content.requestLayout();
+            assertTrue(fixed.isNeedsLayout());
+            assertFalse(root.isNeedsLayout());
+
+            root.layout();
+            assertFalse(fixed.isNeedsLayout());
+
+            // a change to the size hints of the fixed size region still goes to the parent
+            fixed.setPrefWidth(50);
+            assertTrue(root.isNeedsLayout());
+        } finally {
+            Region.fixedSizeLayoutBoundaries = enabled;
+        }
+    }
+
+    @Test public void testLayoutRequestGoesThroughComputedSizeRegion() {
+        final boolean enabled = Region.fixedSizeLayoutBoundaries;
+        Region.fixedSizeLayoutBoundaries = true;
+        try {
+            Pane root = new Pane();
+            Region content = new Region();
+            Region fixed = createFixedSizeChildOf(root, content);
+            fixed.setMaxHeight(Region.USE_COMPUTED_SIZE);
+            root.layout();
+
+            content.requestLayout();
+            assertTrue(root.isNeedsLayout());
+        } finally {
+            Region.fixedSizeLayoutBoundaries = enabled;
+        }
+    }
+
+    @Test public void testFixedSizeRegionIsNotLayoutBoundaryByDefault() {
+        final boolean enabled = Region.fixedSizeLayoutBoundaries;
+        Region.fixedSizeLayoutBoundaries = false;
+        try {
+            Pane root = new Pane();
+            Region content = new Region();
+            createFixedSizeChildOf(root, content);
+
+            content.requestLayout();
+            assertTrue(root.isNeedsLayout());
+        } finally {
+            Region.fixedSizeLayoutBoundaries = enabled;
+        }
+    }
 }
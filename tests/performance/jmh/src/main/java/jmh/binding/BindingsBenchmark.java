@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.binding;
+
+import java.util.concurrent.TimeUnit;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.binding.DoubleExpression;
+import javafx.beans.binding.FusedExpression;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures invalidating and re-evaluating bindings: a chain of arithmetic
+ * bindings built with the fluent API, the same formula compiled into one
+ * binding by {@link FusedExpression}, and a fan-out of {@link Bindings}
+ * bindings that all depend on the same property.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingsBenchmark {
+
+    @Param({"10", "1000"})
+    public int count;
+
+    private DoubleProperty chainSource;
+    private DoubleExpression chainEnd;
+    private DoubleProperty fusedSource;
+    private DoubleBinding fused;
+    private DoubleProperty fanOutSource;
+    private DoubleBinding[] fanOut;
+    private double value;
+
+    @Setup
+    public void setup() {
+        chainSource = new SimpleDoubleProperty(1);
+        DoubleExpression e = chainSource;
+        for (int i = 0; i < count; i++) {
+            e = (i % 2 == 0) ? e.add(1) : e.multiply(0.5);
+        }
+        chainEnd = e;
+
+        fusedSource = new SimpleDoubleProperty(1);
+        FusedExpression f = FusedExpression.of(fusedSource);
+        for (int i = 0; i < count; i++) {
+            f = (i % 2 == 0) ? f.add(1) : f.multiply(0.5);
+        }
+        fused = f.toBinding();
+
+        fanOutSource = new SimpleDoubleProperty(1);
+        fanOut = new DoubleBinding[count];
+        for (int i = 0; i < count; i++) {
+            fanOut[i] = Bindings.max(fanOutSource, (double) i);
+        }
+    }
+
+    @Benchmark
+    public double chain() {
+        value += 1;
+        chainSource.set(value);
+        return chainEnd.get();
+    }
+
+    @Benchmark
+    public double fusedChain() {
+        value += 1;
+        fusedSource.set(value);
+        return fused.get();
+    }
+
+    @Benchmark
+    public double fanOut() {
+        value += 1;
+        fanOutSource.set(value);
+        double sum = 0;
+        for (DoubleBinding b : fanOut) {
+            sum += b.get();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures firing list changes from an {@link ObservableList} created by
+ * {@link FXCollections} to a listener that walks every change, as a
+ * ListView or TableView skin would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListChangeBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObservableList<Integer> list;
+    private List<Integer> values;
+    private int changes;
+
+    @Setup
+    public void setup() {
+        values = new ArrayList<>(size);
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            values.add(random.nextInt());
+        }
+        list = FXCollections.observableArrayList(values);
+        list.addListener((ListChangeListener<Integer>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    changes += c.getTo() - c.getFrom();
+                } else {
+                    changes += c.getAddedSize() + c.getRemovedSize();
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public int addRemoveSingle() {
+        list.add(size / 2, 7);
+        list.remove(size / 2);
+        return changes;
+    }
+
+    @Benchmark
+    public int setAll() {
+        list.setAll(values);
+        return changes;
+    }
+
+    @Benchmark
+    public int sort() {
+        list.setAll(values);
+        FXCollections.sort(list);
+        return changes;
+    }
+
+    @Benchmark
+    public int removeEveryOther() {
+        list.setAll(values);
+        list.removeIf(i -> (i & 1) == 0);
+        return changes;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.collections;
+
+import java.util.concurrent.TimeUnit;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures dispatching a single change to the listeners of a property and of
+ * an observable list. The benchmark VM runs with
+ * {@code javafx.collections.reuseChanges} set, so none of the benchmarks
+ * should allocate; run it with the gc profiler and check that
+ * gc.alloc.rate.norm stays at (close to) 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djavafx.collections.reuseChanges=true")
+@State(Scope.Thread)
+public class ListenerDispatchBenchmark {
+
+    private static final String A = "a";
+    private static final String B = "b";
+
+    private ObjectProperty<String> property;
+    private ObservableList<String> list;
+    private int notifications;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        property = new SimpleObjectProperty<>(A);
+        // more than one listener, so that the generic helper is used
+        property.addListener((InvalidationListener) o -> notifications++);
+        property.addListener((ChangeListener<String>) (o, oldValue, newValue) -> notifications++);
+        property.addListener((ChangeListener<String>) (o, oldValue, newValue) -> notifications++);
+
+        list = FXCollections.observableArrayList(A, B, A, B);
+        list.addListener((InvalidationListener) o -> notifications++);
+        list.addListener((ListChangeListener<String>) c -> {
+            while (c.next()) {
+                notifications += c.getAddedSize() + c.getRemovedSize();
+            }
+        });
+    }
+
+    private String next() {
+        flip = !flip;
+        return flip ? A : B;
+    }
+
+    @Benchmark
+    public int propertySet() {
+        property.set(next());
+        return notifications;
+    }
+
+    @Benchmark
+    public int listSet() {
+        list.set(1, next());
+        return notifications;
+    }
+
+    @Benchmark
+    public int listAddRemove() {
+        list.add(next());
+        list.remove(list.size() - 1);
+        return notifications;
+    }
+}
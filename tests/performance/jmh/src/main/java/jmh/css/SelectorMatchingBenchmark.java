@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.css;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javafx.css.PseudoClass;
+import javafx.css.Styleable;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import com.sun.javafx.css.PseudoClassState;
+import com.sun.javafx.css.StyleManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures StyleManager.findMatchingStyles against modena.css for the cells
+ * of a table-like tree, which is what dominates restyling a large TableView
+ * after a theme change. The selectors for each cell are already cached, so
+ * the benchmark measures matching the candidate selectors against the cell
+ * and its ancestors.
+ * <p>
+ * Requires -Djavafx.toolkit=com.sun.javafx.pgstub.StubToolkit, which the
+ * jmh task passes to the benchmark VMs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectorMatchingBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private static final int COLUMNS = 10;
+
+    private final List<Node> cells = new ArrayList<>();
+    private final List<Set<PseudoClass>[]> triggerStates = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        StyleManager.getInstance().setDefaultUserAgentStylesheet(CSSParserBenchmark.MODENA);
+
+        StackPane root = new StackPane();
+        root.getStyleClass().add("table-view");
+        VBox flow = new VBox();
+        flow.getStyleClass().add("virtual-flow");
+        StackPane clippedContainer = new StackPane();
+        clippedContainer.getStyleClass().add("clipped-container");
+        VBox sheet = new VBox();
+        sheet.getStyleClass().add("sheet");
+
+        for (int r = 0; r < rows; r++) {
+            HBox row = new HBox();
+            row.getStyleClass().addAll("cell", "indexed-cell", "table-row-cell");
+            for (int c = 0; c < COLUMNS; c++) {
+                Label cell = new Label("Cell " + r + "," + c);
+                cell.getStyleClass().addAll("cell", "indexed-cell", "table-cell");
+                row.getChildren().add(cell);
+                cells.add(cell);
+            }
+            sheet.getChildren().add(row);
+        }
+        clippedContainer.getChildren().add(sheet);
+        flow.getChildren().add(clippedContainer);
+        root.getChildren().add(flow);
+        new Scene(root);
+        root.applyCss();
+
+        for (Node cell : cells) {
+            int depth = 0;
+            for (Styleable s = cell; s != null; s = s.getStyleableParent()) {
+                depth++;
+            }
+            triggerStates.add(new PseudoClassState[depth]);
+        }
+    }
+
+    @Benchmark
+    public int matchCells() {
+        final StyleManager styleManager = StyleManager.getInstance();
+        int n = 0;
+        for (int i = 0, max = cells.size(); i < max; i++) {
+            final Node cell = cells.get(i);
+            n += styleManager.findMatchingStyles(cell, null, triggerStates.get(i)).getId();
+        }
+        return n;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.css;
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.FlowPane;
+import com.sun.javafx.css.StyleManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures applying modena.css to a tree of controls through StyleManager
+ * and CssStyleHelper: once for a freshly created tree, which includes
+ * creating skins and looking up the style maps, and once for an existing
+ * tree after a style class change on its root forces every node to be
+ * restyled.
+ * <p>
+ * Requires -Djavafx.toolkit=com.sun.javafx.pgstub.StubToolkit, which the
+ * jmh task passes to the benchmark VMs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StyleApplicationBenchmark {
+
+    @Param({"100", "1000"})
+    public int controls;
+
+    private FlowPane root;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        StyleManager.getInstance().setDefaultUserAgentStylesheet(CSSParserBenchmark.MODENA);
+        root = createTree();
+        new Scene(root);
+        root.applyCss();
+    }
+
+    private FlowPane createTree() {
+        FlowPane pane = new FlowPane();
+        for (int i = 0; i < controls; i++) {
+            Node n;
+            switch (i % 4) {
+                case 0: n = new Button("Button " + i); break;
+                case 1: n = new Label("Label " + i); break;
+                case 2: n = new CheckBox("Check " + i); break;
+                default: n = new TextField("Text " + i); break;
+            }
+            pane.getChildren().add(n);
+        }
+        return pane;
+    }
+
+    @Benchmark
+    public FlowPane styleNewTree() {
+        FlowPane pane = createTree();
+        new Scene(pane);
+        pane.applyCss();
+        return pane;
+    }
+
+    @Benchmark
+    public FlowPane restyleTree() {
+        toggle = !toggle;
+        if (toggle) {
+            root.getStyleClass().add("benchmark");
+        } else {
+            root.getStyleClass().remove("benchmark");
+        }
+        root.applyCss();
+        return root;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.prism;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.PathIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building a {@link Path2D} out of line, quadratic and cubic
+ * segments, and iterating over the result, as done for every Path and
+ * SVGPath node whose geometry changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Path2DBenchmark {
+
+    @Param({"100", "10000"})
+    public int segments;
+
+    private float[] coords;
+    private Path2D path;
+
+    @Setup
+    public void setup() {
+        coords = new float[segments * 6];
+        Random random = new Random(42);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = random.nextFloat() * 1000f;
+        }
+        path = build();
+    }
+
+    private Path2D build() {
+        Path2D p = new Path2D();
+        float[] c = coords;
+        p.moveTo(c[0], c[1]);
+        for (int i = 0; i < segments; i++) {
+            int o = i * 6;
+            switch (i % 3) {
+                case 0:
+                    p.lineTo(c[o], c[o + 1]);
+                    break;
+                case 1:
+                    p.quadTo(c[o], c[o + 1], c[o + 2], c[o + 3]);
+                    break;
+                default:
+                    p.curveTo(c[o], c[o + 1], c[o + 2], c[o + 3], c[o + 4], c[o + 5]);
+                    break;
+            }
+        }
+        p.closePath();
+        return p;
+    }
+
+    @Benchmark
+    public Path2D buildPath() {
+        return build();
+    }
+
+    @Benchmark
+    public float iteratePath() {
+        float[] c = new float[6];
+        float sum = 0f;
+        PathIterator pi = path.getPathIterator(null);
+        while (!pi.isDone()) {
+            pi.currentSegment(c);
+            sum += c[0];
+            pi.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object bounds() {
+        return path.getBounds();
+    }
+}
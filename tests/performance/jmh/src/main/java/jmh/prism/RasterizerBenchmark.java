@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.prism;
+
+import java.util.concurrent.TimeUnit;
+import com.sun.javafx.geom.Ellipse2D;
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.openpisces.AlphaConsumer;
+import com.sun.openpisces.Renderer;
+import com.sun.pisces.JavaSurface;
+import com.sun.pisces.PiscesRenderer;
+import com.sun.pisces.RendererBase;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.shape.OpenPiscesPrismUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the OpenPisces rasterizer filling and stroking shapes into a
+ * {@link JavaSurface}, which is the inner loop of the SW pipeline.  The
+ * alphas produced by the {@link Renderer} are blended into the surface the
+ * same way as the SW pipeline does it, one row at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RasterizerBenchmark {
+
+    private static final int SIZE = 512;
+
+    @Param({"ellipse", "star"})
+    public String shape;
+
+    @Param({"true", "false"})
+    public boolean antialiased;
+
+    private final Rectangle clip = new Rectangle(0, 0, SIZE, SIZE);
+    private final BasicStroke stroke = new BasicStroke(3f, BasicStroke.CAP_ROUND,
+                                                       BasicStroke.JOIN_ROUND, 10f);
+    private final OpenPiscesPrismUtils.RendererState rendererState =
+            new OpenPiscesPrismUtils.RendererState();
+    private final SurfaceConsumer consumer = new SurfaceConsumer();
+    private Shape geometry;
+    private PiscesRenderer pr;
+
+    @Setup
+    public void setup() {
+        if ("ellipse".equals(shape)) {
+            geometry = new Ellipse2D(8, 8, SIZE - 16, SIZE - 16);
+        } else {
+            // a 64-point star, with many edges crossing each scanline
+            Path2D p = new Path2D();
+            int points = 64;
+            float c = SIZE / 2f;
+            for (int i = 0; i < points * 2; i++) {
+                double angle = Math.PI * i / points;
+                float r = (i % 2 == 0) ? c - 8 : c / 3;
+                float x = c + (float) (Math.cos(angle) * r);
+                float y = c + (float) (Math.sin(angle) * r);
+                if (i == 0) {
+                    p.moveTo(x, y);
+                } else {
+                    p.lineTo(x, y);
+                }
+            }
+            p.closePath();
+            geometry = p;
+        }
+        JavaSurface surface = new JavaSurface(new int[SIZE * SIZE],
+                                              RendererBase.TYPE_INT_ARGB_PRE, SIZE, SIZE);
+        pr = new PiscesRenderer(surface);
+        pr.setColor(32, 96, 192, 200);
+        pr.setClip(0, 0, SIZE, SIZE);
+    }
+
+    @Benchmark
+    public PiscesRenderer fill() {
+        Renderer r = rendererState.setupRenderer(geometry, null, BaseTransform.IDENTITY_TRANSFORM,
+                                                 clip, antialiased);
+        consumer.init(r, pr);
+        r.produceAlphas(consumer);
+        return pr;
+    }
+
+    @Benchmark
+    public PiscesRenderer stroke() {
+        Renderer r = rendererState.setupRenderer(geometry, stroke, BaseTransform.IDENTITY_TRANSFORM,
+                                                 clip, antialiased);
+        consumer.init(r, pr);
+        r.produceAlphas(consumer);
+        return pr;
+    }
+
+    private static final class SurfaceConsumer implements AlphaConsumer {
+        private byte alphaMap[];
+        private int x, y, w, h;
+        private int rowNum;
+        private PiscesRenderer pr;
+
+        void init(Renderer renderer, PiscesRenderer pr) {
+            x = renderer.getOutpixMinX();
+            y = renderer.getOutpixMinY();
+            w = Math.max(0, renderer.getOutpixMaxX() - x);
+            h = Math.max(0, renderer.getOutpixMaxY() - y);
+            rowNum = 0;
+            this.pr = pr;
+        }
+
+        @Override public int getOriginX() { return x; }
+        @Override public int getOriginY() { return y; }
+        @Override public int getWidth() { return w; }
+        @Override public int getHeight() { return h; }
+
+        @Override
+        public void setMaxAlpha(int maxalpha) {
+            if (alphaMap == null || alphaMap.length != maxalpha + 1) {
+                alphaMap = new byte[maxalpha + 1];
+                for (int i = 0; i <= maxalpha; i++) {
+                    alphaMap[i] = (byte) ((i * 255 + maxalpha / 2) / maxalpha);
+                }
+            }
+        }
+
+        @Override
+        public void setAndClearRelativeAlphas(int[] alphaDeltas, int pix_y, int firstdelta, int lastdelta) {
+            pr.emitAndClearAlphaRow(alphaMap, alphaDeltas, pix_y, firstdelta, lastdelta, rowNum);
+            rowNum++;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.scene;
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code Parent.layout()} on a grid of regions laid out by a VBox
+ * of HBoxes: after resizing the root, which lays out every row and cell,
+ * and after changing the preferred size of a single cell, which only lays
+ * out the dirty branch.
+ * <p>
+ * Requires -Djavafx.toolkit=com.sun.javafx.pgstub.StubToolkit, which the
+ * jmh task passes to the benchmark VMs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LayoutBenchmark {
+
+    @Param({"10", "100"})
+    public int rows;
+
+    @Param({"10", "100"})
+    public int columns;
+
+    private VBox root;
+    private Region cell;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        root = new VBox();
+        for (int r = 0; r < rows; r++) {
+            HBox row = new HBox();
+            for (int c = 0; c < columns; c++) {
+                Region region = new Region();
+                region.setPrefSize(20, 20);
+                HBox.setHgrow(region, Priority.ALWAYS);
+                row.getChildren().add(region);
+            }
+            root.getChildren().add(row);
+        }
+        cell = (Region) ((HBox) root.getChildren().get(rows / 2)).getChildren().get(columns / 2);
+        root.resize(columns * 30, rows * 20);
+        root.layout();
+    }
+
+    @Benchmark
+    public VBox resizeRoot() {
+        toggle = !toggle;
+        root.resize(columns * 30 + (toggle ? 1 : 0), rows * 20);
+        root.layout();
+        return root;
+    }
+
+    @Benchmark
+    public VBox changeCell() {
+        toggle = !toggle;
+        cell.setPrefWidth(toggle ? 21 : 20);
+        root.layout();
+        return root;
+    }
+}
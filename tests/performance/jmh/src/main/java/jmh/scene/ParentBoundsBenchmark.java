@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jmh.scene;
+
+import java.util.concurrent.TimeUnit;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.shape.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the bounds of a scatter plot like {@code Group} with a very large
+ * number of children after moving the child on the left edge, adding and
+ * removing a child on the edge, and adding a small series of points.
+ * <p>
+ * Requires -Djavafx.toolkit=com.sun.javafx.pgstub.StubToolkit, which the
+ * jmh task passes to the benchmark VMs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class ParentBoundsBenchmark {
+
+    private static final int SERIES_SIZE = 100;
+
+    @Param({"100000", "1000000"})
+    public int children;
+
+    private Group group;
+    private Rectangle edge;
+    private Rectangle extra;
+    private Node[] series;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        group = new Group();
+        final Node[] points = new Node[children];
+        for (int i = 0; i < children; i++) {
+            points[i] = new Rectangle(10 + (i * 7919) % 1000, 10 + (i * 104729) % 1000, 2, 2);
+        }
+        group.getChildren().addAll(points);
+        edge = new Rectangle(0, 500, 2, 2);
+        group.getChildren().add(edge);
+        extra = new Rectangle(2000, 500, 2, 2);
+        series = new Node[SERIES_SIZE];
+        for (int i = 0; i < SERIES_SIZE; i++) {
+            series[i] = new Rectangle(5 + i * 10, 1015, 2, 2);
+        }
+        group.getBoundsInLocal();
+    }
+
+    @Benchmark
+    public Bounds moveEdgeChild() {
+        toggle = !toggle;
+        edge.setX(toggle ? 500 : 0);
+        return group.getBoundsInLocal();
+    }
+
+    @Benchmark
+    public Bounds addRemoveEdgeChild() {
+        toggle = !toggle;
+        if (toggle) {
+            group.getChildren().add(extra);
+        } else {
+            group.getChildren().remove(group.getChildren().size() - 1);
+        }
+        return group.getBoundsInLocal();
+    }
+
+    @Benchmark
+    public Bounds addRemoveSeries() {
+        toggle = !toggle;
+        if (toggle) {
+            group.getChildren().addAll(series);
+        } else {
+            final int size = group.getChildren().size();
+            group.getChildren().remove(size - SERIES_SIZE, size);
+        }
+        return group.getBoundsInLocal();
+    }
+}